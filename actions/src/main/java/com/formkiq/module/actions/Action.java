@@ -30,6 +30,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.DbKeys;
@@ -43,6 +44,11 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
  */
 public class Action implements DynamodbRecord<Action>, DbKeys {
 
+  /** Attributes read by {@link #getFromAttributes(String, Map)}, for projected reads. */
+  public static final List<String> ATTRIBUTES = List.of("documentId", "userId", "message",
+      "queueId", "leaseOwner", "workflowId", "workflowLastStep", "workflowStepId", "status", "type",
+      "parameters", "metadata", "inserteddate", "completedDate", "startDate", "leaseExpiry");
+
   /** Record Completed date. */
   @Reflectable
   private Date completedDate;
@@ -55,6 +61,12 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
   /** Record inserted date. */
   @Reflectable
   private Date insertedDate;
+  /** Queue Lease Expiry date. */
+  @Reflectable
+  private Date leaseExpiry;
+  /** Queue Lease Owner. */
+  @Reflectable
+  private String leaseOwner;
   /** Action Message. */
   @Reflectable
   private String message;
@@ -177,6 +189,11 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
       attrs.put("startDate", AttributeValue.fromS(df.format(this.startDate)));
     }
 
+    if (this.leaseExpiry != null) {
+      attrs.put("leaseExpiry", AttributeValue.fromS(df.format(this.leaseExpiry)));
+    }
+
+    addS(attrs, "leaseOwner", this.leaseOwner);
     addS(attrs, "message", this.message);
     addS(attrs, "queueId", this.queueId);
     addS(attrs, "workflowId", this.workflowId);
@@ -207,6 +224,7 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
 
     Action record = new Action().documentId(ss(attrs, "documentId")).userId(ss(attrs, "userId"))
         .message(ss(attrs, "message")).queueId(ss(attrs, "queueId"))
+        .leaseOwner(ss(attrs, "leaseOwner"))
         .workflowId(ss(attrs, "workflowId")).workflowLastStep(ss(attrs, "workflowLastStep"))
         .workflowStepId(ss(attrs, "workflowStepId"));
 
@@ -237,6 +255,7 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
     record = record.insertedDate(getDate(df, attrs, "inserteddate"));
     record = record.completedDate(getDate(df, attrs, "completedDate"));
     record = record.startDate(getDate(df, attrs, "startDate"));
+    record = record.leaseExpiry(getDate(df, attrs, "leaseExpiry"));
 
     return record;
   }
@@ -281,6 +300,46 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
     return this;
   }
 
+  /**
+   * Get Queue Lease Expiry Date.
+   * 
+   * @return {@link Date}
+   */
+  public Date leaseExpiry() {
+    return this.leaseExpiry;
+  }
+
+  /**
+   * Set Queue Lease Expiry Date.
+   * 
+   * @param date {@link Date}
+   * @return {@link Action}
+   */
+  public Action leaseExpiry(final Date date) {
+    this.leaseExpiry = date;
+    return this;
+  }
+
+  /**
+   * Get Queue Lease Owner.
+   * 
+   * @return {@link String}
+   */
+  public String leaseOwner() {
+    return this.leaseOwner;
+  }
+
+  /**
+   * Set Queue Lease Owner.
+   * 
+   * @param owner {@link String}
+   * @return {@link Action}
+   */
+  public Action leaseOwner(final String owner) {
+    this.leaseOwner = owner;
+    return this;
+  }
+
   /**
    * Get Action Message.
    * 
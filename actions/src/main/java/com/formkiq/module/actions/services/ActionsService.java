@@ -23,6 +23,7 @@
  */
 package com.formkiq.module.actions.services;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import com.formkiq.aws.dynamodb.PaginationResults;
@@ -37,6 +38,31 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
  */
 public interface ActionsService {
 
+  /**
+   * Claim the next {@link Action} in a Queue, leasing it to the worker. A leased {@link Action} is
+   * not returned to other workers until the lease expires or is released.
+   * 
+   * @param siteId {@link String}
+   * @param queueName {@link String}
+   * @param workerId {@link String}
+   * @param leaseDuration {@link Duration}
+   * @return {@link Action}, null if no {@link Action} is available
+   */
+  Action claimNext(String siteId, String queueName, String workerId, Duration leaseDuration);
+
+  /**
+   * Claim up to limit {@link Action} in a Queue, leasing them to the worker.
+   * 
+   * @param siteId {@link String}
+   * @param queueName {@link String}
+   * @param workerId {@link String}
+   * @param leaseDuration {@link Duration}
+   * @param limit int
+   * @return {@link List} {@link Action}
+   */
+  List<Action> claimNext(String siteId, String queueName, String workerId, Duration leaseDuration,
+      int limit);
+
   /**
    * Delete Document Actions.
    * 
@@ -98,17 +124,29 @@ public interface ActionsService {
   boolean hasActions(String siteId, String documentId);
 
   /**
-   * Insert {@link Action}.
+   * Insert {@link Action} before the current {@link Action}, re-indexing the following actions.
    * 
    * @param siteId {@link String}
    * @param documentId {@link String}
    * @param actions {@link List} {@link Action}
    * @param currentAction {@link Action}
    * @param insertedAction {@link Action}
+   * @return {@link List} {@link Action} updated actions, in order
    */
-  void insertBeforeAction(String siteId, String documentId, List<Action> actions,
+  List<Action> insertBeforeAction(String siteId, String documentId, List<Action> actions,
       Action currentAction, Action insertedAction);
 
+  /**
+   * Release a Queue {@link Action} lease held by the worker, making the {@link Action} available
+   * to other workers.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link Action}
+   * @param workerId {@link String}
+   * @return boolean whether the lease was released
+   */
+  boolean releaseLease(String siteId, Action action, String workerId);
+
   /**
    * Save {@link Action}.
    * 
@@ -155,6 +193,19 @@ public interface ActionsService {
    */
   void updateActionStatus(String siteId, String documentId, Action action);
 
+  /**
+   * Update {@link Action} {@link ActionStatus}, only if the stored {@link ActionStatus} is still
+   * the expected status.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param action {@link Action}
+   * @param expectedStatus {@link ActionStatus}
+   * @return boolean whether the status was updated
+   */
+  boolean updateActionStatus(String siteId, String documentId, Action action,
+      ActionStatus expectedStatus);
+
   /**
    * Update Document Workflow Status.
    * 
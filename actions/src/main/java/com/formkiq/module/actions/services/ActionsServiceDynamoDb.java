@@ -27,14 +27,18 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.AttributeValuesToWriteRequests;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
@@ -44,6 +48,7 @@ import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.ProjectionExpression;
 import com.formkiq.aws.dynamodb.QueryConfig;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
@@ -58,11 +63,18 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeAction;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest.Builder;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 /**
@@ -72,6 +84,11 @@ import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
  */
 public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
 
+  /** Number of queued actions read per claim attempt. */
+  private static final int CLAIM_PAGE_SIZE = 25;
+  /** Maximum number of items in a DynamoDB transaction. */
+  private static final int MAX_TRANSACTION_ITEMS = 100;
+
   /** {@link DynamoDbService}. */
   private DynamoDbService db;
   /** {@link DynamoDbClient}. */
@@ -97,6 +114,145 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     this.db = new DynamoDbServiceImpl(this.dbClient, documentsTable);
   }
 
+  /**
+   * Claim Queue {@link Action}, if it is still in the queue and not leased to another worker.
+   * 
+   * @param siteId {@link String}
+   * @param key {@link Map}
+   * @param workerId {@link String}
+   * @param leaseDuration {@link Duration}
+   * @return {@link Action}, null if the {@link Action} could not be claimed
+   */
+  private Action claim(final String siteId, final Map<String, AttributeValue> key,
+      final String workerId, final Duration leaseDuration) {
+
+    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
+    Date now = new Date();
+    Date expiry = new Date(now.getTime() + leaseDuration.toMillis());
+
+    Map<String, String> names = Map.of("#status", "status", "#leaseOwner", "leaseOwner",
+        "#leaseExpiry", "leaseExpiry");
+    Map<String, AttributeValue> values =
+        Map.of(":status", fromS(ActionStatus.IN_QUEUE.name()), ":now", fromS(df.format(now)),
+            ":owner", fromS(workerId), ":expiry", fromS(df.format(expiry)));
+
+    UpdateItemRequest request = UpdateItemRequest.builder().tableName(this.documentTableName)
+        .key(key).updateExpression("SET #leaseOwner = :owner, #leaseExpiry = :expiry")
+        .conditionExpression("#status = :status and "
+            + "(attribute_not_exists(#leaseExpiry) or #leaseExpiry < :now)")
+        .expressionAttributeNames(names).expressionAttributeValues(values)
+        .returnValues(ReturnValue.ALL_NEW).build();
+
+    Map<String, AttributeValue> attrs = conditionalUpdate(request);
+    return attrs != null ? new Action().getFromAttributes(siteId, attrs) : null;
+  }
+
+  @Override
+  public Action claimNext(final String siteId, final String queueName, final String workerId,
+      final Duration leaseDuration) {
+    List<Action> actions = claimNext(siteId, queueName, workerId, leaseDuration, 1);
+    return !actions.isEmpty() ? actions.get(0) : null;
+  }
+
+  @Override
+  public List<Action> claimNext(final String siteId, final String queueName,
+      final String workerId, final Duration leaseDuration, final int limit) {
+
+    String pk = createDatabaseKey(siteId, "action#" + ActionType.QUEUE + "#" + queueName);
+    String sk = "action#";
+    QueryConfig config = new QueryConfig().indexName(GSI1).scanIndexForward(Boolean.TRUE);
+
+    List<Action> claimed = new ArrayList<>();
+    Map<String, AttributeValue> startKey = null;
+    String now = DateUtil.getIsoDateFormatter().format(new Date());
+
+    do {
+
+      QueryResponse response =
+          this.db.queryBeginsWith(config, fromS(pk), fromS(sk), startKey, CLAIM_PAGE_SIZE);
+
+      // GSI1 does not project leaseExpiry, so it is read for the page in one projected batch
+      // and actions under a live lease are skipped without a conditional update; each worker
+      // tries the rest in a different order, so concurrent workers spread their claims instead
+      // of all contending for the first action
+      List<Map<String, AttributeValue>> candidates = findUnleased(response.items(), now);
+      Collections.shuffle(candidates);
+
+      Iterator<Map<String, AttributeValue>> itr = candidates.iterator();
+
+      while (claimed.size() < limit && itr.hasNext()) {
+        Map<String, AttributeValue> item = itr.next();
+        Action action = claim(siteId, item, workerId, leaseDuration);
+
+        if (action != null) {
+          claimed.add(action);
+        }
+      }
+
+      startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+          ? response.lastEvaluatedKey()
+          : null;
+
+    } while (claimed.size() < limit && startKey != null);
+
+    return claimed;
+  }
+
+  /**
+   * Find the keys of GSI1 items that are not under a live lease.
+   * 
+   * @param items {@link List} GSI1 items
+   * @param now {@link String} current time in ISO format
+   * @return {@link List} table keys
+   */
+  private List<Map<String, AttributeValue>> findUnleased(
+      final List<Map<String, AttributeValue>> items, final String now) {
+
+    List<Map<String, AttributeValue>> keys = items.stream()
+        .map(i -> Map.of(PK, i.get(PK), SK, i.get(SK))).collect(Collectors.toList());
+
+    Set<Map<String, AttributeValue>> leased = new HashSet<>();
+    if (!keys.isEmpty()) {
+      BatchGetConfig batchConfig = new BatchGetConfig().projection(List.of("leaseExpiry"));
+      this.db.getBatch(batchConfig, keys).stream().filter(i -> isLeased(i, now))
+          .map(i -> Map.of(PK, i.get(PK), SK, i.get(SK))).forEach(leased::add);
+    }
+
+    return keys.stream().filter(k -> !leased.contains(k)).collect(Collectors.toList());
+  }
+
+  /**
+   * Whether an item is under a lease that has not expired.
+   * 
+   * @param item {@link Map}
+   * @param now {@link String} current time in ISO format
+   * @return boolean
+   */
+  private boolean isLeased(final Map<String, AttributeValue> item, final String now) {
+    AttributeValue leaseExpiry = item.get("leaseExpiry");
+    return leaseExpiry != null && leaseExpiry.s() != null && leaseExpiry.s().compareTo(now) >= 0;
+  }
+
+  /**
+   * Run conditional update.
+   * 
+   * @param request {@link UpdateItemRequest}
+   * @return {@link Map} returned attributes, null if the condition failed
+   */
+  private Map<String, AttributeValue> conditionalUpdate(final UpdateItemRequest request) {
+
+    Map<String, AttributeValue> attrs = null;
+
+    try {
+      attrs = this.dbClient.updateItem(request).attributes();
+    } catch (ConditionalCheckFailedException e) {
+      // condition not met, nothing updated
+      attrs = null;
+    }
+
+    return attrs;
+  }
+
   private void deleteAction(final String siteId, final Action action) {
     String pk = action.pk(siteId);
     String sk = action.sk();
@@ -131,7 +287,8 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     Action action = null;
     if (!response.items().isEmpty()) {
       Map<String, AttributeValue> attrs = response.items().get(0);
-      attrs = this.db.get(attrs.get(PK), attrs.get(SK));
+      attrs = this.db.get(new QueryConfig().projection(Action.ATTRIBUTES), attrs.get(PK),
+          attrs.get(SK));
       action = new Action().getFromAttributes(siteId, attrs);
     }
 
@@ -142,7 +299,7 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
   public PaginationResults<Action> findDocumentsInQueue(final String siteId, final String queueName,
       final Map<String, AttributeValue> exclusiveStartKey, final int limit) {
 
-    BatchGetConfig batchConfig = new BatchGetConfig();
+    BatchGetConfig batchConfig = new BatchGetConfig().projection(Action.ATTRIBUTES);
     String pk = createDatabaseKey(siteId, "action#" + ActionType.QUEUE + "#" + queueName);
     String sk = "action#";
 
@@ -189,31 +346,66 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
 
   @Override
   public List<Action> getActions(final String siteId, final String documentId) {
-    return queryActions(siteId, documentId, null, null);
+    return queryActions(siteId, documentId, Action.ATTRIBUTES, null);
   }
 
   @Override
   public boolean hasActions(final String siteId, final String documentId) {
-    List<Action> actions = queryActions(siteId, documentId, Arrays.asList(PK), null);
+    List<Action> actions =
+        queryActions(siteId, documentId, Arrays.asList(PK, SK), Integer.valueOf(1));
     return !actions.isEmpty();
   }
 
   @Override
-  public void insertBeforeAction(final String siteId, final String documentId,
+  public List<Action> insertBeforeAction(final String siteId, final String documentId,
       final List<Action> actions, final Action currentAction, final Action insertedAction) {
 
     int pos = actions.indexOf(currentAction);
 
-    saveAction(siteId, documentId, insertedAction, pos);
+    List<Action> updated = new ArrayList<>(actions.subList(0, pos));
+    updated.add(insertedAction);
+    updated.addAll(actions.subList(pos, actions.size()));
 
-    for (int i = pos; i < actions.size(); i++) {
+    List<Map<String, AttributeValue>> deletes = new ArrayList<>();
+    for (Action action : actions.subList(pos, actions.size())) {
+      action.documentId(documentId);
+      deletes.add(Map.of(PK, fromS(action.pk(siteId)), SK, fromS(action.sk())));
+    }
 
-      Action action = actions.get(i);
-      deleteAction(siteId, action);
+    List<TransactWriteItem> puts = new ArrayList<>();
+    Set<Map<String, AttributeValue>> putKeys = new HashSet<>();
+
+    for (int i = pos; i < updated.size(); i++) {
+
+      Action action = updated.get(i);
+      action.documentId(documentId);
+      action.index("" + i);
+
+      if (action.insertedDate() == null) {
+        action.insertedDate(new Date());
+      }
 
-      pos++;
-      saveAction(siteId, documentId, action, pos);
+      Map<String, AttributeValue> item = action.getAttributes(siteId);
+      putKeys.add(Map.of(PK, item.get(PK), SK, item.get(SK)));
+      puts.add(TransactWriteItem.builder()
+          .put(Put.builder().tableName(this.documentTableName).item(item).build()).build());
     }
+
+    // puts are written before deletes, so a failure part way never loses an action
+    List<TransactWriteItem> items = new ArrayList<>(puts);
+    deletes.stream().filter(key -> !putKeys.contains(key))
+        .map(key -> TransactWriteItem.builder()
+            .delete(Delete.builder().tableName(this.documentTableName).key(key).build()).build())
+        .forEach(items::add);
+
+    for (int i = 0; i < items.size(); i += MAX_TRANSACTION_ITEMS) {
+      List<TransactWriteItem> chunk =
+          items.subList(i, Math.min(i + MAX_TRANSACTION_ITEMS, items.size()));
+      this.dbClient
+          .transactWriteItems(TransactWriteItemsRequest.builder().transactItems(chunk).build());
+    }
+
+    return updated;
   }
 
   /**
@@ -239,15 +431,9 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
         .keyConditionExpression(expression).expressionAttributeValues(values).limit(limit);
 
     if (!Objects.notNull(projectionExpression).isEmpty()) {
-
-      Map<String, String> names = new HashMap<>();
-      int i = 1;
-      for (String p : projectionExpression) {
-        names.put("#" + i, p);
-        i++;
-      }
-
-      q = q.projectionExpression(String.join(",", names.keySet())).expressionAttributeNames(names);
+      ProjectionExpression projection = new ProjectionExpression(projectionExpression);
+      q = q.projectionExpression(projection.projectionExpression())
+          .expressionAttributeNames(projection.expressionAttributeNames(null));
     }
 
     QueryResponse result = this.dbClient.query(q.build());
@@ -256,6 +442,27 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
         .sorted(new ActionIndexComparator()).collect(Collectors.toList());
   }
 
+  @Override
+  public boolean releaseLease(final String siteId, final Action action, final String workerId) {
+
+    Map<String, AttributeValue> key = Map.of(PK, fromS(action.pk(siteId)), SK, fromS(action.sk()));
+    Map<String, String> names = Map.of("#leaseOwner", "leaseOwner", "#leaseExpiry", "leaseExpiry");
+
+    UpdateItemRequest request = UpdateItemRequest.builder().tableName(this.documentTableName)
+        .key(key).updateExpression("REMOVE #leaseOwner, #leaseExpiry")
+        .conditionExpression("#leaseOwner = :owner").expressionAttributeNames(names)
+        .expressionAttributeValues(Map.of(":owner", fromS(workerId))).build();
+
+    boolean released = conditionalUpdate(request) != null;
+
+    if (released) {
+      action.leaseOwner(null);
+      action.leaseExpiry(null);
+    }
+
+    return released;
+  }
+
   @Override
   public void saveAction(final String siteId, final Action action) {
 
@@ -341,6 +548,12 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
   @Override
   public void updateActionStatus(final String siteId, final String documentId,
       final Action action) {
+    updateActionStatus(siteId, documentId, action, null);
+  }
+
+  @Override
+  public boolean updateActionStatus(final String siteId, final String documentId,
+      final Action action, final ActionStatus expectedStatus) {
 
     if (ActionStatus.COMPLETE.equals(action.status())
         || ActionStatus.FAILED.equals(action.status())) {
@@ -382,7 +595,60 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
       }
     }
 
-    this.db.updateItem(attrs.get(PK), attrs.get(SK), updates);
+    boolean updated = true;
+
+    if (expectedStatus != null) {
+      updated = updateItem(attrs.get(PK), attrs.get(SK), updates, expectedStatus);
+    } else {
+      this.db.updateItem(attrs.get(PK), attrs.get(SK), updates);
+    }
+
+    return updated;
+  }
+
+  /**
+   * Update {@link Action} record, if the stored status matches the expected {@link ActionStatus}.
+   * 
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @param updates {@link Map}
+   * @param expectedStatus {@link ActionStatus}
+   * @return boolean whether the record was updated
+   */
+  private boolean updateItem(final AttributeValue pk, final AttributeValue sk,
+      final Map<String, AttributeValueUpdate> updates, final ActionStatus expectedStatus) {
+
+    Map<String, String> names = new HashMap<>(Map.of("#status", "status"));
+    Map<String, AttributeValue> values =
+        new HashMap<>(Map.of(":expected", fromS(expectedStatus.name())));
+    List<String> sets = new ArrayList<>();
+    List<String> removes = new ArrayList<>();
+
+    int i = 0;
+    for (Map.Entry<String, AttributeValueUpdate> e : updates.entrySet()) {
+
+      String name = "#a" + i;
+      names.put(name, e.getKey());
+
+      if (AttributeAction.DELETE.equals(e.getValue().action())) {
+        removes.add(name);
+      } else {
+        values.put(":a" + i, e.getValue().value());
+        sets.add(name + " = :a" + i);
+      }
+
+      i++;
+    }
+
+    String expression = "SET " + String.join(",", sets)
+        + (removes.isEmpty() ? "" : " REMOVE " + String.join(",", removes));
+
+    UpdateItemRequest request = UpdateItemRequest.builder().tableName(this.documentTableName)
+        .key(Map.of(PK, pk, SK, sk)).updateExpression(expression)
+        .conditionExpression("#status = :expected").expressionAttributeNames(names)
+        .expressionAttributeValues(values).build();
+
+    return conditionalUpdate(request) != null;
   }
 
   @Override
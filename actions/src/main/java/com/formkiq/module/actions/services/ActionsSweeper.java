@@ -0,0 +1,247 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.actions.services;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
+import static com.formkiq.module.events.document.DocumentEventType.ACTIONS;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.PaginationToAttributeValue;
+import com.formkiq.module.actions.Action;
+import com.formkiq.module.actions.ActionStatus;
+import com.formkiq.module.events.EventService;
+import com.formkiq.module.events.document.DocumentEvent;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * 
+ * Finds RUNNING {@link Action} that were started longer ago than the stale duration (for example
+ * the Lambda processing them timed out), resets them to PENDING and re-publishes the document's
+ * ACTIONS event. Sites are swept concurrently and events are published in batches, at no more
+ * than the configured rate.
+ *
+ * <p>
+ * The stale duration must be longer than the longest an action can run, otherwise an action that
+ * is still running is started a second time.
+ * </p>
+ */
+public class ActionsSweeper {
+
+  /** {@link ExecutorService} for sweeping sites. */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+    Thread t = new Thread(r, "actions-sweeper");
+    t.setDaemon(true);
+    return t;
+  });
+  /** Documents read per page. */
+  private static final int PAGE_SIZE = 100;
+
+  /** {@link ActionsService}. */
+  private final ActionsService actionsService;
+  /** Events per batch. */
+  private final int batchSize;
+  /** {@link EventService}. */
+  private final EventService eventService;
+  /** Maximum events published per second. */
+  private final int eventsPerSecond;
+  /** Maximum actions reset per sweep. */
+  private final int maxActions;
+  /** Duration after which a RUNNING action is stale. */
+  private final Duration staleAfter;
+
+  /**
+   * constructor.
+   * 
+   * @param actions {@link ActionsService}
+   * @param events {@link EventService}
+   * @param staleDuration {@link Duration}
+   * @param eventsBatchSize int
+   * @param maxEventsPerSecond int
+   * @param maxActionsPerSweep int
+   */
+  public ActionsSweeper(final ActionsService actions, final EventService events,
+      final Duration staleDuration, final int eventsBatchSize, final int maxEventsPerSecond,
+      final int maxActionsPerSweep) {
+    this.actionsService = actions;
+    this.eventService = events;
+    this.staleAfter = staleDuration;
+    this.batchSize = eventsBatchSize;
+    this.eventsPerSecond = maxEventsPerSecond;
+    this.maxActions = maxActionsPerSweep;
+  }
+
+  /**
+   * Find stale RUNNING {@link Action} for a site and reset them.
+   * 
+   * @param siteId {@link String}
+   * @param staleDate {@link Date}
+   * @param budget {@link AtomicInteger} remaining actions that may be reset
+   * @return {@link List} {@link DocumentEvent} to publish
+   */
+  private List<DocumentEvent> findStale(final String siteId, final Date staleDate,
+      final AtomicInteger budget) {
+
+    List<DocumentEvent> events = new ArrayList<>();
+    Map<String, AttributeValue> startKey = null;
+
+    do {
+
+      PaginationResults<String> results = this.actionsService.findDocumentsWithStatus(siteId,
+          ActionStatus.RUNNING, startKey, PAGE_SIZE);
+
+      for (String documentId : results.getResults()) {
+
+        if (budget.getAndDecrement() > 0 && reset(siteId, documentId, staleDate)) {
+          events.add(new DocumentEvent().siteId(siteId != null ? siteId : DEFAULT_SITE_ID)
+              .documentId(documentId).type(ACTIONS));
+        } else {
+          budget.incrementAndGet();
+        }
+      }
+
+      startKey = new PaginationToAttributeValue().apply(results.getToken());
+
+    } while (startKey != null && budget.get() > 0);
+
+    return events;
+  }
+
+  /**
+   * Whether {@link Action} is RUNNING and was started before the stale date.
+   * 
+   * @param action {@link Action}
+   * @param staleDate {@link Date}
+   * @return boolean
+   */
+  private boolean isStale(final Action action, final Date staleDate) {
+    Date started = action.startDate() != null ? action.startDate() : action.insertedDate();
+    return ActionStatus.RUNNING.equals(action.status())
+        && (started == null || started.before(staleDate));
+  }
+
+  /**
+   * Publish {@link DocumentEvent} in batches, limited to the events per second.
+   * 
+   * @param events {@link List} {@link DocumentEvent}
+   * @throws InterruptedException InterruptedException
+   */
+  private void publish(final List<DocumentEvent> events) throws InterruptedException {
+
+    long batchNanos = TimeUnit.SECONDS.toNanos(this.batchSize) / this.eventsPerSecond;
+
+    for (int i = 0; i < events.size(); i += this.batchSize) {
+
+      long start = System.nanoTime();
+      this.eventService.beginBatch();
+
+      try {
+        for (DocumentEvent event : events.subList(i,
+            Math.min(i + this.batchSize, events.size()))) {
+          this.eventService.publish(event);
+        }
+      } finally {
+        this.eventService.flush();
+      }
+
+      long wait = batchNanos - (System.nanoTime() - start);
+      if (wait > 0 && i + this.batchSize < events.size()) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+    }
+  }
+
+  /**
+   * Reset stale RUNNING {@link Action} of a document to PENDING.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param staleDate {@link Date}
+   * @return boolean whether any {@link Action} was reset
+   */
+  private boolean reset(final String siteId, final String documentId, final Date staleDate) {
+
+    boolean reset = false;
+
+    for (Action action : this.actionsService.getActions(siteId, documentId)) {
+
+      if (isStale(action, staleDate)) {
+        action.status(ActionStatus.PENDING).message("reset stale RUNNING action");
+        reset |= this.actionsService.updateActionStatus(siteId, documentId, action,
+            ActionStatus.RUNNING);
+      }
+    }
+
+    return reset;
+  }
+
+  /**
+   * Sweep sites for stale RUNNING {@link Action}.
+   * 
+   * @param siteIds {@link Collection} {@link String}
+   * @return int number of documents whose actions were restarted
+   * @throws InterruptedException InterruptedException
+   */
+  public int sweep(final Collection<String> siteIds) throws InterruptedException {
+
+    Date staleDate = new Date(System.currentTimeMillis() - this.staleAfter.toMillis());
+    AtomicInteger budget = new AtomicInteger(this.maxActions);
+
+    List<CompletableFuture<List<DocumentEvent>>> futures = siteIds.stream()
+        .map(siteId -> CompletableFuture.supplyAsync(() -> findStale(siteId, staleDate, budget),
+            EXECUTOR))
+        .collect(Collectors.toList());
+
+    List<DocumentEvent> events = new ArrayList<>();
+    CompletionException error = null;
+
+    for (CompletableFuture<List<DocumentEvent>> future : futures) {
+      try {
+        events.addAll(future.join());
+      } catch (CompletionException e) {
+        error = e;
+      }
+    }
+
+    // documents already reset are published, even if another site failed
+    publish(events);
+
+    if (error != null) {
+      throw error;
+    }
+
+    return events.size();
+  }
+}
@@ -29,13 +29,20 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,6 +57,13 @@ import com.formkiq.stacks.dynamodb.DocumentServiceImpl;
 import com.formkiq.stacks.dynamodb.DocumentVersionServiceNoVersioning;
 import com.formkiq.testutils.aws.DynamoDbExtension;
 import com.formkiq.testutils.aws.DynamoDbTestServices;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 /** Unit Tests for {@link ActionsServiceDynamoDbTest}. */
@@ -99,6 +113,130 @@ public class ActionsServiceDynamoDbTest {
     }
   }
 
+  /**
+   * Claim Queue Actions with concurrent workers.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testClaimNext01() throws Exception {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 30;
+      final int workers = 4;
+      String queueName = "queue" + UUID.randomUUID();
+      Duration lease = Duration.ofMinutes(1);
+
+      for (int i = 0; i < count; i++) {
+        String documentId = UUID.randomUUID().toString();
+        Action action = new Action().type(ActionType.QUEUE).userId("joe").queueId(queueName);
+        service.saveNewActions(siteId, documentId, Arrays.asList(action));
+        action.status(ActionStatus.IN_QUEUE);
+        service.updateActionStatus(siteId, documentId, action);
+      }
+
+      List<String> claimed = Collections.synchronizedList(new ArrayList<>());
+      ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+      // when
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < workers; i++) {
+        String workerId = "worker" + i;
+        futures.add(executor.submit(() -> {
+          List<Action> actions = service.claimNext(siteId, queueName, workerId, lease, 2);
+          while (!actions.isEmpty()) {
+            actions.forEach(a -> claimed.add(a.documentId()));
+            actions = service.claimNext(siteId, queueName, workerId, lease, 2);
+          }
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+
+      // then
+      assertEquals(count, claimed.size());
+      assertEquals(count, new HashSet<>(claimed).size());
+      assertNull(service.claimNext(siteId, queueName, "worker0", lease));
+
+      // given
+      Action action = service.findActionInQueue(siteId, claimed.get(0), queueName);
+      assertTrue(action.leaseExpiry().after(new Date()));
+
+      // when
+      assertFalse(service.releaseLease(siteId, action, "unknown"));
+      boolean released = service.releaseLease(siteId, action, action.leaseOwner());
+
+      // then
+      assertTrue(released);
+      Action next = service.claimNext(siteId, queueName, "worker9", Duration.ZERO);
+      assertEquals(claimed.get(0), next.documentId());
+      assertEquals("worker9", next.leaseOwner());
+
+      // when
+      final long sleep = 1100;
+      Thread.sleep(sleep);
+      next = service.claimNext(siteId, queueName, "worker8", lease);
+
+      // then
+      assertEquals(claimed.get(0), next.documentId());
+      assertEquals("worker8", next.leaseOwner());
+    }
+  }
+
+  /**
+   * Claim Queue Actions skips live leases without updating them.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testClaimNext02() throws Exception {
+    // given
+    AtomicInteger updates = new AtomicInteger();
+    DynamoDbConnectionBuilder db = new DynamoDbConnectionBuilder(false)
+        .setRegion(Region.US_EAST_1)
+        .setCredentials(StaticCredentialsProvider
+            .create(AwsBasicCredentials.create("ACCESSKEY", "SECRETKEY")))
+        .setEndpointOverride(DynamoDbTestServices.getEndpoint())
+        .addExecutionInterceptor(new ExecutionInterceptor() {
+          @Override
+          public void beforeExecution(final Context.BeforeExecution context,
+              final ExecutionAttributes executionAttributes) {
+            if ("UpdateItem"
+                .equals(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))) {
+              updates.incrementAndGet();
+            }
+          }
+        });
+    ActionsService actionsService = new ActionsServiceDynamoDb(db, DOCUMENTS_TABLE);
+
+    final int count = 5;
+    String siteId = null;
+    String queueName = "queue" + UUID.randomUUID();
+    Duration lease = Duration.ofMinutes(1);
+
+    for (int i = 0; i < count; i++) {
+      String documentId = UUID.randomUUID().toString();
+      Action action = new Action().type(ActionType.QUEUE).userId("joe").queueId(queueName);
+      actionsService.saveNewActions(siteId, documentId, Arrays.asList(action));
+      action.status(ActionStatus.IN_QUEUE);
+      actionsService.updateActionStatus(siteId, documentId, action);
+    }
+
+    assertEquals(count, actionsService.claimNext(siteId, queueName, "worker0", lease, count)
+        .size());
+    updates.set(0);
+
+    // when
+    Action next = actionsService.claimNext(siteId, queueName, "worker1", lease);
+
+    // then
+    assertNull(next);
+    assertEquals(0, updates.get());
+  }
+
   /**
    * Test Delete Document & Document Actions.
    */
@@ -169,12 +307,19 @@ public class ActionsServiceDynamoDbTest {
       assertEquals(2, service.getActions(siteId, documentId).size());
 
       // when
-      service.insertBeforeAction(siteId, documentId, actions, action1, insertedAction);
+      List<Action> updated =
+          service.insertBeforeAction(siteId, documentId, actions, action1, insertedAction);
 
       // then
       final int expected = 3;
       List<Action> list = service.getActions(siteId, documentId);
       assertEquals(expected, list.size());
+      assertEquals(expected, updated.size());
+
+      for (int j = 0; j < expected; j++) {
+        assertEquals(list.get(j).type(), updated.get(j).type());
+        assertEquals(list.get(j).index(), updated.get(j).index());
+      }
 
       int i = 0;
       assertEquals(ActionType.DOCUMENTTAGGING, list.get(i).type());
@@ -336,6 +481,45 @@ public class ActionsServiceDynamoDbTest {
     }
   }
 
+  /**
+   * Conditional Update Action Status.
+   */
+  @Test
+  public void testUpdateActionStatus04() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      Action action0 = new Action().type(ActionType.OCR).userId("joe");
+      service.saveNewActions(siteId, documentId, Arrays.asList(action0));
+
+      action0.status(ActionStatus.RUNNING);
+
+      // when
+      boolean claim0 =
+          service.updateActionStatus(siteId, documentId, action0, ActionStatus.PENDING);
+      boolean claim1 =
+          service.updateActionStatus(siteId, documentId, action0, ActionStatus.PENDING);
+
+      // then
+      assertTrue(claim0);
+      assertFalse(claim1);
+      assertEquals(ActionStatus.RUNNING, service.getActions(siteId, documentId).get(0).status());
+
+      // given
+      action0.status(ActionStatus.COMPLETE);
+
+      // when
+      boolean complete =
+          service.updateActionStatus(siteId, documentId, action0, ActionStatus.RUNNING);
+
+      // then
+      assertTrue(complete);
+      Action result = service.getActions(siteId, documentId).get(0);
+      assertEquals(ActionStatus.COMPLETE, result.status());
+      assertNotNull(result.completedDate());
+    }
+  }
+
   /**
    * Update WAIT Action COMPLETE Status.
    */
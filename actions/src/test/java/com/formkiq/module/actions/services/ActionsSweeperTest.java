@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.actions.services;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.module.actions.Action;
+import com.formkiq.module.actions.ActionStatus;
+import com.formkiq.module.actions.ActionType;
+import com.formkiq.module.events.EventServiceMock;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+
+/**
+ * Unit Tests for {@link ActionsSweeper}.
+ */
+@ExtendWith(DynamoDbExtension.class)
+public class ActionsSweeperTest {
+
+  /** Batch Size. */
+  private static final int BATCH_SIZE = 10;
+  /** Events per second. */
+  private static final int EVENTS_PER_SECOND = 100;
+  /** Max Actions. */
+  private static final int MAX_ACTIONS = 100;
+  /** {@link ActionsService}. */
+  private static ActionsService service;
+
+  /**
+   * BeforeAll.
+   * 
+   * @throws Exception Exception
+   */
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    service =
+        new ActionsServiceDynamoDb(DynamoDbTestServices.getDynamoDbConnection(), DOCUMENTS_TABLE);
+  }
+
+  private String saveAction(final String siteId, final ActionStatus status) {
+    String documentId = UUID.randomUUID().toString();
+    Action action = new Action().type(ActionType.OCR).userId("joe");
+    service.saveNewActions(siteId, documentId, Arrays.asList(action));
+    action.status(status);
+    service.updateActionStatus(siteId, documentId, action);
+    return documentId;
+  }
+
+  /**
+   * Sweep stale RUNNING actions.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testSweep01() throws Exception {
+    // given
+    String siteId0 = UUID.randomUUID().toString();
+    String siteId1 = UUID.randomUUID().toString();
+    EventServiceMock events = new EventServiceMock();
+
+    String documentId0 = saveAction(siteId0, ActionStatus.RUNNING);
+    String documentId1 = saveAction(siteId1, ActionStatus.RUNNING);
+    String documentId2 = saveAction(siteId1, ActionStatus.PENDING);
+    List<String> siteIds = Arrays.asList(siteId0, siteId1);
+
+    // when
+    int fresh = new ActionsSweeper(service, events, Duration.ofMinutes(30), BATCH_SIZE,
+        EVENTS_PER_SECOND, MAX_ACTIONS).sweep(siteIds);
+
+    // then
+    assertEquals(0, fresh);
+    assertEquals(0, events.getDocumentEvents().size());
+
+    // when
+    int stale = new ActionsSweeper(service, events, Duration.ofMinutes(-1), BATCH_SIZE,
+        EVENTS_PER_SECOND, MAX_ACTIONS).sweep(siteIds);
+
+    // then
+    assertEquals(2, stale);
+    assertEquals(2, events.getDocumentEvents().size());
+    assertEquals("actions", events.getDocumentEvents().get(0).type());
+
+    for (String documentId : Arrays.asList(documentId0, documentId1, documentId2)) {
+      String siteId = documentId0.equals(documentId) ? siteId0 : siteId1;
+      assertEquals(ActionStatus.PENDING, service.getActions(siteId, documentId).get(0).status());
+    }
+
+    assertEquals(0, new ActionsSweeper(service, events, Duration.ofMinutes(-1), BATCH_SIZE,
+        EVENTS_PER_SECOND, MAX_ACTIONS).sweep(siteIds));
+  }
+
+  /**
+   * Sweep is limited to max actions.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testSweep02() throws Exception {
+    // given
+    final int count = 5;
+    final int maxActions = 3;
+    String siteId = UUID.randomUUID().toString();
+    EventServiceMock events = new EventServiceMock();
+
+    for (int i = 0; i < count; i++) {
+      saveAction(siteId, ActionStatus.RUNNING);
+    }
+
+    ActionsSweeper sweeper = new ActionsSweeper(service, events, Duration.ofMinutes(-1), 2,
+        EVENTS_PER_SECOND, maxActions);
+
+    // when
+    int first = sweeper.sweep(List.of(siteId));
+    int second = sweeper.sweep(List.of(siteId));
+
+    // then
+    assertEquals(maxActions, first);
+    assertEquals(count - maxActions, second);
+    assertEquals(count, events.getDocumentEvents().size());
+  }
+}
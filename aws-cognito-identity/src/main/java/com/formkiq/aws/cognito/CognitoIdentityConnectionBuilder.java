@@ -28,6 +28,7 @@ import java.net.URISyntaxException;
 import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentity.CognitoIdentityClient;
@@ -62,10 +63,6 @@ public class CognitoIdentityConnectionBuilder {
    */
   public CognitoIdentityConnectionBuilder(final String cognitoClientId,
       final String cognitoUserPoolId, final String cognitoIdentityPoolId) {
-
-    System.setProperty("software.amazon.awssdk.http.service.impl",
-        "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
-
     this.clientBuilder =
         CognitoIdentityClient.builder().httpClientBuilder(UrlConnectionHttpClient.builder())
             .credentialsProvider(AnonymousCredentialsProvider.create());
@@ -162,6 +159,17 @@ public class CognitoIdentityConnectionBuilder {
     return this;
   }
 
+  /**
+   * Set a shared {@link SdkHttpClient}, instead of the default url connection transport.
+   * 
+   * @param httpClient {@link SdkHttpClient}
+   * @return {@link CognitoIdentityConnectionBuilder}
+   */
+  public CognitoIdentityConnectionBuilder setHttpClient(final SdkHttpClient httpClient) {
+    this.clientBuilder = this.clientBuilder.httpClientBuilder(null).httpClient(httpClient);
+    return this;
+  }
+
   /**
    * Set Region.
    * 
@@ -28,6 +28,7 @@ import java.net.URISyntaxException;
 import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
@@ -59,13 +60,9 @@ public class CognitoIdentityProviderConnectionBuilder {
    */
   public CognitoIdentityProviderConnectionBuilder(final String cognitoClientId,
       final String cognitoUserPoolId) {
-
     this.clientId = cognitoClientId;
     this.userPoolId = cognitoUserPoolId;
 
-    System.setProperty("software.amazon.awssdk.http.service.impl",
-        "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
-
     this.providerBuilder =
         CognitoIdentityProviderClient.builder().httpClientBuilder(UrlConnectionHttpClient.builder())
             .credentialsProvider(AnonymousCredentialsProvider.create());
@@ -141,6 +138,17 @@ public class CognitoIdentityProviderConnectionBuilder {
     return this;
   }
 
+  /**
+   * Set a shared {@link SdkHttpClient}, instead of the default url connection transport.
+   * 
+   * @param httpClient {@link SdkHttpClient}
+   * @return {@link CognitoIdentityProviderConnectionBuilder}
+   */
+  public CognitoIdentityProviderConnectionBuilder setHttpClient(final SdkHttpClient httpClient) {
+    this.providerBuilder = this.providerBuilder.httpClientBuilder(null).httpClient(httpClient);
+    return this;
+  }
+
   /**
    * Set Region.
    * 
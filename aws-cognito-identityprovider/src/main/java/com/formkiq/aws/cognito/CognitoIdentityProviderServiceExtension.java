@@ -25,6 +25,7 @@ package com.formkiq.aws.cognito;
 
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
@@ -60,6 +61,12 @@ public class CognitoIdentityProviderServiceExtension
           new CognitoIdentityProviderConnectionBuilder(cognitoClientId, cognitoUserPoolId)
               .setRegion(serviceCache.region()).setCredentials(cred);
 
+      SdkHttpTransportBuilder transport =
+          SdkHttpTransportBuilder.fromEnvironment(serviceCache.environment());
+      if (transport != null) {
+        connection.setHttpClient(transport.build());
+      }
+
       this.service = new CognitoIdentityProviderService(connection);
     }
 
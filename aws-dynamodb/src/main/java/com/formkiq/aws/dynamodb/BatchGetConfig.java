@@ -23,6 +23,7 @@
  */
 package com.formkiq.aws.dynamodb;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -62,6 +63,20 @@ public class BatchGetConfig {
     return this;
   }
 
+  /**
+   * Only read the specified attributes (and the table keys).
+   * 
+   * @param attributes {@link Collection} {@link String}
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig projection(final Collection<String> attributes) {
+    ProjectionExpression projection = new ProjectionExpression(attributes);
+    this.projectionExpression = projection.projectionExpression();
+    this.expressionAttributeNames =
+        projection.expressionAttributeNames(this.expressionAttributeNames);
+    return this;
+  }
+
   /**
    * Get Projection Expression.
    * 
@@ -27,7 +27,11 @@ import java.net.URI;
 import java.util.Map;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceRegistry;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
+import com.formkiq.module.lambdaservices.SdkMetricsInterceptor;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 /**
  * {@link AwsServiceRegistry} for DynamoDb.
@@ -43,8 +47,27 @@ public class DynamoDbAwsServiceRegistry implements AwsServiceRegistry {
         .setRegion(serviceCache.region()).setCredentials(credentialsProvider)
         .setEndpointOverride(awsServiceEndpoints.get("dynamodb"));
 
+    if (serviceCache.enableMetrics()) {
+      boolean consumedCapacity =
+          "true".equals(serviceCache.environment("DYNAMODB_RETURN_CONSUMED_CAPACITY"));
+      db.addExecutionInterceptor(new SdkMetricsInterceptor()).addExecutionInterceptor(
+          new DynamoDbMetricsInterceptor(MetricsRegistry.getDefault(), consumedCapacity));
+    }
+
+    SdkHttpTransportBuilder transport =
+        SdkHttpTransportBuilder.fromEnvironment(serviceCache.environment());
+    if (transport != null) {
+      db.setHttpClient(transport.build());
+    }
+
     db.initDbClient();
 
+    if (transport != null && transport.prewarmConnections() > 0) {
+      DynamoDbClient client = db.build();
+      SdkHttpTransportBuilder.prewarm(transport.prewarmConnections(),
+          () -> client.describeEndpoints());
+    }
+
     serviceCache.register(DynamoDbConnectionBuilder.class,
         new DynamoDbConnectionBuilderExtension(db));
   }
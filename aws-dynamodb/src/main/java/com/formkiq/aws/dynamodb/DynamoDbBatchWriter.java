@@ -0,0 +1,287 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * 
+ * Streams {@link WriteRequest} into 25 item {@link BatchWriteItemRequest}, written in parallel
+ * with a bounded number of batches in flight, so memory stays bounded however many items are
+ * written. Unprocessed items are retried with exponential backoff.
+ * 
+ * <p>
+ * Writers are not thread-safe; {@link #close()} waits for every batch to be written and throws
+ * the first error once, closing again is a no-op. Items added with {@link #move(Map, Map)} are
+ * always written in the same batch.
+ * </p>
+ *
+ */
+public class DynamoDbBatchWriter implements AutoCloseable {
+
+  /** Default Max Batches in flight. */
+  private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+  /** {@link ExecutorService} shared by all writers. */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "dynamodb-batch-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  /** Max Batch Size. */
+  private static final int MAX_BATCH_SIZE = 25;
+  /** Max Retries of Unprocessed Items. */
+  private static final int MAX_RETRIES = 8;
+  /** Retry backoff base, in milliseconds. */
+  private static final long RETRY_BACKOFF_MS = 25;
+
+  /** Current Batch. */
+  private List<WriteRequest> batch = new ArrayList<>(MAX_BATCH_SIZE);
+  /** Whether the writer is closed. */
+  private boolean closed;
+  /** {@link DynamoDbClient}. */
+  private final DynamoDbClient dbClient;
+  /** First error of a batch. */
+  private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+  /** Batches in flight. */
+  private final Semaphore inFlight;
+  /** Max Batches in flight. */
+  private final int maxInFlight;
+  /** Table Name. */
+  private final String tableName;
+  /** Whether any batch was submitted. */
+  private boolean written;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param dynamoDbTableName {@link String}
+   */
+  public DynamoDbBatchWriter(final DynamoDbClient client, final String dynamoDbTableName) {
+    this(client, dynamoDbTableName, DEFAULT_MAX_IN_FLIGHT);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param dynamoDbTableName {@link String}
+   * @param maxBatchesInFlight int
+   */
+  public DynamoDbBatchWriter(final DynamoDbClient client, final String dynamoDbTableName,
+      final int maxBatchesInFlight) {
+    this.dbClient = client;
+    this.tableName = dynamoDbTableName;
+    this.maxInFlight = maxBatchesInFlight;
+    this.inFlight = new Semaphore(maxBatchesInFlight);
+  }
+
+  /**
+   * Wait before retrying unprocessed items.
+   * 
+   * @param attempt int
+   */
+  private void backoff(final int attempt) {
+    try {
+      Thread.sleep(RETRY_BACKOFF_MS << Math.min(attempt, MAX_RETRIES));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted retrying unprocessed items", e);
+    }
+  }
+
+  /**
+   * Write any remaining items and wait for all batches to complete.
+   */
+  @Override
+  public void close() {
+
+    if (this.closed) {
+      return;
+    }
+
+    this.closed = true;
+
+    if (!this.batch.isEmpty() && !this.written) {
+      List<WriteRequest> items = this.batch;
+      this.batch = new ArrayList<>(MAX_BATCH_SIZE);
+      this.written = true;
+      writeBatch(items);
+    } else if (!this.batch.isEmpty()) {
+      submit();
+    }
+
+    this.inFlight.acquireUninterruptibly(this.maxInFlight);
+    this.inFlight.release(this.maxInFlight);
+    throwIfError();
+  }
+
+  /**
+   * Delete Item.
+   * 
+   * @param key {@link Map} {@link AttributeValue}
+   * @return {@link DynamoDbBatchWriter}
+   */
+  public DynamoDbBatchWriter delete(final Map<String, AttributeValue> key) {
+    return write(WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build())
+        .build());
+  }
+
+  /**
+   * Whether any item was written.
+   * 
+   * @return boolean
+   */
+  public boolean isWritten() {
+    return this.written;
+  }
+
+  /**
+   * Delete Item and Put Item in the same batch, so a move is never half written by one batch while
+   * another batch fails.
+   * 
+   * @param key {@link Map} {@link AttributeValue} of the item to delete
+   * @param item {@link Map} {@link AttributeValue} of the item to put
+   * @return {@link DynamoDbBatchWriter}
+   */
+  public DynamoDbBatchWriter move(final Map<String, AttributeValue> key,
+      final Map<String, AttributeValue> item) {
+
+    if (this.batch.size() + 2 > MAX_BATCH_SIZE) {
+      submit();
+    }
+
+    this.batch.add(WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build())
+        .build());
+    return put(item);
+  }
+
+  /**
+   * Put Item.
+   * 
+   * @param item {@link Map} {@link AttributeValue}
+   * @return {@link DynamoDbBatchWriter}
+   */
+  public DynamoDbBatchWriter put(final Map<String, AttributeValue> item) {
+    return write(
+        WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+  }
+
+  /**
+   * Submit current batch, waiting while the max number of batches are in flight.
+   */
+  private void submit() {
+
+    throwIfError();
+
+    List<WriteRequest> items = this.batch;
+    this.batch = new ArrayList<>(MAX_BATCH_SIZE);
+    this.written = true;
+
+    this.inFlight.acquireUninterruptibly();
+
+    try {
+      EXECUTOR.execute(() -> {
+        try {
+          writeBatch(items);
+        } catch (RuntimeException e) {
+          this.error.compareAndSet(null, e);
+        } finally {
+          this.inFlight.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      this.inFlight.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Throw the first batch error, it is cleared so the same error is never thrown twice.
+   */
+  private void throwIfError() {
+    RuntimeException e = this.error.getAndSet(null);
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  /**
+   * Add {@link WriteRequest}, duplicates in the same batch are ignored.
+   * 
+   * @param request {@link WriteRequest}
+   * @return {@link DynamoDbBatchWriter}
+   */
+  public DynamoDbBatchWriter write(final WriteRequest request) {
+
+    if (!this.batch.contains(request)) {
+      this.batch.add(request);
+    }
+
+    if (this.batch.size() >= MAX_BATCH_SIZE) {
+      submit();
+    }
+
+    return this;
+  }
+
+  /**
+   * Write batch, retrying unprocessed items.
+   * 
+   * @param items {@link List} {@link WriteRequest}
+   */
+  private void writeBatch(final List<WriteRequest> items) {
+
+    Map<String, List<WriteRequest>> requestItems = Map.of(this.tableName, items);
+
+    for (int attempt = 0; !requestItems.isEmpty(); attempt++) {
+
+      if (attempt > MAX_RETRIES) {
+        throw new IllegalStateException("unable to write " + requestItems.get(this.tableName).size()
+            + " unprocessed items to " + this.tableName);
+      }
+
+      if (attempt > 0) {
+        backoff(attempt);
+      }
+
+      BatchWriteItemResponse response = this.dbClient
+          .batchWriteItem(BatchWriteItemRequest.builder().requestItems(requestItems).build());
+      requestItems = response.unprocessedItems();
+    }
+  }
+}
@@ -28,6 +28,9 @@ import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration.Builder;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
@@ -41,6 +44,8 @@ public class DynamoDbConnectionBuilder {
 
   /** {@link DynamoDbClientBuilder}. */
   private DynamoDbClientBuilder builder;
+  /** {@link ClientOverrideConfiguration} {@link Builder}. */
+  private Builder clientConfig;
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient = null;
 
@@ -50,15 +55,26 @@ public class DynamoDbConnectionBuilder {
    * @param enableAwsXray Enables AWS X-Ray
    */
   public DynamoDbConnectionBuilder(final boolean enableAwsXray) {
-    System.setProperty("software.amazon.awssdk.http.service.impl",
-        "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
-    Builder clientConfig = ClientOverrideConfiguration.builder();
+    this.clientConfig = ClientOverrideConfiguration.builder();
 
     // if (enableAwsXray) {
     // clientConfig.addExecutionInterceptor(new TracingInterceptor());
     // }
 
-    this.builder = DynamoDbClient.builder().overrideConfiguration(clientConfig.build());
+    this.builder = DynamoDbClient.builder().overrideConfiguration(this.clientConfig.build())
+        .httpClientBuilder(UrlConnectionHttpClient.builder());
+  }
+
+  /**
+   * Add {@link ExecutionInterceptor}.
+   * 
+   * @param interceptor {@link ExecutionInterceptor}
+   * @return {@link DynamoDbConnectionBuilder}
+   */
+  public DynamoDbConnectionBuilder addExecutionInterceptor(final ExecutionInterceptor interceptor) {
+    this.clientConfig.addExecutionInterceptor(interceptor);
+    this.builder = this.builder.overrideConfiguration(this.clientConfig.build());
+    return this;
   }
 
   /**
@@ -115,6 +131,17 @@ public class DynamoDbConnectionBuilder {
     return this;
   }
 
+  /**
+   * Set a shared {@link SdkHttpClient}, instead of the default url connection transport.
+   * 
+   * @param httpClient {@link SdkHttpClient}
+   * @return {@link DynamoDbConnectionBuilder}
+   */
+  public DynamoDbConnectionBuilder setHttpClient(final SdkHttpClient httpClient) {
+    this.builder = this.builder.httpClientBuilder(null).httpClient(httpClient);
+    return this;
+  }
+
   /**
    * Set Region.
    * 
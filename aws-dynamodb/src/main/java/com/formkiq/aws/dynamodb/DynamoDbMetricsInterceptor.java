@@ -0,0 +1,180 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+/**
+ * 
+ * DynamoDb {@link ExecutionInterceptor} recording consumed capacity and unprocessed batch items
+ * per operation in a {@link MetricsRegistry}. Consumed capacity is only returned by DynamoDb when
+ * requested; with return consumed capacity enabled, requests that support it are sent with
+ * {@link ReturnConsumedCapacity#TOTAL}, unless they already ask for consumed capacity.
+ *
+ */
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+
+  /** Consumed Capacity field name. */
+  private static final String CONSUMED_CAPACITY = "ConsumedCapacity";
+  /** Return Consumed Capacity field by request class. */
+  private static final Map<Class<?>, Optional<SdkField<?>>> FIELDS = new ConcurrentHashMap<>();
+  /** Return Consumed Capacity field name. */
+  private static final String RETURN_CONSUMED_CAPACITY = "ReturnConsumedCapacity";
+
+  /**
+   * Get capacity units of a {@link ConsumedCapacity} or {@link Collection} of them.
+   * 
+   * @param value {@link Object}
+   * @return double
+   */
+  private static double capacityUnits(final Object value) {
+
+    double units = 0;
+
+    if (value instanceof ConsumedCapacity) {
+      Double capacityUnits = ((ConsumedCapacity) value).capacityUnits();
+      units = capacityUnits != null ? capacityUnits.doubleValue() : 0;
+
+    } else if (value instanceof Collection) {
+      for (Object o : (Collection<?>) value) {
+        units += capacityUnits(o);
+      }
+    }
+
+    return units;
+  }
+
+  /**
+   * Find Return Consumed Capacity field of a request.
+   * 
+   * @param request {@link SdkRequest}
+   * @return {@link Optional} {@link SdkField}
+   */
+  private static Optional<SdkField<?>> findReturnConsumedCapacity(final SdkRequest request) {
+    return request instanceof SdkPojo ? ((SdkPojo) request).sdkFields().stream()
+        .filter(f -> RETURN_CONSUMED_CAPACITY.equals(f.memberName())).findFirst()
+        : Optional.empty();
+  }
+
+  /**
+   * Get number of unprocessed items of a batch response.
+   * 
+   * @param response {@link SdkResponse}
+   * @return int
+   */
+  private static int unprocessedItems(final SdkResponse response) {
+
+    int count = 0;
+
+    if (response instanceof BatchWriteItemResponse) {
+      count = ((BatchWriteItemResponse) response).unprocessedItems().values().stream()
+          .mapToInt(Collection::size).sum();
+    } else if (response instanceof BatchGetItemResponse) {
+      count = ((BatchGetItemResponse) response).unprocessedKeys().values().stream()
+          .mapToInt(k -> k.keys().size()).sum();
+    }
+
+    return count;
+  }
+
+  /** {@link MetricsRegistry}. */
+  private final MetricsRegistry metrics;
+  /** Whether to request consumed capacity. */
+  private final boolean returnConsumedCapacity;
+
+  /**
+   * constructor.
+   */
+  public DynamoDbMetricsInterceptor() {
+    this(MetricsRegistry.getDefault(), false);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param metricsRegistry {@link MetricsRegistry}
+   * @param requestConsumedCapacity whether to send requests with
+   *        {@link ReturnConsumedCapacity#TOTAL}
+   */
+  public DynamoDbMetricsInterceptor(final MetricsRegistry metricsRegistry,
+      final boolean requestConsumedCapacity) {
+    this.metrics = metricsRegistry;
+    this.returnConsumedCapacity = requestConsumedCapacity;
+  }
+
+  @Override
+  public void afterExecution(final Context.AfterExecution context,
+      final ExecutionAttributes executionAttributes) {
+
+    String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+    SdkResponse response = context.response();
+
+    double capacity = response.getValueForField(CONSUMED_CAPACITY, Object.class)
+        .map(v -> Double.valueOf(capacityUnits(v))).orElse(Double.valueOf(0)).doubleValue();
+    if (capacity > 0) {
+      this.metrics.counter("dynamodb.consumed.capacity", "operation", operation).add(capacity);
+    }
+
+    int unprocessed = unprocessedItems(response);
+    if (unprocessed > 0) {
+      this.metrics.counter("dynamodb.unprocessed.items", "operation", operation).add(unprocessed);
+    }
+  }
+
+  @Override
+  public SdkRequest modifyRequest(final Context.ModifyRequest context,
+      final ExecutionAttributes executionAttributes) {
+
+    SdkRequest request = context.request();
+    SdkRequest modified = request;
+
+    Optional<SdkField<?>> field = this.returnConsumedCapacity
+        ? FIELDS.computeIfAbsent(request.getClass(), c -> findReturnConsumedCapacity(request))
+        : Optional.empty();
+
+    if (field.isPresent() && field.get().getValueOrDefault(request) == null) {
+      SdkRequest.Builder builder = request.toBuilder();
+      field.get().set(builder, ReturnConsumedCapacity.TOTAL.toString());
+      modified = builder.build();
+    }
+
+    return modified;
+  }
+}
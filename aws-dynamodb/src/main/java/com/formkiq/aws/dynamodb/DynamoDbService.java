@@ -54,6 +54,15 @@ public interface DynamoDbService {
    */
   boolean deleteItems(Collection<Map<String, AttributeValue>> attrs);
 
+  /**
+   * Delete all Items matching PK and begins with SK, streaming query pages into batched deletes.
+   * 
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @return boolean
+   */
+  boolean deleteItemsBeginsWith(AttributeValue pk, AttributeValue sk);
+
   /**
    * Whether Database Record Exists.
    * 
@@ -101,6 +110,16 @@ public interface DynamoDbService {
    */
   boolean moveItems(Collection<Map<String, AttributeValue>> attrs, MoveAttributeFunction func);
 
+  /**
+   * Move all Records matching PK and begins with SK, streaming query pages into batched writes.
+   * 
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @param func {@link MoveAttributeFunction}
+   * @return boolean
+   */
+  boolean moveItemsBeginsWith(AttributeValue pk, AttributeValue sk, MoveAttributeFunction func);
+
   /**
    * Put DynamoDb Record.
    * 
@@ -25,12 +25,12 @@ package com.formkiq.aws.dynamodb;
 
 import static com.formkiq.aws.dynamodb.DbKeys.PK;
 import static com.formkiq.aws.dynamodb.DbKeys.SK;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
@@ -39,11 +39,9 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
-import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
@@ -57,6 +55,8 @@ import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
  */
 public class DynamoDbServiceImpl implements DynamoDbService {
 
+  /** Max Results per streaming query page. */
+  private static final int MAX_QUERY_RESULTS = 100;
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
   /** Table Name. */
@@ -104,19 +104,25 @@ public class DynamoDbServiceImpl implements DynamoDbService {
   @Override
   public boolean deleteItems(final Collection<Map<String, AttributeValue>> attrs) {
 
-    boolean deleted = false;
+    DynamoDbBatchWriter writer = new DynamoDbBatchWriter(this.dbClient, this.tableName);
+    try (writer) {
+      attrs.forEach(a -> writer.delete(Map.of(PK, a.get(PK), SK, a.get(SK))));
+    }
 
-    if (!attrs.isEmpty()) {
+    return writer.isWritten();
+  }
 
-      List<WriteRequest> writes = attrs.stream().map(
-          a -> WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(a).build()).build())
-          .collect(Collectors.toList());
+  @Override
+  public boolean deleteItemsBeginsWith(final AttributeValue pk, final AttributeValue sk) {
+
+    QueryConfig config = new QueryConfig().projectionExpression("PK,SK");
 
-      WriteRequestBuilder builder = new WriteRequestBuilder().append(this.tableName, writes);
-      deleted = builder.batchWriteItem(this.dbClient);
+    DynamoDbBatchWriter writer = new DynamoDbBatchWriter(this.dbClient, this.tableName);
+    try (writer) {
+      queryBeginsWith(config, pk, sk, a -> writer.delete(a));
     }
 
-    return deleted;
+    return writer.isWritten();
   }
 
   @Override
@@ -172,28 +178,41 @@ public class DynamoDbServiceImpl implements DynamoDbService {
     return attr.get(PK).s() + "#" + attr.get(SK).s();
   }
 
+  /**
+   * Move Record.
+   * 
+   * @param writer {@link DynamoDbBatchWriter}
+   * @param attr {@link Map}
+   * @param func {@link MoveAttributeFunction}
+   */
+  private void moveItem(final DynamoDbBatchWriter writer, final Map<String, AttributeValue> attr,
+      final MoveAttributeFunction func) {
+    Map<String, AttributeValue> newAttr = func.transform(attr);
+    writer.move(Map.of(PK, attr.get(PK), SK, attr.get(SK)), newAttr);
+  }
+
   @Override
   public boolean moveItems(final Collection<Map<String, AttributeValue>> attrs,
       final MoveAttributeFunction func) {
 
-    List<WriteRequest> writes = new ArrayList<>();
-
-    for (Map<String, AttributeValue> attr : attrs) {
+    DynamoDbBatchWriter writer = new DynamoDbBatchWriter(this.dbClient, this.tableName);
+    try (writer) {
+      attrs.forEach(a -> moveItem(writer, a, func));
+    }
 
-      Map<String, AttributeValue> newAttr = func.transform(attr);
+    return writer.isWritten();
+  }
 
-      Map<String, AttributeValue> key = Map.of(PK, attr.get(PK), SK, attr.get(SK));
-      WriteRequest del =
-          WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build();
-      writes.add(del);
+  @Override
+  public boolean moveItemsBeginsWith(final AttributeValue pk, final AttributeValue sk,
+      final MoveAttributeFunction func) {
 
-      WriteRequest add =
-          WriteRequest.builder().putRequest(PutRequest.builder().item(newAttr).build()).build();
-      writes.add(add);
+    DynamoDbBatchWriter writer = new DynamoDbBatchWriter(this.dbClient, this.tableName);
+    try (writer) {
+      queryBeginsWith(new QueryConfig(), pk, sk, a -> moveItem(writer, a, func));
     }
 
-    WriteRequestBuilder builder = new WriteRequestBuilder().append(this.tableName, writes);
-    return builder.batchWriteItem(this.dbClient);
+    return writer.isWritten();
   }
 
   @Override
@@ -255,13 +274,35 @@ public class DynamoDbServiceImpl implements DynamoDbService {
     QueryRequest q =
         QueryRequest.builder().tableName(this.tableName).keyConditionExpression(expression)
             .expressionAttributeValues(values).scanIndexForward(config.isScanIndexForward())
-            .projectionExpression(config.projectionExpression()).indexName(config.indexName())
-            .exclusiveStartKey(exclusiveStartKey).limit(Integer.valueOf(limit)).build();
+            .projectionExpression(config.projectionExpression())
+            .expressionAttributeNames(config.expressionAttributeNames())
+            .indexName(config.indexName()).exclusiveStartKey(exclusiveStartKey)
+            .limit(Integer.valueOf(limit)).build();
 
     QueryResponse response = this.dbClient.query(q);
     return response;
   }
 
+  /**
+   * Query all pages of PK and begins with SK, passing each item to {@link Consumer}.
+   * 
+   * @param config {@link QueryConfig}
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @param consumer {@link Consumer}
+   */
+  private void queryBeginsWith(final QueryConfig config, final AttributeValue pk,
+      final AttributeValue sk, final Consumer<Map<String, AttributeValue>> consumer) {
+
+    Map<String, AttributeValue> startkey = null;
+
+    do {
+      QueryResponse response = queryBeginsWith(config, pk, sk, startkey, MAX_QUERY_RESULTS);
+      response.items().forEach(consumer);
+      startkey = response.lastEvaluatedKey();
+    } while (startkey != null && !startkey.isEmpty());
+  }
+
   @Override
   public QueryResponse queryIndex(final String indexName, final AttributeValue pk,
       final Map<String, AttributeValue> exclusiveStartKey, final int limit) {
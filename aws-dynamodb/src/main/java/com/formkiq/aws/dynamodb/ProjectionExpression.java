@@ -0,0 +1,90 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 
+ * DynamoDB Projection Expression for a set of attributes. Every attribute is referenced through an
+ * expression attribute name, so reserved words (path, status, type...) can be projected. The table
+ * keys are always included, so projected items can still be matched to their keys.
+ *
+ */
+public class ProjectionExpression {
+
+  /** Expression Attribute Names. */
+  private final Map<String, String> names = new HashMap<>();
+  /** Projection Expression. */
+  private final String expression;
+
+  /**
+   * constructor.
+   * 
+   * @param attributes {@link Collection} {@link String}
+   */
+  public ProjectionExpression(final Collection<String> attributes) {
+
+    Set<String> list = new LinkedHashSet<>();
+    list.add(PK);
+    list.add(SK);
+    list.addAll(attributes);
+
+    int i = 0;
+    for (String attribute : list) {
+      this.names.put("#p" + i, attribute);
+      i++;
+    }
+
+    this.expression = this.names.keySet().stream().sorted().collect(Collectors.joining(","));
+  }
+
+  /**
+   * Get Expression Attribute Names, merged with existing names.
+   * 
+   * @param existing {@link Map}, may be null
+   * @return {@link Map}
+   */
+  public Map<String, String> expressionAttributeNames(final Map<String, String> existing) {
+    Map<String, String> map = existing != null ? new HashMap<>(existing) : new HashMap<>();
+    map.putAll(this.names);
+    return map;
+  }
+
+  /**
+   * Get Projection Expression.
+   * 
+   * @return {@link String}
+   */
+  public String projectionExpression() {
+    return this.expression;
+  }
+}
@@ -23,6 +23,7 @@
  */
 package com.formkiq.aws.dynamodb;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -97,6 +98,20 @@ public class QueryConfig {
     return this.scanIndexForward;
   }
 
+  /**
+   * Only read the specified attributes (and the table keys).
+   * 
+   * @param attributes {@link Collection} {@link String}
+   * @return {@link QueryConfig}
+   */
+  public QueryConfig projection(final Collection<String> attributes) {
+    ProjectionExpression projection = new ProjectionExpression(attributes);
+    this.projectionExpression = projection.projectionExpression();
+    this.expressionAttributeNames =
+        projection.expressionAttributeNames(this.expressionAttributeNames);
+    return this;
+  }
+
   /**
    * Get Projection Expression.
    * 
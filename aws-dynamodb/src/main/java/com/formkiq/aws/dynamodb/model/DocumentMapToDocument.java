@@ -41,8 +41,9 @@ public class DocumentMapToDocument
     implements Function<Map<String, ? extends Object>, Map<String, Object>> {
 
   /** Fields to Process. */
-  private static final List<String> FIELDS =
-      Arrays.asList("documentId", "path", "content", "contentType", "deepLinkPath");
+  private static final List<String> FIELDS = Arrays.asList("documentId", "path", "content",
+      "contentType", "deepLinkPath", "belongsToDocumentId", "checksum", "contentLength",
+      "inserteddate", "lastModifiedDate", "userId", "TimeToLive");
 
   @SuppressWarnings("unchecked")
   private String getValue(final Object obj) {
@@ -53,7 +54,7 @@ public class DocumentMapToDocument
       if (obj instanceof AttributeValue) {
 
         AttributeValue av = (AttributeValue) obj;
-        value = av.s();
+        value = av.s() != null ? av.s() : av.n();
 
       } else if (obj instanceof Map) {
 
@@ -62,6 +63,10 @@ public class DocumentMapToDocument
           value = values.get("S").toString();
         } else if (values.containsKey("s")) {
           value = values.get("s").toString();
+        } else if (values.containsKey("N")) {
+          value = values.get("N").toString();
+        } else if (values.containsKey("n")) {
+          value = values.get("n").toString();
         }
 
       } else if (obj instanceof String) {
@@ -94,10 +99,10 @@ public class DocumentMapToDocument
 
     metadata.forEach(m -> {
 
-      Map<String, Object> obj = (Map<String, Object>) data.get(m);
+      Object obj = data.get(m);
       String value = getValue(obj);
       String key = m.replaceAll("md#", "metadata#");
-      document.put(key, value);
+      document.put(key, value != null ? value : "");
     });
 
     if (data.containsKey("metadata")) {
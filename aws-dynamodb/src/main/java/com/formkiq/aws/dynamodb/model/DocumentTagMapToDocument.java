@@ -0,0 +1,107 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * 
+ * {@link Function} for converting a Document Tag record {@link Map} to a partial fulltext
+ * {@link Map}, keyed by "tags#" + tag key with the tag's values as a {@link List}. Accepts both
+ * {@link AttributeValue} and DynamoDb Stream formatted records.
+ *
+ */
+public class DocumentTagMapToDocument
+    implements Function<Map<String, ? extends Object>, Map<String, Object>> {
+
+  /** Fulltext tag field prefix. */
+  public static final String PREFIX_TAGS = "tags#";
+
+  @Override
+  public Map<String, Object> apply(final Map<String, ? extends Object> data) {
+
+    String key = getString(data.get("tagKey"));
+    Map<String, Object> document = Collections.emptyMap();
+
+    if (key != null) {
+
+      List<String> values = new ArrayList<>();
+
+      for (Object o : getList(data.get("tagValues"))) {
+        String v = getString(o);
+        if (v != null) {
+          values.add(v);
+        }
+      }
+
+      String value = getString(data.get("tagValue"));
+      if (values.isEmpty() && value != null) {
+        values.add(value);
+      }
+
+      document = Map.of(PREFIX_TAGS + key, values);
+    }
+
+    return document;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<? extends Object> getList(final Object obj) {
+
+    List<? extends Object> list = Collections.emptyList();
+
+    if (obj instanceof AttributeValue) {
+      list = ((AttributeValue) obj).l();
+    } else if (obj instanceof Map) {
+      Map<String, Object> values = (Map<String, Object>) obj;
+      Object l = values.containsKey("L") ? values.get("L") : values.get("l");
+      list = l instanceof List ? (List<Object>) l : list;
+    }
+
+    return list;
+  }
+
+  @SuppressWarnings("unchecked")
+  private String getString(final Object obj) {
+
+    String value = null;
+
+    if (obj instanceof AttributeValue) {
+      value = ((AttributeValue) obj).s();
+    } else if (obj instanceof Map) {
+      Map<String, Object> values = (Map<String, Object>) obj;
+      Object s = values.containsKey("S") ? values.get("S") : values.get("s");
+      value = s != null ? s.toString() : null;
+    } else if (obj instanceof String) {
+      value = obj.toString();
+    }
+
+    return value;
+  }
+}
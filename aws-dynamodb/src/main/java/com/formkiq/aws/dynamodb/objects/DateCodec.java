@@ -0,0 +1,137 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb.objects;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 
+ * Thread-safe formatting and parsing of the ISO timestamps ({@link DateUtil#DATE_FORMAT}, UTC) and
+ * the yyyy-MM-dd day keys stored in DynamoDb. Formatters are immutable and shared, and the day
+ * keys of recent days are cached.
+ *
+ */
+public final class DateCodec {
+
+  /** Day Key {@link DateTimeFormatter}. */
+  public static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+  /** ISO {@link DateTimeFormatter}. */
+  public static final DateTimeFormatter ISO_FORMATTER =
+      DateTimeFormatter.ofPattern(DateUtil.DATE_FORMAT).withZone(ZoneOffset.UTC);
+
+  /** Number of cached day keys. */
+  private static final int DAY_CACHE_SIZE = 16;
+  /** Day Keys, by epoch day. */
+  private static final AtomicReferenceArray<DayKey> DAY_CACHE =
+      new AtomicReferenceArray<>(DAY_CACHE_SIZE);
+  /** Milliseconds per day. */
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  /** Formatted day key. */
+  private static final class DayKey {
+    /** Epoch Day. */
+    private final long epochDay;
+    /** Day Key. */
+    private final String value;
+
+    /**
+     * constructor.
+     * 
+     * @param day long
+     * @param formatted {@link String}
+     */
+    DayKey(final long day, final String formatted) {
+      this.epochDay = day;
+      this.value = formatted;
+    }
+  }
+
+  /**
+   * Format {@link Date} as a yyyy-MM-dd day key (UTC).
+   * 
+   * @param date {@link Date}
+   * @return {@link String}
+   */
+  public static String formatDay(final Date date) {
+
+    long epochDay = Math.floorDiv(date.getTime(), MILLIS_PER_DAY);
+    int slot = (int) Math.floorMod(epochDay, (long) DAY_CACHE_SIZE);
+
+    DayKey key = DAY_CACHE.get(slot);
+    if (key == null || key.epochDay != epochDay) {
+      key = new DayKey(epochDay, DAY_FORMATTER.format(LocalDate.ofEpochDay(epochDay)));
+      DAY_CACHE.set(slot, key);
+    }
+
+    return key.value;
+  }
+
+  /**
+   * Format {@link TemporalAccessor} as a yyyy-MM-dd day key.
+   * 
+   * @param date {@link TemporalAccessor}
+   * @return {@link String}
+   */
+  public static String formatDay(final TemporalAccessor date) {
+    return DAY_FORMATTER.format(date);
+  }
+
+  /**
+   * Format {@link Date} as an ISO timestamp (UTC).
+   * 
+   * @param date {@link Date}
+   * @return {@link String}
+   */
+  public static String formatIso(final Date date) {
+    return ISO_FORMATTER.format(date.toInstant());
+  }
+
+  /**
+   * Parse an ISO timestamp.
+   * 
+   * @param date {@link String}
+   * @return {@link Date}
+   * @throws ParseException ParseException
+   */
+  public static Date parseIso(final String date) throws ParseException {
+    try {
+      return Date.from(ISO_FORMATTER.parse(date, Instant::from));
+    } catch (DateTimeParseException e) {
+      ParseException ex = new ParseException(e.getMessage(), e.getErrorIndex());
+      ex.initCause(e);
+      throw ex;
+    }
+  }
+
+  /** private constructor. */
+  private DateCodec() {}
+}
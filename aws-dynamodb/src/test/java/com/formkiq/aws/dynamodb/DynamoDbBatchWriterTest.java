@@ -0,0 +1,203 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * 
+ * Unit Test for {@link DynamoDbBatchWriter}.
+ *
+ */
+class DynamoDbBatchWriterTest {
+
+  /**
+   * {@link DynamoDbClient} recording BatchWriteItem requests.
+   */
+  private static class BatchWriteClient implements DynamoDbClient {
+
+    /** Error message to throw. */
+    private final String error;
+    /** Requests. */
+    private final List<List<WriteRequest>> requests =
+        Collections.synchronizedList(new ArrayList<>());
+    /** Number of requests to return first item as unprocessed. */
+    private int unprocessed;
+
+    BatchWriteClient(final int unprocessedRequests, final String errorMessage) {
+      this.unprocessed = unprocessedRequests;
+      this.error = errorMessage;
+    }
+
+    @Override
+    public synchronized BatchWriteItemResponse batchWriteItem(
+        final BatchWriteItemRequest request) {
+
+      if (this.error != null) {
+        throw (DynamoDbException) DynamoDbException.builder().message(this.error).build();
+      }
+
+      List<WriteRequest> items = request.requestItems().get(TABLE);
+      this.requests.add(items);
+
+      Map<String, List<WriteRequest>> unprocessedItems = Collections.emptyMap();
+      if (this.unprocessed > 0) {
+        this.unprocessed--;
+        unprocessedItems = Map.of(TABLE, List.of(items.get(0)));
+      }
+
+      return BatchWriteItemResponse.builder().unprocessedItems(unprocessedItems).build();
+    }
+
+    @Override
+    public void close() {
+      // empty
+    }
+
+    @Override
+    public String serviceName() {
+      return SERVICE_NAME;
+    }
+  }
+
+  /** Table Name. */
+  private static final String TABLE = "Documents";
+
+  private static Map<String, AttributeValue> key(final String pk, final int sk) {
+    return Map.of("PK", AttributeValue.fromS(pk), "SK", AttributeValue.fromS("item#" + sk));
+  }
+
+  private static List<Map<String, AttributeValue>> keys(final int count) {
+    return IntStream.range(0, count).mapToObj(i -> key("docs#1", i)).collect(Collectors.toList());
+  }
+
+  /**
+   * Unprocessed Items are retried.
+   */
+  @Test
+  void testUnprocessedItems01() {
+    // given
+    final int count = 3;
+    BatchWriteClient client = new BatchWriteClient(2, null);
+    DynamoDbBatchWriter writer = new DynamoDbBatchWriter(client, TABLE);
+
+    // when
+    try (writer) {
+      keys(count).forEach(k -> writer.put(k));
+    }
+
+    // then
+    assertTrue(writer.isWritten());
+    final int requests = 3;
+    assertEquals(requests, client.requests.size());
+    assertEquals(count, client.requests.get(0).size());
+    assertEquals(1, client.requests.get(1).size());
+    assertEquals(1, client.requests.get(2).size());
+    assertEquals(client.requests.get(0).get(0), client.requests.get(2).get(0));
+  }
+
+  /**
+   * Batch error is thrown from try-with-resources, not replaced by a self-suppression error.
+   */
+  @Test
+  void testError01() {
+    // given
+    final int count = 60;
+    DynamoDbService service =
+        new DynamoDbServiceImpl(new BatchWriteClient(0, "throttled"), TABLE);
+
+    // when
+    DynamoDbException e =
+        assertThrows(DynamoDbException.class, () -> service.deleteItems(keys(count)));
+
+    // then
+    assertTrue(e.getMessage().startsWith("throttled"));
+  }
+
+  /**
+   * Closing again does not rethrow the batch error.
+   */
+  @Test
+  void testError02() {
+    // given
+    DynamoDbBatchWriter writer =
+        new DynamoDbBatchWriter(new BatchWriteClient(0, "throttled"), TABLE);
+    writer.put(key("docs#1", 0));
+
+    // when
+    assertThrows(DynamoDbException.class, () -> writer.close());
+
+    // then
+    writer.close();
+  }
+
+  /**
+   * Moved items delete and put are written in the same batch.
+   */
+  @Test
+  void testMoveItems01() {
+    // given
+    final int count = 30;
+    BatchWriteClient client = new BatchWriteClient(0, null);
+    DynamoDbService service = new DynamoDbServiceImpl(client, TABLE);
+
+    // when
+    boolean moved = service.moveItems(keys(count),
+        a -> Map.of("PK", AttributeValue.fromS("docs#2"), "SK", a.get("SK")));
+
+    // then
+    assertTrue(moved);
+    final int batches = 3;
+    assertEquals(batches, client.requests.size());
+
+    for (List<WriteRequest> batch : client.requests) {
+      assertEquals(0, batch.size() % 2);
+
+      for (int i = 0; i < batch.size(); i += 2) {
+        assertNotNull(batch.get(i).deleteRequest());
+        assertEquals(batch.get(i).deleteRequest().key().get("SK"),
+            batch.get(i + 1).putRequest().item().get("SK"));
+      }
+    }
+
+    assertFalse(service.moveItems(Collections.emptyList(), a -> a));
+  }
+}
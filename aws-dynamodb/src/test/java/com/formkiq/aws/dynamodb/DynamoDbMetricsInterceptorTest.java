@@ -0,0 +1,146 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.InterceptorContext;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * 
+ * Unit Test for {@link DynamoDbMetricsInterceptor}.
+ *
+ */
+class DynamoDbMetricsInterceptorTest {
+
+  /** Table Name. */
+  private static final String TABLE = "Documents";
+
+  private static ExecutionAttributes attributes(final String operation) {
+    ExecutionAttributes attributes = new ExecutionAttributes();
+    attributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, "DynamoDb");
+    attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, operation);
+    return attributes;
+  }
+
+  private static GetItemRequest request() {
+    return GetItemRequest.builder().tableName(TABLE)
+        .key(Map.of("PK", AttributeValue.fromS("docs#1"))).build();
+  }
+
+  /**
+   * Consumed capacity is not requested by default.
+   */
+  @Test
+  void testModifyRequest01() {
+    // given
+    DynamoDbMetricsInterceptor interceptor =
+        new DynamoDbMetricsInterceptor(new MetricsRegistry(), false);
+    GetItemRequest request = request();
+
+    // when
+    SdkRequest modified = interceptor.modifyRequest(
+        InterceptorContext.builder().request(request).build(), attributes("GetItem"));
+
+    // then
+    assertSame(request, modified);
+    assertNull(((GetItemRequest) modified).returnConsumedCapacity());
+  }
+
+  /**
+   * Consumed capacity is requested when enabled, without overriding the caller.
+   */
+  @Test
+  void testModifyRequest02() {
+    // given
+    DynamoDbMetricsInterceptor interceptor =
+        new DynamoDbMetricsInterceptor(new MetricsRegistry(), true);
+    GetItemRequest indexes =
+        request().toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.INDEXES).build();
+
+    // when
+    SdkRequest modified = interceptor.modifyRequest(
+        InterceptorContext.builder().request(request()).build(), attributes("GetItem"));
+    SdkRequest unchanged = interceptor.modifyRequest(
+        InterceptorContext.builder().request(indexes).build(), attributes("GetItem"));
+
+    // then
+    assertEquals(ReturnConsumedCapacity.TOTAL,
+        ((GetItemRequest) modified).returnConsumedCapacity());
+    assertSame(indexes, unchanged);
+  }
+
+  /**
+   * Consumed capacity and unprocessed items are recorded per operation.
+   */
+  @Test
+  void testAfterExecution01() {
+    // given
+    MetricsRegistry metrics = new MetricsRegistry();
+    DynamoDbMetricsInterceptor interceptor = new DynamoDbMetricsInterceptor(metrics, true);
+    final double capacity = 2.5;
+
+    QueryResponse query = QueryResponse.builder()
+        .consumedCapacity(ConsumedCapacity.builder().capacityUnits(capacity).build()).build();
+
+    WriteRequest write = WriteRequest.builder()
+        .putRequest(PutRequest.builder().item(Map.of("PK", AttributeValue.fromS("1"))).build())
+        .build();
+    BatchWriteItemResponse batch = BatchWriteItemResponse.builder()
+        .consumedCapacity(List.of(ConsumedCapacity.builder().capacityUnits(1.0).build(),
+            ConsumedCapacity.builder().capacityUnits(1.0).build()))
+        .unprocessedItems(Map.of(TABLE, List.of(write, write))).build();
+
+    // when
+    interceptor.afterExecution(InterceptorContext.builder().request(request()).response(query)
+        .build(), attributes("Query"));
+    interceptor.afterExecution(InterceptorContext.builder().request(request()).response(batch)
+        .build(), attributes("BatchWriteItem"));
+
+    // then
+    assertEquals(capacity,
+        metrics.counter("dynamodb.consumed.capacity", "operation", "Query").sum());
+    assertEquals(2,
+        metrics.counter("dynamodb.consumed.capacity", "operation", "BatchWriteItem").sum());
+    assertEquals(2,
+        metrics.counter("dynamodb.unprocessed.items", "operation", "BatchWriteItem").sum());
+    assertEquals(0, metrics.counter("dynamodb.unprocessed.items", "operation", "Query").sum());
+  }
+}
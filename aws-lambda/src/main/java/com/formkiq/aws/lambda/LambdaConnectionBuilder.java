@@ -28,6 +28,7 @@ import java.net.URISyntaxException;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.lambda.LambdaClient;
@@ -51,9 +52,6 @@ public class LambdaConnectionBuilder {
    * constructor.
    */
   public LambdaConnectionBuilder() {
-    System.setProperty("software.amazon.awssdk.http.service.impl",
-        "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
-
     this.builder = LambdaClient.builder().httpClientBuilder(UrlConnectionHttpClient.builder());
   }
 
@@ -130,6 +128,17 @@ public class LambdaConnectionBuilder {
     return this;
   }
 
+  /**
+   * Set a shared {@link SdkHttpClient}, instead of the default url connection transport.
+   * 
+   * @param httpClient {@link SdkHttpClient}
+   * @return {@link LambdaConnectionBuilder}
+   */
+  public LambdaConnectionBuilder setHttpClient(final SdkHttpClient httpClient) {
+    this.builder = this.builder.httpClientBuilder(null).httpClient(httpClient);
+    return this;
+  }
+
   /**
    * Set Region.
    * 
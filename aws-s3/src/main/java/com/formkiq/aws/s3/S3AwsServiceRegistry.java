@@ -28,7 +28,10 @@ import java.util.Map;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceRegistry;
 import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
+import com.formkiq.module.lambdaservices.SdkMetricsInterceptor;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.services.s3.S3Client;
 
 /**
  * S3 {@link AwsServiceRegistry}.
@@ -44,6 +47,22 @@ public class S3AwsServiceRegistry implements AwsServiceRegistry {
         new S3ConnectionBuilder(serviceCache.enableXray()).setRegion(serviceCache.region())
             .setCredentials(credentialsProvider).setEndpointOverride(awsServiceEndpoints.get("s3"));
 
+    if (serviceCache.enableMetrics()) {
+      s3.addExecutionInterceptor(new SdkMetricsInterceptor());
+    }
+
+    SdkHttpTransportBuilder transport =
+        SdkHttpTransportBuilder.fromEnvironment(serviceCache.environment());
+    if (transport != null) {
+      s3.setHttpClient(transport.build());
+
+      if (transport.prewarmConnections() > 0) {
+        S3Client client = s3.build();
+        SdkHttpTransportBuilder.prewarm(transport.prewarmConnections(),
+            () -> client.listBuckets());
+      }
+    }
+
     serviceCache.register(S3ConnectionBuilder.class,
         new ClassServiceExtension<S3ConnectionBuilder>(s3));
 
@@ -28,6 +28,8 @@ import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -42,6 +44,8 @@ public class S3ConnectionBuilder {
 
   /** {@link S3ClientBuilder}. */
   private S3ClientBuilder builder;
+  /** {@link ClientOverrideConfiguration.Builder}. */
+  private ClientOverrideConfiguration.Builder clientConfig;
   /** S3 Region. */
   private Region region;
   /** {@link S3Client}. */
@@ -53,21 +57,31 @@ public class S3ConnectionBuilder {
    * @param enableAwsXray Enable AWS X-Ray
    */
   public S3ConnectionBuilder(final boolean enableAwsXray) {
-    System.setProperty("software.amazon.awssdk.http.service.impl",
-        "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
     System.setProperty("aws.s3UseUsEast1RegionalEndpoint", "regional");
 
-    ClientOverrideConfiguration.Builder clientConfig = ClientOverrideConfiguration.builder();
+    this.clientConfig = ClientOverrideConfiguration.builder();
 
     // if (enableAwsXray) {
     // clientConfig.addExecutionInterceptor(new TracingInterceptor());
     // }
 
-    this.builder = S3Client.builder().overrideConfiguration(clientConfig.build())
+    this.builder = S3Client.builder().overrideConfiguration(this.clientConfig.build())
         .httpClientBuilder(UrlConnectionHttpClient.builder())
         .credentialsProvider(EnvironmentVariableCredentialsProvider.create());
   }
 
+  /**
+   * Add {@link ExecutionInterceptor}.
+   * 
+   * @param interceptor {@link ExecutionInterceptor}
+   * @return {@link S3ConnectionBuilder}
+   */
+  public S3ConnectionBuilder addExecutionInterceptor(final ExecutionInterceptor interceptor) {
+    this.clientConfig.addExecutionInterceptor(interceptor);
+    this.builder = this.builder.overrideConfiguration(this.clientConfig.build());
+    return this;
+  }
+
   /**
    * Build {@link S3Client}.
    * 
@@ -131,6 +145,17 @@ public class S3ConnectionBuilder {
     return this;
   }
 
+  /**
+   * Set a shared {@link SdkHttpClient}, instead of the default url connection transport.
+   * 
+   * @param httpClient {@link SdkHttpClient}
+   * @return {@link S3ConnectionBuilder}
+   */
+  public S3ConnectionBuilder setHttpClient(final SdkHttpClient httpClient) {
+    this.builder = this.builder.httpClientBuilder(null).httpClient(httpClient);
+    return this;
+  }
+
   /**
    * Set Region.
    * 
@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 
+ * Binary S3 Object envelope: a 4 byte big-endian header length, the header bytes and then the raw
+ * content segments. Segments are addressed by their offset after the header, so each one can be
+ * read with a ranged GET without loading the whole object.
+ *
+ */
+public class S3ObjectEnvelope {
+
+  /** Number of bytes read to find the header. */
+  public static final int HEADER_READ_LENGTH = 16 * 1024;
+
+  /**
+   * Read Envelope Header from the start of an {@link InputStream}.
+   * 
+   * @param is {@link InputStream}
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  public static byte[] readHeader(final InputStream is) throws IOException {
+    DataInputStream in = new DataInputStream(is);
+    byte[] header = new byte[in.readInt()];
+    in.readFully(header);
+    return header;
+  }
+
+  /**
+   * Read Envelope Header from an S3 Object, with a single ranged GET when the header fits in
+   * {@link #HEADER_READ_LENGTH}.
+   * 
+   * @param s3 {@link S3Service}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  public static byte[] readHeader(final S3Service s3, final String bucket, final String key)
+      throws IOException {
+
+    byte[] data = S3Service.toByteArray(
+        s3.getContentPartAsInputStream(bucket, key, toRange(0, HEADER_READ_LENGTH)));
+
+    int length = ByteBuffer.wrap(data, 0, Integer.BYTES).getInt();
+
+    byte[] header;
+    if (Integer.BYTES + length <= data.length) {
+      header = readHeader(new ByteArrayInputStream(data));
+    } else {
+      header = S3Service.toByteArray(
+          s3.getContentPartAsInputStream(bucket, key, toRange(Integer.BYTES, length)));
+    }
+
+    return header;
+  }
+
+  /**
+   * Get the S3 Range of a content segment.
+   * 
+   * @param headerLength int
+   * @param offset long
+   * @param length long
+   * @return {@link String}
+   */
+  public static String segmentRange(final int headerLength, final long offset,
+      final long length) {
+    return toRange(Integer.BYTES + headerLength + offset, length);
+  }
+
+  /**
+   * Get HTTP Range.
+   * 
+   * @param start long
+   * @param length long
+   * @return {@link String}
+   */
+  private static String toRange(final long start, final long length) {
+    return "bytes=" + start + "-" + (start + length - 1);
+  }
+
+  /** Header. */
+  private byte[] header = new byte[0];
+  /** Content Segments. */
+  private List<byte[]> segments = new ArrayList<>();
+  /** Total Segments Length. */
+  private long segmentsLength = 0;
+
+  /**
+   * constructor.
+   */
+  public S3ObjectEnvelope() {}
+
+  /**
+   * Add Content Segment.
+   * 
+   * @param data byte[]
+   * @return long offset of the segment after the header
+   */
+  public long addSegment(final byte[] data) {
+    long offset = this.segmentsLength;
+    this.segments.add(data);
+    this.segmentsLength += data.length;
+    return offset;
+  }
+
+  /**
+   * Set Header.
+   * 
+   * @param bytes byte[]
+   * @return {@link S3ObjectEnvelope}
+   */
+  public S3ObjectEnvelope header(final byte[] bytes) {
+    this.header = bytes;
+    return this;
+  }
+
+  /**
+   * Get Envelope Length.
+   * 
+   * @return long
+   */
+  public long length() {
+    return Integer.BYTES + this.header.length + this.segmentsLength;
+  }
+
+  /**
+   * Get Envelope as an {@link InputStream}, without copying the segments.
+   * 
+   * @return {@link InputStream}
+   */
+  public InputStream toInputStream() {
+
+    List<InputStream> streams = new ArrayList<>();
+    streams.add(new ByteArrayInputStream(
+        ByteBuffer.allocate(Integer.BYTES).putInt(this.header.length).array()));
+    streams.add(new ByteArrayInputStream(this.header));
+    this.segments.forEach(s -> streams.add(new ByteArrayInputStream(s)));
+
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+}
@@ -253,6 +253,20 @@ public class S3Service {
     return response.asInputStream();
   }
 
+  /**
+   * Get File Content as a streaming {@link InputStream}, which must be closed.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param range {@link String}
+   * @return {@link InputStream}
+   */
+  public InputStream getContentAsStream(final String bucket, final String key,
+      final String range) {
+    GetObjectRequest get = GetObjectRequest.builder().bucket(bucket).key(key).range(range).build();
+    return this.s3Client.getObject(get);
+  }
+
   /**
    * Get File String Content.
    * 
@@ -438,6 +452,33 @@ public class S3Service {
     return putObject(bucket, key, data, contentType, null);
   }
 
+  /**
+   * Put Object in Bucket, streaming the {@link InputStream}.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param is {@link InputStream}
+   * @param contentLength long
+   * @param contentType {@link String}
+   * @param metadata {@link Map}
+   * @return {@link PutObjectResponse}
+   */
+  public PutObjectResponse putObject(final String bucket, final String key, final InputStream is,
+      final long contentLength, final String contentType, final Map<String, String> metadata) {
+    PutObjectRequest.Builder build = PutObjectRequest.builder().bucket(bucket).key(key)
+        .contentLength(Long.valueOf(contentLength));
+
+    if (contentType != null) {
+      build.contentType(contentType);
+    }
+
+    if (metadata != null) {
+      build.metadata(metadata);
+    }
+
+    return this.s3Client.putObject(build.build(), RequestBody.fromInputStream(is, contentLength));
+  }
+
   /**
    * Set S3 Object Tag.
    * 
@@ -28,6 +28,7 @@ import java.util.Map;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceRegistry;
 import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 
 /**
@@ -43,6 +44,12 @@ public class SnsAwsServiceRegistry implements AwsServiceRegistry {
         .setRegion(serviceCache.region()).setCredentials(credentialsProvider)
         .setEndpointOverride(awsServiceEndpoints.get("sns"));
 
+    SdkHttpTransportBuilder transport =
+        SdkHttpTransportBuilder.fromEnvironment(serviceCache.environment());
+    if (transport != null) {
+      sns.setHttpClient(transport.build());
+    }
+
     serviceCache.register(SnsConnectionBuilder.class,
         new ClassServiceExtension<SnsConnectionBuilder>(sns));
   }
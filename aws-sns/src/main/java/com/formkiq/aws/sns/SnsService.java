@@ -23,6 +23,7 @@
  */
 package com.formkiq.aws.sns;
 
+import java.util.List;
 import java.util.Map;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.ConfirmSubscriptionRequest;
@@ -32,6 +33,9 @@ import software.amazon.awssdk.services.sns.model.CreateTopicResponse;
 import software.amazon.awssdk.services.sns.model.ListTopicsRequest;
 import software.amazon.awssdk.services.sns.model.ListTopicsResponse;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
 import software.amazon.awssdk.services.sns.model.PublishResponse;
 import software.amazon.awssdk.services.sns.model.SubscribeRequest;
@@ -105,6 +109,19 @@ public class SnsService {
         .messageAttributes(messageAttributes).build());
   }
 
+  /**
+   * Publish up to 10 Messages to SNS Topic in a single request.
+   * 
+   * @param topicArn {@link String}
+   * @param entries {@link List} {@link PublishBatchRequestEntry}
+   * @return {@link PublishBatchResponse}
+   */
+  public PublishBatchResponse publishBatch(final String topicArn,
+      final List<PublishBatchRequestEntry> entries) {
+    return this.snsClient.publishBatch(PublishBatchRequest.builder().topicArn(topicArn)
+        .publishBatchRequestEntries(entries).build());
+  }
+
   /**
    * Subscribe to SNS Topic.
    * 
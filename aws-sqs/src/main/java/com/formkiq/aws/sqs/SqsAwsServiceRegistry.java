@@ -28,6 +28,7 @@ import java.util.Map;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceRegistry;
 import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 
 /**
@@ -44,6 +45,12 @@ public class SqsAwsServiceRegistry implements AwsServiceRegistry {
         .setRegion(serviceCache.region()).setCredentials(credentialsProvider)
         .setEndpointOverride(awsServiceEndpoints.get("sqs"));
 
+    SdkHttpTransportBuilder transport =
+        SdkHttpTransportBuilder.fromEnvironment(serviceCache.environment());
+    if (transport != null) {
+      sqs.setHttpClient(transport.build());
+    }
+
     serviceCache.register(SqsConnectionBuilder.class,
         new ClassServiceExtension<SqsConnectionBuilder>(sqs));
   }
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.formkiq.aws.services.lambda.ApiMapResponse;
+import com.formkiq.aws.services.lambda.GsonUtil;
+import com.google.gson.Gson;
+
+/**
+ * Benchmarks for serializing {@link ApiMapResponse} API responses.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiResponseBenchmark {
+
+  /** {@link Gson}. */
+  private Gson gson = GsonUtil.getInstance();
+  /** Search Results {@link ApiMapResponse}. */
+  private ApiMapResponse searchResponse;
+  /** Single Document {@link ApiMapResponse}. */
+  private ApiMapResponse documentResponse;
+
+  /**
+   * Setup fixtures.
+   */
+  @Setup
+  public void setup() {
+    List<Map<String, Object>> documents = Fixtures.searchPage(Fixtures.SEARCH_PAGE_SIZE);
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("documents", documents);
+    map.put("next", "eyJQSyI6ImRvY3MjMTIzIiwiU0siOiJkb2N1bWVudCJ9");
+    this.searchResponse = new ApiMapResponse(map);
+
+    this.documentResponse = new ApiMapResponse(new HashMap<>(documents.get(0)));
+  }
+
+  /**
+   * Serialize a single Document response.
+   * 
+   * @return {@link String}
+   */
+  @Benchmark
+  public String serializeDocument() {
+    return this.gson.toJson(this.documentResponse.getMap());
+  }
+
+  /**
+   * Serialize a page of Search Results.
+   * 
+   * @return {@link String}
+   */
+  @Benchmark
+  public String serializeSearchPage() {
+    return this.gson.toJson(this.searchResponse.getMap());
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import com.formkiq.aws.dynamodb.AttributeValueToDynamicObject;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamicObject;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
+import com.formkiq.aws.dynamodb.model.DynamicObjectToDocumentItem;
+import com.formkiq.stacks.dynamodb.AttributeValueToDocumentItem;
+import com.formkiq.stacks.dynamodb.DocumentTagToAttributeValueMap;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Benchmarks for mapping Documents and Tags to and from DynamoDB attributes.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentMappingBenchmark {
+
+  /** Stored Document attributes. */
+  private Map<String, AttributeValue> document;
+  /** Document Tags. */
+  private List<DocumentTag> tags;
+  /** Search Results page. */
+  private List<Map<String, Object>> searchPage;
+  /** {@link DocumentTagToAttributeValueMap}. */
+  private DocumentTagToAttributeValueMap toTagAttributes;
+
+  /**
+   * Setup fixtures.
+   */
+  @Setup
+  public void setup() {
+    String documentId = UUID.randomUUID().toString();
+    this.document = Fixtures.document(documentId);
+    this.tags = Fixtures.tags(documentId, Fixtures.TAG_COUNT);
+    this.searchPage = Fixtures.searchPage(Fixtures.SEARCH_PAGE_SIZE);
+    this.toTagAttributes = new DocumentTagToAttributeValueMap(DbKeys.PREFIX_DOCS, null, documentId);
+  }
+
+  /**
+   * {@link AttributeValueToDocumentItem} of a single Document.
+   * 
+   * @return {@link DocumentItem}
+   */
+  @Benchmark
+  public DocumentItem attributeValueToDocumentItem() {
+    return new AttributeValueToDocumentItem().apply(this.document);
+  }
+
+  /**
+   * {@link AttributeValueToDynamicObject} of a single Document.
+   * 
+   * @return {@link DynamicObject}
+   */
+  @Benchmark
+  public DynamicObject attributeValueToDynamicObject() {
+    return new AttributeValueToDynamicObject().apply(this.document);
+  }
+
+  /**
+   * {@link DocumentTagToAttributeValueMap} of all the Tags on a Document.
+   * 
+   * @param bh {@link Blackhole}
+   */
+  @Benchmark
+  public void documentTagToAttributeValueMap(final Blackhole bh) {
+    for (DocumentTag tag : this.tags) {
+      bh.consume(this.toTagAttributes.apply(tag));
+    }
+  }
+
+  /**
+   * {@link DynamicObject} to {@link DocumentItem} of a Search Results page.
+   * 
+   * @param bh {@link Blackhole}
+   */
+  @Benchmark
+  public void dynamicObjectToDocumentItem(final Blackhole bh) {
+    DynamicObjectToDocumentItem transform = new DynamicObjectToDocumentItem();
+    for (Map<String, Object> map : this.searchPage) {
+      bh.consume(transform.apply(new DynamicObject(map)));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
+import com.formkiq.aws.dynamodb.model.DocumentTagType;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Realistic benchmark fixtures.
+ *
+ */
+public final class Fixtures {
+
+  /** Number of Tags on a Document. */
+  public static final int TAG_COUNT = 50;
+  /** Number of Documents in a Search Page. */
+  public static final int SEARCH_PAGE_SIZE = 200;
+  /** Number of Folders in a deep path. */
+  public static final int FOLDER_DEPTH = 12;
+  /** Every Nth Tag has multiple values. */
+  private static final int MULTI_VALUE_EVERY = 5;
+  /** Every Nth Tag has no value. */
+  private static final int KEY_ONLY_EVERY = 7;
+  /** Document Content Length. */
+  private static final long CONTENT_LENGTH = 482113L;
+
+  /** private constructor. */
+  private Fixtures() {}
+
+  /**
+   * Stored Document attributes, as read from DynamoDB.
+   * 
+   * @param documentId {@link String}
+   * @return {@link Map}
+   */
+  public static Map<String, AttributeValue> document(final String documentId) {
+
+    String date = DateCodec.formatIso(new Date());
+
+    Map<String, AttributeValue> map = new HashMap<>();
+    map.put("PK", AttributeValue.fromS("docs#" + documentId));
+    map.put("SK", AttributeValue.fromS("document"));
+    map.put("GSI1PK", AttributeValue.fromS("date#2023-10-19"));
+    map.put("GSI1SK", AttributeValue.fromS(date + "#" + documentId));
+    map.put("documentId", AttributeValue.fromS(documentId));
+    map.put("path", AttributeValue.fromS(folderPath(FOLDER_DEPTH) + "invoice-2023-10.pdf"));
+    map.put("contentType", AttributeValue.fromS("application/pdf"));
+    map.put("contentLength", AttributeValue.fromN(String.valueOf(CONTENT_LENGTH)));
+    map.put("checksum", AttributeValue.fromS(UUID.randomUUID().toString()));
+    map.put("userId", AttributeValue.fromS("joesmith@formkiq.com"));
+    map.put("inserteddate", AttributeValue.fromS(date));
+    map.put("lastModifiedDate", AttributeValue.fromS(date));
+    map.put("s3version", AttributeValue.fromS(UUID.randomUUID().toString()));
+    return map;
+  }
+
+  /**
+   * Document Tags, a mix of single, multi-value and key only tags.
+   * 
+   * @param documentId {@link String}
+   * @param count int
+   * @return {@link List} {@link DocumentTag}
+   */
+  public static List<DocumentTag> tags(final String documentId, final int count) {
+
+    Date now = new Date();
+    List<DocumentTag> tags = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+
+      String key = "category" + i;
+
+      if (i % MULTI_VALUE_EVERY == 0) {
+        tags.add(new DocumentTag(documentId, key, Arrays.asList("a" + i, "b" + i, "c" + i), now,
+            "joe", DocumentTagType.USERDEFINED));
+      } else if (i % KEY_ONLY_EVERY == 0) {
+        tags.add(new DocumentTag(documentId, key, "", now, "joe"));
+      } else {
+        tags.add(new DocumentTag(documentId, key, "value" + i, now, "joe"));
+      }
+    }
+
+    return tags;
+  }
+
+  /**
+   * Documents Search results page, as returned by the API.
+   * 
+   * @param count int
+   * @return {@link List} {@link Map}
+   */
+  public static List<Map<String, Object>> searchPage(final int count) {
+
+    Date now = new Date();
+    List<Map<String, Object>> documents = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> doc = new HashMap<>();
+      doc.put("siteId", "default");
+      doc.put("documentId", UUID.randomUUID().toString());
+      doc.put("path", folderPath(FOLDER_DEPTH) + "document" + i + ".pdf");
+      doc.put("contentType", "application/pdf");
+      doc.put("contentLength", Long.valueOf(CONTENT_LENGTH + i));
+      doc.put("checksum", UUID.randomUUID().toString());
+      doc.put("userId", "joesmith@formkiq.com");
+      doc.put("insertedDate", now);
+      doc.put("lastModifiedDate", now);
+      doc.put("matchedTag", Map.of("key", "category", "value", "invoice", "type", "USERDEFINED"));
+      documents.add(doc);
+    }
+
+    return documents;
+  }
+
+  /**
+   * Deep folder path.
+   * 
+   * @param depth int
+   * @return {@link String}
+   */
+  public static String folderPath(final int depth) {
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      sb.append("folder").append(i).append('/');
+    }
+
+    return sb.toString();
+  }
+}
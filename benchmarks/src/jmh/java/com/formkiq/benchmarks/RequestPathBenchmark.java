@@ -0,0 +1,118 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
+import com.formkiq.aws.services.lambda.ApiRouteTable;
+
+/**
+ * Benchmarks for request url matching and site key generation.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestPathBenchmark {
+
+  /** API Request Urls, as registered by the core request handler. */
+  private static final List<String> URLS = Arrays.asList("/configuration",
+      "/configuration/apiKeys", "/configuration/apiKeys/{apiKey}", "/documents",
+      "/documents/compress", "/documents/tags", "/documents/upload", "/documents/{documentId}",
+      "/documents/{documentId}/actions", "/documents/{documentId}/actions/retry",
+      "/documents/{documentId}/content", "/documents/{documentId}/permissions",
+      "/documents/{documentId}/permissions/{permissionKey}", "/documents/{documentId}/restore",
+      "/documents/{documentId}/syncs", "/documents/{documentId}/tags",
+      "/documents/{documentId}/tags/{tagKey}", "/documents/{documentId}/tags/{tagKey}/{tagValue}",
+      "/documents/{documentId}/upload", "/documents/{documentId}/url",
+      "/documents/{documentId}/userActivities", "/documents/{documentId}/versions",
+      "/documents/{documentId}/versions/{versionKey}", "/folders", "/folders/{indexKey}",
+      "/indices/search", "/private/webhooks", "/public/documents", "/public/webhooks", "/search",
+      "/searchFulltext", "/sites", "/tagSchemas", "/tagSchemas/{tagSchemaId}", "/userActivities",
+      "/version", "/webhooks", "/webhooks/{webhookId}", "/webhooks/{webhookId}/tags");
+
+  /** Request paths. */
+  private List<String> paths;
+  /** {@link ApiRouteTable} of the API Request Urls. */
+  private ApiRouteTable<String> routes;
+  /** Site Id. */
+  private String siteId;
+  /** Document Id. */
+  private String documentId;
+
+  /**
+   * Setup fixtures.
+   */
+  @Setup
+  public void setup() {
+    this.siteId = "finance";
+    this.documentId = UUID.randomUUID().toString();
+
+    this.routes = new ApiRouteTable<>();
+    URLS.forEach(url -> this.routes.add(url, url));
+
+    this.paths = Arrays.asList("/documents", "/documents/" + this.documentId,
+        "/documents/" + this.documentId + "/content",
+        "/documents/" + this.documentId + "/tags/category/invoice", "/webhooks/" + this.documentId,
+        "/search");
+  }
+
+  /**
+   * {@link ApiRouteTable#find} of common request paths.
+   * 
+   * @param bh {@link Blackhole}
+   */
+  @Benchmark
+  public void routeTableFind(final Blackhole bh) {
+    for (String path : this.paths) {
+      bh.consume(this.routes.find(path));
+    }
+  }
+
+  /**
+   * {@link SiteIdKeyGenerator} round trip of a database key.
+   * 
+   * @param bh {@link Blackhole}
+   */
+  @Benchmark
+  public void siteIdKeyGenerator(final Blackhole bh) {
+    String key = SiteIdKeyGenerator.createDatabaseKey(this.siteId, "docs#" + this.documentId);
+    bh.consume(SiteIdKeyGenerator.resetDatabaseKey(this.siteId, key));
+
+    String s3key = SiteIdKeyGenerator.createS3Key(this.siteId, this.documentId);
+    bh.consume(SiteIdKeyGenerator.getSiteId(s3key));
+    bh.consume(SiteIdKeyGenerator.getDocumentId(s3key));
+  }
+}
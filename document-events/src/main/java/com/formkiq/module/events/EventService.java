@@ -33,6 +33,20 @@ import com.formkiq.module.events.folder.FolderEvent;
  */
 public interface EventService {
 
+  /**
+   * Buffer published events until {@link #flush()} is called, so they can be sent in batches.
+   */
+  default void beginBatch() {
+    // events are sent immediately by default
+  }
+
+  /**
+   * Send any buffered events to the Event System.
+   */
+  default void flush() {
+    // events are sent immediately by default
+  }
+
   /**
    * Send {@link DocumentEvent} to Event System.
    * 
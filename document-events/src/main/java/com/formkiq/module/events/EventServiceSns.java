@@ -23,7 +23,11 @@
  */
 package com.formkiq.module.events;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import com.amazonaws.services.lambda.runtime.LambdaRuntime;
 import com.formkiq.aws.sns.SnsConnectionBuilder;
 import com.formkiq.aws.sns.SnsService;
@@ -31,8 +35,12 @@ import com.formkiq.module.events.document.DocumentEvent;
 import com.formkiq.module.events.folder.FolderEvent;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sns.model.SnsException;
 
 /**
  * 
@@ -43,8 +51,66 @@ public class EventServiceSns implements EventService {
 
   /** Max Sns Message Size. */
   public static final int MAX_SNS_MESSAGE_SIZE = 256000;
+  /** Max Sns Publish Batch entries. */
+  private static final int MAX_BATCH_ENTRIES = 10;
+  /** Max 1 byte UTF-8 character. */
+  private static final int MAX_UTF8_1BYTE = 0x7F;
+  /** Max 2 byte UTF-8 character. */
+  private static final int MAX_UTF8_2BYTE = 0x7FF;
+  /** UTF-8 bytes of a 3 byte character. */
+  private static final int UTF8_3BYTES = 3;
+  /** UTF-8 bytes of a surrogate pair. */
+  private static final int UTF8_4BYTES = 4;
+
+  /**
+   * Get the number of bytes of {@link String} in UTF-8, without encoding it.
+   * 
+   * @param s {@link String}
+   * @return int
+   */
+  static int utf8Length(final String s) {
+    int count = 0;
+    int len = s.length();
+
+    for (int i = 0; i < len; i++) {
+      char ch = s.charAt(i);
+
+      if (ch <= MAX_UTF8_1BYTE) {
+        count++;
+      } else if (ch <= MAX_UTF8_2BYTE) {
+        count += 2;
+      } else if (Character.isHighSurrogate(ch)) {
+        count += UTF8_4BYTES;
+        i++;
+      } else {
+        count += UTF8_3BYTES;
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Get S3 Url of an object version, for example "s3://bucket/key?versionId=version".
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param versionId {@link String}, or null for the current version
+   * @return {@link String}
+   */
+  public static String toS3Url(final String bucket, final String key, final String versionId) {
+    String url = "s3://" + bucket + "/" + key;
+    return versionId != null ? url + "?versionId=" + versionId : url;
+  }
+
+  /** Whether events are buffered until {@link #flush()}. */
+  private volatile boolean batching;
+  /** Is Debug. */
+  private boolean debug;
   /** {@link Gson}. */
   private Gson gson = new GsonBuilder().create();
+  /** Buffered events. */
+  private Queue<PendingEvent> pending = new ConcurrentLinkedQueue<>();
   /** {@link SnsService}. */
   private SnsService snsService;
   /** SNS Topic Arn. */
@@ -65,19 +131,92 @@ public class EventServiceSns implements EventService {
     }
     this.snsService = new SnsService(snsBuilder);
     this.topicArn = eventTopicArn;
+    this.debug = "true".equals(System.getenv("DEBUG"));
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param service {@link SnsService}
+   * @param eventTopicArn {@link String}
+   */
+  EventServiceSns(final SnsService service, final String eventTopicArn) {
+    this.snsService = service;
+    this.topicArn = eventTopicArn;
+  }
+
+  @Override
+  public void beginBatch() {
+    this.batching = true;
+  }
+
+  /**
+   * Replace {@link DocumentEvent} content with a claim-check reference to the document version in
+   * S3, so consumers read the content the event was published for.
+   * 
+   * @param event {@link DocumentEvent}
+   */
+  private void claimCheck(final DocumentEvent event) {
+    if (event.s3bucket() != null && event.s3key() != null) {
+      event.contentUrl(toS3Url(event.s3bucket(), event.s3key(), event.s3version()));
+    }
+    event.content(null);
   }
 
   String convertToPrintableCharacters(final String s) {
     return s != null ? s.replaceAll("[^A-Za-z0-9/-]", "") : null;
   }
 
+  @Override
+  public void flush() {
+
+    int failed = 0;
+
+    try {
+
+      List<PendingEvent> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+      int batchSize = 0;
+
+      for (PendingEvent e = this.pending.poll(); e != null; e = this.pending.poll()) {
+
+        if (batch.size() == MAX_BATCH_ENTRIES || batchSize + e.size > MAX_SNS_MESSAGE_SIZE) {
+          failed += publishBatch(batch);
+          batch.clear();
+          batchSize = 0;
+        }
+
+        batch.add(e);
+        batchSize += e.size;
+      }
+
+      if (!batch.isEmpty()) {
+        failed += publishBatch(batch);
+      }
+
+    } finally {
+      this.batching = false;
+    }
+
+    if (failed > 0) {
+      throw new IllegalStateException(
+          "unable to publish " + failed + " events to: " + this.topicArn);
+    }
+  }
+
   @Override
   public String publish(final DocumentEvent event) {
 
+    if (event.content() != null && utf8Length(event.content()) > MAX_SNS_MESSAGE_SIZE) {
+      claimCheck(event);
+    }
+
     String eventJson = this.gson.toJson(event);
-    if (eventJson.length() > MAX_SNS_MESSAGE_SIZE) {
-      event.content(null);
+    int size = utf8Length(eventJson);
+
+    if (size > MAX_SNS_MESSAGE_SIZE && event.content() != null) {
+      claimCheck(event);
       eventJson = this.gson.toJson(event);
+      size = utf8Length(eventJson);
     }
 
     MessageAttributeValue typeAttr =
@@ -94,9 +233,7 @@ public class EventServiceSns implements EventService {
     }
 
     if (this.topicArn.length() > 0) {
-      PublishResponse response = this.snsService.publish(this.topicArn, eventJson, tags);
-      LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " messageId: "
-          + response.messageId() + " body: " + eventJson);
+      send(eventJson, size, tags);
     }
 
     return eventJson;
@@ -113,11 +250,114 @@ public class EventServiceSns implements EventService {
 
     Map<String, MessageAttributeValue> tags = Map.of("type", typeAttr, "siteId", siteIdAttr);
 
-    LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " body: " + eventJson);
-    PublishResponse response = this.snsService.publish(this.topicArn, eventJson, tags);
-    LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " messageId: "
-        + response.messageId() + " body: " + eventJson);
+    send(eventJson, utf8Length(eventJson), tags);
 
     return eventJson;
   }
+
+  /**
+   * Publish buffered events in a single SNS Publish Batch, retrying any failed entries singly.
+   * 
+   * @param batch {@link List} {@link PendingEvent}
+   * @return int number of events that could not be published
+   */
+  private int publishBatch(final List<PendingEvent> batch) {
+
+    List<PublishBatchRequestEntry> entries = new ArrayList<>(batch.size());
+
+    for (int i = 0; i < batch.size(); i++) {
+      PendingEvent e = batch.get(i);
+      entries.add(PublishBatchRequestEntry.builder().id(String.valueOf(i)).message(e.message)
+          .messageAttributes(e.attributes).build());
+    }
+
+    PublishBatchResponse response = this.snsService.publishBatch(this.topicArn, entries);
+
+    int errors = 0;
+
+    for (BatchResultErrorEntry failed : response.failed()) {
+      PendingEvent e = batch.get(Integer.parseInt(failed.id()));
+      if (!publishRetry(e, failed)) {
+        errors++;
+      }
+    }
+
+    LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " events: " + batch.size()
+        + " retried: " + response.failed().size() + " failed: " + errors);
+
+    return errors;
+  }
+
+  /**
+   * Retry publishing a failed Publish Batch entry.
+   * 
+   * @param e {@link PendingEvent}
+   * @param failed {@link BatchResultErrorEntry}
+   * @return boolean whether the event was published
+   */
+  private boolean publishRetry(final PendingEvent e, final BatchResultErrorEntry failed) {
+
+    boolean published;
+
+    try {
+      PublishResponse response = this.snsService.publish(this.topicArn, e.message, e.attributes);
+      published = response.messageId() != null;
+    } catch (SnsException ex) {
+      LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " failed: "
+          + failed.code() + " retry failed: " + ex.getMessage());
+      published = false;
+    }
+
+    return published;
+  }
+
+  /**
+   * Send event, or buffer it while batching.
+   * 
+   * @param eventJson {@link String}
+   * @param size int
+   * @param tags {@link Map}
+   */
+  private void send(final String eventJson, final int size,
+      final Map<String, MessageAttributeValue> tags) {
+
+    if (this.debug) {
+      LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " body: " + eventJson);
+    }
+
+    if (this.batching) {
+      this.pending.add(new PendingEvent(eventJson, size, tags));
+    } else {
+      PublishResponse response = this.snsService.publish(this.topicArn, eventJson, tags);
+      LambdaRuntime.getLogger().log("publishing to: " + this.topicArn + " messageId: "
+          + response.messageId() + " bytes: " + size);
+    }
+  }
+
+  /**
+   * Event waiting to be published.
+   */
+  private static final class PendingEvent {
+
+    /** Message Attributes. */
+    private final Map<String, MessageAttributeValue> attributes;
+    /** Message. */
+    private final String message;
+    /** Message size in bytes. */
+    private final int size;
+
+    /**
+     * constructor.
+     * 
+     * @param eventJson {@link String}
+     * @param bytes int
+     * @param tags {@link Map}
+     */
+    PendingEvent(final String eventJson, final int bytes,
+        final Map<String, MessageAttributeValue> tags) {
+      this.message = eventJson;
+      this.size = bytes;
+      this.attributes = tags;
+    }
+  }
 }
@@ -44,6 +44,9 @@ public class DocumentEvent {
   /** S3 Bucket. */
   @Reflectable
   private String s3bucket;
+  /** S3 Version Id. */
+  @Reflectable
+  private String s3version;
   /** Document Type. */
   @Reflectable
   private String type;
@@ -56,6 +59,9 @@ public class DocumentEvent {
   /** Document Content Type. */
   @Reflectable
   private String contentType;
+  /** S3 Url of Document Content, when content is too large to include in the event. */
+  @Reflectable
+  private String contentUrl;
   /** Docuemnt Path. */
   @Reflectable
   private String path;
@@ -107,6 +113,26 @@ public class DocumentEvent {
     return this;
   }
 
+  /**
+   * Get S3 Version Id.
+   * 
+   * @return {@link String}
+   */
+  public String s3version() {
+    return this.s3version;
+  }
+
+  /**
+   * Set S3 Version Id.
+   * 
+   * @param versionId {@link String}
+   * @return {@link DocumentEvent}
+   */
+  public DocumentEvent s3version(final String versionId) {
+    this.s3version = versionId;
+    return this;
+  }
+
   /**
    * Get S3 Key.
    * 
@@ -207,6 +233,26 @@ public class DocumentEvent {
     return this;
   }
 
+  /**
+   * Get {@link DocumentEvent} Content Url.
+   * 
+   * @return {@link String}
+   */
+  public String contentUrl() {
+    return this.contentUrl;
+  }
+
+  /**
+   * Set {@link DocumentEvent} Content Url.
+   * 
+   * @param url {@link String}
+   * @return {@link DocumentEvent}
+   */
+  public DocumentEvent contentUrl(final String url) {
+    this.contentUrl = url;
+    return this;
+  }
+
   /**
    * Get {@link DocumentEvent} Content-Type.
    * 
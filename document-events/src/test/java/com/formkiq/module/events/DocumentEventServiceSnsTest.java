@@ -24,12 +24,29 @@
 package com.formkiq.module.events;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.sns.SnsService;
+import com.formkiq.module.events.document.DocumentEvent;
 import com.formkiq.testutils.aws.LocalStackExtension;
 import com.formkiq.testutils.aws.TestServices;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sns.model.SnsException;
 
 /**
  * 
@@ -63,4 +80,109 @@ public class DocumentEventServiceSnsTest {
         service.convertToPrintableCharacters("webhook/\"Mostpopularboynames.xlsx\""));
     assertEquals("FK79tpEN51", service.convertToPrintableCharacters("FK79tpEN51"));
   }
+
+  /**
+   * Test publishing event with content larger than the max SNS message size.
+   * 
+   * @throws URISyntaxException URISyntaxException
+   */
+  @Test
+  public void testPublish01() throws URISyntaxException {
+    // given
+    EventServiceSns sns = new EventServiceSns(TestServices.getSnsConnection(null), "");
+    String content = "\u00e9".repeat(EventServiceSns.MAX_SNS_MESSAGE_SIZE / 2 + 1);
+    DocumentEvent event = new DocumentEvent().siteId("default").documentId("123").type("create")
+        .s3bucket("bucket").s3key("123").content(content);
+
+    // when
+    String json = sns.publish(event);
+
+    // then
+    assertNull(event.content());
+    assertEquals("s3://bucket/123", event.contentUrl());
+    assertTrue(json.contains("\"contentUrl\":\"s3://bucket/123\""));
+    assertFalse(json.contains("\"content\":"));
+  }
+
+  /**
+   * Test claim-check content url includes the S3 version.
+   * 
+   * @throws URISyntaxException URISyntaxException
+   */
+  @Test
+  public void testPublish02() throws URISyntaxException {
+    // given
+    EventServiceSns sns = new EventServiceSns(TestServices.getSnsConnection(null), "");
+    String content = "a".repeat(EventServiceSns.MAX_SNS_MESSAGE_SIZE + 1);
+    DocumentEvent event = new DocumentEvent().siteId("default").documentId("123").type("create")
+        .s3bucket("bucket").s3key("123").s3version("v1").content(content);
+
+    // when
+    sns.publish(event);
+
+    // then
+    assertNull(event.content());
+    assertEquals("s3://bucket/123?versionId=v1", event.contentUrl());
+  }
+
+  /**
+   * Test failed Publish Batch entries are retried singly and failed retries are thrown.
+   * 
+   * @throws URISyntaxException URISyntaxException
+   */
+  @Test
+  public void testFlush01() throws URISyntaxException {
+    // given
+    final int count = 3;
+    List<String> retried = new ArrayList<>();
+
+    SnsService snsService = new SnsService(TestServices.getSnsConnection(null)) {
+
+      @Override
+      public PublishResponse publish(final String topicArn, final String message,
+          final Map<String, MessageAttributeValue> messageAttributes) {
+        retried.add(message);
+        if (retried.size() > 1) {
+          throw (SnsException) SnsException.builder().message("throttled").build();
+        }
+        return PublishResponse.builder().messageId("1").build();
+      }
+
+      @Override
+      public PublishBatchResponse publishBatch(final String topicArn,
+          final List<PublishBatchRequestEntry> entries) {
+        return PublishBatchResponse.builder()
+            .successful(PublishBatchResultEntry.builder().id("0").messageId("0").build())
+            .failed(BatchResultErrorEntry.builder().id("1").code("Throttled").build(),
+                BatchResultErrorEntry.builder().id("2").code("Throttled").build())
+            .build();
+      }
+    };
+
+    EventServiceSns sns = new EventServiceSns(snsService, "topic");
+    sns.beginBatch();
+
+    for (int i = 0; i < count; i++) {
+      sns.publish(new DocumentEvent().siteId("default").documentId(String.valueOf(i)).type("create"));
+    }
+
+    // when
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> sns.flush());
+
+    // then
+    assertEquals("unable to publish 1 events to: topic", e.getMessage());
+    assertEquals(2, retried.size());
+    assertTrue(retried.get(0).contains("\"documentId\":\"1\""));
+    assertTrue(retried.get(1).contains("\"documentId\":\"2\""));
+  }
+
+  /**
+   * Test UTF-8 length.
+   */
+  @Test
+  public void testUtf8Length01() {
+    for (String s : new String[] {"", "abc", "\u00e9t\u00e9", "\u20ac100", "a\ud83d\ude00b"}) {
+      assertEquals(s.getBytes(StandardCharsets.UTF_8).length, EventServiceSns.utf8Length(s));
+    }
+  }
 }
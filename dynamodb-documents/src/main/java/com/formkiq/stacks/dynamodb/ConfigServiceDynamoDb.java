@@ -25,12 +25,17 @@ package com.formkiq.stacks.dynamodb;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.isDefaultSiteId;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.AttributeValueToDynamicObject;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
@@ -40,11 +45,56 @@ import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
-/** Implementation of the {@link ConfigService}. */
+/**
+ * Implementation of the {@link ConfigService}.
+ * 
+ * Optionally caches configuration in process for a time to live. Every save stamps the config
+ * item with a new {@link #CONFIG_VERSION}, so once the time to live expires a cached entry is
+ * revalidated by reading only the version attributes and is reloaded only when they changed.
+ */
 public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
 
+  /** Config Version attribute. */
+  public static final String CONFIG_VERSION = "configVersion";
+  /** Version Projection Expression. */
+  private static final String VERSION_PROJECTION = PK + "," + SK + "," + CONFIG_VERSION;
+
+  /** Cached Config. */
+  private static final class CacheEntry {
+    /** Config. */
+    private final DynamicObject config;
+    /** Expires At, in millis. */
+    private volatile long expiresAt;
+    /** Cache generation the entry was loaded in. */
+    private final long generation;
+    /** Config Item Versions, by SK. */
+    private final Map<String, String> versions;
+
+    /**
+     * constructor.
+     * 
+     * @param obj {@link DynamicObject}
+     * @param itemVersions {@link Map}
+     * @param cacheGeneration long
+     * @param expires long
+     */
+    CacheEntry(final DynamicObject obj, final Map<String, String> itemVersions,
+        final long cacheGeneration, final long expires) {
+      this.config = obj;
+      this.versions = itemVersions;
+      this.generation = cacheGeneration;
+      this.expiresAt = expires;
+    }
+  }
+
+  /** Cached Config, by siteId. */
+  private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
   /** {@link DynamoDbService}. */
   private DynamoDbService db;
+  /** Cache generation, incremented on invalidation. */
+  private final AtomicLong generation = new AtomicLong();
+  /** Cache time to live, in millis. */
+  private final long ttl;
 
   /**
    * constructor.
@@ -54,11 +104,24 @@ public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
    */
   public ConfigServiceDynamoDb(final DynamoDbConnectionBuilder connection,
       final String documentsTable) {
+    this(connection, documentsTable, Duration.ZERO);
+  }
+
+  /**
+   * constructor.
+   *
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param documentsTable {@link String}
+   * @param cacheTtl {@link Duration} config cache time to live, zero disables caching
+   */
+  public ConfigServiceDynamoDb(final DynamoDbConnectionBuilder connection,
+      final String documentsTable, final Duration cacheTtl) {
     if (documentsTable == null) {
       throw new IllegalArgumentException("Table name is null");
     }
 
     this.db = new DynamoDbServiceImpl(connection, documentsTable);
+    this.ttl = cacheTtl.toMillis();
   }
 
   @Override
@@ -66,10 +129,56 @@ public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
     String s = siteId != null ? siteId : DEFAULT_SITE_ID;
     Map<String, AttributeValue> keys = keysGeneric(null, PREFIX_CONFIG, s);
     this.db.deleteItem(keys.get(PK), keys.get(SK));
+    invalidate();
   }
 
   @Override
   public DynamicObject get(final String siteId) {
+    return this.ttl > 0 ? new DynamicObject(getCached(siteId))
+        : toConfig(siteId, this.db.getBatch(new BatchGetConfig(), getKeys(siteId)));
+  }
+
+  /**
+   * Get Cached Config, revalidating or reloading it once the time to live expires.
+   * 
+   * @param siteId {@link String}
+   * @return {@link DynamicObject}
+   */
+  private DynamicObject getCached(final String siteId) {
+
+    String key = siteId != null ? siteId : DEFAULT_SITE_ID;
+    long now = System.currentTimeMillis();
+    long currentGeneration = this.generation.get();
+
+    CacheEntry entry = this.cache.get(key);
+
+    if (entry != null && entry.generation == currentGeneration && now >= entry.expiresAt
+        && isCurrent(siteId, entry)) {
+      entry.expiresAt = now + this.ttl;
+    }
+
+    if (entry == null || entry.generation != currentGeneration || now >= entry.expiresAt) {
+
+      List<Map<String, AttributeValue>> list =
+          this.db.getBatch(new BatchGetConfig(), getKeys(siteId));
+      entry = new CacheEntry(toConfig(siteId, list), getVersions(list), currentGeneration,
+          now + this.ttl);
+
+      if (this.generation.get() == currentGeneration) {
+        this.cache.put(key, entry);
+      }
+    }
+
+    return entry.config;
+  }
+
+  /**
+   * Get Config Keys for a siteId, including the default site fallback.
+   * 
+   * @param siteId {@link String}
+   * @return {@link List}
+   */
+  private List<Map<String, AttributeValue>> getKeys(final String siteId) {
 
     List<Map<String, AttributeValue>> keys = new ArrayList<>();
 
@@ -80,19 +189,38 @@ public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
       keys.add(keysGeneric(null, PREFIX_CONFIG, DEFAULT_SITE_ID));
     }
 
-    BatchGetConfig config = new BatchGetConfig();
-    List<Map<String, AttributeValue>> list = this.db.getBatch(config, keys);
+    return keys;
+  }
 
-    Optional<Map<String, AttributeValue>> map = Optional.empty();
-    if (!list.isEmpty()) {
-      map = list.stream().filter(s -> s.get(SK).s().equals(siteId)).findFirst();
-      if (map.isEmpty()) {
-        map = list.stream().filter(s -> s.get(SK).s().equals(DEFAULT_SITE_ID)).findFirst();
-      }
-    }
+  /**
+   * Get Config Item Versions.
+   * 
+   * @param list {@link List}
+   * @return {@link Map}
+   */
+  private Map<String, String> getVersions(final List<Map<String, AttributeValue>> list) {
+    return list.stream().collect(Collectors.toMap(i -> i.get(SK).s(),
+        i -> i.containsKey(CONFIG_VERSION) ? i.get(CONFIG_VERSION).s() : ""));
+  }
 
-    AttributeValueToDynamicObject transform = new AttributeValueToDynamicObject();
-    return !map.isEmpty() ? transform.apply(map.get()) : new DynamicObject(Map.of());
+  /**
+   * Invalidate all cached config in this process.
+   */
+  public void invalidate() {
+    this.generation.incrementAndGet();
+    this.cache.clear();
+  }
+
+  /**
+   * Whether the cached config item versions are still current.
+   * 
+   * @param siteId {@link String}
+   * @param entry {@link CacheEntry}
+   * @return boolean
+   */
+  private boolean isCurrent(final String siteId, final CacheEntry entry) {
+    BatchGetConfig config = new BatchGetConfig().projectionExpression(VERSION_PROJECTION);
+    return entry.versions.equals(getVersions(this.db.getBatch(config, getKeys(siteId))));
   }
 
   @Override
@@ -104,6 +232,8 @@ public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
       item.put(e.getKey(), AttributeValue.builder().s(e.getValue().toString()).build());
     }
 
+    item.put(CONFIG_VERSION, AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+
     if (this.db.exists(item.get(PK), item.get(SK))) {
       HashMap<String, AttributeValue> fields = new HashMap<>(item);
       fields.remove(PK);
@@ -113,5 +243,32 @@ public class ConfigServiceDynamoDb implements ConfigService, DbKeys {
     } else {
       this.db.putItem(item);
     }
+
+    invalidate();
+  }
+
+  /**
+   * Convert Config Items to {@link DynamicObject}.
+   * 
+   * @param siteId {@link String}
+   * @param list {@link List}
+   * @return {@link DynamicObject}
+   */
+  private DynamicObject toConfig(final String siteId,
+      final List<Map<String, AttributeValue>> list) {
+
+    Optional<Map<String, AttributeValue>> map = Optional.empty();
+    if (!list.isEmpty()) {
+      map = list.stream().filter(s -> s.get(SK).s().equals(siteId)).findFirst();
+      if (map.isEmpty()) {
+        map = list.stream().filter(s -> s.get(SK).s().equals(DEFAULT_SITE_ID)).findFirst();
+      }
+    }
+
+    AttributeValueToDynamicObject transform = new AttributeValueToDynamicObject();
+    DynamicObject config =
+        !map.isEmpty() ? transform.apply(map.get()) : new DynamicObject(Map.of());
+    config.remove(CONFIG_VERSION);
+    return config;
   }
 }
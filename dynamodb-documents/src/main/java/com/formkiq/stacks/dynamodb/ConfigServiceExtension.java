@@ -23,6 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb;
 
+import java.time.Duration;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
@@ -34,6 +35,9 @@ import com.formkiq.module.lambdaservices.AwsServiceExtension;
  */
 public class ConfigServiceExtension implements AwsServiceExtension<ConfigService> {
 
+  /** Default Config Cache time to live, in seconds. */
+  private static final long DEFAULT_CACHE_TTL = 30;
+
   /** {@link ConfigService}. */
   private ConfigService service;
 
@@ -47,8 +51,12 @@ public class ConfigServiceExtension implements AwsServiceExtension<ConfigService
     if (this.service == null) {
       DynamoDbConnectionBuilder connection =
           awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
-      this.service =
-          new ConfigServiceDynamoDb(connection, awsServiceCache.environment("DOCUMENTS_TABLE"));
+      String ttl = awsServiceCache.environment("CONFIG_CACHE_TTL_SECONDS");
+      Duration cacheTtl =
+          Duration.ofSeconds(ttl != null ? Long.parseLong(ttl) : DEFAULT_CACHE_TTL);
+
+      this.service = new ConfigServiceDynamoDb(connection,
+          awsServiceCache.environment("DOCUMENTS_TABLE"), cacheTtl);
     }
 
     return this.service;
@@ -43,6 +43,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -88,6 +89,8 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   private String documentTableName;
   /** {@link FolderIndexProcessor}. */
   private FolderIndexProcessor folderIndexProcesor;
+  /** {@link DocumentTagQueryPlanner}. */
+  private DocumentTagQueryPlanner queryPlanner;
   /** {@link DocumentTagSchemaPlugin}. */
   private DocumentTagSchemaPlugin tagSchemaPlugin;
 
@@ -113,6 +116,8 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
 
     this.documentTableName = documentsTable;
     this.folderIndexProcesor = new FolderIndexProcessorImpl(connection, documentsTable);
+    this.queryPlanner = new DocumentTagQueryPlanner(this.dbClient, documentsTable,
+        new GlobalIndexService(connection, documentsTable));
   }
 
   private QueryRequest createQueryRequest(final String index, final String expression,
@@ -244,32 +249,44 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   }
 
   /**
-   * Find Document that match tagKey & tagValue.
+   * Find Document that match tagKey & begin with any of the tag value prefixes. Multiple prefixes
+   * are queried concurrently and merged.
    *
    * @param siteId DynamoDB siteId.
    * @param query {@link SearchQuery}
    * @param key {@link String}
-   * @param value {@link String}
+   * @param prefixes {@link Collection} {@link String}
    * @param token {@link PaginationMapToken}
    * @param maxresults int
    * @param projectionExpression {@link String}
    * @return {@link PaginationResults}
    */
   private PaginationResults<DynamicDocumentItem> findDocumentsTagStartWith(final String siteId,
-      final SearchQuery query, final String key, final String value, final PaginationMapToken token,
-      final int maxresults, final String projectionExpression) {
+      final SearchQuery query, final String key, final Collection<String> prefixes,
+      final PaginationMapToken token, final int maxresults, final String projectionExpression) {
 
     String expression = GSI2_PK + " = :pk and begins_with(" + GSI2_SK + ", :sk)";
 
-    Map<String, AttributeValue> values = new HashMap<String, AttributeValue>();
-    values.put(":pk",
-        AttributeValue.builder().s(createDatabaseKey(siteId, PREFIX_TAG + key)).build());
-    values.put(":sk", AttributeValue.builder().s(value).build());
+    List<QueryRequest> requests = prefixes.stream().map(value -> {
+      Map<String, AttributeValue> values = new HashMap<String, AttributeValue>();
+      values.put(":pk",
+          AttributeValue.builder().s(createDatabaseKey(siteId, PREFIX_TAG + key)).build());
+      values.put(":sk", AttributeValue.builder().s(value).build());
+      return createQueryRequest(GSI2, expression, values, null, maxresults, Boolean.FALSE, null);
+    }).collect(Collectors.toList());
 
-    QueryRequest q = createQueryRequest(GSI2, expression, values, token, maxresults, Boolean.FALSE,
-        projectionExpression);
+    PaginationResults<DynamicDocumentItem> results = null;
 
-    return searchForDocuments(q, siteId, query);
+    if (requests.size() == 1) {
+      QueryRequest q = requests.get(0).toBuilder().projectionExpression(projectionExpression)
+          .exclusiveStartKey(new PaginationToAttributeValue().apply(token)).build();
+      results = searchForDocuments(q, siteId, query);
+    } else {
+      results = searchForDocuments(new DocumentTagMergeQuery(this.dbClient, GSI2_PK, GSI2_SK),
+          requests, token, maxresults, siteId, query, projectionExpression);
+    }
+
+    return results;
   }
 
   /**
@@ -326,28 +343,32 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   }
 
   /**
-   * Find Document that match tagKey & tagValues.
+   * Find Document that match tagKey & any of the tagValues. Each value is queried concurrently and
+   * the results merged on the index sort key.
    *
    * @param siteId DynamoDB PK siteId
    * @param query {@link SearchQuery}
    * @param key {@link String}
    * @param eqOr {@link Collection} {@link String}
+   * @param token {@link PaginationMapToken}
    * @param maxresults int
    * @param projectionExpression {@link String}
    * @return {@link PaginationResults}
    */
   private PaginationResults<DynamicDocumentItem> findDocumentsWithTagAndValues(final String siteId,
       final SearchQuery query, final String key, final Collection<String> eqOr,
-      final int maxresults, final String projectionExpression) {
+      final PaginationMapToken token, final int maxresults, final String projectionExpression) {
 
-    List<DynamicDocumentItem> list = new ArrayList<>();
-    for (String eq : eqOr) {
-      PaginationResults<DynamicDocumentItem> result = findDocumentsWithTagAndValue(siteId, query,
-          key, eq, null, maxresults, projectionExpression);
-      list.addAll(result.getResults());
-    }
+    String expression = GSI1_PK + " = :pk";
+
+    List<QueryRequest> requests = eqOr.stream().distinct().map(value -> {
+      Map<String, AttributeValue> values = Map.of(":pk", AttributeValue.builder()
+          .s(createDatabaseKey(siteId, PREFIX_TAG + key + TAG_DELIMINATOR + value)).build());
+      return createQueryRequest(GSI1, expression, values, null, maxresults, Boolean.FALSE, null);
+    }).collect(Collectors.toList());
 
-    return new PaginationResults<DynamicDocumentItem>(list, null);
+    return searchForDocuments(new DocumentTagMergeQuery(this.dbClient, GSI1_PK, GSI1_SK),
+        requests, token, maxresults, siteId, query, projectionExpression);
   }
 
   @Override
@@ -514,14 +535,17 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
       search = this.tagSchemaPlugin.createMultiTagSearch(query);
     }
 
-    String key = getSearchKey(search);
-
     PaginationResults<DynamicDocumentItem> result = null;
 
     Collection<String> documentIds = query.documentIds();
 
-    if (!Objects.notNull(documentIds).isEmpty()) {
+    if (search == null && !notNull(query.tags()).isEmpty()) {
 
+      result = searchByTags(siteId, query, token, maxresults, projectionExpression);
+
+    } else if (!Objects.notNull(documentIds).isEmpty()) {
+
+      String key = getSearchKey(search);
       Map<String, Map<String, AttributeValue>> docs = findDocumentsTags(siteId, documentIds, key);
 
       Map<String, Map<String, AttributeValue>> filteredDocs = filterDocumentTags(docs, search);
@@ -544,15 +568,17 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
 
     } else {
 
+      String key = getSearchKey(search);
+
       if (!Objects.notNull(search.eqOr()).isEmpty()) {
-        result = findDocumentsWithTagAndValues(siteId, query, key, search.eqOr(), maxresults,
-            projectionExpression);
+        result = findDocumentsWithTagAndValues(siteId, query, key, search.eqOr(), token,
+            maxresults, projectionExpression);
       } else if (search.eq() != null) {
         result = findDocumentsWithTagAndValue(siteId, query, key, search.eq(), token, maxresults,
             projectionExpression);
       } else if (search.beginsWith() != null) {
-        result = findDocumentsTagStartWith(siteId, query, key, search.beginsWith(), token,
-            maxresults, projectionExpression);
+        result = findDocumentsTagStartWith(siteId, query, key, List.of(search.beginsWith()),
+            token, maxresults, projectionExpression);
       } else {
         result =
             findDocumentsWithTag(siteId, query, key, null, token, maxresults, projectionExpression);
@@ -562,6 +588,28 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
     return result;
   }
 
+  /**
+   * Search for documents matching all of the {@link SearchQuery} tags, using the
+   * {@link DocumentTagQueryPlanner}.
+   * 
+   * @param siteId {@link String}
+   * @param query {@link SearchQuery}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> searchByTags(final String siteId,
+      final SearchQuery query, final PaginationMapToken token, final int maxresults,
+      final String projectionExpression) {
+
+    PaginationResults<Map<String, AttributeValue>> result =
+        this.queryPlanner.query(siteId, query.tags(), token, maxresults);
+
+    return toSearchResults(result.getResults(), result.getToken(), siteId, query,
+        projectionExpression);
+  }
+
   @Override
   public PaginationResults<String> searchForDocumentIds(final String siteId,
       final SearchTagCriteria criteria, final PaginationMapToken token, final int maxresults) {
@@ -588,44 +636,34 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   private PaginationResults<DynamicDocumentItem> searchForDocuments(final QueryRequest q,
       final String siteId, final SearchQuery query) {
 
-    String projectionExpression = q.projectionExpression();
     QueryResponse result = this.dbClient.query(q);
 
-    Map<String, DocumentTag> tags = transformToDocumentTagMap(result);
-
-    PaginationResults<DynamicDocumentItem> ret = null;
-
-    List<String> documentIds = new ArrayList<>(tags.keySet());
-
-    if (projectionExpression == null || !"documentId".equals(projectionExpression)) {
-
-      List<DocumentItem> list = this.docService.findDocuments(siteId, documentIds);
-
-      List<DynamicDocumentItem> results =
-          list != null ? list.stream().map(l -> new DocumentItemToDynamicDocumentItem().apply(l))
-              .collect(Collectors.toList()) : Collections.emptyList();
-
-      results.forEach(r -> {
-
-        DocumentTag tag = tags.get(r.getDocumentId());
-        r.put("matchedTag", new DocumentTagToDynamicDocumentTag().apply(tag));
-
-        if (!notNull(query.tags()).isEmpty()) {
-          updateToMatchedTags(query, r);
-        }
-      });
-
-      ret = new PaginationResults<>(results, new QueryResponseToPagination().apply(result));
-
-    } else {
+    return toSearchResults(result.items(), new QueryResponseToPagination().apply(result), siteId,
+        query, q.projectionExpression());
+  }
 
-      List<DynamicDocumentItem> results = documentIds.stream()
-          .map(d -> new DynamicDocumentItem(Map.of("documentId", d))).collect(Collectors.toList());
+  /**
+   * Search for Documents using several concurrent, merged queries.
+   *
+   * @param mergeQuery {@link DocumentTagMergeQuery}
+   * @param requests {@link List} {@link QueryRequest}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @param siteId DynamoDB PK siteId
+   * @param query {@link SearchQuery}
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults} {@link DocumentItemSearchResult}
+   */
+  private PaginationResults<DynamicDocumentItem> searchForDocuments(
+      final DocumentTagMergeQuery mergeQuery, final List<QueryRequest> requests,
+      final PaginationMapToken token, final int maxresults, final String siteId,
+      final SearchQuery query, final String projectionExpression) {
 
-      ret = new PaginationResults<>(results, new QueryResponseToPagination().apply(result));
-    }
+    PaginationResults<Map<String, AttributeValue>> result =
+        mergeQuery.query(requests, token, maxresults);
 
-    return ret;
+    return toSearchResults(result.getResults(), result.getToken(), siteId, query,
+        projectionExpression);
   }
 
   /**
@@ -666,15 +704,67 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   }
 
   /**
-   * Transform {@link QueryResponse} to {@link DocumentTag} {@link Map}.
+   * Convert tag index items to search results.
+   *
+   * @param items {@link List} {@link Map}
+   * @param token {@link PaginationMapToken}
+   * @param siteId DynamoDB PK siteId
+   * @param query {@link SearchQuery}
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults} {@link DynamicDocumentItem}
+   */
+  private PaginationResults<DynamicDocumentItem> toSearchResults(
+      final List<Map<String, AttributeValue>> items, final PaginationMapToken token,
+      final String siteId, final SearchQuery query, final String projectionExpression) {
+
+    Map<String, DocumentTag> tags = transformToDocumentTagMap(items);
+
+    PaginationResults<DynamicDocumentItem> ret = null;
+
+    List<String> documentIds = new ArrayList<>(tags.keySet());
+
+    if (projectionExpression == null || !"documentId".equals(projectionExpression)) {
+
+      List<DocumentItem> list = this.docService.findDocuments(siteId, documentIds);
+
+      List<DynamicDocumentItem> results =
+          list != null ? list.stream().map(l -> new DocumentItemToDynamicDocumentItem().apply(l))
+              .collect(Collectors.toList()) : Collections.emptyList();
+
+      results.forEach(r -> {
+
+        DocumentTag tag = tags.get(r.getDocumentId());
+        r.put("matchedTag", new DocumentTagToDynamicDocumentTag().apply(tag));
+
+        if (!notNull(query.tags()).isEmpty()) {
+          updateToMatchedTags(query, r);
+        }
+      });
+
+      ret = new PaginationResults<>(results, token);
+
+    } else {
+
+      List<DynamicDocumentItem> results = documentIds.stream()
+          .map(d -> new DynamicDocumentItem(Map.of("documentId", d))).collect(Collectors.toList());
+
+      ret = new PaginationResults<>(results, token);
+    }
+
+    return ret;
+  }
+
+  /**
+   * Transform tag index items to {@link DocumentTag} {@link Map}, in item order.
    * 
-   * @param result {@link QueryResponse}
+   * @param items {@link List} {@link Map}
    * @return {@link Map} {@link DocumentTag}
    */
-  private Map<String, DocumentTag> transformToDocumentTagMap(final QueryResponse result) {
+  private Map<String, DocumentTag> transformToDocumentTagMap(
+      final List<Map<String, AttributeValue>> items) {
 
-    Map<String, DocumentTag> tags = new HashMap<>();
-    result.items().forEach(s -> {
+    Map<String, DocumentTag> tags = new LinkedHashMap<>();
+    items.forEach(s -> {
 
       if (s.containsKey("documentId")) {
         String documentId = s.get("documentId").s();
@@ -44,6 +44,9 @@ public interface DocumentService extends DocumentTagLoader {
 
   /** Soft Deleted Prefix. */
   String SOFT_DELETE = "softdelete#";
+  /** Document attributes needed to locate and read a document's content. */
+  List<String> CONTENT_ATTRIBUTES = List.of("documentId", "path", "contentType", "userId",
+      "inserteddate", DocumentVersionService.S3VERSION_ATTRIBUTE);
 
   /** The Default maximum results returned. */
   int MAX_RESULTS = 10;
@@ -186,6 +189,16 @@ public interface DocumentService extends DocumentTagLoader {
    */
   DocumentItem findDocument(String siteId, String documentId);
 
+  /**
+   * Find {@link DocumentItem}, only reading the specified attributes.
+   * 
+   * @param siteId Optional Grouping siteId
+   * @param documentId {@link String}
+   * @param attributes {@link Collection} {@link String}
+   * @return {@link DocumentItem}
+   */
+  DocumentItem findDocument(String siteId, String documentId, Collection<String> attributes);
+
   /**
    * Find {@link DocumentItem}.
    * 
@@ -230,6 +243,17 @@ public interface DocumentService extends DocumentTagLoader {
    */
   List<DocumentItem> findDocuments(String siteId, List<String> documentIds);
 
+  /**
+   * Find {@link DocumentItem}, only reading the specified attributes.
+   * 
+   * @param siteId Optional Grouping siteId
+   * @param documentIds {@link List} {@link String}
+   * @param attributes {@link Collection} {@link String}
+   * @return {@link List} {@link DocumentItem}
+   */
+  List<DocumentItem> findDocuments(String siteId, List<String> documentIds,
+      Collection<String> attributes);
+
   /**
    * Find {@link DocumentItem} by Inserted Date. Order in descending order.
    * 
@@ -32,11 +32,9 @@ import static com.formkiq.aws.dynamodb.objects.Strings.removeQuotes;
 import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -45,10 +43,12 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TimeZone;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -62,6 +62,7 @@ import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResult;
 import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.PaginationToAttributeValue;
+import com.formkiq.aws.dynamodb.ProjectionExpression;
 import com.formkiq.aws.dynamodb.QueryConfig;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
 import com.formkiq.aws.dynamodb.ReadRequestBuilder;
@@ -70,6 +71,7 @@ import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.aws.dynamodb.objects.Strings;
@@ -94,12 +96,12 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
   /** Maximum number of Records DynamoDb can be queries for at a time. */
   private static final int MAX_QUERY_RECORDS = 100;
+  /** Projection of the document tag record attributes the tag counts are built from. */
+  private static final String TAG_COUNT_PROJECTION = "PK, SK, documentId, tagKey, tagValue";
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
   /** {@link DynamoDbService}. */
   private DynamoDbService dbService;
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df = DateUtil.getIsoDateFormatter();
   /** Documents Table Name. */
   private String documentTableName;
   /** {@link FolderIndexProcessor}. */
@@ -107,13 +109,9 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
   /** {@link GlobalIndexService}. */
   private GlobalIndexService indexWriter;
   /** Last Short Date. */
-  private String lastShortDate = null;
+  private final AtomicReference<String> lastShortDate = new AtomicReference<>();
   /** {@link DocumentVersionService}. */
   private DocumentVersionService versionsService;
-  /** {@link SimpleDateFormat} YYYY-mm-dd format. */
-  private SimpleDateFormat yyyymmddFormat;
-  /** {@link DateTimeFormatter}. */
-  private DateTimeFormatter yyyymmddFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
   /**
    * constructor.
@@ -135,11 +133,6 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     this.documentTableName = documentsTable;
     this.folderIndexProcessor = new FolderIndexProcessorImpl(connection, documentsTable);
     this.dbService = new DynamoDbServiceImpl(connection, documentsTable);
-
-    this.yyyymmddFormat = new SimpleDateFormat("yyyy-MM-dd");
-
-    TimeZone tz = TimeZone.getTimeZone("UTC");
-    this.yyyymmddFormat.setTimeZone(tz);
   }
 
   @Override
@@ -186,12 +179,15 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
     if (!items.isEmpty()) {
 
+      List<Map<String, AttributeValue>> previous = findSavedTagAttributes(items);
+
       WriteRequestBuilder writeBuilder =
           new WriteRequestBuilder().appends(this.documentTableName, items);
 
       writeBuilder.batchWriteItem(this.dbClient);
 
       this.indexWriter.writeTagIndex(siteId, tagKeys);
+      this.indexWriter.updateTagCounts(siteId, previous, items);
     }
   }
 
@@ -242,6 +238,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     this.versionsService.deleteAllVersionIds(this.dbClient, siteId, documentId);
 
     DocumentItem item = findDocument(siteId, documentId);
+    List<Map<String, AttributeValue>> tagItems = findTagAttributes(siteId, documentId);
 
     deleteFolderIndex(siteId, item);
 
@@ -249,29 +246,27 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     AttributeValue pk = keys.get(PK);
     AttributeValue sk = null;
 
-    List<Map<String, AttributeValue>> list = queryDocumentAttributes(pk, sk, softDelete);
-
     if (softDelete) {
 
-      deleted = this.dbService.moveItems(list,
+      deleted = this.dbService.moveItemsBeginsWith(pk, sk,
           new DocumentDeleteMoveAttributeFunction(siteId, documentId));
 
     } else {
 
+      deleted = this.dbService.deleteItemsBeginsWith(pk, sk);
+
       pk = fromS(SOFT_DELETE + pk.s());
-      list.addAll(queryDocumentAttributes(pk, sk, false));
+      deleted |= this.dbService.deleteItemsBeginsWith(pk, sk);
 
       keys = keysGeneric(siteId, SOFT_DELETE + PREFIX_DOCS, null);
       pk = keys.get(PK);
       sk = fromS(SOFT_DELETE + "document#" + documentId);
 
-      list.addAll(queryDocumentAttributes(pk, sk, false));
-
-      if (this.dbService.deleteItems(list)) {
-        deleted = true;
-      }
+      deleted |= this.dbService.deleteItemsBeginsWith(pk, sk);
     }
 
+    this.indexWriter.updateTagCounts(siteId, tagItems, List.of());
+
     return deleted;
   }
 
@@ -283,43 +278,23 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
   @Override
   public void deleteDocumentFormats(final String siteId, final String documentId) {
-
-    PaginationMapToken startkey = null;
-
-    do {
-      PaginationResults<DocumentFormat> pr =
-          findDocumentFormats(siteId, documentId, startkey, MAX_RESULTS);
-
-      for (DocumentFormat format : pr.getResults()) {
-        deleteDocumentFormat(siteId, documentId, format.getContentType());
-      }
-
-      startkey = pr.getToken();
-
-    } while (startkey != null);
+    Map<String, AttributeValue> keys = keysDocumentFormats(siteId, documentId, null);
+    this.dbService.deleteItemsBeginsWith(keys.get(PK), keys.get(SK));
   }
 
   @Override
   public void deleteDocumentTag(final String siteId, final String documentId, final String tagKey) {
-    deleteItem(keysDocumentTag(siteId, documentId, tagKey));
+    Map<String, AttributeValue> attributes =
+        deleteItemAttributes(keysDocumentTag(siteId, documentId, tagKey));
+    this.indexWriter.updateTagCounts(siteId, List.of(attributes), List.of());
   }
 
   @Override
   public void deleteDocumentTags(final String siteId, final String documentId) {
-
-    PaginationMapToken startkey = null;
-
-    do {
-      PaginationResults<DocumentTag> pr =
-          findDocumentTags(siteId, documentId, startkey, MAX_RESULTS);
-
-      for (DocumentTag tag : pr.getResults()) {
-        deleteDocumentTag(siteId, documentId, tag.getKey());
-      }
-
-      startkey = pr.getToken();
-
-    } while (startkey != null);
+    List<Map<String, AttributeValue>> tagItems = findTagAttributes(siteId, documentId);
+    Map<String, AttributeValue> keys = keysDocumentTag(siteId, documentId, null);
+    this.dbService.deleteItemsBeginsWith(keys.get(PK), keys.get(SK));
+    this.indexWriter.updateTagCounts(siteId, tagItems, List.of());
   }
 
   /**
@@ -351,12 +326,22 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
    * @return boolean
    */
   private boolean deleteItem(final Map<String, AttributeValue> key) {
+    return !deleteItemAttributes(key).isEmpty();
+  }
+
+  /**
+   * Delete Document Row by Parition / Sort Key.
+   * 
+   * @param key DocumentDb Key {@link Map}
+   * @return {@link Map} of the deleted attributes, empty if the row did not exist
+   */
+  private Map<String, AttributeValue> deleteItemAttributes(final Map<String, AttributeValue> key) {
 
     DeleteItemRequest deleteItemRequest = DeleteItemRequest.builder()
         .tableName(this.documentTableName).key(key).returnValues(ReturnValue.ALL_OLD).build();
 
     DeleteItemResponse response = this.dbClient.deleteItem(deleteItemRequest);
-    return !response.attributes().isEmpty();
+    return response.attributes();
   }
 
   @Override
@@ -508,6 +493,23 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     return findDocument(siteId, documentId, false, null, 0).getResult();
   }
 
+  @Override
+  public DocumentItem findDocument(final String siteId, final String documentId,
+      final Collection<String> attributes) {
+
+    ProjectionExpression projection = new ProjectionExpression(withDocumentId(attributes));
+
+    GetItemRequest r = GetItemRequest.builder().key(keysDocument(siteId, documentId))
+        .tableName(this.documentTableName).projectionExpression(projection.projectionExpression())
+        .expressionAttributeNames(projection.expressionAttributeNames(null))
+        .consistentRead(Boolean.TRUE).build();
+
+    Map<String, AttributeValue> result = this.dbClient.getItem(r).item();
+
+    return result != null && !result.isEmpty() ? new AttributeValueToDocumentItem().apply(result)
+        : null;
+  }
+
   @Override
   public PaginationResult<DocumentItem> findDocument(final String siteId, final String documentId,
       final boolean includeChildDocuments, final PaginationMapToken token, final int limit) {
@@ -571,10 +573,28 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
   @Override
   public List<DocumentItem> findDocuments(final String siteId, final List<String> ids) {
+    return findDocumentsBatch(siteId, ids, new BatchGetConfig());
+  }
 
-    List<DocumentItem> results = Collections.emptyList();
+  @Override
+  public List<DocumentItem> findDocuments(final String siteId, final List<String> ids,
+      final Collection<String> attributes) {
+    return findDocumentsBatch(siteId, ids,
+        new BatchGetConfig().projection(withDocumentId(attributes)));
+  }
+
+  /**
+   * Batch Get {@link DocumentItem}.
+   * 
+   * @param siteId {@link String}
+   * @param ids {@link List} {@link String}
+   * @param config {@link BatchGetConfig}
+   * @return {@link List} {@link DocumentItem}
+   */
+  private List<DocumentItem> findDocumentsBatch(final String siteId, final List<String> ids,
+      final BatchGetConfig config) {
 
-    BatchGetConfig config = new BatchGetConfig();
+    List<DocumentItem> results = Collections.emptyList();
 
     if (!ids.isEmpty()) {
 
@@ -747,6 +767,54 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     return result;
   }
 
+  /**
+   * Find the currently saved versions of document tag records, before they are overwritten.
+   * 
+   * @param tagItems {@link List} of the document tag records to be saved
+   * @return {@link List} {@link Map}
+   */
+  private List<Map<String, AttributeValue>> findSavedTagAttributes(
+      final List<Map<String, AttributeValue>> tagItems) {
+
+    List<Map<String, AttributeValue>> keys = tagItems.stream()
+        .map(i -> keysGeneric(i.get(PK).s(), i.get(SK).s())).collect(Collectors.toList());
+
+    BatchGetConfig config = new BatchGetConfig().projectionExpression(TAG_COUNT_PROJECTION);
+    return new ReadRequestBuilder().append(this.documentTableName, keys)
+        .batchReadItems(this.dbClient, config).getOrDefault(this.documentTableName, List.of());
+  }
+
+  /**
+   * Find all the tag records of a document.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @return {@link List} {@link Map}
+   */
+  private List<Map<String, AttributeValue>> findTagAttributes(final String siteId,
+      final String documentId) {
+
+    Map<String, AttributeValue> values = queryKeys(keysDocumentTag(siteId, documentId, null));
+
+    QueryRequest q = QueryRequest.builder().tableName(this.documentTableName)
+        .keyConditionExpression(PK + " = :pk and begins_with(" + SK + ", :sk)")
+        .expressionAttributeValues(values).projectionExpression(TAG_COUNT_PROJECTION).build();
+
+    List<Map<String, AttributeValue>> items = new ArrayList<>();
+    Map<String, AttributeValue> startKey = null;
+
+    do {
+      QueryRequest page = q.toBuilder().exclusiveStartKey(startKey).build();
+      QueryResponse response = this.dbClient.query(page);
+      items.addAll(response.items());
+      startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+          ? response.lastEvaluatedKey()
+          : null;
+    } while (startKey != null);
+
+    return items;
+  }
+
   @Override
   public Collection<DocumentTag> findDocumentTags(final String siteId, final String documentId,
       final Collection<String> tagKeys) {
@@ -867,21 +935,21 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
     Map<String, AttributeValue> startkey = new PaginationToAttributeValue().apply(token);
 
-    String pk1 = PREFIX_DOCUMENT_DATE_TS + startDate.format(this.yyyymmddFormatter);
-    String pk2 = PREFIX_DOCUMENT_DATE_TS + endDate.format(this.yyyymmddFormatter);
+    String pk1 = PREFIX_DOCUMENT_DATE_TS + DateCodec.formatDay(startDate);
+    String pk2 = PREFIX_DOCUMENT_DATE_TS + DateCodec.formatDay(endDate);
     boolean nextDayPagination = isNextDayPagination(siteId, pk1, startkey);
 
     if (!nextDayPagination) {
       String skMin = startkey != null ? startkey.get(GSI1_SK).s()
-          : this.df.format(Date.from(startDate.toInstant(ZoneOffset.UTC)));
+          : DateCodec.formatIso(Date.from(startDate.toInstant(ZoneOffset.UTC)));
       Map<String, String> map = createSearchMap(siteId, pk1, skMin, null);
       list.add(map);
     }
 
     if (!pk1.equals(pk2)) {
-      String skMin =
-          this.df.format(Date.from(endDate.toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC)));
-      String skMax = this.df.format(Date.from(endDate.toInstant(ZoneOffset.UTC)));
+      String skMin = DateCodec
+          .formatIso(Date.from(endDate.toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC)));
+      String skMax = DateCodec.formatIso(Date.from(endDate.toInstant(ZoneOffset.UTC)));
 
       if (startkey != null && nextDayPagination) {
         Map<String, String> map = createSearchMap(siteId, pk2, startkey.get(GSI1_SK).s(), skMax);
@@ -928,7 +996,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     AttributeValue insertedDate = previous.get("inserteddate");
     if (insertedDate != null) {
       try {
-        date = this.df.parse(insertedDate.s());
+        date = DateCodec.parseIso(insertedDate.s());
       } catch (ParseException e) {
         // ignore
       }
@@ -968,9 +1036,9 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     }
     document.setLastModifiedDate(lastModifiedDate);
 
-    String shortdate = this.yyyymmddFormat.format(insertedDate);
-    String fullInsertedDate = this.df.format(insertedDate);
-    String fullLastModifiedDate = this.df.format(lastModifiedDate);
+    String shortdate = DateCodec.formatDay(insertedDate);
+    String fullInsertedDate = DateCodec.formatIso(insertedDate);
+    String fullLastModifiedDate = DateCodec.formatIso(lastModifiedDate);
 
     Map<String, AttributeValue> pkvalues = new HashMap<>(keys);
 
@@ -1036,7 +1104,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
         || !SYSTEM_DEFINED_TAGS.contains(tag.getKey());
 
     DocumentTagToAttributeValueMap mapper =
-        new DocumentTagToAttributeValueMap(this.df, PREFIX_DOCS, siteId, documentId);
+        new DocumentTagToAttributeValueMap(PREFIX_DOCS, siteId, documentId);
 
     List<Map<String, AttributeValue>> items = notNull(tags).stream().filter(predicate).map(mapper)
         .flatMap(List::stream).collect(Collectors.toList());
@@ -1139,38 +1207,6 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     return !path1.equals(path0) && !"".equals(path0);
   }
 
-  /**
-   * Query For Document Attributes.
-   * 
-   * @param pk {@link AttributeValue}
-   * @param sk {@link AttributeValue}
-   * @param softDelete boolean
-   * @return {@link List} {@link Map}
-   */
-  private List<Map<String, AttributeValue>> queryDocumentAttributes(final AttributeValue pk,
-      final AttributeValue sk, final boolean softDelete) {
-
-    final int limit = 100;
-    Map<String, AttributeValue> startkey = null;
-    List<Map<String, AttributeValue>> list = new ArrayList<>();
-    QueryConfig config = new QueryConfig().projectionExpression(softDelete ? null : "PK,SK");
-
-    do {
-
-      QueryResponse response = this.dbService.queryBeginsWith(config, pk, sk, startkey, limit);
-
-      List<Map<String, AttributeValue>> attrs =
-          response.items().stream().collect(Collectors.toList());
-      list.addAll(attrs);
-
-      startkey = response.lastEvaluatedKey();
-
-    } while (startkey != null && !startkey.isEmpty());
-
-    return list;
-
-  }
-
   /**
    * Query Documents by Primary Key.
    * 
@@ -1201,9 +1237,12 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
       expr += " and " + GSI1_SK + " >= :sk";
     }
 
+    // only the documentId is needed from the index, documents are read with a batch get;
+    // pagination uses LastEvaluatedKey, which the projection doesn't change
     QueryRequest q = QueryRequest.builder().tableName(this.documentTableName).indexName(GSI1)
         .keyConditionExpression(expr).expressionAttributeValues(values)
-        .limit(Integer.valueOf(maxresults)).exclusiveStartKey(startkey).build();
+        .projectionExpression("documentId").limit(Integer.valueOf(maxresults))
+        .exclusiveStartKey(startkey).build();
 
     QueryResponse result = this.dbClient.query(q);
 
@@ -1277,6 +1316,10 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     deletes.forEach(i -> this.dbClient.deleteItem(i));
     puts.forEach(i -> this.dbClient.putItem(i));
 
+    List<Map<String, AttributeValue>> remaining = items.stream()
+        .filter(i -> !i.get("tagValue").s().equals(tagValue)).collect(Collectors.toList());
+    this.indexWriter.updateTagCounts(siteId, items, remaining);
+
     return !deletes.isEmpty();
   }
 
@@ -1299,6 +1342,8 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
         this.dbClient.deleteItem(deleteItemRequest);
       });
+
+      this.indexWriter.updateTagCounts(siteId, items, List.of());
     }
   }
 
@@ -1311,35 +1356,17 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     AttributeValue pk = sdKeys.get(PK);
     AttributeValue sk = AttributeValue.fromS(SOFT_DELETE + "document" + "#" + documentId);
 
-    final int limit = 100;
-
     Map<String, AttributeValue> attr = this.dbService.get(pk, sk);
 
     if (!attr.isEmpty()) {
 
-      List<Map<String, AttributeValue>> list = new ArrayList<>();
-      list.add(attr);
-
-      Map<String, AttributeValue> startkey = null;
-      QueryConfig config = new QueryConfig();
-
+      DocumentRestoreMoveAttributeFunction func =
+          new DocumentRestoreMoveAttributeFunction(siteId, documentId);
       Map<String, AttributeValue> keys = keysDocument(siteId, documentId);
 
-      do {
-
-        QueryResponse response = this.dbService.queryBeginsWith(config,
-            fromS(SOFT_DELETE + keys.get(PK).s()), null, startkey, limit);
-
-        List<Map<String, AttributeValue>> attrs =
-            response.items().stream().collect(Collectors.toList());
-        list.addAll(attrs);
-
-        startkey = response.lastEvaluatedKey();
-
-      } while (startkey != null && !startkey.isEmpty());
-
-      restored = this.dbService.moveItems(list,
-          new DocumentRestoreMoveAttributeFunction(siteId, documentId));
+      restored = this.dbService.moveItemsBeginsWith(fromS(SOFT_DELETE + keys.get(PK).s()), null,
+          func);
+      restored |= this.dbService.moveItems(List.of(attr), func);
 
       String path = attr.get("path").s();
       String userId = attr.get("userId").s();
@@ -1354,6 +1381,8 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
           new WriteRequestBuilder().appends(this.documentTableName, folderIndex);
 
       writeBuilder.batchWriteItem(this.dbClient);
+
+      this.indexWriter.updateTagCounts(siteId, List.of(), findTagAttributes(siteId, documentId));
     }
 
     return restored;
@@ -1410,7 +1439,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
       List<DynamicObject> doctags = subdoc.getList("tags");
       tags = doctags.stream().map(t -> {
-        DynamicObjectToDocumentTag transformer = new DynamicObjectToDocumentTag(this.df);
+        DynamicObjectToDocumentTag transformer = new DynamicObjectToDocumentTag(true);
         return transformer.apply(t);
       }).collect(Collectors.toList());
 
@@ -1469,6 +1498,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
     List<Map<String, AttributeValue>> tagValues =
         getSaveTagsAttributes(siteId, document.getDocumentId(), tags, options.timeToLive());
+    List<Map<String, AttributeValue>> previousTagValues = findSavedTagAttributes(tagValues);
 
     WriteRequestBuilder writeBuilder = new WriteRequestBuilder()
         .append(this.documentTableName, documentValues).appends(this.documentTableName, tagValues)
@@ -1483,6 +1513,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
       List<String> tagKeys =
           notNull(tags).stream().map(t -> t.getKey()).collect(Collectors.toList());
       this.indexWriter.writeTagIndex(siteId, tagKeys);
+      this.indexWriter.updateTagCounts(siteId, previousTagValues, tagValues);
 
       if (options.saveDocumentDate()) {
         saveDocumentDate(document);
@@ -1514,11 +1545,9 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
     Date insertedDate =
         document.getInsertedDate() != null ? document.getInsertedDate() : new Date();
-    String shortdate = this.yyyymmddFormat.format(insertedDate);
-
-    if (this.lastShortDate == null || !this.lastShortDate.equals(shortdate)) {
+    String shortdate = DateCodec.formatDay(insertedDate);
 
-      this.lastShortDate = shortdate;
+    if (!shortdate.equals(this.lastShortDate.getAndSet(shortdate))) {
 
       Map<String, AttributeValue> values =
           Map.of(PK, AttributeValue.builder().s(PREFIX_DOCUMENT_DATE).build(), SK,
@@ -1539,7 +1568,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
   public DocumentFormat saveDocumentFormat(final String siteId, final DocumentFormat format) {
 
     Date insertedDate = format.getInsertedDate();
-    String fulldate = this.df.format(insertedDate);
+    String fulldate = DateCodec.formatIso(insertedDate);
 
     Map<String, AttributeValue> pkvalues =
         keysDocumentFormats(siteId, format.getDocumentId(), format.getContentType());
@@ -1570,7 +1599,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
     List<DynamicObject> doctags = doc.getList("tags");
 
     List<DocumentTag> tags = doctags.stream().filter(t -> t.containsKey("key")).map(t -> {
-      DynamicObjectToDocumentTag transform = new DynamicObjectToDocumentTag(this.df);
+      DynamicObjectToDocumentTag transform = new DynamicObjectToDocumentTag(true);
       DocumentTag tag = transform.apply(t);
       tag.setInsertedDate(date);
       tag.setUserId(username);
@@ -1633,7 +1662,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
 
     if (preset != null) {
       Date insertedDate = preset.getInsertedDate();
-      String fulldate = this.df.format(insertedDate);
+      String fulldate = DateCodec.formatIso(insertedDate);
 
       Map<String, AttributeValue> pkvalues = keysPreset(siteId, preset.getId());
       addS(pkvalues, "inserteddate", fulldate);
@@ -1651,7 +1680,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
       for (PresetTag tag : tags) {
 
         Date insertedDate = tag.getInsertedDate();
-        String fulldate = this.df.format(insertedDate);
+        String fulldate = DateCodec.formatIso(insertedDate);
 
         Map<String, AttributeValue> pkvalues = keysPresetTag(siteId, id, tag.getKey());
         addS(pkvalues, "inserteddate", fulldate);
@@ -1671,7 +1700,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
    * @param date {@link String}
    */
   public void setLastShortDate(final String date) {
-    this.lastShortDate = date;
+    this.lastShortDate.set(date);
   }
 
   /**
@@ -1732,7 +1761,7 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
         Map<String, AttributeValue> updated = new HashMap<>(current);
         updated.putAll(attributes);
 
-        String fullLastModifiedDate = this.df.format(new Date());
+        String fullLastModifiedDate = DateCodec.formatIso(new Date());
         addS(updated, "lastModifiedDate", fullLastModifiedDate);
 
         this.versionsService.addDocumentVersionAttributes(current, updated);
@@ -1755,4 +1784,16 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
       }
     }
   }
+
+  /**
+   * Add 'documentId', which {@link AttributeValueToDocumentItem} requires, to the attributes.
+   * 
+   * @param attributes {@link Collection} {@link String}
+   * @return {@link Collection} {@link String}
+   */
+  private Collection<String> withDocumentId(final Collection<String> attributes) {
+    Set<String> set = new LinkedHashSet<>(attributes);
+    set.add("documentId");
+    return set;
+  }
 }
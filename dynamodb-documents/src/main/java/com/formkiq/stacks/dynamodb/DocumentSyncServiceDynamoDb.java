@@ -28,7 +28,6 @@ import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_DOCS;
 import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -47,7 +46,7 @@ import com.formkiq.aws.dynamodb.model.DocumentSync;
 import com.formkiq.aws.dynamodb.model.DocumentSyncServiceType;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
-import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 
@@ -64,8 +63,6 @@ public class DocumentSyncServiceDynamoDb implements DocumentSyncService {
   /** {@link DynamoDbService}. */
   private DynamoDbService db;
 
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df = DateUtil.getIsoDateFormatter();
 
   /**
    * constructor.
@@ -110,7 +107,7 @@ public class DocumentSyncServiceDynamoDb implements DocumentSyncService {
       final DocumentSyncServiceType service, final DocumentSyncStatus status,
       final DocumentSyncType type, final String userId, final String message) {
 
-    String fullInsertedDate = this.df.format(new Date());
+    String fullInsertedDate = DateCodec.formatIso(new Date());
 
     Map<String, AttributeValue> attrs = new HashMap<>();
     attrs.put(PK, AttributeValue.fromS(getPk(siteId, documentId)));
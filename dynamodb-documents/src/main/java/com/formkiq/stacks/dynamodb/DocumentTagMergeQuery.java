@@ -0,0 +1,277 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * 
+ * Runs several tag index {@link QueryRequest} concurrently and k-way merges their results on the
+ * index sort key (descending), removing duplicate documents. The returned
+ * {@link PaginationMapToken} holds a cursor per query, so the merged results can be paged.
+ *
+ */
+public class DocumentTagMergeQuery {
+
+  /** Token key suffix for a query with no more results. */
+  private static final String DONE = "done";
+  /** Maximum number of concurrent queries. */
+  private static final int MAX_THREADS = 8;
+  /** {@link ExecutorService} shared by all merge queries. */
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+    Thread t = new Thread(r, "tag-merge-query");
+    t.setDaemon(true);
+    return t;
+  });
+
+  /** Single query cursor. */
+  private static class Cursor {
+    /** Items fetched but not yet merged. */
+    private Deque<Map<String, AttributeValue>> buffer = new ArrayDeque<>();
+    /** Key of the last merged item, where the next page starts. */
+    private Map<String, AttributeValue> position;
+    /** Start key of the next page to fetch, null when no more pages. */
+    private Map<String, AttributeValue> nextKey;
+    /** Whether a page has been fetched. */
+    private boolean started;
+
+    /**
+     * Whether the cursor has no more items.
+     * 
+     * @return boolean
+     */
+    boolean isDone() {
+      return this.started && this.buffer.isEmpty() && this.nextKey == null;
+    }
+
+    /**
+     * Whether the cursor needs another page.
+     * 
+     * @return boolean
+     */
+    boolean needsFetch() {
+      return this.buffer.isEmpty() && (!this.started || this.nextKey != null);
+    }
+  }
+
+  /** {@link DynamoDbClient}. */
+  private DynamoDbClient dbClient;
+  /** Index Partition Key attribute. */
+  private String indexPk;
+  /** Index Sort Key attribute. */
+  private String indexSk;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param indexPartitionKey {@link String}
+   * @param indexSortKey {@link String}
+   */
+  public DocumentTagMergeQuery(final DynamoDbClient client, final String indexPartitionKey,
+      final String indexSortKey) {
+    this.dbClient = client;
+    this.indexPk = indexPartitionKey;
+    this.indexSk = indexSortKey;
+  }
+
+  /**
+   * Decode the per query cursors from a {@link PaginationMapToken}.
+   * 
+   * @param size int
+   * @param token {@link PaginationMapToken}
+   * @return {@link List} {@link Cursor}
+   */
+  private List<Cursor> decode(final int size, final PaginationMapToken token) {
+
+    List<Cursor> cursors = new ArrayList<>();
+
+    for (int i = 0; i < size; i++) {
+
+      Cursor c = new Cursor();
+      String prefix = i + "#";
+
+      if (token != null) {
+
+        Map<String, Object> map = token.getAttributeMap();
+
+        if (map.containsKey(prefix + DONE)) {
+          c.started = true;
+        } else {
+
+          Map<String, AttributeValue> key = new HashMap<>();
+          for (String attr : List.of(PK, SK, this.indexPk, this.indexSk)) {
+            Object value = map.get(prefix + attr);
+            if (value != null) {
+              key.put(attr, AttributeValue.fromS(value.toString()));
+            }
+          }
+
+          c.position = !key.isEmpty() ? key : null;
+        }
+      }
+
+      cursors.add(c);
+    }
+
+    return cursors;
+  }
+
+  /**
+   * Encode the per query cursors as a {@link PaginationMapToken}.
+   * 
+   * @param cursors {@link List} {@link Cursor}
+   * @return {@link PaginationMapToken}
+   */
+  private PaginationMapToken encode(final List<Cursor> cursors) {
+
+    Map<String, Object> map = new HashMap<>();
+    boolean more = false;
+
+    for (int i = 0; i < cursors.size(); i++) {
+
+      Cursor c = cursors.get(i);
+      String prefix = i + "#";
+
+      if (c.isDone()) {
+        map.put(prefix + DONE, "true");
+      } else {
+        more = true;
+        if (c.position != null) {
+          c.position.forEach((k, v) -> map.put(prefix + k, v.s()));
+        }
+      }
+    }
+
+    return more ? new PaginationMapToken(map) : null;
+  }
+
+  /**
+   * Fetch the next page of every cursor with an empty buffer, concurrently.
+   * 
+   * @param requests {@link List} {@link QueryRequest}
+   * @param cursors {@link List} {@link Cursor}
+   * @param maxresults int
+   */
+  private void fetch(final List<QueryRequest> requests, final List<Cursor> cursors,
+      final int maxresults) {
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+    for (int i = 0; i < cursors.size(); i++) {
+
+      Cursor c = cursors.get(i);
+
+      if (c.needsFetch()) {
+
+        Map<String, AttributeValue> startKey = c.started ? c.nextKey : c.position;
+        QueryRequest q = requests.get(i).toBuilder().exclusiveStartKey(startKey)
+            .limit(Integer.valueOf(maxresults)).build();
+
+        futures.add(CompletableFuture.runAsync(() -> {
+          QueryResponse response = this.dbClient.query(q);
+          c.buffer.addAll(response.items());
+          c.nextKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+              ? response.lastEvaluatedKey()
+              : null;
+          c.started = true;
+        }, EXECUTOR));
+      }
+    }
+
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+  }
+
+  /**
+   * Run the {@link QueryRequest} and merge the results.
+   * 
+   * @param requests {@link List} {@link QueryRequest}, each sorted descending on the index sort key
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @return {@link PaginationResults} of the merged index items
+   */
+  public PaginationResults<Map<String, AttributeValue>> query(final List<QueryRequest> requests,
+      final PaginationMapToken token, final int maxresults) {
+
+    List<Cursor> cursors = decode(requests.size(), token);
+    List<Map<String, AttributeValue>> results = new ArrayList<>();
+    Set<String> documentIds = new HashSet<>();
+
+    boolean more = true;
+
+    while (results.size() < maxresults && more) {
+
+      fetch(requests, cursors, maxresults);
+
+      String max = cursors.stream().filter(c -> !c.buffer.isEmpty())
+          .map(c -> c.buffer.peek().get(this.indexSk).s()).max(String::compareTo).orElse(null);
+
+      more = max != null;
+
+      if (more) {
+
+        List<Cursor> heads = cursors.stream().filter(
+            c -> !c.buffer.isEmpty() && max.equals(c.buffer.peek().get(this.indexSk).s()))
+            .collect(Collectors.toList());
+
+        for (Cursor c : heads) {
+
+          Map<String, AttributeValue> item = c.buffer.poll();
+          c.position = toKey(item);
+
+          String documentId = item.get("documentId").s();
+          if (documentIds.add(documentId)) {
+            results.add(item);
+          }
+        }
+      }
+    }
+
+    return new PaginationResults<>(results, encode(cursors));
+  }
+
+  private Map<String, AttributeValue> toKey(final Map<String, AttributeValue> item) {
+    return Map.of(PK, item.get(PK), SK, item.get(SK), this.indexPk, item.get(this.indexPk),
+        this.indexSk, item.get(this.indexSk));
+  }
+}
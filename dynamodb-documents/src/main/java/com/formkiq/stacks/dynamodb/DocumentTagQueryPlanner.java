@@ -0,0 +1,343 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_PK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_SK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2_PK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2_SK;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAG;
+import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import static com.formkiq.aws.dynamodb.objects.Objects.notNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.ReadRequestBuilder;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
+import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+/**
+ * 
+ * Plans and runs a search for documents matching all of several {@link SearchTagCriteria}. The
+ * most selective criteria, estimated from the {@link GlobalIndexService} tag counts, drives the
+ * search through the tag index; the other criteria are checked by reading the document tag
+ * records of each page of candidates with a BatchGetItem.
+ *
+ */
+public class DocumentTagQueryPlanner implements DbKeys {
+
+  /** Token key of the driving criteria. */
+  private static final String DRIVER = "driver";
+  /** Maximum number of driving index pages read per call. */
+  private static final int MAX_PAGES = 10;
+
+  /** {@link DynamoDbClient}. */
+  private DynamoDbClient dbClient;
+  /** Documents Table Name. */
+  private String documentTableName;
+  /** {@link GlobalIndexService}. */
+  private GlobalIndexService indexService;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param documentsTable {@link String}
+   * @param globalIndexService {@link GlobalIndexService}
+   */
+  public DocumentTagQueryPlanner(final DynamoDbClient client, final String documentsTable,
+      final GlobalIndexService globalIndexService) {
+    this.dbClient = client;
+    this.documentTableName = documentsTable;
+    this.indexService = globalIndexService;
+  }
+
+  private QueryRequest createQueryRequest(final String index, final String expression,
+      final Map<String, AttributeValue> values) {
+    return QueryRequest.builder().tableName(this.documentTableName).indexName(index)
+        .keyConditionExpression(expression).expressionAttributeValues(values)
+        .scanIndexForward(Boolean.FALSE).build();
+  }
+
+  /**
+   * Create the tag index {@link QueryRequest} for the driving {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param search {@link SearchTagCriteria}
+   * @return {@link List} {@link QueryRequest}
+   */
+  private List<QueryRequest> createQueryRequests(final String siteId,
+      final SearchTagCriteria search) {
+
+    List<QueryRequest> requests = new ArrayList<>();
+    String key = search.key();
+
+    if (isValueSearch(search)) {
+
+      Collection<String> values =
+          !notNull(search.eqOr()).isEmpty() ? search.eqOr() : List.of(search.eq());
+
+      values.stream().distinct().forEach(value -> {
+        Map<String, AttributeValue> attrs = Map.of(":pk", AttributeValue
+            .fromS(createDatabaseKey(siteId, PREFIX_TAG + key + TAG_DELIMINATOR + value)));
+        requests.add(createQueryRequest(GSI1, GSI1_PK + " = :pk", attrs));
+      });
+
+    } else {
+
+      Map<String, AttributeValue> attrs = new HashMap<>();
+      attrs.put(":pk", AttributeValue.fromS(createDatabaseKey(siteId, PREFIX_TAG + key)));
+      String expression = GSI2_PK + " = :pk";
+
+      if (search.beginsWith() != null) {
+        attrs.put(":sk", AttributeValue.fromS(search.beginsWith()));
+        expression += " and begins_with(" + GSI2_SK + ", :sk)";
+      }
+
+      requests.add(createQueryRequest(GSI2, expression, attrs));
+    }
+
+    return requests;
+  }
+
+  /**
+   * Estimate the number of documents each {@link SearchTagCriteria} matches.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @return {@link List} {@link Long}
+   */
+  public List<Long> estimate(final String siteId, final List<SearchTagCriteria> criteria) {
+
+    List<DocumentTag> tags = criteria.stream().map(c -> {
+      DocumentTag tag = new DocumentTag().setKey(c.key());
+      if (!notNull(c.eqOr()).isEmpty()) {
+        tag.setValues(new ArrayList<>(c.eqOr()));
+      } else if (c.eq() != null) {
+        tag.setValue(c.eq());
+      }
+      return tag;
+    }).collect(Collectors.toList());
+
+    return this.indexService.getTagCounts(siteId, tags);
+  }
+
+  /**
+   * Find the document tag records of the probe {@link SearchTagCriteria}, by documentId and tag
+   * key.
+   * 
+   * @param siteId {@link String}
+   * @param documentIds {@link Set} {@link String}
+   * @param probes {@link List} {@link SearchTagCriteria}
+   * @return {@link Map}
+   */
+  private Map<String, Map<String, Map<String, AttributeValue>>> findDocumentTags(
+      final String siteId, final Set<String> documentIds, final List<SearchTagCriteria> probes) {
+
+    List<Map<String, AttributeValue>> keys = new ArrayList<>();
+    documentIds.forEach(documentId -> probes
+        .forEach(probe -> keys.add(keysDocumentTag(siteId, documentId, probe.key()))));
+
+    BatchGetConfig config = new BatchGetConfig().projectionExpression(
+        "documentId, tagKey, tagValue, tagValues");
+    List<Map<String, AttributeValue>> items =
+        new ReadRequestBuilder().append(this.documentTableName, keys)
+            .batchReadItems(this.dbClient, config)
+            .getOrDefault(this.documentTableName, List.of());
+
+    Map<String, Map<String, Map<String, AttributeValue>>> map = new HashMap<>();
+    items.forEach(i -> map.computeIfAbsent(i.get("documentId").s(), k -> new HashMap<>())
+        .put(i.get("tagKey").s(), i));
+
+    return map;
+  }
+
+  private boolean isMatch(final SearchTagCriteria search, final String value) {
+
+    boolean match = true;
+
+    if (search.beginsWith() != null) {
+      match = value.startsWith(search.beginsWith());
+    } else if (!notNull(search.eqOr()).isEmpty()) {
+      match = search.eqOr().contains(value);
+    } else if (search.eq() != null) {
+      match = value.equals(search.eq());
+    }
+
+    return match;
+  }
+
+  /**
+   * Whether a document tag record matches a {@link SearchTagCriteria}.
+   * 
+   * @param search {@link SearchTagCriteria}
+   * @param item {@link Map}
+   * @return boolean
+   */
+  private boolean isMatch(final SearchTagCriteria search, final Map<String, AttributeValue> item) {
+
+    boolean match = false;
+
+    if (item != null) {
+
+      if (item.containsKey("tagValues")) {
+        match = item.get("tagValues").l().stream().anyMatch(v -> isMatch(search, v.s()));
+      } else {
+        String value = item.containsKey("tagValue") ? item.get("tagValue").s() : "";
+        match = isMatch(search, value);
+      }
+    }
+
+    return match;
+  }
+
+  private boolean isValueSearch(final SearchTagCriteria search) {
+    return search.eq() != null || !notNull(search.eqOr()).isEmpty();
+  }
+
+  /**
+   * Keep the driving index items whose document matches every probe {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param items {@link List} {@link Map}
+   * @param probes {@link List} {@link SearchTagCriteria}
+   * @param seen {@link Set} of documentIds already returned
+   * @return {@link List} {@link Map}
+   */
+  private List<Map<String, AttributeValue>> probe(final String siteId,
+      final List<Map<String, AttributeValue>> items, final List<SearchTagCriteria> probes,
+      final Set<String> seen) {
+
+    List<Map<String, AttributeValue>> candidates =
+        items.stream().filter(i -> !seen.contains(i.get("documentId").s()))
+            .collect(Collectors.toList());
+
+    Set<String> documentIds =
+        candidates.stream().map(i -> i.get("documentId").s()).collect(Collectors.toSet());
+
+    Map<String, Map<String, Map<String, AttributeValue>>> tags =
+        !probes.isEmpty() && !documentIds.isEmpty() ? findDocumentTags(siteId, documentIds, probes)
+            : Map.of();
+
+    List<Map<String, AttributeValue>> matches = candidates.stream().filter(i -> {
+      Map<String, Map<String, AttributeValue>> docTags =
+          tags.getOrDefault(i.get("documentId").s(), Map.of());
+      return probes.stream().allMatch(p -> isMatch(p, docTags.get(p.key())));
+    }).collect(Collectors.toList());
+
+    matches.forEach(i -> seen.add(i.get("documentId").s()));
+    return matches;
+  }
+
+  /**
+   * Find the tag index items of documents matching all the {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @return {@link PaginationResults} of the driving criteria tag index items
+   */
+  public PaginationResults<Map<String, AttributeValue>> query(final String siteId,
+      final List<SearchTagCriteria> criteria, final PaginationMapToken token,
+      final int maxresults) {
+
+    int driver = token != null && token.getAttributeMap().containsKey(DRIVER)
+        ? Integer.parseInt(token.getAttributeMap().get(DRIVER).toString())
+        : selectDriver(siteId, criteria);
+
+    SearchTagCriteria search = criteria.get(driver);
+    List<SearchTagCriteria> probes = new ArrayList<>(criteria);
+    probes.remove(driver);
+
+    DocumentTagMergeQuery mergeQuery = isValueSearch(search)
+        ? new DocumentTagMergeQuery(this.dbClient, GSI1_PK, GSI1_SK)
+        : new DocumentTagMergeQuery(this.dbClient, GSI2_PK, GSI2_SK);
+    List<QueryRequest> requests = createQueryRequests(siteId, search);
+
+    List<Map<String, AttributeValue>> results = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    PaginationMapToken next = token;
+    int pages = 0;
+
+    do {
+      PaginationResults<Map<String, AttributeValue>> page =
+          mergeQuery.query(requests, next, maxresults - results.size());
+      results.addAll(probe(siteId, page.getResults(), probes, seen));
+      next = page.getToken();
+      pages++;
+    } while (next != null && results.size() < maxresults && pages < MAX_PAGES);
+
+    return new PaginationResults<>(results, toToken(next, driver));
+  }
+
+  /**
+   * Select the most selective {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @return int index of the driving criteria
+   */
+  private int selectDriver(final String siteId, final List<SearchTagCriteria> criteria) {
+
+    List<Long> estimates = estimate(siteId, criteria);
+
+    int driver = 0;
+    for (int i = 1; i < estimates.size(); i++) {
+      if (estimates.get(i).longValue() < estimates.get(driver).longValue()) {
+        driver = i;
+      }
+    }
+
+    return driver;
+  }
+
+  private PaginationMapToken toToken(final PaginationMapToken token, final int driver) {
+
+    PaginationMapToken result = null;
+
+    if (token != null) {
+      Map<String, Object> map = new HashMap<>(token.getAttributeMap());
+      map.put(DRIVER, String.valueOf(driver));
+      result = new PaginationMapToken(map);
+    }
+
+    return result;
+  }
+}
@@ -33,7 +33,6 @@ import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAGS;
 import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -42,6 +41,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 /**
@@ -57,25 +57,21 @@ public class DocumentTagToAttributeValueMap
   /** Document Id. */
   private String document;
 
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df;
   /** Primary Key Prefix. */
   private String keyPrefix;
 
   /**
    * constructor.
    * 
-   * @param dateformat {@link SimpleDateFormat}
    * @param pkPrefix {@link String}
    * @param siteId {@link String}
    * @param documentId {@link String}
    */
-  public DocumentTagToAttributeValueMap(final SimpleDateFormat dateformat, final String pkPrefix,
-      final String siteId, final String documentId) {
+  public DocumentTagToAttributeValueMap(final String pkPrefix, final String siteId,
+      final String documentId) {
     this.keyPrefix = pkPrefix;
     this.site = siteId;
     this.document = documentId;
-    this.df = dateformat;
   }
 
   @Override
@@ -118,7 +114,7 @@ public class DocumentTagToAttributeValueMap
       final int tagValueIndex) {
 
     String tagKey = tag.getKey();
-    String fulldate = this.df.format(tag.getInsertedDate());
+    String fulldate = DateCodec.formatIso(tag.getInsertedDate());
 
     DocumentTagType type = tag.getType() != null ? tag.getType() : DocumentTagType.USERDEFINED;
 
@@ -29,14 +29,13 @@ import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
-import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import com.formkiq.graalvm.annotations.Reflectable;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -52,8 +51,6 @@ public class DocumentVersionServiceDynamoDb implements DocumentVersionService {
 
   /** The Default maximum results returned. */
   private static final int MAX_RESULTS = 100;
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df = DateUtil.getIsoDateFormatter();
   /** DynamoDB Document Versions Table Name. */
   private String tableName = null;
 
@@ -106,7 +103,7 @@ public class DocumentVersionServiceDynamoDb implements DocumentVersionService {
   }
 
   private String getSk(final Map<String, AttributeValue> previous, final String version) {
-    String sk = previous.get(SK).s() + TAG_DELIMINATOR + this.df.format(new Date())
+    String sk = previous.get(SK).s() + TAG_DELIMINATOR + DateCodec.formatIso(new Date())
         + TAG_DELIMINATOR + "v" + version;
     return sk;
   }
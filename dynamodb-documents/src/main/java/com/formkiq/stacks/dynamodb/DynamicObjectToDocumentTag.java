@@ -24,12 +24,12 @@
 package com.formkiq.stacks.dynamodb;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.function.Function;
 import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 
 /**
  * 
@@ -38,16 +38,16 @@ import com.formkiq.aws.dynamodb.model.DocumentTagType;
  */
 public class DynamicObjectToDocumentTag implements Function<DynamicObject, DocumentTag> {
 
-  /** {@link SimpleDateFormat}. */
-  private SimpleDateFormat df;
+  /** Whether to parse ISO string inserted dates. */
+  private boolean parseDates;
 
   /**
    * constructor.
    * 
-   * @param formatter {@link SimpleDateFormat}
+   * @param parseInsertedDate Parse ISO string inserted dates
    */
-  public DynamicObjectToDocumentTag(final SimpleDateFormat formatter) {
-    this.df = formatter;
+  public DynamicObjectToDocumentTag(final boolean parseInsertedDate) {
+    this.parseDates = parseInsertedDate;
   }
 
   @Override
@@ -67,9 +67,9 @@ public class DynamicObjectToDocumentTag implements Function<DynamicObject, Docum
     Object ob = t.get("insertedDate");
     if (ob instanceof Date) {
       tag.setInsertedDate((Date) ob);
-    } else if (this.df != null && ob instanceof String) {
+    } else if (this.parseDates && ob instanceof String) {
       try {
-        tag.setInsertedDate(this.df.parse(ob.toString()));
+        tag.setInsertedDate(DateCodec.parseIso(ob.toString()));
       } catch (ParseException e) {
         tag.setInsertedDate(new Date());
       }
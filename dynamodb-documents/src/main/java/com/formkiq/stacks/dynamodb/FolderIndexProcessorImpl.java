@@ -88,7 +88,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
    * @param path {@link String}
    * @return {@link String}
    */
-  private static String[] tokens(final String path) {
+  static String[] tokens(final String path) {
 
     String[] strs;
 
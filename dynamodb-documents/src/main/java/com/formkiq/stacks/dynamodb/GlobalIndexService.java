@@ -28,12 +28,19 @@ import static com.formkiq.aws.dynamodb.DbKeys.PK;
 import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
@@ -41,8 +48,10 @@ import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
 import com.formkiq.aws.dynamodb.ReadRequestBuilder;
 import com.formkiq.aws.dynamodb.WriteRequestBuilder;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
 /**
  * 
@@ -53,6 +62,29 @@ public class GlobalIndexService {
 
   /** Cache Size. */
   private static final int CACHE_SIZE = 500;
+  /** Maximum number of pending tag count updates, further updates are dropped. */
+  private static final int MAX_PENDING = 10000;
+  /** Maximum number of concurrent tag count updates. */
+  private static final int MAX_THREADS = 8;
+  /** Pending tag count updates. */
+  private static final Set<CompletableFuture<Void>> PENDING = ConcurrentHashMap.newKeySet();
+  /** Tag Count attribute. */
+  private static final String TAG_COUNT = "documentCount";
+  /** Tag Count SK for the number of documents with a tag key. */
+  private static final String TAG_COUNT_KEY = "key";
+  /** Number of shards each tag count is spread over. */
+  private static final int TAG_COUNT_SHARDS = 10;
+  /** Tag Count PK prefix. */
+  private static final String TAG_COUNT_PREFIX =
+      "global" + TAG_DELIMINATOR + "tagcounts" + TAG_DELIMINATOR;
+  /** Tag Count SK prefix for the number of documents with a tag value. */
+  private static final String TAG_COUNT_VALUE = "value" + TAG_DELIMINATOR;
+  /** {@link ExecutorService} shared by all tag count updates. */
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_THREADS, r -> {
+    Thread t = new Thread(r, "tag-count-update");
+    t.setDaemon(true);
+    return t;
+  });
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
 
@@ -124,6 +156,81 @@ public class GlobalIndexService {
     return r.get(PK).s() + "_" + r.get(SK).s();
   }
 
+  /**
+   * Get the Tag Count SKs a {@link DocumentTag} estimate is summed over.
+   * 
+   * @param tag {@link DocumentTag}
+   * @return {@link List} {@link String}
+   */
+  private List<String> getTagCountKeys(final DocumentTag tag) {
+
+    List<String> keys = new ArrayList<>();
+
+    if (tag.getValues() != null && !tag.getValues().isEmpty()) {
+      tag.getValues().stream().distinct().forEach(v -> keys.add(TAG_COUNT_VALUE + v));
+    } else if (tag.getValue() != null) {
+      keys.add(TAG_COUNT_VALUE + tag.getValue());
+    } else {
+      keys.add(TAG_COUNT_KEY);
+    }
+
+    return keys;
+  }
+
+  /**
+   * Get the Tag Count PK of one shard of a tag key's counts.
+   * 
+   * @param siteId {@link String}
+   * @param tagKey {@link String}
+   * @param shard int
+   * @return {@link String}
+   */
+  private String getTagCountPk(final String siteId, final String tagKey, final int shard) {
+    return createDatabaseKey(siteId, TAG_COUNT_PREFIX + tagKey + TAG_DELIMINATOR + shard);
+  }
+
+  /**
+   * Get the estimated number of documents matching each {@link DocumentTag}. A tag with a value or
+   * values is estimated from its value counts, a tag without from its key count. Counts are
+   * summed over all shards.
+   * 
+   * @param siteId {@link String}
+   * @param tags {@link List} {@link DocumentTag}
+   * @return {@link List} {@link Long}, in the order of the tags
+   */
+  public List<Long> getTagCounts(final String siteId, final List<DocumentTag> tags) {
+
+    Set<Map<String, AttributeValue>> keys = new HashSet<>();
+    for (DocumentTag tag : tags) {
+      for (int shard = 0; shard < TAG_COUNT_SHARDS; shard++) {
+        String pk = getTagCountPk(siteId, tag.getKey(), shard);
+        getTagCountKeys(tag).forEach(
+            sk -> keys.add(Map.of(PK, AttributeValue.fromS(pk), SK, AttributeValue.fromS(sk))));
+      }
+    }
+
+    BatchGetConfig config = new BatchGetConfig();
+    ReadRequestBuilder readBuilder =
+        new ReadRequestBuilder().append(this.documentTableName, new ArrayList<>(keys));
+    List<Map<String, AttributeValue>> items = readBuilder.batchReadItems(this.dbClient, config)
+        .getOrDefault(this.documentTableName, List.of());
+
+    Map<String, Long> counts = new HashMap<>();
+    items.stream().filter(i -> i.containsKey(TAG_COUNT))
+        .forEach(i -> counts.put(getCacheKey(i), Long.valueOf(i.get(TAG_COUNT).n())));
+
+    return tags.stream().map(tag -> {
+      long count = 0;
+      for (int shard = 0; shard < TAG_COUNT_SHARDS; shard++) {
+        String pk = getTagCountPk(siteId, tag.getKey(), shard);
+        count += getTagCountKeys(tag).stream()
+            .mapToLong(sk -> counts.getOrDefault(pk + "_" + sk, Long.valueOf(0)).longValue())
+            .sum();
+      }
+      return Long.valueOf(Math.max(count, 0));
+    }).collect(Collectors.toList());
+  }
+
   private String getTagsPk(final String siteId) {
     return createDatabaseKey(siteId, GLOBAL_FOLDER_TAGS);
   }
@@ -132,6 +239,85 @@ public class GlobalIndexService {
     return "key" + TAG_DELIMINATOR + tagKey;
   }
 
+  /**
+   * Get the Tag Count entries of document tag records, one per document / tag key / count SK.
+   * 
+   * @param tagItems {@link Collection} of document tag records
+   * @return {@link Set} of documentId, tagKey, Tag Count SK
+   */
+  private Set<List<String>> getTagCountEntries(
+      final Collection<Map<String, AttributeValue>> tagItems) {
+
+    Set<List<String>> entries = new HashSet<>();
+
+    tagItems.stream().filter(i -> i.containsKey("tagKey") && i.containsKey("documentId"))
+        .forEach(i -> {
+          String documentId = i.get("documentId").s();
+          String tagKey = i.get("tagKey").s();
+          String tagValue = i.containsKey("tagValue") ? i.get("tagValue").s() : "";
+          entries.add(List.of(documentId, tagKey, TAG_COUNT_KEY));
+          entries.add(List.of(documentId, tagKey, TAG_COUNT_VALUE + tagValue));
+        });
+
+    return entries;
+  }
+
+  /**
+   * Wait for the pending tag count updates to complete.
+   */
+  static void awaitTagCounts() {
+    CompletableFuture.allOf(PENDING.toArray(new CompletableFuture[0])).join();
+  }
+
+  /**
+   * Update the per tag key and per tag value document counts used to estimate tag search
+   * selectivity, from the document tag records before and after a change. Only the tag keys and
+   * values a document gained or lost are counted.
+   * 
+   * The counts are estimates used to order tag criteria, so the updates run in the background on
+   * a random shard of the tag key's counts and a failed update is dropped instead of failing the
+   * tag write.
+   * 
+   * @param siteId {@link String}
+   * @param previous {@link Collection} of the document tag records before the change
+   * @param current {@link Collection} of the document tag records after the change
+   */
+  public void updateTagCounts(final String siteId,
+      final Collection<Map<String, AttributeValue>> previous,
+      final Collection<Map<String, AttributeValue>> current) {
+
+    Set<List<String>> before = getTagCountEntries(previous);
+    Set<List<String>> after = getTagCountEntries(current);
+
+    Map<List<String>, Long> counts = new HashMap<>();
+    after.stream().filter(e -> !before.contains(e)).forEach(
+        e -> counts.merge(List.of(e.get(1), e.get(2)), Long.valueOf(1), Long::sum));
+    before.stream().filter(e -> !after.contains(e)).forEach(
+        e -> counts.merge(List.of(e.get(1), e.get(2)), Long.valueOf(-1), Long::sum));
+
+    counts.entrySet().stream().filter(e -> e.getValue().longValue() != 0).forEach(e -> {
+
+      int shard = ThreadLocalRandom.current().nextInt(TAG_COUNT_SHARDS);
+      String pk = getTagCountPk(siteId, e.getKey().get(0), shard);
+      Map<String, AttributeValue> key =
+          Map.of(PK, AttributeValue.fromS(pk), SK, AttributeValue.fromS(e.getKey().get(1)));
+
+      UpdateItemRequest req = UpdateItemRequest.builder().tableName(this.documentTableName)
+          .key(key).updateExpression("ADD #count :incr")
+          .expressionAttributeNames(Map.of("#count", TAG_COUNT))
+          .expressionAttributeValues(Map.of(":incr", AttributeValue.fromN(e.getValue().toString())))
+          .build();
+
+      if (PENDING.size() < MAX_PENDING) {
+        CompletableFuture<Void> future =
+            CompletableFuture.runAsync(() -> this.dbClient.updateItem(req), EXECUTOR)
+                .exceptionally(ex -> null);
+        PENDING.add(future);
+        future.whenComplete((v, ex) -> PENDING.remove(future));
+      }
+    });
+  }
+
   /**
    * Write Tag Index.
    * 
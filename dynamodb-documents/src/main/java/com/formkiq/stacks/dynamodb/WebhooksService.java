@@ -44,6 +44,14 @@ public interface WebhooksService {
    */
   void addTags(String siteId, String webhookId, Collection<DocumentTag> tags, Date ttl);
 
+  /**
+   * Count Webhooks, without reading them.
+   *
+   * @param siteId Optional Grouping siteId
+   * @return int
+   */
+  int countWebhooks(String siteId);
+
   /**
    * Delete Webhook.
    *
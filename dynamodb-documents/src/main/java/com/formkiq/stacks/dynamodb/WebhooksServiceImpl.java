@@ -24,7 +24,6 @@
 package com.formkiq.stacks.dynamodb;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
-import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -42,7 +41,7 @@ import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.PaginationToAttributeValue;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
-import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
@@ -56,6 +55,7 @@ import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
@@ -68,8 +68,6 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
   /** Documents Table Name. */
   private String documentTableName;
 
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df;
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
 
@@ -87,7 +85,6 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
 
     this.dbClient = connection.build();
     this.documentTableName = documentsTable;
-    this.df = DateUtil.getIsoDateFormatter();
   }
 
   @Override
@@ -97,7 +94,7 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
     if (tags != null) {
 
       DocumentTagToAttributeValueMap mapper =
-          new DocumentTagToAttributeValueMap(this.df, PREFIX_WEBHOOK, siteId, webhookId);
+          new DocumentTagToAttributeValueMap(PREFIX_WEBHOOK, siteId, webhookId);
 
       List<List<Map<String, AttributeValue>>> valueList =
           tags.stream().map(mapper).collect(Collectors.toList());
@@ -132,6 +129,33 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
         .value(AttributeValue.builder().n(String.valueOf(timeout)).build()).build());
   }
 
+  @Override
+  public int countWebhooks(final String siteId) {
+
+    Map<String, AttributeValue> key = queryKeys(keysGeneric(siteId, PREFIX_WEBHOOKS, null));
+    String expr = GSI1_PK + " = :pk";
+
+    int count = 0;
+    Map<String, AttributeValue> startKey = null;
+
+    do {
+
+      QueryRequest q = QueryRequest.builder().tableName(this.documentTableName).indexName(GSI1)
+          .keyConditionExpression(expr).expressionAttributeValues(key).select(Select.COUNT)
+          .exclusiveStartKey(startKey).build();
+
+      QueryResponse result = this.dbClient.query(q);
+      count += result.count().intValue();
+
+      startKey = result.hasLastEvaluatedKey() && !result.lastEvaluatedKey().isEmpty()
+          ? result.lastEvaluatedKey()
+          : null;
+
+    } while (startKey != null);
+
+    return count;
+  }
+
   @Override
   public void deleteWebhook(final String siteId, final String id) {
 
@@ -257,7 +281,7 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
       final Date ttl, final String enabled) {
 
     final String id = UUID.randomUUID().toString();
-    final String fulldate = this.df.format(new Date());
+    final String fulldate = DateCodec.formatIso(new Date());
 
     Map<String, AttributeValue> pkvalues = keysGeneric(siteId, PREFIX_WEBHOOK + id, "webhook");
 
@@ -344,7 +368,7 @@ public class WebhooksServiceImpl implements WebhooksService, DbKeys {
         ob.put("enabled", "false");
       }
 
-      ob.put("ttl", this.df.format(new Date(dateL)));
+      ob.put("ttl", DateCodec.formatIso(new Date(dateL)));
     }
   }
 }
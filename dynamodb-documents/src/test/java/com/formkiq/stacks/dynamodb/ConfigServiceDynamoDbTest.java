@@ -30,6 +30,7 @@ import static com.formkiq.stacks.dynamodb.ConfigService.MAX_DOCUMENTS;
 import static com.formkiq.stacks.dynamodb.ConfigService.MAX_WEBHOOKS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -61,6 +62,68 @@ public class ConfigServiceDynamoDbTest {
         new ConfigServiceDynamoDb(DynamoDbTestServices.getDynamoDbConnection(), "Documents");
   }
 
+  /**
+   * Test Cached Config is served until invalidated.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testCache01() throws Exception {
+    // given
+    ConfigServiceDynamoDb cached = new ConfigServiceDynamoDb(
+        DynamoDbTestServices.getDynamoDbConnection(), "Documents", Duration.ofMinutes(1));
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      this.service.save(siteId, new DynamicObject(Map.of(MAX_DOCUMENTS, "1")));
+      assertEquals("1", cached.get(siteId).getString(MAX_DOCUMENTS));
+
+      // when
+      this.service.save(siteId, new DynamicObject(Map.of(MAX_DOCUMENTS, "2")));
+
+      // then
+      assertEquals("1", cached.get(siteId).getString(MAX_DOCUMENTS));
+      cached.invalidate();
+      DynamicObject config = cached.get(siteId);
+      assertEquals("2", config.getString(MAX_DOCUMENTS));
+      assertNull(config.getString(ConfigServiceDynamoDb.CONFIG_VERSION));
+
+      cached.save(siteId, new DynamicObject(Map.of(MAX_DOCUMENTS, "3")));
+      assertEquals("3", cached.get(siteId).getString(MAX_DOCUMENTS));
+    }
+  }
+
+  /**
+   * Test Cached Config is revalidated after time to live.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testCache02() throws Exception {
+    // given
+    final long ttl = 100;
+    ConfigServiceDynamoDb cached = new ConfigServiceDynamoDb(
+        DynamoDbTestServices.getDynamoDbConnection(), "Documents", Duration.ofMillis(ttl));
+
+    String siteId = UUID.randomUUID().toString();
+    this.service.save(siteId, new DynamicObject(Map.of(MAX_DOCUMENTS, "1")));
+    assertEquals("1", cached.get(siteId).getString(MAX_DOCUMENTS));
+
+    Thread.sleep(ttl * 2);
+    assertEquals("1", cached.get(siteId).getString(MAX_DOCUMENTS));
+
+    // when
+    this.service.save(siteId, new DynamicObject(Map.of(MAX_DOCUMENTS, "2")));
+    Thread.sleep(ttl * 2);
+
+    // then
+    assertEquals("2", cached.get(siteId).getString(MAX_DOCUMENTS));
+
+    this.service.delete(siteId);
+    Thread.sleep(ttl * 2);
+    assertEquals(0, cached.get(siteId).size());
+  }
+
   /**
    * Test Finding Config.
    * 
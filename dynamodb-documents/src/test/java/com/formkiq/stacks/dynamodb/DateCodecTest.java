@@ -0,0 +1,106 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
+import com.formkiq.aws.dynamodb.objects.DateUtil;
+
+/**
+ * Unit Tests for {@link DateCodec}.
+ *
+ */
+public class DateCodecTest {
+
+  /**
+   * Format and parse match {@link SimpleDateFormat}.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testFormatIso01() throws Exception {
+    // given
+    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
+    SimpleDateFormat day = new SimpleDateFormat("yyyy-MM-dd");
+    day.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+    final long step = 3_600_123L;
+    final int count = 1000;
+
+    for (int i = 0; i < count; i++) {
+      Date date = new Date(i * step * i);
+
+      // when
+      String iso = DateCodec.formatIso(date);
+
+      // then
+      assertEquals(df.format(date), iso);
+      assertEquals(df.parse(iso), DateCodec.parseIso(iso));
+      assertEquals(day.format(date), DateCodec.formatDay(date));
+    }
+  }
+
+  /**
+   * Invalid date.
+   */
+  @Test
+  public void testParseIso01() {
+    assertThrows(ParseException.class, () -> DateCodec.parseIso("2020-01-01"));
+  }
+
+  /**
+   * Format from many threads.
+   */
+  @Test
+  public void testFormatIso02() {
+    // given
+    final int count = 10000;
+    final long step = 86_399_999L;
+
+    // when
+    List<String> results = IntStream.range(0, count).parallel()
+        .mapToObj(i -> DateCodec.formatDay(new Date(i * step)) + " "
+            + DateCodec.formatIso(new Date(i * step)))
+        .collect(Collectors.toList());
+
+    // then
+    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
+    SimpleDateFormat day = new SimpleDateFormat("yyyy-MM-dd");
+    day.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+    for (int i = 0; i < count; i++) {
+      Date date = new Date(i * step);
+      assertEquals(day.format(date) + " " + df.format(date), results.get(i));
+    }
+  }
+}
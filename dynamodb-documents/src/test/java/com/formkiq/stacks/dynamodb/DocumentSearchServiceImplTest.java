@@ -38,10 +38,13 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -676,8 +679,8 @@ public class DocumentSearchServiceImplTest {
       assertEquals(2, list.size());
       assertNull(results.getToken());
 
-      assertEquals("thing", list.get(0).getMap("matchedTag").get("value"));
-      assertEquals("person1", list.get(1).getMap("matchedTag").get("value"));
+      assertEquals(Set.of("thing", "person1"), list.stream()
+          .map(d -> d.getMap("matchedTag").get("value")).collect(Collectors.toSet()));
 
       list.forEach(s -> {
         assertNotNull(s.getInsertedDate());
@@ -920,6 +923,161 @@ public class DocumentSearchServiceImplTest {
     }
   }
 
+  /** Search for tag 'eqOr' with pagination and duplicate documents. */
+  @Test
+  public void testSearch19() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 5;
+      final int limit = 2;
+      Set<String> expected = new HashSet<>();
+
+      for (int i = 0; i < count; i++) {
+        String value = i % 2 == 0 ? "a" : "b";
+        DynamicDocumentItem doc = createTestDocumentWithTags(Map.of("category", value), true);
+        this.service.saveDocumentItemWithTag(siteId, doc);
+        expected.add(doc.getDocumentId());
+      }
+
+      DynamicDocumentItem both =
+          createTestDocumentWithTags(Map.of("category", Arrays.asList("a", "b")), false);
+      this.service.saveDocumentItemWithTag(siteId, both);
+      expected.add(both.getDocumentId());
+
+      SearchQuery q =
+          new SearchQuery().tag(new SearchTagCriteria("category").eqOr(Arrays.asList("a", "b")));
+
+      List<String> documentIds = new ArrayList<>();
+      PaginationMapToken token = null;
+
+      // when
+      do {
+        PaginationResults<DynamicDocumentItem> results =
+            this.searchService.search(siteId, q, token, limit);
+        assertTrue(results.getResults().size() <= limit);
+        results.getResults().forEach(r -> documentIds.add(r.getDocumentId()));
+        token = results.getToken();
+      } while (token != null);
+
+      // then
+      assertEquals(expected.size(), documentIds.size());
+      assertEquals(expected, new HashSet<>(documentIds));
+    }
+  }
+
+  /** Search by multiple Tags, most selective tag first, with pagination. */
+  @Test
+  public void testSearch20() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 10;
+      final int limit = 2;
+      Set<String> expected = new HashSet<>();
+
+      for (int i = 0; i < count; i++) {
+        String status = i < count - 1 ? "open" : "closed";
+        String customer = i % 2 == 0 ? "X" : "Y";
+        DynamicDocumentItem doc = createTestDocumentWithTags(
+            Map.of("status", status, "customer", customer, "year", "2024"), true);
+        this.service.saveDocumentItemWithTag(siteId, doc);
+
+        if ("open".equals(status) && "X".equals(customer)) {
+          expected.add(doc.getDocumentId());
+        }
+      }
+
+      List<SearchTagCriteria> criteria =
+          Arrays.asList(new SearchTagCriteria("status").eq("open"),
+              new SearchTagCriteria("customer").eq("X"), new SearchTagCriteria("year"));
+
+      DynamoDbConnectionBuilder connection = DynamoDbTestServices.getDynamoDbConnection();
+      DocumentTagQueryPlanner planner = new DocumentTagQueryPlanner(connection.build(),
+          DOCUMENTS_TABLE, new GlobalIndexService(connection, DOCUMENTS_TABLE));
+
+      // when
+      GlobalIndexService.awaitTagCounts();
+      List<Long> estimates = planner.estimate(siteId, criteria);
+
+      // then
+      final long expectedOpen = 9;
+      final long expectedCustomer = 5;
+      assertEquals(Arrays.asList(Long.valueOf(expectedOpen), Long.valueOf(expectedCustomer),
+          Long.valueOf(count)), estimates);
+
+      // given
+      SearchQuery q = new SearchQuery().tags(criteria);
+      List<String> documentIds = new ArrayList<>();
+      PaginationMapToken token = null;
+
+      // when
+      do {
+        PaginationResults<DynamicDocumentItem> results =
+            this.searchService.search(siteId, q, token, limit);
+        assertTrue(results.getResults().size() <= limit);
+        results.getResults().forEach(r -> documentIds.add(r.getDocumentId()));
+        token = results.getToken();
+      } while (token != null);
+
+      // then
+      assertEquals(expected.size(), documentIds.size());
+      assertEquals(expected, new HashSet<>(documentIds));
+    }
+  }
+
+  /** Tag counts follow re-saved, removed and deleted document tags. */
+  @Test
+  public void testSearch21() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final Date now = new Date();
+      String documentId = UUID.randomUUID().toString();
+      DocumentItem item = new DocumentItemDynamoDb(documentId, now, "joe");
+      List<SearchTagCriteria> criteria = Arrays.asList(new SearchTagCriteria("status").eq("open"),
+          new SearchTagCriteria("status"), new SearchTagCriteria("customer").eq("X"));
+
+      DynamoDbConnectionBuilder connection = DynamoDbTestServices.getDynamoDbConnection();
+      DocumentTagQueryPlanner planner = new DocumentTagQueryPlanner(connection.build(),
+          DOCUMENTS_TABLE, new GlobalIndexService(connection, DOCUMENTS_TABLE));
+
+      // when
+      for (int i = 0; i < 2; i++) {
+        this.service.saveDocument(siteId, item,
+            Arrays.asList(new DocumentTag(documentId, "status", "open", now, "joe"),
+                new DocumentTag(documentId, "customer", "X", now, "joe")));
+      }
+
+      // then
+      GlobalIndexService.awaitTagCounts();
+      assertEquals(Arrays.asList(Long.valueOf(1), Long.valueOf(1), Long.valueOf(1)),
+          planner.estimate(siteId, criteria));
+
+      // when
+      this.service.addTags(siteId, documentId,
+          Arrays.asList(new DocumentTag(documentId, "status", "closed", now, "joe")), null);
+
+      // then
+      GlobalIndexService.awaitTagCounts();
+      assertEquals(Arrays.asList(Long.valueOf(0), Long.valueOf(1), Long.valueOf(1)),
+          planner.estimate(siteId, criteria));
+
+      // when
+      this.service.removeTags(siteId, documentId, Arrays.asList("customer"));
+
+      // then
+      GlobalIndexService.awaitTagCounts();
+      assertEquals(Arrays.asList(Long.valueOf(0), Long.valueOf(1), Long.valueOf(0)),
+          planner.estimate(siteId, criteria));
+
+      // when
+      this.service.deleteDocument(siteId, documentId, false);
+
+      // then
+      GlobalIndexService.awaitTagCounts();
+      assertEquals(Arrays.asList(Long.valueOf(0), Long.valueOf(0), Long.valueOf(0)),
+          planner.estimate(siteId, criteria));
+    }
+  }
+
   /** Search by 'eq' / 'beginsWith' Tag Key & Value. */
   @Test
   public void testSearchForDocumentIds01() {
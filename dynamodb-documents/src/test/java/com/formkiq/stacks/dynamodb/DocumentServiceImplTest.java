@@ -605,6 +605,52 @@ public class DocumentServiceImplTest implements DbKeys {
     }
   }
 
+  /**
+   * Delete Document with more tags than fit in a single batch.
+   */
+  @Test
+  public void testDeleteDocument04() {
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int tagCount = 260;
+      Date now = new Date();
+      String userId = "jsmith";
+
+      DocumentItem item = new DocumentItemDynamoDb(UUID.randomUUID().toString(), now, userId);
+      String documentId = item.getDocumentId();
+
+      List<DocumentTag> tags = new ArrayList<>();
+
+      for (int i = 0; i < tagCount; i++) {
+        tags.add(new DocumentTag(null, "status_" + i, "active", now, userId));
+      }
+
+      service.saveDocument(siteId, item, tags);
+      assertEquals(tagCount,
+          service.findDocumentTags(siteId, documentId, null, tagCount).getResults().size());
+
+      // when
+      service.deleteDocumentTags(siteId, documentId);
+
+      // then
+      assertEquals(0,
+          service.findDocumentTags(siteId, documentId, null, tagCount).getResults().size());
+      assertNotNull(service.findDocument(siteId, documentId));
+
+      // given
+      service.addTags(siteId, documentId, tags, null);
+
+      // when
+      assertTrue(service.deleteDocument(siteId, documentId, false));
+
+      // then
+      assertNull(service.findDocument(siteId, documentId));
+      assertEquals(0,
+          service.findDocumentTags(siteId, documentId, null, tagCount).getResults().size());
+    }
+  }
+
   /**
    * Test document exists or not.
    */
@@ -757,6 +803,37 @@ public class DocumentServiceImplTest implements DbKeys {
     }
   }
 
+  /** Find documents with projected attributes. */
+  @Test
+  public void testFindDocuments03() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      List<DocumentItem> list = createTestData(siteId);
+      DocumentItem d0 = list.get(0);
+      List<String> documentIds = Arrays.asList(d0.getDocumentId(), list.get(1).getDocumentId());
+
+      // when
+      DocumentItem item =
+          service.findDocument(siteId, d0.getDocumentId(), DocumentService.CONTENT_ATTRIBUTES);
+      List<DocumentItem> items =
+          service.findDocuments(siteId, documentIds, DocumentService.CONTENT_ATTRIBUTES);
+
+      // then
+      assertEquals(d0.getDocumentId(), item.getDocumentId());
+      assertEquals("text/plain", item.getContentType());
+      assertEquals("test.txt", item.getPath());
+      assertEquals(d0.getUserId(), item.getUserId());
+      assertNull(item.getChecksum());
+      assertNull(item.getContentLength());
+
+      assertEquals(2, items.size());
+      assertEquals(d0.getDocumentId(), items.get(0).getDocumentId());
+      assertEquals("text/plain", items.get(0).getContentType());
+      assertNull(items.get(0).getChecksum());
+      assertEquals(list.get(1).getDocumentId(), items.get(1).getDocumentId());
+    }
+  }
+
   /**
    * Test finding 10 documents all created in one day.
    * 
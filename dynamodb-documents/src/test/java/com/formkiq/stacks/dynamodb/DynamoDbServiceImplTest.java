@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.aws.dynamodb.QueryConfig;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * 
+ * Unit Tests for {@link DynamoDbServiceImpl}.
+ *
+ */
+@ExtendWith(DynamoDbExtension.class)
+public class DynamoDbServiceImplTest implements DbKeys {
+
+  /** {@link DynamoDbService}. */
+  private static DynamoDbService service;
+
+  /**
+   * Before Test.
+   *
+   * @throws Exception Exception
+   */
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    service = new DynamoDbServiceImpl(DynamoDbTestServices.getDynamoDbConnection(),
+        DOCUMENTS_TABLE);
+  }
+
+  /**
+   * Query begins with, projecting reserved word attributes.
+   */
+  @Test
+  void testQueryBeginsWith01() {
+    // given
+    final int count = 3;
+    String pk = "projection#" + UUID.randomUUID();
+
+    for (int i = 0; i < count; i++) {
+      service.putItem(Map.of(PK, AttributeValue.fromS(pk), SK, AttributeValue.fromS("item#" + i),
+          "path", AttributeValue.fromS("a" + i + ".txt"), "status", AttributeValue.fromS("NEW"),
+          "content", AttributeValue.fromS(UUID.randomUUID().toString())));
+    }
+
+    QueryConfig config =
+        new QueryConfig().projection(List.of("path", "status")).scanIndexForward(Boolean.TRUE);
+
+    // when
+    QueryResponse response = service.queryBeginsWith(config, AttributeValue.fromS(pk),
+        AttributeValue.fromS("item#"), null, count);
+
+    // then
+    List<Map<String, AttributeValue>> items = response.items();
+    assertEquals(count, items.size());
+
+    for (int i = 0; i < count; i++) {
+      Map<String, AttributeValue> item = items.get(i);
+      assertEquals(Set.of(PK, SK, "path", "status"), item.keySet());
+      assertEquals("a" + i + ".txt", item.get("path").s());
+      assertEquals("NEW", item.get("status").s());
+    }
+  }
+}
@@ -198,6 +198,7 @@ public class WebhooksServiceImplTest {
 
         // then
         assertEquals(2, list.size());
+        assertEquals(2, this.service.countWebhooks(siteId));
 
         list.forEach(l -> {
           assertNotNull(l.getString("documentId"));
@@ -212,6 +213,7 @@ public class WebhooksServiceImplTest {
 
         // then
         assertEquals(1, this.service.findWebhooks(siteId).size());
+        assertEquals(1, this.service.countWebhooks(siteId));
       }
     }
   }
@@ -230,6 +232,7 @@ public class WebhooksServiceImplTest {
 
         // then
         assertEquals(0, list.size());
+        assertEquals(0, this.service.countWebhooks(siteId));
       }
     }
   }
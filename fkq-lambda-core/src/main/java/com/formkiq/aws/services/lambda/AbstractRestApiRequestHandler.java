@@ -34,13 +34,13 @@ import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_TOO_MANY_REQU
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_UNAUTHORIZED;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
-import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -58,10 +58,12 @@ import com.formkiq.aws.services.lambda.exceptions.TooManyRequestsException;
 import com.formkiq.aws.services.lambda.exceptions.UnauthorizedException;
 import com.formkiq.aws.sqs.SqsService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
 import com.formkiq.validation.ValidationException;
 import com.google.gson.Gson;
-import software.amazon.awssdk.utils.IoUtils;
-import software.amazon.awssdk.utils.StringUtils;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 /**
  * 
@@ -70,6 +72,9 @@ import software.amazon.awssdk.utils.StringUtils;
  */
 public abstract class AbstractRestApiRequestHandler implements RequestStreamHandler {
 
+  /** Metric resource of requests that match no registered resource. */
+  private static final String UNMATCHED_RESOURCE = "unmatched";
+
   /** {@link Gson}. */
   protected Gson gson = GsonUtil.getInstance();
 
@@ -110,6 +115,24 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     writeJson(logger, awsServices, output, response);
   }
 
+  /**
+   * Build Error Response.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param awsServices {@link AwsServiceCache}
+   * @param output {@link OutputStream}
+   * @param status {@link ApiResponseStatus}
+   * @param error {@link ApiResponseError}
+   * @return {@link ApiResponseStatus}
+   * @throws IOException IOException
+   */
+  private ApiResponseStatus buildErrorResponse(final LambdaLogger logger,
+      final AwsServiceCache awsServices, final OutputStream output,
+      final ApiResponseStatus status, final ApiResponseError error) throws IOException {
+    buildResponse(logger, awsServices, output, status, Collections.emptyMap(), error);
+    return status;
+  }
+
   /**
    * Call Handler Rest Method.
    * 
@@ -259,20 +282,20 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
   /**
    * Get {@link ApiGatewayRequestEvent}.
    *
-   * @param str {@link String}
+   * @param json {@link JsonElement}
    * @param logger {@link LambdaLogger}
    * @param awsservice {@link AwsServiceCache}
    * @return {@link ApiGatewayRequestEvent}
    * @throws IOException IOException
    */
-  private ApiGatewayRequestEvent getApiGatewayEvent(final String str, final LambdaLogger logger,
-      final AwsServiceCache awsservice) throws IOException {
+  private ApiGatewayRequestEvent getApiGatewayEvent(final JsonElement json,
+      final LambdaLogger logger, final AwsServiceCache awsservice) throws IOException {
 
     if (awsservice.debug()) {
-      logger.log(str);
+      logger.log(json.toString());
     }
 
-    ApiGatewayRequestEvent event = this.gson.fromJson(str, ApiGatewayRequestEvent.class);
+    ApiGatewayRequestEvent event = this.gson.fromJson(json, ApiGatewayRequestEvent.class);
     return event;
   }
 
@@ -288,31 +311,6 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
    */
   public abstract AwsServiceCache getAwsServices();
 
-  /**
-   * Get {@link ApiGatewayRequestEvent} body as {@link String}.
-   * 
-   * @param event {@link ApiGatewayRequestEvent}
-   * @return {@link String}
-   * @throws BadException BadException
-   */
-  private String getBodyAsString(final ApiGatewayRequestEvent event) throws BadException {
-    String body = event.getBody();
-    if (body == null) {
-      throw new BadException("request body is required");
-    }
-
-    if (Boolean.TRUE.equals(event.getIsBase64Encoded())) {
-      byte[] bytes = Base64.getDecoder().decode(body);
-      body = new String(bytes, StandardCharsets.UTF_8);
-    }
-
-    if (StringUtils.isEmpty(body)) {
-      throw new BadException("request body is required");
-    }
-
-    return body;
-  }
-
   /**
    * Get URL Map.
    * 
@@ -338,18 +336,23 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
     AwsServiceCache awsServices = getAwsServices();
 
-    String str = IoUtils.toUtf8String(input);
+    JsonElement json = parseInput(input);
 
-    ApiGatewayRequestEvent event = getApiGatewayEvent(str, logger, awsServices);
+    ApiGatewayRequestEvent event = getApiGatewayEvent(json, logger, awsServices);
 
     if (!isEmpty(event)) {
 
-      processApiGatewayRequest(logger, event, awsServices, output);
+      long start = System.nanoTime();
+      ApiResponseStatus status = processApiGatewayRequest(logger, event, awsServices, output);
+      recordMetrics(logger, awsServices, event, status, start);
 
     } else {
 
-      if (str.contains("aws:sqs")) {
-        LambdaInputRecords records = this.gson.fromJson(str, LambdaInputRecords.class);
+      LambdaInputRecords records = json.getAsJsonObject().has("Records")
+          ? this.gson.fromJson(json, LambdaInputRecords.class)
+          : new LambdaInputRecords();
+
+      if (records.getRecords().stream().anyMatch(r -> "aws:sqs".equals(r.getEventSource()))) {
         for (LambdaInputRecord record : records.getRecords()) {
           if ("aws:sqs".equals(record.getEventSource())) {
             handleSqsRequest(logger, awsServices, record);
@@ -358,7 +361,7 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
       } else {
 
-        handleOtherRequest(context, str);
+        handleOtherRequest(context, json.toString());
       }
     }
   }
@@ -526,6 +529,22 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     logger.log(sw.toString());
   }
 
+  /**
+   * Parse the Lambda input in a single streaming pass, without first reading it into a
+   * {@link String}. String values, such as the request body, are held once and shared with the
+   * objects bound from the parsed tree.
+   * 
+   * @param input {@link InputStream}
+   * @return {@link JsonElement}
+   * @throws IOException IOException
+   */
+  private JsonElement parseInput(final InputStream input) throws IOException {
+    try (JsonReader reader =
+        new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      return JsonParser.parseReader(reader);
+    }
+  }
+
   /**
    * Processes API Gateway Requests.
    * 
@@ -533,12 +552,15 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
    * @param event {@link ApiGatewayRequestEvent}
    * @param awsServices {@link AwsServiceCache}
    * @param output {@link OutputStream}
+   * @return {@link ApiResponseStatus}
    * @throws IOException IOException
    */
-  private void processApiGatewayRequest(final LambdaLogger logger,
+  private ApiResponseStatus processApiGatewayRequest(final LambdaLogger logger,
       final ApiGatewayRequestEvent event, final AwsServiceCache awsServices,
       final OutputStream output) throws IOException {
 
+    ApiResponseStatus status;
+
     try {
 
       ApiAuthorizationInterceptor interceptor = setupApiAuthorizationInterceptor(awsServices);
@@ -558,36 +580,39 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
       sendWebNotify(authorization, event, object);
 
-      buildResponse(logger, awsServices, output, object.getStatus(), object.getHeaders(),
+      status = object.getStatus();
+      buildResponse(logger, awsServices, output, status, object.getHeaders(),
           object.getResponse());
 
     } catch (NotFoundException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_FOUND, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_NOT_FOUND,
           new ApiResponseError(e.getMessage()));
     } catch (TooManyRequestsException e) {
-      buildResponse(logger, awsServices, output, SC_TOO_MANY_REQUESTS, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_TOO_MANY_REQUESTS,
           new ApiResponseError(e.getMessage()));
     } catch (BadException | IllegalArgumentException | DateTimeException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_BAD_REQUEST,
           new ApiResponseError(e.getMessage()));
     } catch (ForbiddenException e) {
-      buildResponse(logger, awsServices, output, SC_FORBIDDEN, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_FORBIDDEN,
           new ApiResponseError(e.getMessage()));
     } catch (UnauthorizedException e) {
-      buildResponse(logger, awsServices, output, SC_UNAUTHORIZED, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_UNAUTHORIZED,
           new ApiResponseError(e.getMessage()));
     } catch (NotImplementedException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_IMPLEMENTED, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_NOT_IMPLEMENTED,
           new ApiResponseError(e.getMessage()));
     } catch (ValidationException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_BAD_REQUEST,
           new ApiResponseError(e.errors()));
     } catch (Exception e) {
       logError(logger, e);
 
-      buildResponse(logger, awsServices, output, SC_ERROR, Collections.emptyMap(),
+      status = buildErrorResponse(logger, awsServices, output, SC_ERROR,
           new ApiResponseError("Internal Server Error"));
     }
+
+    return status;
   }
 
   /**
@@ -626,6 +651,54 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     return callHandlerMethod(logger, method, event, authorization, handler);
   }
 
+  /**
+   * Publish metrics. Writes them as CloudWatch Embedded Metric Format log lines by default,
+   * server runtimes that expose the {@link MetricsRegistry} themselves can override it.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param awsServices {@link AwsServiceCache}
+   * @param metrics {@link MetricsRegistry}
+   */
+  protected void publishMetrics(final LambdaLogger logger, final AwsServiceCache awsServices,
+      final MetricsRegistry metrics) {
+
+    String namespace = awsServices.environment().getOrDefault("METRICS_NAMESPACE", "FormKiQ");
+    for (String emf : metrics.toEmf(namespace, System.currentTimeMillis())) {
+      logger.log(emf);
+    }
+  }
+
+  /**
+   * Record request latency and status metrics.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param awsServices {@link AwsServiceCache}
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param status {@link ApiResponseStatus}
+   * @param start long request start, in nanoseconds
+   */
+  private void recordMetrics(final LambdaLogger logger, final AwsServiceCache awsServices,
+      final ApiGatewayRequestEvent event, final ApiResponseStatus status, final long start) {
+
+    if (awsServices.enableMetrics()) {
+
+      MetricsRegistry metrics = MetricsRegistry.getDefault();
+      String method = String.valueOf(event.getHttpMethod()).toLowerCase();
+      // only registered resources are used as a dimension, so unknown paths can't grow the
+      // number of metrics without limit
+      String resource = event.getResource() != null && getUrlMap().containsKey(event.getResource())
+          ? event.getResource()
+          : UNMATCHED_RESOURCE;
+
+      metrics.timer("api.latency", "method", method, "resource", resource)
+          .recordNanos(System.nanoTime() - start);
+      metrics.counter("api.requests", "method", method, "resource", resource, "status",
+          String.valueOf(status.getStatusCode())).increment();
+
+      publishMetrics(logger, awsServices, metrics);
+    }
+  }
+
   /**
    * Processes the Response.
    * 
@@ -648,7 +721,7 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
         case SC_CREATED:
         case SC_ACCEPTED:
           String siteId = authorization.siteId();
-          String body = getBodyAsString(event);
+          String body = ApiGatewayRequestEventUtil.getBodyAsString(event);
           String documentId = event.getPathParameters().get("documentId");
 
           if (documentId != null) {
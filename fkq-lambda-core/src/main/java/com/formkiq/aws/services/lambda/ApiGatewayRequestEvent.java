@@ -23,6 +23,11 @@
  */
 package com.formkiq.aws.services.lambda;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import com.formkiq.graalvm.annotations.Reflectable;
@@ -89,6 +94,26 @@ public class ApiGatewayRequestEvent {
     return this.body;
   }
 
+  /**
+   * Get Request Body as a {@link Reader}, decoding a base64 body as it is read rather than into a
+   * second copy.
+   * 
+   * @return {@link Reader}, null when there is no body
+   */
+  public Reader getBodyAsReader() {
+
+    Reader reader = null;
+
+    if (this.body != null) {
+      reader = Boolean.TRUE.equals(this.isBase64Encoded)
+          ? new InputStreamReader(Base64.getDecoder().wrap(new CharSequenceInputStream(this.body)),
+              StandardCharsets.UTF_8)
+          : new StringReader(this.body);
+    }
+
+    return reader;
+  }
+
   /**
    * Get Request Headers.
    * 
@@ -23,9 +23,7 @@
  */
 package com.formkiq.aws.services.lambda;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -39,6 +37,7 @@ import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.services.lambda.exceptions.BadException;
 import com.formkiq.aws.services.lambda.services.CacheService;
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import software.amazon.awssdk.utils.StringUtils;
 
@@ -136,28 +135,14 @@ public interface ApiGatewayRequestEventUtil {
   default <T> T fromBodyToObject(final ApiGatewayRequestEvent event, final Class<T> classOfT)
       throws BadException, IOException {
 
-    String body = event.getBody();
-    if (body == null) {
+    if (event.getBody() == null) {
       throw new BadException("request body is required");
     }
 
-    byte[] data = event.getBody().getBytes(StandardCharsets.UTF_8);
-
-    if (Boolean.TRUE.equals(event.getIsBase64Encoded())) {
-      data = Base64.getDecoder().decode(body);
-    }
-
-    Reader reader = new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
-    try {
+    try (Reader reader = event.getBodyAsReader()) {
       return GSON.fromJson(reader, classOfT);
-    } catch (JsonSyntaxException e) {
+    } catch (JsonSyntaxException | JsonIOException e) {
       throw new BadException("invalid JSON body");
-    } finally {
-      try {
-        reader.close();
-      } catch (IOException e) {
-        throw e;
-      }
     }
   }
 
@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.util.Map;
+
+/**
+ * 
+ * Result of matching a request path against an {@link ApiRouteTable}.
+ *
+ * @param <T> Type of route value
+ */
+public class ApiRouteMatch<T> {
+
+  /** Path Parameters. */
+  private final Map<String, String> pathParameters;
+  /** Resource Template. */
+  private final String resource;
+  /** Route Value. */
+  private final T value;
+
+  /**
+   * constructor.
+   * 
+   * @param routeResource {@link String}
+   * @param routeValue T
+   * @param routePathParameters {@link Map}
+   */
+  public ApiRouteMatch(final String routeResource, final T routeValue,
+      final Map<String, String> routePathParameters) {
+    this.resource = routeResource;
+    this.value = routeValue;
+    this.pathParameters = routePathParameters;
+  }
+
+  /**
+   * Get Path Parameters extracted from the request path.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, String> getPathParameters() {
+    return this.pathParameters;
+  }
+
+  /**
+   * Get the matched resource template, ie: /documents/{documentId}.
+   * 
+   * @return {@link String}
+   */
+  public String getResource() {
+    return this.resource;
+  }
+
+  /**
+   * Get Route Value.
+   * 
+   * @return T
+   */
+  public T getValue() {
+    return this.value;
+  }
+}
@@ -0,0 +1,274 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Route table of API resource templates compiled into a segment trie.
+ * 
+ * <p>
+ * Templates are split once when added, so matching a request path walks the trie one segment at
+ * a time without re-splitting every registered template. Literal segments take precedence over
+ * path parameters ({id}), which take precedence over greedy path parameters ({proxy+}) that match
+ * the remainder of the path.
+ * </p>
+ * 
+ * <p>
+ * Routes should be added before the table is shared between threads; matching does not modify
+ * the table.
+ * </p>
+ *
+ * @param <T> Type of route value
+ */
+public class ApiRouteTable<T> {
+
+  /**
+   * Trie Node.
+   * 
+   * @param <T> Type of route value
+   */
+  private static final class Node<T> {
+    /** Greedy Path Parameter child. */
+    private Node<T> greedy;
+    /** Literal Segment children. */
+    private Map<String, Node<T>> literals;
+    /** Path Parameter names of the route ending at this node. */
+    private String[] names;
+    /** Path Parameter child. */
+    private Node<T> parameter;
+    /** Resource Template of the route ending at this node. */
+    private String template;
+    /** Value of the route ending at this node. */
+    private T value;
+
+    /**
+     * Get or create child {@link Node} for template segment.
+     * 
+     * @param segment {@link String}
+     * @param parameterNames {@link List}
+     * @return {@link Node}
+     */
+    private Node<T> child(final String segment, final List<String> parameterNames) {
+
+      Node<T> node;
+
+      if (isGreedy(segment)) {
+        parameterNames.add(segment.substring(1, segment.length() - 2));
+        this.greedy = this.greedy != null ? this.greedy : new Node<>();
+        node = this.greedy;
+
+      } else if (isParameter(segment)) {
+        parameterNames.add(segment.substring(1, segment.length() - 1));
+        this.parameter = this.parameter != null ? this.parameter : new Node<>();
+        node = this.parameter;
+
+      } else {
+        this.literals = this.literals != null ? this.literals : new HashMap<>();
+        node = this.literals.computeIfAbsent(segment, s -> new Node<>());
+      }
+
+      return node;
+    }
+  }
+
+  /** Maximum number of path parameters of any route. */
+  private int maxParameters;
+
+  /** Root {@link Node}. */
+  private final Node<T> root = new Node<>();
+
+  /** Number of routes. */
+  private int size;
+
+  /**
+   * constructor.
+   */
+  public ApiRouteTable() {}
+
+  /**
+   * Get end of path, ignoring a trailing '/'.
+   * 
+   * @param path {@link String}
+   * @return int
+   */
+  private static int end(final String path) {
+    int len = path.length();
+    return len > 1 && path.charAt(len - 1) == '/' ? len - 1 : len;
+  }
+
+  private static boolean isGreedy(final String segment) {
+    return segment.startsWith("{") && segment.endsWith("+}");
+  }
+
+  private static boolean isParameter(final String segment) {
+    return segment.startsWith("{") && segment.endsWith("}");
+  }
+
+  /**
+   * Get end of segment starting at position.
+   * 
+   * @param path {@link String}
+   * @param pos int
+   * @param end int
+   * @return int
+   */
+  private static int segmentEnd(final String path, final int pos, final int end) {
+    int next = path.indexOf('/', pos);
+    return next < 0 || next > end ? end : next;
+  }
+
+  /**
+   * Get start of path, ignoring a leading '/'.
+   * 
+   * @param path {@link String}
+   * @return int
+   */
+  private static int start(final String path) {
+    return !path.isEmpty() && path.charAt(0) == '/' ? 1 : 0;
+  }
+
+  /**
+   * Add route, replacing any existing route with the same template.
+   * 
+   * @param resource {@link String} resource template, ie: /documents/{documentId}
+   * @param routeValue T
+   * @return {@link ApiRouteTable}
+   */
+  public ApiRouteTable<T> add(final String resource, final T routeValue) {
+
+    List<String> parameterNames = new ArrayList<>();
+    Node<T> node = this.root;
+
+    int end = end(resource);
+    int pos = start(resource);
+
+    while (pos < end) {
+
+      int next = segmentEnd(resource, pos, end);
+      String segment = resource.substring(pos, next);
+
+      if (next < end && isGreedy(segment)) {
+        throw new IllegalArgumentException("greedy path parameter must be last: " + resource);
+      }
+
+      node = node.child(segment, parameterNames);
+      pos = next + 1;
+    }
+
+    if (node.template == null) {
+      this.size++;
+    }
+
+    node.template = resource;
+    node.value = routeValue;
+    node.names = parameterNames.toArray(new String[0]);
+    this.maxParameters = Math.max(this.maxParameters, node.names.length);
+    return this;
+  }
+
+  /**
+   * Find the route matching a request path.
+   * 
+   * @param path {@link String}
+   * @return {@link ApiRouteMatch} or null if no route matches
+   */
+  public ApiRouteMatch<T> find(final String path) {
+
+    ApiRouteMatch<T> match = null;
+
+    if (path != null) {
+      String[] values = new String[this.maxParameters];
+      Node<T> node = match(this.root, path, start(path), end(path), values, 0);
+
+      if (node != null) {
+        Map<String, String> pathParameters = new HashMap<>(node.names.length * 2);
+        for (int i = 0; i < node.names.length; i++) {
+          pathParameters.put(node.names[i], values[i]);
+        }
+
+        match = new ApiRouteMatch<>(node.template, node.value, pathParameters);
+      }
+    }
+
+    return match;
+  }
+
+  /**
+   * Match the remainder of the path against a {@link Node}, backtracking from literal to
+   * parameter children.
+   * 
+   * @param node {@link Node}
+   * @param path {@link String}
+   * @param pos int
+   * @param end int
+   * @param values {@link String} captured path parameter values
+   * @param count int number of captured path parameter values
+   * @return {@link Node} or null
+   */
+  private Node<T> match(final Node<T> node, final String path, final int pos, final int end,
+      final String[] values, final int count) {
+
+    Node<T> found = null;
+
+    if (pos >= end) {
+      found = node.template != null ? node : null;
+
+    } else {
+
+      int next = segmentEnd(path, pos, end);
+      String segment = path.substring(pos, next);
+
+      Node<T> literal = node.literals != null ? node.literals.get(segment) : null;
+      if (literal != null) {
+        found = match(literal, path, next + 1, end, values, count);
+      }
+
+      if (found == null && node.parameter != null && !segment.isEmpty()) {
+        values[count] = segment;
+        found = match(node.parameter, path, next + 1, end, values, count + 1);
+      }
+
+      if (found == null && node.greedy != null && node.greedy.template != null) {
+        values[count] = path.substring(pos, end);
+        found = node.greedy;
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Number of routes.
+   * 
+   * @return int
+   */
+  public int size() {
+    return this.size;
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.InputStream;
+
+/**
+ * 
+ * {@link InputStream} over the characters of an ASCII {@link CharSequence}, such as a base64
+ * encoded request body, without copying it into a byte array.
+ *
+ */
+final class CharSequenceInputStream extends InputStream {
+
+  /** Byte mask. */
+  private static final int BYTE_MASK = 0xFF;
+
+  /** {@link CharSequence}. */
+  private final CharSequence chars;
+  /** Current position. */
+  private int pos = 0;
+
+  /**
+   * constructor.
+   * 
+   * @param cs {@link CharSequence}
+   */
+  CharSequenceInputStream(final CharSequence cs) {
+    this.chars = cs;
+  }
+
+  @Override
+  public int available() {
+    return this.chars.length() - this.pos;
+  }
+
+  @Override
+  public int read() {
+    return this.pos < this.chars.length() ? this.chars.charAt(this.pos++) & BYTE_MASK : -1;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+
+    int count = Math.min(len, available());
+
+    for (int i = 0; i < count; i++) {
+      b[off + i] = (byte) this.chars.charAt(this.pos++);
+    }
+
+    return count > 0 || len == 0 ? count : -1;
+  }
+}
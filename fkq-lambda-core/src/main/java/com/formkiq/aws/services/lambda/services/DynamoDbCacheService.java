@@ -23,14 +23,13 @@
  */
 package com.formkiq.aws.services.lambda.services;
 
-import java.text.SimpleDateFormat;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TimeZone;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.objects.DateCodec;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
@@ -44,8 +43,6 @@ public class DynamoDbCacheService implements CacheService {
 
   /** MilliSeconds per Second. */
   private static final int MILLISECONDS = 1000;
-  /** Date Format. */
-  private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ";
 
   /** Partition Key of Table. */
   private static final String PK = "PK";
@@ -53,13 +50,8 @@ public class DynamoDbCacheService implements CacheService {
   /** Sort Key of Table. */
   private static final String SK = "SK";
 
-  /** {@link SimpleDateFormat} format. */
-  private SimpleDateFormat df;
-
   /** Cache Table Name. */
   private String cacheTableName;
-  /** UTC {@link TimeZone}. */
-  private TimeZone tz = TimeZone.getTimeZone("UTC");
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
 
@@ -77,9 +69,6 @@ public class DynamoDbCacheService implements CacheService {
 
     this.dbClient = connection.build();
     this.cacheTableName = table;
-
-    this.df = new SimpleDateFormat(DATE_FORMAT);
-    this.df.setTimeZone(this.tz);
   }
 
   @Override
@@ -137,7 +126,7 @@ public class DynamoDbCacheService implements CacheService {
     Date now = new Date();
     long timeout = getExpiryTime(cacheInDays).getTime() / MILLISECONDS;
 
-    String fulldate = this.df.format(now);
+    String fulldate = DateCodec.formatIso(now);
 
     Map<String, AttributeValue> pkvalues = new HashMap<String, AttributeValue>();
     pkvalues.put(PK, AttributeValue.builder().s(key).build());
@@ -0,0 +1,101 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.formkiq.aws.services.lambda.exceptions.BadException;
+
+/**
+ * 
+ * Unit Test for {@link ApiGatewayRequestEventUtil}.
+ *
+ */
+class ApiGatewayRequestEventUtilTest implements ApiGatewayRequestEventUtil {
+
+  /**
+   * Create {@link ApiGatewayRequestEvent}.
+   * 
+   * @param body {@link String}
+   * @param isBase64 boolean
+   * @return {@link ApiGatewayRequestEvent}
+   */
+  private ApiGatewayRequestEvent createEvent(final String body, final boolean isBase64) {
+    ApiGatewayRequestEvent event = new ApiGatewayRequestEvent();
+    event.setBody(body);
+    event.setIsBase64Encoded(Boolean.valueOf(isBase64));
+    return event;
+  }
+
+  /**
+   * Plain text body.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testFromBodyToMap01() throws Exception {
+    // given
+    ApiGatewayRequestEvent event = createEvent("{\"path\":\"été.txt\"}", false);
+
+    // when
+    Map<String, Object> map = fromBodyToMap(event);
+
+    // then
+    assertEquals("été.txt", map.get("path"));
+  }
+
+  /**
+   * Base64 body.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testFromBodyToMap02() throws Exception {
+    // given
+    String json = "{\"path\":\"été.txt\",\"tags\":[{\"key\":\"a\"}]}";
+    String body = Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    ApiGatewayRequestEvent event = createEvent(body, true);
+
+    // when
+    Map<String, Object> map = fromBodyToMap(event);
+
+    // then
+    assertEquals("été.txt", map.get("path"));
+    assertEquals(json, ApiGatewayRequestEventUtil.getBodyAsString(event));
+  }
+
+  /**
+   * Invalid bodies.
+   */
+  @Test
+  void testFromBodyToMap03() {
+    assertThrows(BadException.class, () -> fromBodyToMap(createEvent(null, false)));
+    assertThrows(BadException.class, () -> fromBodyToMap(createEvent("{\"path\"", false)));
+    assertThrows(BadException.class, () -> fromBodyToMap(createEvent("e30!!", true)));
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link ApiRouteTable}.
+ *
+ */
+class ApiRouteTableTest {
+
+  /** {@link ApiRouteTable}. */
+  private ApiRouteTable<String> routes;
+
+  /**
+   * Before Each.
+   */
+  @BeforeEach
+  void beforeEach() {
+    this.routes = new ApiRouteTable<String>().add("options", "options")
+        .add("/documents", "documents").add("/documents/upload", "upload")
+        .add("/documents/{documentId}", "document")
+        .add("/documents/{documentId}/content", "content")
+        .add("/documents/{documentId}/tags/{tagKey}", "tag")
+        .add("/indices/{indexType}/{indexKey}", "indices")
+        .add("/indices/folder/move", "move")
+        .add("/public/webhooks/{webhooks+}", "webhooks");
+  }
+
+  /**
+   * Match literal and parameter paths.
+   */
+  @Test
+  void testFind01() {
+    // given
+    // when
+    ApiRouteMatch<String> m0 = this.routes.find("/documents");
+    ApiRouteMatch<String> m1 = this.routes.find("/documents/upload");
+    ApiRouteMatch<String> m2 = this.routes.find("/documents/123");
+    ApiRouteMatch<String> m3 = this.routes.find("/documents/123/content/");
+    ApiRouteMatch<String> m4 = this.routes.find("/documents/123/tags/category");
+    ApiRouteMatch<String> m5 = this.routes.find("options");
+
+    // then
+    assertEquals(9, this.routes.size());
+    assertEquals("documents", m0.getValue());
+    assertEquals(0, m0.getPathParameters().size());
+    assertEquals("upload", m1.getValue());
+    assertEquals("document", m2.getValue());
+    assertEquals("/documents/{documentId}", m2.getResource());
+    assertEquals(Map.of("documentId", "123"), m2.getPathParameters());
+    assertEquals("content", m3.getValue());
+    assertEquals(Map.of("documentId", "123", "tagKey", "category"), m4.getPathParameters());
+    assertEquals("options", m5.getValue());
+  }
+
+  /**
+   * Backtrack from literal to parameter segment and match greedy parameters.
+   */
+  @Test
+  void testFind02() {
+    // given
+    // when
+    ApiRouteMatch<String> m0 = this.routes.find("/indices/folder/move");
+    ApiRouteMatch<String> m1 = this.routes.find("/indices/folder/abc");
+    ApiRouteMatch<String> m2 = this.routes.find("/public/webhooks/123/456");
+
+    // then
+    assertEquals("move", m0.getValue());
+    assertEquals("indices", m1.getValue());
+    assertEquals(Map.of("indexType", "folder", "indexKey", "abc"), m1.getPathParameters());
+    assertEquals("webhooks", m2.getValue());
+    assertEquals(Map.of("webhooks", "123/456"), m2.getPathParameters());
+  }
+
+  /**
+   * Resource templates match themselves.
+   */
+  @Test
+  void testFind03() {
+    assertEquals("content", this.routes.find("/documents/{documentId}/content").getValue());
+    assertEquals("webhooks", this.routes.find("/public/webhooks/{webhooks+}").getValue());
+  }
+
+  /**
+   * No match.
+   */
+  @Test
+  void testFind04() {
+    assertNull(this.routes.find(null));
+    assertNull(this.routes.find("/"));
+    assertNull(this.routes.find("/sites"));
+    assertNull(this.routes.find("/documents/123/versions"));
+    assertNull(this.routes.find("/public/webhooks"));
+    assertThrows(IllegalArgumentException.class,
+        () -> this.routes.add("/webhooks/{webhooks+}/tags", "invalid"));
+  }
+}
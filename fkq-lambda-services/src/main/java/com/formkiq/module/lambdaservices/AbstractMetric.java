@@ -0,0 +1,80 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+/**
+ * 
+ * Metric recorded in the {@link MetricsRegistry}, identified by name and dimensions.
+ *
+ */
+public abstract class AbstractMetric {
+
+  /** Dimension names and values, alternating. */
+  private final String[] dimensions;
+  /** Metric Name. */
+  private final String name;
+  /** CloudWatch Unit. */
+  private final String unit;
+
+  /**
+   * constructor.
+   * 
+   * @param metricName {@link String}
+   * @param metricUnit {@link String}
+   * @param metricDimensions {@link String} dimension names and values, alternating
+   */
+  protected AbstractMetric(final String metricName, final String metricUnit,
+      final String... metricDimensions) {
+    this.name = metricName;
+    this.unit = metricUnit;
+    this.dimensions = metricDimensions;
+  }
+
+  /**
+   * Get Dimension names and values, alternating.
+   * 
+   * @return {@link String}
+   */
+  public String[] getDimensions() {
+    return this.dimensions.clone();
+  }
+
+  /**
+   * Get Metric Name.
+   * 
+   * @return {@link String}
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Get CloudWatch Unit.
+   * 
+   * @return {@link String}
+   */
+  public String getUnit() {
+    return this.unit;
+  }
+}
@@ -35,6 +35,8 @@ public class AwsServiceCache {
 
   /** Is Debug Mode. */
   private boolean debug;
+  /** Enable Metrics. */
+  private boolean enableMetrics;
   /** Enable X Ray. */
   private boolean enableXray;
   /** Environment {@link Map}. */
@@ -92,6 +94,26 @@ public class AwsServiceCache {
     this.extensions.remove(clazz);
   }
 
+  /**
+   * Get Enable Metrics.
+   * 
+   * @return boolean
+   */
+  public boolean enableMetrics() {
+    return this.enableMetrics;
+  }
+
+  /**
+   * Set Enable Metrics.
+   * 
+   * @param enabled boolean
+   * @return {@link AwsServiceCache}
+   */
+  public AwsServiceCache enableMetrics(final boolean enabled) {
+    this.enableMetrics = enabled;
+    return this;
+  }
+
   /**
    * Get Enable X Ray.
    * 
@@ -59,6 +59,7 @@ public class AwsServiceCacheBuilder {
     this.serviceCache =
         new AwsServiceCache().environment(enviroment).debug("true".equals(enviroment.get("DEBUG")))
             .enableXray("true".equals(enviroment.get("ENABLE_AWS_X_RAY")))
+            .enableMetrics("true".equals(enviroment.get("ENABLE_METRICS")))
             .region(Region.of(enviroment.get("AWS_REGION")));
 
     if (awsCredentialsProvider != null) {
@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * 
+ * Counter {@link AbstractMetric}. Updates are striped across cells by {@link DoubleAdder}, so
+ * concurrent increments do not contend on a single value.
+ *
+ */
+public class MetricCounter extends AbstractMetric {
+
+  /** Counter value. */
+  private final DoubleAdder value = new DoubleAdder();
+
+  /**
+   * constructor.
+   * 
+   * @param metricName {@link String}
+   * @param metricUnit {@link String}
+   * @param metricDimensions {@link String} dimension names and values, alternating
+   */
+  public MetricCounter(final String metricName, final String metricUnit,
+      final String... metricDimensions) {
+    super(metricName, metricUnit, metricDimensions);
+  }
+
+  /**
+   * Add to counter.
+   * 
+   * @param amount double
+   */
+  public void add(final double amount) {
+    this.value.add(amount);
+  }
+
+  /**
+   * Increment counter by one.
+   */
+  public void increment() {
+    this.value.add(1);
+  }
+
+  /**
+   * Get counter value.
+   * 
+   * @return double
+   */
+  public double sum() {
+    return this.value.sum();
+  }
+
+  /**
+   * Get counter value and reset it to zero.
+   * 
+   * @return double
+   */
+  public double sumThenReset() {
+    return this.value.sumThenReset();
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Latency histogram {@link AbstractMetric} with fixed millisecond buckets. Each bucket is a
+ * {@link LongAdder}, so recording is lock-free. When value recording is on, every measured value
+ * is also queued until it is drained.
+ *
+ */
+public class MetricTimer extends AbstractMetric {
+
+  /** Bucket upper bounds, in milliseconds. The last bucket is unbounded. */
+  private static final long[] BOUNDS =
+      {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+  /**
+   * Get Bucket upper bounds, in milliseconds.
+   * 
+   * @return long[]
+   */
+  public static long[] bounds() {
+    return BOUNDS.clone();
+  }
+
+  /** Bucket counts, one more than the bounds for the unbounded bucket. */
+  private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+  /** Maximum recorded value, in milliseconds. */
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+  /** Sum of recorded values, in microseconds. */
+  private final LongAdder sum = new LongAdder();
+  /** Measured values not yet drained, in microseconds. */
+  private final Queue<Long> values = new ConcurrentLinkedQueue<>();
+  /** Whether to queue measured values. */
+  private volatile boolean recordValues;
+
+  /**
+   * constructor.
+   * 
+   * @param metricName {@link String}
+   * @param metricDimensions {@link String} dimension names and values, alternating
+   */
+  public MetricTimer(final String metricName, final String... metricDimensions) {
+    super(metricName, "Milliseconds", metricDimensions);
+    for (int i = 0; i < this.buckets.length; i++) {
+      this.buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Get count of values recorded in each bucket.
+   * 
+   * @param reset whether to reset the counts to zero
+   * @return long[]
+   */
+  public long[] counts(final boolean reset) {
+    long[] counts = new long[this.buckets.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = reset ? this.buckets[i].sumThenReset() : this.buckets[i].sum();
+    }
+    return counts;
+  }
+
+  /**
+   * Drain the measured values recorded since the last drain.
+   * 
+   * @return {@link List} {@link Double} values in milliseconds
+   */
+  public List<Double> drainValues() {
+    final double microsPerMilli = 1000.0;
+    List<Double> list = new ArrayList<>();
+    for (Long value = this.values.poll(); value != null; value = this.values.poll()) {
+      list.add(Double.valueOf(value.longValue() / microsPerMilli));
+    }
+    return list;
+  }
+
+  /**
+   * Get maximum recorded value, in milliseconds.
+   * 
+   * @param reset whether to reset the maximum
+   * @return long
+   */
+  public long max(final boolean reset) {
+    return reset ? this.max.getThenReset() : this.max.get();
+  }
+
+  /**
+   * Record a duration.
+   * 
+   * @param nanos long duration in nanoseconds
+   */
+  public void recordNanos(final long nanos) {
+
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+
+    int i = 0;
+    while (i < BOUNDS.length && millis > BOUNDS[i]) {
+      i++;
+    }
+
+    this.buckets[i].increment();
+    this.sum.add(micros);
+    this.max.accumulate(millis);
+
+    if (this.recordValues) {
+      this.values.add(Long.valueOf(micros));
+    }
+  }
+
+  /**
+   * Set whether to queue measured values for {@link #drainValues()}. Turning it off discards the
+   * queued values.
+   * 
+   * @param record boolean
+   */
+  public void recordValues(final boolean record) {
+    this.recordValues = record;
+    if (!record) {
+      this.values.clear();
+    }
+  }
+
+  /**
+   * Get sum of recorded values, in milliseconds.
+   * 
+   * @param reset whether to reset the sum to zero
+   * @return double
+   */
+  public double sum(final boolean reset) {
+    final double microsPerMilli = 1000.0;
+    return (reset ? this.sum.sumThenReset() : this.sum.sum()) / microsPerMilli;
+  }
+}
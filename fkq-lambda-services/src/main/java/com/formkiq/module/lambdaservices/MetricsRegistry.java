@@ -0,0 +1,363 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 
+ * Registry of {@link MetricCounter} and {@link MetricTimer}. Metrics are created on first use and
+ * kept for the life of the process, so hot paths only pay for a map lookup and a striped add.
+ * 
+ * <p>
+ * Metrics are written as CloudWatch Embedded Metric Format (EMF) log lines on Lambda, which
+ * resets them, or as Prometheus text exposition for long running servers. EMF timers hold every
+ * measured value, so servers that only expose Prometheus histograms turn value recording off.
+ * </p>
+ *
+ */
+public class MetricsRegistry {
+
+  /** Default {@link MetricsRegistry}. */
+  private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+  /** Maximum number of values in an EMF document. */
+  private static final int EMF_MAX_VALUES = 100;
+
+  /**
+   * Get the process wide {@link MetricsRegistry}.
+   * 
+   * @return {@link MetricsRegistry}
+   */
+  public static MetricsRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Format number, without a fraction when it is a whole number.
+   * 
+   * @param value double
+   * @return {@link String}
+   */
+  private static String format(final double value) {
+    return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value)
+        : Double.toString(value);
+  }
+
+  /**
+   * Quote JSON {@link String}.
+   * 
+   * @param s {@link String}
+   * @return {@link String}
+   */
+  private static String quote(final String s) {
+    return "\"" + String.valueOf(s).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  /**
+   * Sanitize Prometheus metric or label name.
+   * 
+   * @param s {@link String}
+   * @return {@link String}
+   */
+  private static String sanitize(final String s) {
+    return s.replaceAll("[^a-zA-Z0-9_]", "_");
+  }
+
+  /**
+   * Append a Prometheus name suffix, unless the name already ends with it.
+   * 
+   * @param name {@link String}
+   * @param suffix {@link String}
+   * @return {@link String}
+   */
+  private static String withSuffix(final String name, final String suffix) {
+    return name.endsWith(suffix) ? name : name + suffix;
+  }
+
+  /** {@link MetricCounter} by key. */
+  private final Map<String, MetricCounter> counters = new ConcurrentHashMap<>();
+
+  /** Whether {@link MetricTimer} queue measured values for EMF. */
+  private volatile boolean recordValues = true;
+
+  /** {@link MetricTimer} by key. */
+  private final Map<String, MetricTimer> timers = new ConcurrentHashMap<>();
+
+  /**
+   * constructor.
+   */
+  public MetricsRegistry() {}
+
+  /**
+   * Append EMF document for a metric.
+   * 
+   * @param sb {@link StringBuilder}
+   * @param namespace {@link String}
+   * @param timestamp long
+   * @param metric {@link AbstractMetric}
+   * @param value {@link String}
+   */
+  private void appendEmf(final StringBuilder sb, final String namespace, final long timestamp,
+      final AbstractMetric metric, final String value) {
+
+    String[] dimensions = metric.getDimensions();
+
+    sb.append("{\"_aws\":{\"Timestamp\":").append(timestamp)
+        .append(",\"CloudWatchMetrics\":[{\"Namespace\":").append(quote(namespace))
+        .append(",\"Dimensions\":[[");
+
+    for (int i = 0; i < dimensions.length; i += 2) {
+      sb.append(i > 0 ? "," : "").append(quote(dimensions[i]));
+    }
+
+    sb.append("]],\"Metrics\":[{\"Name\":").append(quote(metric.getName())).append(",\"Unit\":")
+        .append(quote(metric.getUnit())).append("}]}]}");
+
+    for (int i = 0; i + 1 < dimensions.length; i += 2) {
+      sb.append(',').append(quote(dimensions[i])).append(':').append(quote(dimensions[i + 1]));
+    }
+
+    sb.append(',').append(quote(metric.getName())).append(':').append(value).append('}');
+  }
+
+  /**
+   * Append Prometheus sample.
+   * 
+   * @param sb {@link StringBuilder}
+   * @param name {@link String}
+   * @param dimensions {@link String}
+   * @param le {@link String} histogram bucket bound, or null
+   * @param value {@link String}
+   */
+  private void appendPrometheus(final StringBuilder sb, final String name,
+      final String[] dimensions, final String le, final String value) {
+
+    sb.append(name);
+
+    if (dimensions.length > 1 || le != null) {
+      sb.append('{');
+      for (int i = 0; i + 1 < dimensions.length; i += 2) {
+        sb.append(i > 0 ? "," : "").append(sanitize(dimensions[i])).append("=\"")
+            .append(dimensions[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\n", "\\n"))
+            .append('"');
+      }
+
+      if (le != null) {
+        sb.append(dimensions.length > 1 ? "," : "").append("le=\"").append(le).append('"');
+      }
+      sb.append('}');
+    }
+
+    sb.append(' ').append(value).append('\n');
+  }
+
+  /**
+   * Get or create a {@link MetricCounter} of bytes.
+   * 
+   * @param name {@link String}
+   * @param dimensions {@link String} dimension names and values, alternating
+   * @return {@link MetricCounter}
+   */
+  public MetricCounter bytes(final String name, final String... dimensions) {
+    return this.counters.computeIfAbsent(key(name, dimensions),
+        k -> new MetricCounter(name, "Bytes", dimensions));
+  }
+
+  /**
+   * Remove all metrics.
+   */
+  public void clear() {
+    this.counters.clear();
+    this.timers.clear();
+  }
+
+  /**
+   * Get or create a {@link MetricCounter}.
+   * 
+   * @param name {@link String}
+   * @param dimensions {@link String} dimension names and values, alternating
+   * @return {@link MetricCounter}
+   */
+  public MetricCounter counter(final String name, final String... dimensions) {
+    return this.counters.computeIfAbsent(key(name, dimensions),
+        k -> new MetricCounter(name, "Count", dimensions));
+  }
+
+  private String key(final String name, final String... dimensions) {
+    StringBuilder sb = new StringBuilder(name);
+    for (String dimension : dimensions) {
+      sb.append('|').append(dimension);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Get or create a {@link MetricTimer}.
+   * 
+   * @param name {@link String}
+   * @param dimensions {@link String} dimension names and values, alternating
+   * @return {@link MetricTimer}
+   */
+  public MetricTimer timer(final String name, final String... dimensions) {
+    return this.timers.computeIfAbsent(key(name, dimensions), k -> {
+      MetricTimer timer = new MetricTimer(name, dimensions);
+      timer.recordValues(this.recordValues);
+      return timer;
+    });
+  }
+
+  /**
+   * Set whether {@link MetricTimer} queue their measured values for EMF output. Only needed when
+   * metrics are drained with {@link #toEmf(String, long)}.
+   * 
+   * @param record boolean
+   */
+  public void setRecordValues(final boolean record) {
+    this.recordValues = record;
+    this.timers.values().forEach(t -> t.recordValues(record));
+  }
+
+  /**
+   * Get EMF values of a {@link MetricTimer}, the measured values split into arrays of at most the
+   * EMF maximum number of values.
+   * 
+   * @param timer {@link MetricTimer}
+   * @return {@link List} {@link String}
+   */
+  private List<String> timerValues(final MetricTimer timer) {
+
+    timer.counts(true);
+    timer.max(true);
+    timer.sum(true);
+
+    List<Double> values = timer.drainValues();
+    List<String> list = new ArrayList<>();
+
+    for (int i = 0; i < values.size(); i += EMF_MAX_VALUES) {
+      List<Double> chunk = values.subList(i, Math.min(i + EMF_MAX_VALUES, values.size()));
+      list.add(chunk.stream().map(v -> format(v.doubleValue()))
+          .collect(Collectors.joining(",", "[", "]")));
+    }
+
+    return list;
+  }
+
+  /**
+   * Drain metrics into CloudWatch Embedded Metric Format (EMF) documents, one per metric. Metrics
+   * with no values since the last call are skipped.
+   * 
+   * @param namespace {@link String} CloudWatch namespace
+   * @param timestamp long epoch milliseconds
+   * @return {@link List} {@link String}
+   */
+  public List<String> toEmf(final String namespace, final long timestamp) {
+
+    List<String> list = new ArrayList<>();
+
+    for (MetricCounter counter : this.counters.values()) {
+      double value = counter.sumThenReset();
+      if (value != 0) {
+        StringBuilder sb = new StringBuilder();
+        appendEmf(sb, namespace, timestamp, counter, format(value));
+        list.add(sb.toString());
+      }
+    }
+
+    for (MetricTimer timer : this.timers.values()) {
+      for (String values : timerValues(timer)) {
+        StringBuilder sb = new StringBuilder();
+        appendEmf(sb, namespace, timestamp, timer, values);
+        list.add(sb.toString());
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * Write metrics in Prometheus text exposition format. Counters and timers are cumulative.
+   * 
+   * @param prefix {@link String} metric name prefix
+   * @return {@link String}
+   */
+  public String toPrometheus(final String prefix) {
+
+    StringBuilder sb = new StringBuilder();
+    String last = null;
+
+    for (MetricCounter counter : new TreeMap<>(this.counters).values()) {
+      String unit = "Bytes".equals(counter.getUnit()) ? "_bytes" : "";
+      String name = withSuffix(withSuffix(prefix + sanitize(counter.getName()), unit), "_total");
+      if (!name.equals(last)) {
+        sb.append("# TYPE ").append(name).append(" counter\n");
+        last = name;
+      }
+
+      appendPrometheus(sb, name, counter.getDimensions(), null, format(counter.sum()));
+    }
+
+    for (MetricTimer timer : new TreeMap<>(this.timers).values()) {
+      String name = withSuffix(prefix + sanitize(timer.getName()), "_milliseconds");
+      if (!name.equals(last)) {
+        sb.append("# TYPE ").append(name).append(" histogram\n");
+        last = name;
+      }
+
+      writePrometheusHistogram(sb, name, timer);
+    }
+
+    return sb.toString();
+  }
+
+  /**
+   * Write Prometheus histogram samples of a {@link MetricTimer}.
+   * 
+   * @param sb {@link StringBuilder}
+   * @param name {@link String}
+   * @param timer {@link MetricTimer}
+   */
+  private void writePrometheusHistogram(final StringBuilder sb, final String name,
+      final MetricTimer timer) {
+
+    String[] dimensions = timer.getDimensions();
+    long[] bounds = MetricTimer.bounds();
+    long[] counts = timer.counts(false);
+    long count = 0;
+
+    for (int i = 0; i < counts.length; i++) {
+      count += counts[i];
+      String le = i < bounds.length ? Long.toString(bounds[i]) : "+Inf";
+      appendPrometheus(sb, name + "_bucket", dimensions, le, Long.toString(count));
+    }
+
+    appendPrometheus(sb, name + "_sum", dimensions, null, format(timer.sum(false)));
+    appendPrometheus(sb, name + "_count", dimensions, null, Long.toString(count));
+  }
+}
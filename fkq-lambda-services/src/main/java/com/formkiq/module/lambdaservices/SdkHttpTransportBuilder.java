@@ -0,0 +1,259 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpConfigurationOption;
+import software.amazon.awssdk.http.SdkHttpService;
+import software.amazon.awssdk.utils.AttributeMap;
+
+/**
+ * 
+ * Builds the {@link SdkHttpClient} shared by the AWS SDK clients. The transport is any
+ * {@link SdkHttpService} on the classpath, picked by name ("apache", "crt", "urlconnection") or
+ * class name, so pooled transports can be used where they are available without every runtime
+ * depending on them. Clients with the same configuration share one connection pool, and are
+ * closed by {@link #closeAll()} or at JVM shutdown.
+ *
+ */
+public class SdkHttpTransportBuilder {
+
+  /** Default Connection Max Idle Time. */
+  private static final Duration DEFAULT_CONNECTION_MAX_IDLE = Duration.ofSeconds(60);
+  /** Default Max Connections. */
+  private static final int DEFAULT_MAX_CONNECTIONS = 50;
+  /** Environment variable for the connection max idle time, in milliseconds. */
+  public static final String ENV_CONNECTION_MAX_IDLE = "AWS_HTTP_CONNECTION_MAX_IDLE_MS";
+  /** Environment variable for the http transport. */
+  public static final String ENV_HTTP_CLIENT = "AWS_HTTP_CLIENT";
+  /** Environment variable for the max number of pooled connections. */
+  public static final String ENV_MAX_CONNECTIONS = "AWS_HTTP_MAX_CONNECTIONS";
+  /** Environment variable for the number of connections opened at initialization. */
+  public static final String ENV_PREWARM_CONNECTIONS = "AWS_HTTP_PREWARM_CONNECTIONS";
+  /** {@link SdkHttpClient} shared by configuration. */
+  private static final Map<String, SdkHttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+  /** {@link SdkHttpService} class names by transport name. */
+  private static final Map<String, String> HTTP_SERVICES =
+      Map.of("apache", "software.amazon.awssdk.http.apache.ApacheSdkHttpService", "crt",
+          "software.amazon.awssdk.http.crt.AwsCrtSdkHttpService", "urlconnection",
+          "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
+
+  static {
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(SdkHttpTransportBuilder::closeAll, "sdk-http-close"));
+  }
+
+  /**
+   * Close and remove every shared {@link SdkHttpClient}. Later builds create new clients.
+   */
+  public static void closeAll() {
+    for (String key : List.copyOf(HTTP_CLIENTS.keySet())) {
+      SdkHttpClient client = HTTP_CLIENTS.remove(key);
+      if (client != null) {
+        client.close();
+      }
+    }
+  }
+
+  /**
+   * Create {@link SdkHttpTransportBuilder} from environment variables.
+   * 
+   * @param env {@link Map}
+   * @return {@link SdkHttpTransportBuilder}, null if no transport is configured
+   */
+  public static SdkHttpTransportBuilder fromEnvironment(final Map<String, String> env) {
+
+    SdkHttpTransportBuilder builder = null;
+    String transport = env != null ? env.get(ENV_HTTP_CLIENT) : null;
+
+    if (transport != null && !transport.isBlank()) {
+
+      builder = new SdkHttpTransportBuilder(transport);
+
+      if (env.containsKey(ENV_MAX_CONNECTIONS)) {
+        builder.maxConnections(Integer.parseInt(env.get(ENV_MAX_CONNECTIONS)));
+      }
+
+      if (env.containsKey(ENV_CONNECTION_MAX_IDLE)) {
+        builder.connectionMaxIdle(
+            Duration.ofMillis(Long.parseLong(env.get(ENV_CONNECTION_MAX_IDLE))));
+      }
+
+      if (env.containsKey(ENV_PREWARM_CONNECTIONS)) {
+        builder.prewarmConnections(Integer.parseInt(env.get(ENV_PREWARM_CONNECTIONS)));
+      }
+    }
+
+    return builder;
+  }
+
+  /**
+   * Run a request concurrently on a dedicated executor, so the transport opens connections before
+   * they are needed. Errors are ignored, the connection is opened even when the request is denied.
+   * 
+   * @param connections int
+   * @param request {@link Runnable}
+   */
+  public static void prewarm(final int connections, final Runnable request) {
+
+    ExecutorService executor = Executors.newFixedThreadPool(connections, r -> {
+      Thread t = new Thread(r, "sdk-http-prewarm");
+      t.setDaemon(true);
+      return t;
+    });
+
+    try {
+
+      List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+      for (int i = 0; i < connections; i++) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            request.run();
+          } catch (SdkException e) {
+            // ignore
+          }
+        }, executor));
+      }
+
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /** Connection Max Idle Time. */
+  private Duration connectionMaxIdle = DEFAULT_CONNECTION_MAX_IDLE;
+  /** {@link SdkHttpService} class name. */
+  private String httpService;
+  /** Max Connections. */
+  private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+  /** Number of connections to open at initialization. */
+  private int prewarmConnections = 0;
+  /** Enable TCP Keep Alive. */
+  private boolean tcpKeepAlive = true;
+
+  /**
+   * constructor.
+   * 
+   * @param transport {@link String} transport name or {@link SdkHttpService} class name
+   */
+  public SdkHttpTransportBuilder(final String transport) {
+    this.httpService = HTTP_SERVICES.getOrDefault(transport.toLowerCase(), transport);
+  }
+
+  /**
+   * Build {@link SdkHttpClient}, shared with every other builder of the same configuration.
+   * 
+   * @return {@link SdkHttpClient}
+   */
+  public SdkHttpClient build() {
+    String key = this.httpService + "#" + this.maxConnections + "#" + this.connectionMaxIdle + "#"
+        + this.tcpKeepAlive;
+    return HTTP_CLIENTS.computeIfAbsent(key, k -> createHttpClient());
+  }
+
+  /**
+   * Set Connection Max Idle Time, after which idle connections are reaped.
+   * 
+   * @param idle {@link Duration}
+   * @return {@link SdkHttpTransportBuilder}
+   */
+  public SdkHttpTransportBuilder connectionMaxIdle(final Duration idle) {
+    this.connectionMaxIdle = idle;
+    return this;
+  }
+
+  private SdkHttpClient createHttpClient() {
+
+    SdkHttpService service = null;
+
+    try {
+      service = (SdkHttpService) Class.forName(this.httpService).getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalArgumentException("invalid http transport " + this.httpService, e);
+    }
+
+    AttributeMap options = AttributeMap.builder()
+        .put(SdkHttpConfigurationOption.MAX_CONNECTIONS, Integer.valueOf(this.maxConnections))
+        .put(SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT, this.connectionMaxIdle)
+        .put(SdkHttpConfigurationOption.REAP_IDLE_CONNECTIONS, Boolean.TRUE)
+        .put(SdkHttpConfigurationOption.TCP_KEEPALIVE, Boolean.valueOf(this.tcpKeepAlive)).build();
+
+    return service.createHttpClientBuilder().buildWithDefaults(options);
+  }
+
+  /**
+   * Set Max Connections.
+   * 
+   * @param connections int
+   * @return {@link SdkHttpTransportBuilder}
+   */
+  public SdkHttpTransportBuilder maxConnections(final int connections) {
+    this.maxConnections = connections;
+    return this;
+  }
+
+  /**
+   * Get the number of connections to open at initialization.
+   * 
+   * @return int
+   */
+  public int prewarmConnections() {
+    return this.prewarmConnections;
+  }
+
+  /**
+   * Set the number of connections to open at initialization.
+   * 
+   * @param connections int
+   * @return {@link SdkHttpTransportBuilder}
+   */
+  public SdkHttpTransportBuilder prewarmConnections(final int connections) {
+    this.prewarmConnections = connections;
+    return this;
+  }
+
+  /**
+   * Set TCP Keep Alive.
+   * 
+   * @param keepAlive boolean
+   * @return {@link SdkHttpTransportBuilder}
+   */
+  public SdkHttpTransportBuilder tcpKeepAlive(final boolean keepAlive) {
+    this.tcpKeepAlive = keepAlive;
+    return this;
+  }
+}
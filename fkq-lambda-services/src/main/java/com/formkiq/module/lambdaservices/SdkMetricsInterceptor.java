@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import java.util.Optional;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpHeaders;
+
+/**
+ * 
+ * {@link ExecutionInterceptor} recording per operation latency, retries, errors and bytes moved of
+ * AWS SDK calls in a {@link MetricsRegistry}.
+ *
+ */
+public class SdkMetricsInterceptor implements ExecutionInterceptor {
+
+  /** Number of attempts of the call. */
+  private static final ExecutionAttribute<Integer> ATTEMPTS =
+      new ExecutionAttribute<>("FormKiQMetricsAttempts");
+  /** Start of the call, in nanoseconds. */
+  private static final ExecutionAttribute<Long> START =
+      new ExecutionAttribute<>("FormKiQMetricsStart");
+
+  /**
+   * Get Content-Length header.
+   * 
+   * @param headers {@link SdkHttpHeaders}
+   * @return long
+   */
+  private static long contentLength(final SdkHttpHeaders headers) {
+    Optional<String> value =
+        headers != null ? headers.firstMatchingHeader("Content-Length") : Optional.empty();
+    return value.map(Long::valueOf).orElse(Long.valueOf(0)).longValue();
+  }
+
+  /** {@link MetricsRegistry}. */
+  private final MetricsRegistry metrics;
+
+  /**
+   * constructor.
+   */
+  public SdkMetricsInterceptor() {
+    this(MetricsRegistry.getDefault());
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param metricsRegistry {@link MetricsRegistry}
+   */
+  public SdkMetricsInterceptor(final MetricsRegistry metricsRegistry) {
+    this.metrics = metricsRegistry;
+  }
+
+  @Override
+  public void afterExecution(final Context.AfterExecution context,
+      final ExecutionAttributes executionAttributes) {
+
+    String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+    String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+    record(executionAttributes, service, operation);
+
+    long sent = contentLength(context.httpRequest());
+    if (sent > 0) {
+      this.metrics.bytes("aws.sent.bytes", "service", service).add(sent);
+    }
+
+    long received = contentLength(context.httpResponse());
+    if (received > 0) {
+      this.metrics.bytes("aws.received.bytes", "service", service).add(received);
+    }
+  }
+
+  @Override
+  public void beforeExecution(final Context.BeforeExecution context,
+      final ExecutionAttributes executionAttributes) {
+    executionAttributes.putAttribute(START, Long.valueOf(System.nanoTime()));
+    executionAttributes.putAttribute(ATTEMPTS, Integer.valueOf(0));
+  }
+
+  @Override
+  public void beforeTransmission(final Context.BeforeTransmission context,
+      final ExecutionAttributes executionAttributes) {
+    Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+    int count = attempts != null ? attempts.intValue() : 0;
+    executionAttributes.putAttribute(ATTEMPTS, Integer.valueOf(count + 1));
+  }
+
+  @Override
+  public void onExecutionFailure(final Context.FailedExecution context,
+      final ExecutionAttributes executionAttributes) {
+
+    String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+    String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+    record(executionAttributes, service, operation);
+    this.metrics.counter("aws.errors", "service", service, "operation", operation).increment();
+  }
+
+  /**
+   * Record latency and retries of the call.
+   * 
+   * @param executionAttributes {@link ExecutionAttributes}
+   * @param service {@link String}
+   * @param operation {@link String}
+   */
+  private void record(final ExecutionAttributes executionAttributes, final String service,
+      final String operation) {
+
+    Long start = executionAttributes.getAttribute(START);
+    if (start != null) {
+      this.metrics.timer("aws.latency", "service", service, "operation", operation)
+          .recordNanos(System.nanoTime() - start.longValue());
+    }
+
+    Integer attempts = executionAttributes.getAttribute(ATTEMPTS);
+    if (attempts != null && attempts.intValue() > 1) {
+      this.metrics.counter("aws.retries", "service", service, "operation", operation)
+          .add(attempts.intValue() - 1);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link MetricsRegistry}.
+ *
+ */
+class MetricsRegistryTest {
+
+  /**
+   * Counters are shared by name and dimensions and are safe to update concurrently.
+   */
+  @Test
+  void testCounter01() {
+    // given
+    MetricsRegistry metrics = new MetricsRegistry();
+    final int count = 10000;
+
+    // when
+    IntStream.range(0, count).parallel()
+        .forEach(i -> metrics.counter("api.requests", "status", "200").increment());
+
+    // then
+    MetricCounter counter = metrics.counter("api.requests", "status", "200");
+    assertSame(counter, metrics.counter("api.requests", "status", "200"));
+    assertEquals(count, counter.sum());
+    assertEquals(0, metrics.counter("api.requests", "status", "404").sum());
+  }
+
+  /**
+   * EMF output drains metrics.
+   */
+  @Test
+  void testToEmf01() {
+    // given
+    final long timestamp = 1700000000000L;
+    MetricsRegistry metrics = new MetricsRegistry();
+    metrics.counter("api.requests", "method", "get", "status", "200").add(2);
+    metrics.timer("api.latency", "method", "get").recordNanos(TimeUnit.MILLISECONDS.toNanos(3));
+    metrics.timer("api.latency", "method", "get").recordNanos(TimeUnit.MILLISECONDS.toNanos(40));
+
+    // when
+    List<String> emf = metrics.toEmf("FormKiQ", timestamp);
+
+    // then
+    assertEquals(2, emf.size());
+    assertEquals("{\"_aws\":{\"Timestamp\":1700000000000,\"CloudWatchMetrics\":[{\"Namespace\":"
+        + "\"FormKiQ\",\"Dimensions\":[[\"method\",\"status\"]],\"Metrics\":[{\"Name\":"
+        + "\"api.requests\",\"Unit\":\"Count\"}]}]},\"method\":\"get\",\"status\":\"200\","
+        + "\"api.requests\":2}", emf.get(0));
+    assertTrue(emf.get(1).endsWith(",\"method\":\"get\",\"api.latency\":[3,40]}"));
+    assertTrue(emf.get(1).contains("\"Unit\":\"Milliseconds\""));
+    assertEquals(0, metrics.toEmf("FormKiQ", timestamp).size());
+  }
+
+  /**
+   * EMF timers hold every measured value, at most 100 per document.
+   */
+  @Test
+  void testToEmf02() {
+    // given
+    final long timestamp = 1700000000000L;
+    final int count = 250;
+    final int maxValues = 100;
+    MetricsRegistry metrics = new MetricsRegistry();
+    IntStream.range(0, count).forEach(i -> metrics.timer("api.latency", "method", "get")
+        .recordNanos(TimeUnit.MICROSECONDS.toNanos(1500)));
+
+    // when
+    List<String> emf = metrics.toEmf("FormKiQ", timestamp);
+
+    // then
+    assertEquals(3, emf.size());
+    List<Integer> sizes = emf.stream()
+        .map(e -> e.substring(e.indexOf("\"api.latency\":[")).split(",").length)
+        .collect(Collectors.toList());
+    assertEquals(List.of(maxValues, maxValues, count - 2 * maxValues), sizes);
+    emf.forEach(e -> assertTrue(e.contains("\"api.latency\":[1.5,1.5,")));
+  }
+
+  /**
+   * Timers without value recording are not written as EMF.
+   */
+  @Test
+  void testToEmf03() {
+    // given
+    final long timestamp = 1700000000000L;
+    MetricsRegistry metrics = new MetricsRegistry();
+    metrics.timer("api.latency", "method", "get").recordNanos(TimeUnit.MILLISECONDS.toNanos(3));
+
+    // when
+    metrics.setRecordValues(false);
+    metrics.timer("api.latency", "method", "get").recordNanos(TimeUnit.MILLISECONDS.toNanos(3));
+
+    // then
+    assertTrue(metrics.toPrometheus("formkiq_")
+        .contains("formkiq_api_latency_milliseconds_count{method=\"get\"} 2\n"));
+    assertEquals(0, metrics.toEmf("FormKiQ", timestamp).size());
+  }
+
+  /**
+   * Prometheus output is cumulative.
+   */
+  @Test
+  void testToPrometheus01() {
+    // given
+    MetricsRegistry metrics = new MetricsRegistry();
+    metrics.bytes("aws.sent.bytes", "service", "S3").add(1024);
+    metrics.timer("api.latency", "resource", "/documents")
+        .recordNanos(TimeUnit.MILLISECONDS.toNanos(3));
+
+    // when
+    String text = metrics.toPrometheus("formkiq_");
+
+    // then
+    assertTrue(text.contains("# TYPE formkiq_aws_sent_bytes_total counter\n"
+        + "formkiq_aws_sent_bytes_total{service=\"S3\"} 1024\n"));
+    assertTrue(text.contains("# TYPE formkiq_api_latency_milliseconds histogram\n"));
+    assertTrue(text.contains(
+        "formkiq_api_latency_milliseconds_bucket{resource=\"/documents\",le=\"2\"} 0\n"));
+    assertTrue(text.contains(
+        "formkiq_api_latency_milliseconds_bucket{resource=\"/documents\",le=\"5\"} 1\n"));
+    assertTrue(text.contains(
+        "formkiq_api_latency_milliseconds_bucket{resource=\"/documents\",le=\"+Inf\"} 1\n"));
+    assertTrue(
+        text.contains("formkiq_api_latency_milliseconds_count{resource=\"/documents\"} 1\n"));
+    assertEquals(text, metrics.toPrometheus("formkiq_"));
+  }
+}
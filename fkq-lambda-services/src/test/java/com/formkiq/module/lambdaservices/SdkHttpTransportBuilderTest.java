@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.formkiq.module.lambdaservices.TestSdkHttpService.TestSdkHttpClient;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpConfigurationOption;
+
+/**
+ * 
+ * Unit Test for {@link SdkHttpTransportBuilder}.
+ *
+ */
+class SdkHttpTransportBuilderTest {
+
+  /** {@link TestSdkHttpService} class name. */
+  private static final String SERVICE = TestSdkHttpService.class.getName();
+
+  /**
+   * Close shared clients.
+   */
+  @AfterEach
+  void afterEach() {
+    SdkHttpTransportBuilder.closeAll();
+  }
+
+  /**
+   * Builders of the same configuration share one client.
+   */
+  @Test
+  void testBuild01() {
+    // given
+    final int maxConnections = 10;
+
+    // when
+    SdkHttpClient client0 = new SdkHttpTransportBuilder(SERVICE).build();
+    SdkHttpClient client1 = new SdkHttpTransportBuilder(SERVICE).build();
+    SdkHttpClient client2 =
+        new SdkHttpTransportBuilder(SERVICE).maxConnections(maxConnections).build();
+
+    // then
+    assertSame(client0, client1);
+    assertNotSame(client0, client2);
+  }
+
+  /**
+   * Invalid transport.
+   */
+  @Test
+  void testBuild02() {
+    // given
+    SdkHttpTransportBuilder builder = new SdkHttpTransportBuilder("java.lang.String");
+
+    // when
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, builder::build);
+
+    // then
+    assertEquals("invalid http transport java.lang.String", e.getMessage());
+  }
+
+  /**
+   * Close all shared clients.
+   */
+  @Test
+  void testCloseAll01() {
+    // given
+    TestSdkHttpClient client = (TestSdkHttpClient) new SdkHttpTransportBuilder(SERVICE).build();
+
+    // when
+    SdkHttpTransportBuilder.closeAll();
+
+    // then
+    assertTrue(client.isClosed());
+    TestSdkHttpClient next = (TestSdkHttpClient) new SdkHttpTransportBuilder(SERVICE).build();
+    assertNotSame(client, next);
+    assertFalse(next.isClosed());
+  }
+
+  /**
+   * No transport configured.
+   */
+  @Test
+  void testFromEnvironment01() {
+    assertNull(SdkHttpTransportBuilder.fromEnvironment(null));
+    assertNull(SdkHttpTransportBuilder.fromEnvironment(Map.of()));
+    assertNull(SdkHttpTransportBuilder
+        .fromEnvironment(Map.of(SdkHttpTransportBuilder.ENV_HTTP_CLIENT, " ")));
+  }
+
+  /**
+   * Transport configured from environment.
+   */
+  @Test
+  void testFromEnvironment02() {
+    // given
+    final int maxConnections = 25;
+    final int prewarmConnections = 3;
+    Map<String, String> env = Map.of(SdkHttpTransportBuilder.ENV_HTTP_CLIENT, SERVICE,
+        SdkHttpTransportBuilder.ENV_MAX_CONNECTIONS, "25",
+        SdkHttpTransportBuilder.ENV_CONNECTION_MAX_IDLE, "5000",
+        SdkHttpTransportBuilder.ENV_PREWARM_CONNECTIONS, "3");
+
+    // when
+    SdkHttpTransportBuilder builder = SdkHttpTransportBuilder.fromEnvironment(env);
+    TestSdkHttpClient client = (TestSdkHttpClient) builder.build();
+
+    // then
+    assertEquals(prewarmConnections, builder.prewarmConnections());
+    assertEquals(Integer.valueOf(maxConnections),
+        client.getOptions().get(SdkHttpConfigurationOption.MAX_CONNECTIONS));
+    assertEquals(Duration.ofSeconds(5),
+        client.getOptions().get(SdkHttpConfigurationOption.CONNECTION_MAX_IDLE_TIMEOUT));
+    assertEquals(Boolean.TRUE,
+        client.getOptions().get(SdkHttpConfigurationOption.REAP_IDLE_CONNECTIONS));
+    assertEquals(Boolean.TRUE, client.getOptions().get(SdkHttpConfigurationOption.TCP_KEEPALIVE));
+  }
+
+  /**
+   * Prewarm runs every request on its own executor and ignores request errors.
+   */
+  @Test
+  void testPrewarm01() {
+    // given
+    final int connections = 4;
+    AtomicInteger count = new AtomicInteger();
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    // when
+    SdkHttpTransportBuilder.prewarm(connections, () -> {
+      count.incrementAndGet();
+      threads.add(Thread.currentThread().getName());
+      throw SdkClientException.create("access denied");
+    });
+
+    // then
+    assertEquals(connections, count.get());
+    assertEquals(Set.of("sdk-http-prewarm"), threads);
+  }
+}
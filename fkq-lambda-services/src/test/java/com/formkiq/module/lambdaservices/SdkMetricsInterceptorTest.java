@@ -0,0 +1,136 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.RequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.InterceptorContext;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+import software.amazon.awssdk.http.SdkHttpMethod;
+
+/**
+ * 
+ * Unit Test for {@link SdkMetricsInterceptor}.
+ *
+ */
+class SdkMetricsInterceptorTest {
+
+  /** Test {@link SdkRequest}. */
+  private static final SdkRequest REQUEST = new SdkRequest() {
+    @Override
+    public List<SdkField<?>> sdkFields() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Builder toBuilder() {
+      return null;
+    }
+
+    @Override
+    public Optional<RequestOverrideConfiguration> overrideConfiguration() {
+      return Optional.empty();
+    }
+  };
+
+  private static ExecutionAttributes attributes() {
+    ExecutionAttributes attributes = new ExecutionAttributes();
+    attributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, "S3");
+    attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "PutObject");
+    return attributes;
+  }
+
+  /**
+   * Successful call records latency, retries and bytes.
+   */
+  @Test
+  void testAfterExecution01() {
+    // given
+    MetricsRegistry metrics = new MetricsRegistry();
+    metrics.setRecordValues(false);
+    SdkMetricsInterceptor interceptor = new SdkMetricsInterceptor(metrics);
+    ExecutionAttributes attributes = attributes();
+
+    SdkHttpFullRequest httpRequest = SdkHttpFullRequest.builder().method(SdkHttpMethod.PUT)
+        .protocol("https").host("localhost").putHeader("Content-Length", "120").build();
+    SdkHttpFullResponse httpResponse = SdkHttpFullResponse.builder()
+        .statusCode(HttpStatusCode.OK).putHeader("Content-Length", "30").build();
+    InterceptorContext context = InterceptorContext.builder().request(REQUEST)
+        .httpRequest(httpRequest).httpResponse(httpResponse).build();
+
+    // when
+    interceptor.beforeExecution(context, attributes);
+    interceptor.beforeTransmission(context, attributes);
+    interceptor.beforeTransmission(context, attributes);
+    interceptor.afterExecution(context, attributes);
+
+    // then
+    final int sent = 120;
+    final int received = 30;
+    assertEquals(sent, metrics.bytes("aws.sent.bytes", "service", "S3").sum());
+    assertEquals(received, metrics.bytes("aws.received.bytes", "service", "S3").sum());
+    assertEquals(1,
+        metrics.counter("aws.retries", "service", "S3", "operation", "PutObject").sum());
+    assertEquals(0,
+        metrics.counter("aws.errors", "service", "S3", "operation", "PutObject").sum());
+
+    String prometheus = metrics.toPrometheus("formkiq_");
+    assertTrue(prometheus.contains(
+        "formkiq_aws_latency_milliseconds_count{service=\"S3\",operation=\"PutObject\"} 1"));
+    assertTrue(prometheus.contains("formkiq_aws_sent_bytes_total{service=\"S3\"} 120"));
+  }
+
+  /**
+   * Failed call records an error.
+   */
+  @Test
+  void testOnExecutionFailure01() {
+    // given
+    MetricsRegistry metrics = new MetricsRegistry();
+    SdkMetricsInterceptor interceptor = new SdkMetricsInterceptor(metrics);
+    ExecutionAttributes attributes = attributes();
+
+    // when
+    interceptor.beforeExecution(null, attributes);
+    interceptor.beforeTransmission(null, attributes);
+    interceptor.onExecutionFailure(null, attributes);
+
+    // then
+    assertEquals(1,
+        metrics.counter("aws.errors", "service", "S3", "operation", "PutObject").sum());
+    assertEquals(0,
+        metrics.counter("aws.retries", "service", "S3", "operation", "PutObject").sum());
+  }
+}
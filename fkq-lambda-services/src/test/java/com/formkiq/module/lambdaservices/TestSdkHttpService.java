@@ -0,0 +1,100 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpService;
+import software.amazon.awssdk.utils.AttributeMap;
+
+/**
+ * 
+ * {@link SdkHttpService} that builds {@link SdkHttpClient} that only record their configuration.
+ *
+ */
+public class TestSdkHttpService implements SdkHttpService {
+
+  /** {@link SdkHttpClient} recording its configuration. */
+  public static class TestSdkHttpClient implements SdkHttpClient {
+
+    /** Whether the client is closed. */
+    private boolean closed;
+    /** Configuration options. */
+    private AttributeMap options;
+
+    /**
+     * constructor.
+     * 
+     * @param attributes {@link AttributeMap}
+     */
+    public TestSdkHttpClient(final AttributeMap attributes) {
+      this.options = attributes;
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+    }
+
+    /**
+     * Get Configuration options.
+     * 
+     * @return {@link AttributeMap}
+     */
+    public AttributeMap getOptions() {
+      return this.options;
+    }
+
+    /**
+     * Whether the client is closed.
+     * 
+     * @return boolean
+     */
+    public boolean isClosed() {
+      return this.closed;
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /** {@link SdkHttpClient.Builder} of {@link TestSdkHttpClient}. */
+  private static class TestSdkHttpClientBuilder
+      implements SdkHttpClient.Builder<TestSdkHttpClientBuilder> {
+
+    @Override
+    public SdkHttpClient buildWithDefaults(final AttributeMap serviceDefaults) {
+      return new TestSdkHttpClient(serviceDefaults);
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  @Override
+  public SdkHttpClient.Builder createHttpClientBuilder() {
+    return new TestSdkHttpClientBuilder();
+  }
+}
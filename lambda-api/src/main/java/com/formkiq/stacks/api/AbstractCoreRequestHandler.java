@@ -36,6 +36,8 @@ import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
 import com.formkiq.aws.services.lambda.AbstractRestApiRequestHandler;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
+import com.formkiq.aws.services.lambda.ApiRouteMatch;
+import com.formkiq.aws.services.lambda.ApiRouteTable;
 import com.formkiq.aws.services.lambda.LambdaInputRecord;
 import com.formkiq.aws.services.lambda.exceptions.NotFoundException;
 import com.formkiq.aws.services.lambda.services.CacheService;
@@ -144,6 +146,8 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
 
   /** Is Public Urls Enabled. */
   private static boolean isEnablePublicUrls;
+  /** {@link ApiRouteTable} compiled from the registered request handlers. */
+  private static ApiRouteTable<ApiGatewayRequestHandler> routes = new ApiRouteTable<>();
   /** Url Class Map. */
   private static final Map<String, ApiGatewayRequestHandler> URL_MAP = new HashMap<>();
 
@@ -158,6 +162,23 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
     addRequestHandler(new OnlyOfficeEditRequestHandler());
   }
 
+  /**
+   * Add routes that are not part of the Url Map. Webhooks match any path under their prefix.
+   */
+  private static void addPublicEndpoints() {
+
+    ApiGatewayRequestHandler publicWebhooks = new PublicWebhooksRequestHandler();
+    ApiGatewayRequestHandler privateWebhooks = new PrivateWebhooksRequestHandler();
+    routes.add("/public/webhooks", publicWebhooks).add("/public/webhooks/{webhooks+}",
+        publicWebhooks);
+    routes.add("/private/webhooks", privateWebhooks).add("/private/webhooks/{webhooks+}",
+        privateWebhooks);
+
+    if (isEnablePublicUrls) {
+      routes.add("/public/documents", new PublicDocumentsRequestHandler());
+    }
+  }
+
   /**
    * Add Url Request Handler Mapping.
    * 
@@ -165,6 +186,7 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
    */
   public static void addRequestHandler(final ApiGatewayRequestHandler handler) {
     URL_MAP.put(handler.getRequestUrl(), handler);
+    routes.add(handler.getRequestUrl(), handler);
   }
 
   private static void addUserActivitiesEndpoints() {
@@ -185,7 +207,12 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
    * Build Core UrlMap.
    */
   private static void buildUrlMap() {
-    URL_MAP.put("options", new DocumentsOptionsRequestHandler());
+    routes = new ApiRouteTable<>();
+    URL_MAP.forEach((url, handler) -> routes.add(url, handler));
+
+    ApiGatewayRequestHandler options = new DocumentsOptionsRequestHandler();
+    URL_MAP.put("options", options);
+    routes.add("options", options);
     addRequestHandler(new VersionRequestHandler());
     addRequestHandler(new SitesRequestHandler());
     addRequestHandler(new ConfigurationRequestHandler());
@@ -232,6 +259,7 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
     addGroupUsersEndpoints();
     addWorkflowEndpoints();
     addUserActivitiesEndpoints();
+    addPublicEndpoints();
   }
 
   /**
@@ -303,31 +331,27 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
   public AbstractCoreRequestHandler() {}
 
   @Override
-  @SuppressWarnings("returncount")
   public ApiGatewayRequestHandler findRequestHandler(
       final Map<String, ApiGatewayRequestHandler> urlMap, final String method,
       final String resource) throws NotFoundException {
 
     String s = "options".equals(method) ? method : resource;
 
-    if (isEnablePublicUrls && "/public/documents".equals(s)) {
-      return new PublicDocumentsRequestHandler();
+    ApiRouteMatch<ApiGatewayRequestHandler> match = routes.find(s);
+    if (match == null) {
+      throw new NotFoundException(resource + " not found");
     }
 
-    if (s.startsWith("/public/webhooks")) {
-      return new PublicWebhooksRequestHandler();
-    }
-
-    if (s.startsWith("/private/webhooks")) {
-      return new PrivateWebhooksRequestHandler();
-    }
-
-    ApiGatewayRequestHandler hander = URL_MAP.get(s);
-    if (hander != null) {
-      return hander;
-    }
+    return match.getValue();
+  }
 
-    throw new NotFoundException(resource + " not found");
+  /**
+   * Get {@link ApiRouteTable} of all request handlers, including the public endpoints.
+   * 
+   * @return {@link ApiRouteTable}
+   */
+  public ApiRouteTable<ApiGatewayRequestHandler> getRoutes() {
+    return routes;
   }
 
   @Override
@@ -26,6 +26,7 @@ package com.formkiq.stacks.api;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.validation.ValidationError;
@@ -77,8 +78,38 @@ public class QueryRequestValidator {
           errors.add(new ValidationErrorImpl().key("tag/key").error("attribute is required"));
         }
       }
+
+      if (errors.isEmpty() && !isEmpty(q.query().text())) {
+        validateFulltextTags(q, errors);
+      }
     }
 
     return errors;
   }
+
+  /**
+   * Validate tag criteria that are pushed down into the fulltext search.
+   * 
+   * @param q {@link QueryRequest}
+   * @param errors {@link Collection} {@link ValidationError}
+   */
+  private void validateFulltextTags(final QueryRequest q,
+      final Collection<ValidationError> errors) {
+
+    List<SearchTagCriteria> tags = new ArrayList<>(Objects.notNull(q.query().tags()));
+    if (q.query().tag() != null) {
+      tags.add(q.query().tag());
+    }
+
+    for (SearchTagCriteria tag : tags) {
+
+      if (!tag.key().matches(SearchQueryToTypeSenseFilter.VALID_TAG_KEY)) {
+        errors.add(new ValidationErrorImpl().key("tag/key")
+            .error("key is not supported with 'text' search"));
+      } else if (tag.eq() == null && Objects.notNull(tag.eqOr()).isEmpty()) {
+        errors.add(new ValidationErrorImpl().key("tag/eq")
+            .error("'eq' or 'eqOr' is required with 'text' search"));
+      }
+    }
+  }
 }
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.model.SearchMetaCriteria;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
+import com.formkiq.aws.dynamodb.objects.Objects;
+
+/**
+ * 
+ * {@link Function} to convert the tag, meta and document id criteria of a {@link SearchQuery} to
+ * a Typesense 'filter_by' expression, so they are applied in the same request as the text search.
+ * Tag criteria must use 'eq' or 'eqOr', see {@link QueryRequestValidator}.
+ *
+ */
+public class SearchQueryToTypeSenseFilter implements Function<SearchQuery, String> {
+
+  /** Regex of tag keys that can be used as Typesense field names. */
+  public static final String VALID_TAG_KEY = "[A-Za-z0-9_\\-\\.]+";
+
+  @Override
+  public String apply(final SearchQuery query) {
+
+    List<String> filters = new ArrayList<>();
+
+    List<SearchTagCriteria> tags = new ArrayList<>(Objects.notNull(query.tags()));
+    if (query.tag() != null) {
+      tags.add(query.tag());
+    }
+
+    for (SearchTagCriteria tag : tags) {
+
+      String field = "tags#" + tag.key();
+
+      if (tag.eq() != null) {
+        filters.add(field + ":=" + values(List.of(tag.eq())));
+      } else if (!Objects.notNull(tag.eqOr()).isEmpty()) {
+        filters.add(field + ":=" + values(tag.eqOr()));
+      }
+    }
+
+    SearchMetaCriteria meta = query.meta();
+    if (meta != null && meta.path() != null) {
+      filters.add("path:=" + values(List.of(meta.path())));
+    }
+
+    if (!Objects.notNull(query.documentIds()).isEmpty()) {
+      filters.add("id:" + values(query.documentIds()));
+    }
+
+    return !filters.isEmpty() ? String.join(" && ", filters) : null;
+  }
+
+  /**
+   * Format values as a backtick escaped Typesense list.
+   * 
+   * @param values {@link Collection} {@link String}
+   * @return {@link String}
+   */
+  private String values(final Collection<String> values) {
+    return values.stream().map(v -> "`" + v.replace("`", "") + "`")
+        .collect(Collectors.joining(",", "[", "]"));
+  }
+}
@@ -35,6 +35,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,7 +52,7 @@ import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentMetadata;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
-import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.s3.S3ObjectEnvelope;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.aws.s3.S3Service;
@@ -100,6 +101,10 @@ public class DocumentIdRequestHandler
 
   /** Extension for FormKiQ config file. */
   public static final String FORMKIQ_DOC_EXT = ".fkb64";
+  /** Extension for FormKiQ binary staging file. */
+  public static final String FORMKIQ_DOC_BIN_EXT = ".fkbin";
+  /** Staged Content header key. */
+  public static final String STAGED_CONTENT = "stagedContent";
 
   /** {@link ActionsValidator}. */
   private ActionsValidator actionsValidator = new ActionsValidatorImpl();
@@ -329,6 +334,37 @@ public class DocumentIdRequestHandler
     return isFolder;
   }
 
+  /**
+   * Whether a new document is small and simple enough to be saved directly, skipping the staging
+   * bucket. Documents with child documents, actions, a tag schema or a sync agent still need the
+   * staging pipeline.
+   * 
+   * @param awsservice {@link AwsServiceCache}
+   * @param item {@link DynamicDocumentItem}
+   * @param documents {@link List} {@link DynamicObject}
+   * @return boolean
+   */
+  private boolean isSyncCreate(final AwsServiceCache awsservice, final DynamicDocumentItem item,
+      final List<DynamicObject> documents) {
+
+    String maxBytes = awsservice.environment("DOCUMENTS_SYNC_CREATE_MAX_BYTES");
+    boolean sync = false;
+
+    if (!isEmpty(maxBytes) && item.hasString("content") && documents.isEmpty()
+        && item.getList("actions").isEmpty() && isEmpty(item.getString("tagSchemaId"))
+        && isEmpty(item.getString("agent"))) {
+
+      String content = item.getString("content");
+      final long base64Ratio = 4;
+      long length = Boolean.TRUE.equals(item.getBoolean("isBase64"))
+          ? content.length() / base64Ratio * (base64Ratio - 1)
+          : content.length();
+      sync = length <= Long.parseLong(maxBytes);
+    }
+
+    return sync;
+  }
+
   @Override
   public ApiRequestHandlerResponse patch(final LambdaLogger logger,
       final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
@@ -382,7 +418,11 @@ public class DocumentIdRequestHandler
       validateTags(item);
       validateActions(awsservice, siteId, item, authorization);
 
-      putObjectToStaging(logger, awsservice, maxDocumentCount, siteId, item);
+      if (!isUpdate && isSyncCreate(awsservice, item, documents)) {
+        saveDocument(logger, awsservice, maxDocumentCount, siteId, item);
+      } else {
+        putObjectToStaging(logger, awsservice, maxDocumentCount, siteId, item);
+      }
 
       Map<String, String> uploadUrls =
           generateUploadUrls(awsservice, siteId, documentId, item, documents);
@@ -408,17 +448,29 @@ public class DocumentIdRequestHandler
     List<DynamicObject> documents = item.getList("documents");
     item.put("documents", documents);
 
-    String s = GSON.toJson(item);
+    String stageS3Bucket = awsservice.environment("STAGE_DOCUMENTS_S3_BUCKET");
+    S3Service s3 = awsservice.getExtension(S3Service.class);
 
-    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    if ("true".equals(awsservice.environment("STAGE_DOCUMENTS_BINARY"))) {
 
-    String key = createDatabaseKey(siteId, item.getString("documentId") + FORMKIQ_DOC_EXT);
-    String stageS3Bucket = awsservice.environment("STAGE_DOCUMENTS_S3_BUCKET");
-    logger.log("s3 putObject " + key + " into bucket " + stageS3Bucket);
+      String key = createDatabaseKey(siteId, item.getString("documentId") + FORMKIQ_DOC_BIN_EXT);
+      logger.log("s3 putObject " + key + " into bucket " + stageS3Bucket);
 
-    S3Service s3 = awsservice.getExtension(S3Service.class);
+      S3ObjectEnvelope envelope = toStagingEnvelope(item, documents);
+      s3.putObject(stageS3Bucket, key, envelope.toInputStream(), envelope.length(),
+          item.getString("contentType"), null);
+
+    } else {
+
+      String s = GSON.toJson(item);
 
-    s3.putObject(stageS3Bucket, key, bytes, item.getString("contentType"));
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+      String key = createDatabaseKey(siteId, item.getString("documentId") + FORMKIQ_DOC_EXT);
+      logger.log("s3 putObject " + key + " into bucket " + stageS3Bucket);
+
+      s3.putObject(stageS3Bucket, key, bytes, item.getString("contentType"));
+    }
 
     if (maxDocumentCount != null) {
       DocumentCountService countService = awsservice.getExtension(DocumentCountService.class);
@@ -426,6 +478,96 @@ public class DocumentIdRequestHandler
     }
   }
 
+  /**
+   * Save a new Document and its content directly, instead of through the staging bucket. The
+   * documents bucket S3 event then publishes the same document create event as for staged
+   * documents.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param awsservice {@link AwsServiceCache}
+   * @param maxDocumentCount {@link String}
+   * @param siteId {@link String}
+   * @param item {@link DynamicDocumentItem}
+   */
+  private void saveDocument(final LambdaLogger logger, final AwsServiceCache awsservice,
+      final String maxDocumentCount, final String siteId, final DynamicDocumentItem item) {
+
+    String content = item.getString("content");
+    byte[] bytes = Boolean.TRUE.equals(item.getBoolean("isBase64"))
+        ? Base64.getDecoder().decode(content)
+        : content.getBytes(StandardCharsets.UTF_8);
+
+    DynamicDocumentItem doc = new DynamicDocumentItem(item);
+    doc.remove("content");
+    doc.setChecksum(UUID.randomUUID().toString());
+    doc.setContentLength(Long.valueOf(bytes.length));
+
+    if (isEmpty(doc.getPath())) {
+      doc.setPath(doc.getDocumentId());
+    }
+
+    DocumentService service = awsservice.getExtension(DocumentService.class);
+    service.saveDocumentItemWithTag(siteId, doc);
+
+    String documentsBucket = awsservice.environment("DOCUMENTS_S3_BUCKET");
+    String key = createDatabaseKey(siteId, doc.getDocumentId());
+    logger.log("s3 putObject " + key + " into bucket " + documentsBucket);
+
+    S3Service s3 = awsservice.getExtension(S3Service.class);
+    s3.putObject(documentsBucket, key, bytes, doc.getContentType(),
+        Map.of("checksum", doc.getChecksum()));
+
+    if (maxDocumentCount != null) {
+      DocumentCountService countService = awsservice.getExtension(DocumentCountService.class);
+      countService.incrementDocumentCount(siteId);
+    }
+  }
+
+  /**
+   * Convert Document to a binary staging {@link S3ObjectEnvelope}. The header is the document
+   * without its content, and each document's decoded content is a raw segment listed in the
+   * header's {@link #STAGED_CONTENT}.
+   * 
+   * @param item {@link DynamicObject}
+   * @param documents {@link List} {@link DynamicObject}
+   * @return {@link S3ObjectEnvelope}
+   */
+  private S3ObjectEnvelope toStagingEnvelope(final DynamicObject item,
+      final List<DynamicObject> documents) {
+
+    boolean isBase64 = Boolean.TRUE.equals(item.getBoolean("isBase64"));
+
+    DynamicObject header = new DynamicObject(item);
+    List<DynamicObject> headerDocuments =
+        documents.stream().map(d -> new DynamicObject(d)).collect(Collectors.toList());
+    header.put("documents", headerDocuments);
+
+    List<DynamicObject> objs = new ArrayList<>();
+    objs.add(header);
+    objs.addAll(headerDocuments);
+
+    S3ObjectEnvelope envelope = new S3ObjectEnvelope();
+    List<Map<String, Object>> staged = new ArrayList<>();
+
+    for (DynamicObject o : objs) {
+
+      if (o.hasString("content") && o.hasString("documentId")) {
+        String content = o.getString("content");
+        byte[] bytes = isBase64 ? Base64.getDecoder().decode(content)
+            : content.getBytes(StandardCharsets.UTF_8);
+
+        long offset = envelope.addSegment(bytes);
+        staged.add(Map.of("documentId", o.getString("documentId"), "offset",
+            Long.valueOf(offset), "length", Long.valueOf(bytes.length)));
+      }
+
+      o.remove("content");
+    }
+
+    header.put(STAGED_CONTENT, staged);
+    return envelope.header(GSON.toJson(header).getBytes(StandardCharsets.UTF_8));
+  }
+
   /**
    * Update Content-Type on {@link DynamicObject} based on {@link ApiGatewayRequestEvent}.
    * 
@@ -567,8 +709,7 @@ public class DocumentIdRequestHandler
       throws ValidationException, BadException {
 
     List<DynamicObject> doctags = item.getList("tags");
-    DynamicObjectToDocumentTag transform =
-        new DynamicObjectToDocumentTag(DateUtil.getIsoDateFormatter());
+    DynamicObjectToDocumentTag transform = new DynamicObjectToDocumentTag(true);
     List<DocumentTag> tags = doctags.stream().map(t -> {
       return transform.apply(t);
     }).collect(Collectors.toList());
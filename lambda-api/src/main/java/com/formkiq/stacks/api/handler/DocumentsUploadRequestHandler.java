@@ -108,7 +108,7 @@ public class DocumentsUploadRequestHandler
 
     List<DocumentTag> tags = new ArrayList<>();
     if (item.containsKey("tags")) {
-      tags = item.getList("tags").stream().map(new DynamicObjectToDocumentTag(null))
+      tags = item.getList("tags").stream().map(new DynamicObjectToDocumentTag(false))
           .map(t -> t.setInsertedDate(date)).collect(Collectors.toList());
     }
 
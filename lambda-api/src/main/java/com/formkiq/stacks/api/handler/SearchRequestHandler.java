@@ -27,6 +27,7 @@ import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_OK;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_PAYMENT;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,11 +55,14 @@ import com.formkiq.aws.services.lambda.ApiRequestHandlerResponse;
 import com.formkiq.aws.services.lambda.exceptions.BadException;
 import com.formkiq.aws.services.lambda.services.CacheService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.typesense.TypeSenseSearchRequest;
 import com.formkiq.module.typesense.TypeSenseService;
 import com.formkiq.module.typesense.TypeSenseServiceImpl;
 import com.formkiq.plugins.tagschema.DocumentTagSchemaPlugin;
 import com.formkiq.stacks.api.QueryRequest;
 import com.formkiq.stacks.api.QueryRequestValidator;
+import com.formkiq.stacks.api.SearchQueryToTypeSenseFilter;
+import com.formkiq.stacks.dynamodb.AttributeValueToDocumentItem;
 import com.formkiq.stacks.dynamodb.DocumentItemToDynamicDocumentItem;
 import com.formkiq.stacks.dynamodb.DocumentSearchService;
 import com.formkiq.stacks.dynamodb.DocumentService;
@@ -66,12 +70,15 @@ import com.formkiq.validation.ValidationError;
 import com.formkiq.validation.ValidationException;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 /** {@link ApiGatewayRequestHandler} for "/search". */
 public class SearchRequestHandler implements ApiGatewayRequestHandler, ApiGatewayRequestEventUtil {
 
   /** Maximum number of Document Ids that can be sent. */
   private static final int MAX_DOCUMENT_IDS = 100;
+  /** Typesense Metadata field prefix. */
+  private static final String PREFIX_METADATA = "metadata#";
 
   /**
    * constructor.
@@ -117,12 +124,34 @@ public class SearchRequestHandler implements ApiGatewayRequestHandler, ApiGatewa
     return Optional.of(Boolean.valueOf(access));
   }
 
+  /**
+   * Whether the query needs the {@link DocumentTagSchemaPlugin}. Multiple tag queries are run by
+   * the {@link DocumentSearchService} tag query planner when the plugin is not active.
+   * 
+   * @param serviceCache {@link AwsServiceCache}
+   * @param q {@link QueryRequest}
+   * @return boolean
+   */
   private boolean isEnterpriseFeature(final AwsServiceCache serviceCache, final QueryRequest q) {
 
     return q.query().tag() == null && q.query().meta() == null && isEmpty(q.query().text())
+        && Objects.notNull(q.query().tags()).isEmpty()
         && !serviceCache.getExtension(DocumentTagSchemaPlugin.class).isActive();
   }
 
+  /**
+   * Whether a Typesense hit holds every stored field of the document, so it does not need to be
+   * read from DynamoDb. Documents indexed before these fields were stored, or with metadata, are
+   * read from DynamoDb.
+   * 
+   * @param hit {@link Map}
+   * @return boolean
+   */
+  private boolean isProjectionComplete(final Map<String, Object> hit) {
+    return hit.containsKey("inserteddate") && hit.keySet().stream()
+        .noneMatch(k -> k.startsWith(PREFIX_METADATA) && k.length() > PREFIX_METADATA.length());
+  }
+
   /**
    * Merge Response Tags into Response.
    * 
@@ -245,29 +274,86 @@ public class SearchRequestHandler implements ApiGatewayRequestHandler, ApiGatewa
         throw new BadException("Fulltext search is not Enabled");
       }
 
-      Region region = Region.of(awsservice.environment("AWS_REGION"));
+      results = queryFulltext(awsservice, siteId, q, limit);
 
-      AwsCredentials awsCredentials = awsservice.getExtension(AwsCredentials.class);
-      DocumentService docService = awsservice.getExtension(DocumentService.class);
-      TypeSenseService ts = new TypeSenseServiceImpl(awsservice.environment("TYPESENSE_HOST"),
-          awsservice.environment("TYPESENSE_API_KEY"), region, awsCredentials);
+    } else {
 
-      List<String> documentIds = ts.searchFulltext(siteId, text, limit);
+      results = documentSearchService.search(siteId, q.query(), ptoken, limit);
+    }
 
-      List<DocumentItem> list = docService.findDocuments(siteId, documentIds);
+    return results;
+  }
 
-      List<DynamicDocumentItem> docs =
-          list != null ? list.stream().map(l -> new DocumentItemToDynamicDocumentItem().apply(l))
-              .collect(Collectors.toList()) : Collections.emptyList();
+  /**
+   * Query Typesense, with the tag / meta criteria applied as Typesense filters. Documents are read
+   * from DynamoDb only when Typesense does not hold all of their stored fields.
+   * 
+   * @param awsservice {@link AwsServiceCache}
+   * @param siteId {@link String}
+   * @param q {@link QueryRequest}
+   * @param limit int
+   * @return {@link PaginationResults} {@link DynamicDocumentItem}
+   * @throws IOException IOException
+   */
+  private PaginationResults<DynamicDocumentItem> queryFulltext(final AwsServiceCache awsservice,
+      final String siteId, final QueryRequest q, final int limit) throws IOException {
 
-      results = new PaginationResults<>(docs, null);
+    String text = q.query().text();
+    Region region = Region.of(awsservice.environment("AWS_REGION"));
 
-    } else {
+    AwsCredentials awsCredentials = awsservice.getExtension(AwsCredentials.class);
+    DocumentService docService = awsservice.getExtension(DocumentService.class);
+    TypeSenseService ts = new TypeSenseServiceImpl(awsservice.environment("TYPESENSE_HOST"),
+        awsservice.environment("TYPESENSE_API_KEY"), region, awsCredentials);
 
-      results = documentSearchService.search(siteId, q.query(), ptoken, limit);
+    // hits are converted from their stored fields, the full text content is never returned
+    TypeSenseSearchRequest request = new TypeSenseSearchRequest().text(text).maxResults(limit)
+        .filterBy(new SearchQueryToTypeSenseFilter().apply(q.query())).excludeFields("content");
+
+    List<Map<String, Object>> hits = ts.search(siteId, request).documents();
+
+    List<String> documentIds = hits.stream().filter(h -> !isProjectionComplete(h))
+        .map(h -> (String) h.get("documentId")).collect(Collectors.toList());
+
+    Map<String, DocumentItem> items = new HashMap<>();
+    if (!documentIds.isEmpty()) {
+      Objects.notNull(docService.findDocuments(siteId, documentIds))
+          .forEach(i -> items.put(i.getDocumentId(), i));
     }
 
-    return results;
+    List<DynamicDocumentItem> docs = new ArrayList<>();
+    for (Map<String, Object> hit : hits) {
+
+      String documentId = (String) hit.get("documentId");
+      DocumentItem item = isProjectionComplete(hit) ? toDocumentItem(hit) : items.get(documentId);
+
+      if (item != null) {
+        docs.add(new DocumentItemToDynamicDocumentItem().apply(item));
+      }
+    }
+
+    return new PaginationResults<>(docs, null);
+  }
+
+  /**
+   * Convert the stored fields of a Typesense hit to {@link DocumentItem}.
+   * 
+   * @param hit {@link Map}
+   * @return {@link DocumentItem}
+   */
+  private DocumentItem toDocumentItem(final Map<String, Object> hit) {
+
+    Map<String, AttributeValue> map = new HashMap<>();
+
+    for (Map.Entry<String, Object> e : hit.entrySet()) {
+      if (e.getValue() instanceof String) {
+        String value = (String) e.getValue();
+        boolean number = "contentLength".equals(e.getKey()) || "TimeToLive".equals(e.getKey());
+        map.put(e.getKey(), number ? AttributeValue.fromN(value) : AttributeValue.fromS(value));
+      }
+    }
+
+    return new AttributeValueToDocumentItem().apply(map);
   }
 
   private void validatePost(final QueryRequest q) throws ValidationException {
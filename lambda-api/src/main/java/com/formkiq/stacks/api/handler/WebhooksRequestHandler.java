@@ -137,7 +137,7 @@ public class WebhooksRequestHandler
         int max = Integer.parseInt(maxString);
 
         WebhooksService webhooksService = awsservice.getExtension(WebhooksService.class);
-        int numberOfWebhooks = webhooksService.findWebhooks(siteId).size();
+        int numberOfWebhooks = webhooksService.countWebhooks(siteId);
 
         if (awsservice.debug()) {
           logger.log("found config for maximum webhooks " + maxString);
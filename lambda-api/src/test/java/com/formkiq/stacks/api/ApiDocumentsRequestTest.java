@@ -60,6 +60,7 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.model.SearchMetaCriteria;
 import com.formkiq.aws.dynamodb.model.SearchQuery;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.s3.S3ObjectEnvelope;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEventBuilder;
 import com.formkiq.aws.services.lambda.ApiResponseError;
@@ -69,6 +70,7 @@ import com.formkiq.module.actions.ActionType;
 import com.formkiq.module.actions.services.ActionsService;
 import com.formkiq.plugins.tagschema.DocumentTagSchemaPlugin;
 import com.formkiq.plugins.tagschema.DocumentTagSchemaPluginExtension;
+import com.formkiq.stacks.api.handler.DocumentIdRequestHandler;
 import com.formkiq.stacks.dynamodb.DocumentItemDynamoDb;
 import com.formkiq.stacks.dynamodb.DocumentSearchService;
 import com.formkiq.stacks.dynamodb.DocumentService;
@@ -1032,6 +1034,124 @@ public class ApiDocumentsRequestTest extends AbstractRequestHandler {
     }
   }
 
+  /**
+   * POST /documents request with binary staging file.
+   *
+   * @throws Exception an error has occurred
+   */
+  @Test
+  public void testHandlePostDocuments23() throws Exception {
+    setEnvironment("STAGE_DOCUMENTS_BINARY", "true");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String body = "{\"content\": \"dGhpcyBpcyBhIHRlc3Q=\",\"isBase64\": true,"
+          + "\"path\": \"/file/test.txt\",\"documents\":[{\"content\":\"child\"}]}";
+
+      // when
+      DynamicObject obj = handleRequestDynamic(
+          postDocumentsRequest(siteId, siteId != null ? siteId : "default", body));
+
+      // then
+      assertEquals("201.0", obj.getString("statusCode"));
+      DynamicObject resp = new DynamicObject(fromJson(obj.getString("body"), Map.class));
+
+      String key = SiteIdKeyGenerator.createDatabaseKey(siteId,
+          resp.getString("documentId") + DocumentIdRequestHandler.FORMKIQ_DOC_BIN_EXT);
+      byte[] data = IoUtils.toByteArray(getS3().getContentAsInputStream(STAGE_BUCKET_NAME, key));
+
+      byte[] header = S3ObjectEnvelope.readHeader(new ByteArrayInputStream(data));
+      DynamicObject doc =
+          new DynamicObject(fromJson(new String(header, StandardCharsets.UTF_8), Map.class));
+      assertEquals(resp.getString("documentId"), doc.getString("documentId"));
+      assertFalse(doc.containsKey("content"));
+      assertFalse(doc.getList("documents").get(0).containsKey("content"));
+
+      List<DynamicObject> staged = doc.getList(DocumentIdRequestHandler.STAGED_CONTENT);
+      assertEquals(2, staged.size());
+
+      List<String> contents = new ArrayList<>();
+      for (DynamicObject o : staged) {
+        int offset = Integer.BYTES + header.length + o.getDouble("offset").intValue();
+        int length = o.getDouble("length").intValue();
+        contents.add(new String(data, offset, length, StandardCharsets.UTF_8));
+      }
+
+      assertEquals("this is a test,child", String.join(",", contents));
+    }
+  }
+
+  /**
+   * POST /documents small document saved without staging.
+   *
+   * @throws Exception an error has occurred
+   */
+  @Test
+  public void testHandlePostDocuments24() throws Exception {
+    setEnvironment("DOCUMENTS_SYNC_CREATE_MAX_BYTES", "1024");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String body = "{\"content\": \"dGhpcyBpcyBhIHRlc3Q=\",\"isBase64\": true,"
+          + "\"path\": \"test.txt\",\"contentType\": \"text/plain\","
+          + "\"tags\":[{\"key\":\"category\",\"value\":\"a\"}]}";
+
+      // when
+      DynamicObject obj = handleRequestDynamic(
+          postDocumentsRequest(siteId, siteId != null ? siteId : "default", body));
+
+      // then
+      assertEquals("201.0", obj.getString("statusCode"));
+      DynamicObject resp = new DynamicObject(fromJson(obj.getString("body"), Map.class));
+      String documentId = resp.getString("documentId");
+      assertNull(resp.getString("uploadUrl"));
+
+      DocumentItem item = getDocumentService().findDocument(siteId, documentId);
+      assertEquals("test.txt", item.getPath());
+      assertEquals("text/plain", item.getContentType());
+      assertEquals(Long.valueOf("this is a test".length()), item.getContentLength());
+      assertEquals("a",
+          getDocumentService().findDocumentTag(siteId, documentId, "category").getValue());
+
+      String s3Key = SiteIdKeyGenerator.createDatabaseKey(siteId, documentId);
+      assertEquals("this is a test", getS3().getContentAsString(BUCKET_NAME, s3Key, null));
+
+      String stageKey = SiteIdKeyGenerator.createDatabaseKey(siteId, documentId + ".fkb64");
+      assertFalse(getS3().getObjectMetadata(STAGE_BUCKET_NAME, stageKey, null).isObjectExists());
+    }
+  }
+
+  /**
+   * POST /documents document with actions is staged.
+   *
+   * @throws Exception an error has occurred
+   */
+  @Test
+  public void testHandlePostDocuments25() throws Exception {
+    setEnvironment("DOCUMENTS_SYNC_CREATE_MAX_BYTES", "1024");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String body = "{\"content\": \"dGhpcyBpcyBhIHRlc3Q=\",\"isBase64\": true,"
+          + "\"path\": \"test.txt\",\"actions\":[{\"type\":\"webhook\","
+          + "\"parameters\":{\"url\":\"http://localhost\"}}]}";
+
+      // when
+      DynamicObject obj = handleRequestDynamic(
+          postDocumentsRequest(siteId, siteId != null ? siteId : "default", body));
+
+      // then
+      assertEquals("201.0", obj.getString("statusCode"));
+      DynamicObject resp = new DynamicObject(fromJson(obj.getString("body"), Map.class));
+      String documentId = resp.getString("documentId");
+
+      assertNull(getDocumentService().findDocument(siteId, documentId));
+
+      String stageKey = SiteIdKeyGenerator.createDatabaseKey(siteId, documentId + ".fkb64");
+      assertTrue(getS3().getObjectMetadata(STAGE_BUCKET_NAME, stageKey, null).isObjectExists());
+    }
+  }
+
   /**
    * POST /documents request Base64 body.
    *
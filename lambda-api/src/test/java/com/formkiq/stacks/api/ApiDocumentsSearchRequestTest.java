@@ -484,30 +484,48 @@ public class ApiDocumentsSearchRequestTest extends AbstractRequestHandler {
   }
 
   /**
-   * Test Setting multiple tags.
+   * Test Setting multiple tags, without the DocumentTagSchemaPlugin.
    *
    * @throws Exception an error has occurred
    */
+  @SuppressWarnings("unchecked")
   @Test
   public void testHandleSearchRequest10() throws Exception {
     for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
       // given
+      final Date now = new Date();
+      final String username = "joe";
+      String documentId0 = UUID.randomUUID().toString();
+      String documentId1 = UUID.randomUUID().toString();
+
+      getDocumentService().saveDocument(siteId,
+          new DocumentItemDynamoDb(documentId0, now, username),
+          Arrays.asList(new DocumentTag(documentId0, "category", "person", now, username),
+              new DocumentTag(documentId0, "status", "active", now, username)));
+      getDocumentService().saveDocument(siteId,
+          new DocumentItemDynamoDb(documentId1, now, username),
+          Arrays.asList(new DocumentTag(documentId1, "category", "person", now, username),
+              new DocumentTag(documentId1, "status", "closed", now, username)));
+
       ApiGatewayRequestEvent event = toRequestEvent("/request-post-search01.json");
       addParameter(event, "siteId", siteId);
       event.setIsBase64Encoded(Boolean.FALSE);
-      QueryRequest q = new QueryRequest()
-          .query(new SearchQuery().tags(Arrays.asList(new SearchTagCriteria().key("test"))));
-      event.setIsBase64Encoded(Boolean.FALSE);
+      QueryRequest q = new QueryRequest().query(
+          new SearchQuery().tags(Arrays.asList(new SearchTagCriteria().key("category").eq("person"),
+              new SearchTagCriteria().key("status").eq("active"))));
       event.setBody(GsonUtil.getInstance().toJson(q));
 
       // when
       String response = handleRequest(event);
 
       // then
-      String expected = "{" + getHeaders() + ",\"body\":"
-          + "\"{\\\"message\\\":\\\"Feature only available in FormKiQ Enterprise\\\"}\","
-          + "\"statusCode\":402}";
-      assertEquals(expected, response);
+      Map<String, String> m = fromJson(response, Map.class);
+      assertEquals("200.0", String.valueOf(m.get("statusCode")));
+      DynamicObject resp = new DynamicObject(fromJson(m.get("body"), Map.class));
+
+      List<DynamicObject> documents = resp.getList("documents");
+      assertEquals(1, documents.size());
+      assertEquals(documentId0, documents.get(0).get("documentId"));
     }
   }
 
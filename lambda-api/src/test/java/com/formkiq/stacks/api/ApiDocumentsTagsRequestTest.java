@@ -32,7 +32,6 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -51,7 +50,6 @@ import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
-import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEventBuilder;
 import com.formkiq.aws.services.lambda.ApiMessageResponse;
@@ -75,9 +73,6 @@ public class ApiDocumentsTagsRequestTest extends AbstractRequestHandler {
   /** Test Timeout. */
   private static final long TEST_TIMEOUT = 20;
 
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
   /**
    * any method /document/{documentId}/tags request.
    * 
@@ -1691,7 +1686,7 @@ public class ApiDocumentsTagsRequestTest extends AbstractRequestHandler {
             new DocumentItemDynamoDb(documentId, new Date(), userId), null);
 
         DocumentTagToAttributeValueMap mapper =
-            new DocumentTagToAttributeValueMap(this.df, DbKeys.PREFIX_DOCS, siteId, documentId);
+            new DocumentTagToAttributeValueMap(DbKeys.PREFIX_DOCS, siteId, documentId);
 
         String tagKey = "CLAMAV_SCAN_STATUS";
         DocumentTag tag = new DocumentTag(null, tagKey, "abc", new Date(), userId);
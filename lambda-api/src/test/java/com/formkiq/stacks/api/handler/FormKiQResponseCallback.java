@@ -133,6 +133,7 @@ public class FormKiQResponseCallback extends AbstractFormKiqApiResponseCallback
       map.put("DOCUMENT_VERSIONS_TABLE", DOCUMENTS_VERSION_TABLE);
       map.put("DOCUMENT_SYNC_TABLE", DOCUMENT_SYNCS_TABLE);
       map.put("CACHE_TABLE", CACHE_TABLE);
+      map.put("CONFIG_CACHE_TTL_SECONDS", "0");
       map.put("DOCUMENTS_S3_BUCKET", BUCKET_NAME);
       map.put("STAGE_DOCUMENTS_S3_BUCKET", STAGE_BUCKET_NAME);
       map.put("OCR_S3_BUCKET", OCR_BUCKET_NAME);
@@ -63,6 +63,8 @@ import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.aws.s3.S3PresignerServiceExtension;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
+import com.formkiq.aws.services.lambda.services.CacheService;
+import com.formkiq.aws.services.lambda.services.DynamoDbCacheServiceExtension;
 import com.formkiq.aws.ses.SesAwsServiceRegistry;
 import com.formkiq.aws.ses.SesService;
 import com.formkiq.aws.ses.SesServiceExtension;
@@ -84,10 +86,12 @@ import com.formkiq.module.events.EventServiceSnsExtension;
 import com.formkiq.module.events.document.DocumentEvent;
 import com.formkiq.module.http.HttpResponseStatus;
 import com.formkiq.module.http.HttpService;
+import com.formkiq.module.http.HttpServiceJdk11;
 import com.formkiq.module.httpsigv4.HttpServiceSigv4;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
 import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
 import com.formkiq.module.typesense.TypeSenseService;
 import com.formkiq.module.typesense.TypeSenseServiceExtension;
 import com.formkiq.stacks.dynamodb.ConfigService;
@@ -97,6 +101,7 @@ import com.formkiq.stacks.dynamodb.DocumentService;
 import com.formkiq.stacks.dynamodb.DocumentServiceExtension;
 import com.formkiq.stacks.dynamodb.DocumentVersionService;
 import com.formkiq.stacks.dynamodb.DocumentVersionServiceExtension;
+import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsClient;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
@@ -132,17 +137,38 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
   static void initialize(final AwsServiceCache awsServiceCache) {
 
     awsServiceCache.register(DynamoDbService.class, new DynamoDbServiceExtension());
-    awsServiceCache.register(SsmService.class, new SsmServiceExtension());
+
+    if (!awsServiceCache.containsExtension(SsmService.class)) {
+      awsServiceCache.register(SsmService.class, new SsmServiceExtension());
+    }
+
     awsServiceCache.register(S3Service.class, new S3ServiceExtension());
     awsServiceCache.register(S3PresignerService.class, new S3PresignerServiceExtension());
     awsServiceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
     awsServiceCache.register(DocumentService.class, new DocumentServiceExtension());
     awsServiceCache.register(ConfigService.class, new ConfigServiceExtension());
-    awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+
+    if (!awsServiceCache.containsExtension(EventService.class)) {
+      awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+    }
+
     awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
     awsServiceCache.register(ActionsNotificationService.class,
         new ActionsNotificationServiceExtension());
     awsServiceCache.register(SesService.class, new SesServiceExtension());
+    awsServiceCache.register(DocumentContentCache.class,
+        new ClassServiceExtension<DocumentContentCache>(new DocumentContentCache()));
+    awsServiceCache.register(DocumentTaggingCache.class,
+        new ClassServiceExtension<DocumentTaggingCache>(new DocumentTaggingCache()));
+
+    if (!isEmpty(awsServiceCache.environment("CACHE_TABLE"))
+        && !awsServiceCache.containsExtension(CacheService.class)) {
+      awsServiceCache.register(CacheService.class, new DynamoDbCacheServiceExtension());
+    }
+
+    awsServiceCache.register(OpenAiChatCompletionsClient.class,
+        new ClassServiceExtension<OpenAiChatCompletionsClient>(new OpenAiChatCompletionsClient(
+            new HttpServiceJdk11(), OpenAiChatCompletionsClient.DEFAULT_MAX_CONCURRENT_REQUESTS)));
 
     SsmService ssmService = awsServiceCache.getExtension(SsmService.class);
 
@@ -153,6 +179,11 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     String typeSenseApiKey =
         ssmService.getParameterValue("/formkiq/" + appEnvironment + "/typesense/ApiKey");
 
+    if (isEmpty(typeSenseHost)) {
+      typeSenseHost = awsServiceCache.environment("TYPESENSE_HOST");
+      typeSenseApiKey = awsServiceCache.environment("TYPESENSE_API_KEY");
+    }
+
     if (!isEmpty(typeSenseHost) && !isEmpty(typeSenseApiKey)) {
       awsServiceCache.environment().put("TYPESENSE_HOST", typeSenseHost);
       awsServiceCache.environment().put("TYPESENSE_API_KEY", typeSenseApiKey);
@@ -162,6 +193,10 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     String documentsIamUrl =
         ssmService.getParameterValue("/formkiq/" + appEnvironment + "/api/DocumentsIamUrl");
 
+    if (isEmpty(documentsIamUrl)) {
+      documentsIamUrl = awsServiceCache.environment("DOCUMENTS_IAM_URL");
+    }
+
     awsServiceCache.environment().put("documentsIamUrl", documentsIamUrl);
     AwsCredentials awsCredentials = awsServiceCache.getExtension(AwsCredentials.class);
     awsServiceCache.register(HttpService.class, new ClassServiceExtension<HttpService>(
@@ -285,31 +320,6 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     return parameters.containsKey("characterMax") ? -1 : DEFAULT_TYPESENSE_CHARACTER_MAX;
   }
 
-  /**
-   * Get Content from {@link Action}.
-   * 
-   * @param dcFunc {@link DocumentContentFunction}
-   * @param action {@link Action}
-   * @param contentUrls {@link List} {@link String}
-   * @return {@link String}
-   * @throws URISyntaxException URISyntaxException
-   * @throws IOException IOException
-   * @throws InterruptedException InterruptedException
-   */
-  private String getContent(final DocumentContentFunction dcFunc, final Action action,
-      final List<String> contentUrls) throws URISyntaxException, IOException, InterruptedException {
-
-    StringBuilder sb = dcFunc.getContentUrls(contentUrls);
-
-    int characterMax = getCharacterMax(action);
-
-    String content =
-        characterMax != -1 && sb.length() > characterMax ? sb.substring(0, characterMax)
-            : sb.toString();
-
-    return content;
-  }
-
   private ActionsNotificationService getNotificationService() {
     ActionsNotificationService notificationService =
         serviceCache.getExtension(ActionsNotificationService.class);
@@ -371,6 +381,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     } catch (IOException | InterruptedException e) {
       e.printStackTrace();
       throw new RuntimeException(e);
+    } finally {
+      publishMetrics(logger);
     }
 
     return null;
@@ -437,6 +449,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
     } else if (ActionType.OCR.equals(action.type())) {
 
+      serviceCache.getExtension(DocumentContentCache.class).invalidate(siteId, documentId);
+
       Map<String, Object> payload = buildAddOcrPayload(action);
 
       sendRequest(siteId, "post", "/documents/" + documentId + "/ocr", this.gson.toJson(payload));
@@ -503,22 +517,11 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
         Action action = o.get();
         action.status(ActionStatus.RUNNING);
 
-        actionsService.updateActionStatus(siteId, documentId, action);
-
-        try {
-
-          processAction(logger, siteId, documentId, actions, action);
-
-        } catch (Exception e) {
-          e.printStackTrace();
-          action.status(ActionStatus.FAILED);
-          action.message(e.getMessage());
-
-          updateDocumentWorkflow(siteId, documentId, action);
-
-          logger.log(String.format("Updating Action Status to %s", action.status()));
-
-          actionsService.updateActionStatus(siteId, documentId, action);
+        if (actionsService.updateActionStatus(siteId, documentId, action, ActionStatus.PENDING)) {
+          runAction(logger, siteId, documentId, actions, action);
+        } else {
+          logger.log(String.format("ACTIONS already claimed for SiteId %s Document %s", siteId,
+              documentId));
         }
 
       } else {
@@ -530,6 +533,40 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     }
   }
 
+  /**
+   * Run a claimed {@link Action}, marking it FAILED on error.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param actions {@link List} {@link Action}
+   * @param action {@link Action}
+   */
+  private void runAction(final LambdaLogger logger, final String siteId, final String documentId,
+      final List<Action> actions, final Action action) {
+
+    long start = System.nanoTime();
+
+    try {
+
+      processAction(logger, siteId, documentId, actions, action);
+      recordMetrics(action, "success", start);
+
+    } catch (Exception e) {
+      recordMetrics(action, "error", start);
+      e.printStackTrace();
+      action.status(ActionStatus.FAILED);
+      action.message(e.getMessage());
+
+      logger.log(String.format("Updating Action Status to %s", action.status()));
+
+      if (getActionsService().updateActionStatus(siteId, documentId, action,
+          ActionStatus.RUNNING)) {
+        updateDocumentWorkflow(siteId, documentId, action);
+      }
+    }
+  }
+
   private void processFulltext(final LambdaLogger logger, final String siteId,
       final String documentId, final List<Action> actions, final Action action)
       throws IOException, InterruptedException {
@@ -538,7 +575,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     DocumentService documentService = serviceCache.getExtension(DocumentService.class);
 
     ActionStatus status = ActionStatus.PENDING;
-    DocumentItem item = documentService.findDocument(siteId, documentId);
+    DocumentItem item =
+        documentService.findDocument(siteId, documentId, DocumentService.CONTENT_ATTRIBUTES);
     debug(logger, siteId, item);
 
     DocumentContentFunction documentContentFunc = new DocumentContentFunction(serviceCache);
@@ -556,7 +594,7 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
       }
 
       if (moduleTypesense) {
-        updateTypesense(documentContentFunc, siteId, documentId, action, contentUrls);
+        updateTypesense(documentContentFunc, siteId, item, action, contentUrls);
         status = ActionStatus.COMPLETE;
       }
 
@@ -570,15 +608,20 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
           .parameters(Map.of("ocrEngine", "tesseract"));
       actionsService.insertBeforeAction(siteId, documentId, actions, action, ocrAction);
 
-      ActionsNotificationService notificationService = getNotificationService();
-      notificationService.publishNextActionEvent(siteId, documentId);
-
     } else {
       throw new IOException("no OCR document found");
     }
 
     action.status(status);
-    actionsService.updateActionStatus(siteId, documentId, action);
+
+    // publish only once the fulltext action is PENDING again, so the OCR action is not skipped
+    boolean updated =
+        actionsService.updateActionStatus(siteId, documentId, action, ActionStatus.RUNNING);
+
+    if (updated && ActionStatus.PENDING.equals(status)) {
+      ActionsNotificationService notificationService = getNotificationService();
+      notificationService.publishNextActionEvent(siteId, documentId);
+    }
   }
 
   /**
@@ -618,6 +661,37 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     }
   }
 
+  /**
+   * Publish metrics as CloudWatch Embedded Metric Format log lines.
+   * 
+   * @param logger {@link LambdaLogger}
+   */
+  private void publishMetrics(final LambdaLogger logger) {
+
+    if (serviceCache.enableMetrics()) {
+      String namespace = serviceCache.environment().getOrDefault("METRICS_NAMESPACE", "FormKiQ");
+      for (String emf : MetricsRegistry.getDefault().toEmf(namespace,
+          System.currentTimeMillis())) {
+        logger.log(emf);
+      }
+    }
+  }
+
+  /**
+   * Record {@link Action} duration.
+   * 
+   * @param action {@link Action}
+   * @param result {@link String}
+   * @param start long action start, in nanoseconds
+   */
+  private void recordMetrics(final Action action, final String result, final long start) {
+    if (serviceCache.enableMetrics()) {
+      MetricsRegistry.getDefault()
+          .timer("action.duration", "type", action.type().name(), "result", result)
+          .recordNanos(System.nanoTime() - start);
+    }
+  }
+
   private HttpResponse<String> sendRequest(final String siteId, final String method,
       final String url, final String payload) throws IOException {
 
@@ -712,11 +786,16 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     }
 
     action.status(completeStatus);
-    getActionsService().updateActionStatus(siteId, documentId, action);
+    boolean updated = getActionsService().updateActionStatus(siteId, documentId, action,
+        ActionStatus.RUNNING);
 
-    updateDocumentWorkflow(siteId, documentId, action);
+    if (!updated) {
+      logger.log(String.format("Action %s for %s is no longer RUNNING", action.type(), documentId));
+    } else {
+      updateDocumentWorkflow(siteId, documentId, action);
+    }
 
-    if (!ActionType.QUEUE.equals(action.type())) {
+    if (updated && !ActionType.QUEUE.equals(action.type())) {
       boolean publishNextActionEvent =
           getNotificationService().publishNextActionEvent(actions, siteId, documentId);
       if (isDebug() && publishNextActionEvent) {
@@ -758,32 +837,27 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
    * 
    * @param dcFunc {@link DocumentContentFunction}
    * @param siteId {@link String}
-   * @param documentId {@link String}
+   * @param item {@link DocumentItem}
    * @param action {@link Action}
    * @param contentUrls {@link List} {@link String}
    * @throws IOException IOException
    */
   private void updateTypesense(final DocumentContentFunction dcFunc, final String siteId,
-      final String documentId, final Action action, final List<String> contentUrls)
+      final DocumentItem item, final Action action, final List<String> contentUrls)
       throws IOException {
 
     TypeSenseService typesense = serviceCache.getExtension(TypeSenseService.class);
 
-    try {
-
-      String content = getContent(dcFunc, action, contentUrls);
-      Map<String, String> data = Map.of("content", content);
+    String content = dcFunc.getContent(siteId, item, contentUrls, getCharacterMax(action));
+    Map<String, String> data = Map.of("content", content);
 
-      Map<String, Object> document = new DocumentMapToDocument().apply(data);
+    Map<String, Object> document = new DocumentMapToDocument().apply(data);
 
-      HttpResponse<String> response = typesense.addOrUpdateDocument(siteId, documentId, document);
+    HttpResponse<String> response =
+        typesense.addOrUpdateDocument(siteId, item.getDocumentId(), document);
 
-      if (!is2XX(response)) {
-        throw new IOException(response.body());
-      }
-
-    } catch (URISyntaxException | InterruptedException e) {
-      throw new IOException(e);
+    if (!is2XX(response)) {
+      throw new IOException(response.body());
     }
   }
 }
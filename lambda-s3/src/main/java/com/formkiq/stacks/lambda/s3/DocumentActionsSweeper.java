@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
+import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
+import com.formkiq.aws.sns.SnsAwsServiceRegistry;
+import com.formkiq.graalvm.annotations.Reflectable;
+import com.formkiq.module.actions.services.ActionsService;
+import com.formkiq.module.actions.services.ActionsServiceExtension;
+import com.formkiq.module.actions.services.ActionsSweeper;
+import com.formkiq.module.events.EventService;
+import com.formkiq.module.events.EventServiceSnsExtension;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+
+/**
+ * Scheduled {@link RequestHandler} that restarts Document Actions left RUNNING, for example by a
+ * {@link DocumentActionsProcessor} that timed out.
+ */
+@Reflectable
+public class DocumentActionsSweeper implements RequestHandler<Map<String, Object>, Void> {
+
+  /** Default Events per batch. */
+  private static final int DEFAULT_BATCH_SIZE = 10;
+  /** Default Maximum events per second. */
+  private static final int DEFAULT_EVENTS_PER_SECOND = 50;
+  /** Default Maximum actions restarted per run. */
+  private static final int DEFAULT_MAX_ACTIONS = 1000;
+  /** Default minutes after which a RUNNING action is stale. */
+  private static final int DEFAULT_STALE_MINUTES = 30;
+  /** {@link AwsServiceCache}. */
+  private static AwsServiceCache serviceCache;
+
+  static {
+
+    if (System.getenv().containsKey("AWS_REGION")) {
+      serviceCache = new AwsServiceCacheBuilder(System.getenv(), Map.of(),
+          EnvironmentVariableCredentialsProvider.create())
+          .addService(new DynamoDbAwsServiceRegistry(), new SnsAwsServiceRegistry()).build();
+
+      initialize(serviceCache);
+    }
+  }
+
+  /**
+   * Initialize.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   */
+  static void initialize(final AwsServiceCache awsServiceCache) {
+
+    if (!awsServiceCache.containsExtension(EventService.class)) {
+      awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+    }
+
+    awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
+  }
+
+  /**
+   * constructor.
+   * 
+   */
+  public DocumentActionsSweeper() {
+    // empty
+  }
+
+  /**
+   * constructor.
+   *
+   * @param awsServiceCache {@link AwsServiceCache}
+   */
+  public DocumentActionsSweeper(final AwsServiceCache awsServiceCache) {
+    serviceCache = awsServiceCache;
+    initialize(serviceCache);
+  }
+
+  private int getInt(final String key, final int defaultValue) {
+    String value = serviceCache.environment(key);
+    return !isEmpty(value) ? Integer.parseInt(value) : defaultValue;
+  }
+
+  /**
+   * Get Site Ids to sweep.
+   * 
+   * @return {@link List} {@link String}
+   */
+  private List<String> getSiteIds() {
+    String siteIds = serviceCache.environment("SWEEPER_SITE_IDS");
+    return !isEmpty(siteIds) ? Arrays.stream(siteIds.split(",")).map(String::trim)
+        .filter(s -> !s.isEmpty()).collect(Collectors.toList()) : List.of(DEFAULT_SITE_ID);
+  }
+
+  @Override
+  public Void handleRequest(final Map<String, Object> map, final Context context) {
+
+    LambdaLogger logger = context.getLogger();
+
+    Duration staleAfter =
+        Duration.ofMinutes(getInt("STALE_ACTION_MINUTES", DEFAULT_STALE_MINUTES));
+
+    ActionsSweeper sweeper = new ActionsSweeper(serviceCache.getExtension(ActionsService.class),
+        serviceCache.getExtension(EventService.class), staleAfter,
+        getInt("SWEEPER_BATCH_SIZE", DEFAULT_BATCH_SIZE),
+        getInt("SWEEPER_EVENTS_PER_SECOND", DEFAULT_EVENTS_PER_SECOND),
+        getInt("SWEEPER_MAX_ACTIONS", DEFAULT_MAX_ACTIONS));
+
+    try {
+      int count = sweeper.sweep(getSiteIds());
+      logger.log(String.format("restarted actions for %d documents", Integer.valueOf(count)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+
+    return null;
+  }
+}
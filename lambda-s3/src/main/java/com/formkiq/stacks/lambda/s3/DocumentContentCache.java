@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
+
+/**
+ * 
+ * Short lived cache of extracted Document text, keyed by SiteId, DocumentId, S3 Version and
+ * Checksum, so actions in the same pipeline do not re-download the same content. Documents with
+ * neither an S3 Version nor a Checksum are not cached.
+ *
+ */
+public class DocumentContentCache {
+
+  /** Default Maximum number of cached documents. */
+  private static final int DEFAULT_MAX_ENTRIES = 16;
+  /** Default Time to live. */
+  private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+  /**
+   * Cached Content.
+   */
+  private static final class CachedContent {
+
+    /** Whether the full content was read. */
+    private final boolean complete;
+    /** Content. */
+    private final String content;
+    /** Expiry time in millis. */
+    private final long expires;
+
+    /**
+     * constructor.
+     * 
+     * @param text {@link String}
+     * @param isComplete boolean
+     * @param expiresAt long
+     */
+    CachedContent(final String text, final boolean isComplete, final long expiresAt) {
+      this.content = text;
+      this.complete = isComplete;
+      this.expires = expiresAt;
+    }
+  }
+
+  /** Cached Entries, in access order. */
+  private final LinkedHashMap<String, CachedContent> entries =
+      new LinkedHashMap<>(DEFAULT_MAX_ENTRIES, 1f, true);
+  /** Maximum number of entries. */
+  private final int maxEntries;
+  /** Time to live in millis. */
+  private final long ttl;
+
+  /**
+   * constructor.
+   */
+  public DocumentContentCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param maximumEntries int
+   * @param timeToLive {@link Duration}
+   */
+  public DocumentContentCache(final int maximumEntries, final Duration timeToLive) {
+    this.maxEntries = maximumEntries;
+    this.ttl = timeToLive.toMillis();
+  }
+
+  private String createKey(final String siteId, final String documentId) {
+    String site = siteId != null ? siteId : SiteIdKeyGenerator.DEFAULT_SITE_ID;
+    return site + "/" + documentId;
+  }
+
+  private String createKey(final String siteId, final DocumentItem item) {
+
+    String key = null;
+
+    if (item.getS3version() != null || item.getChecksum() != null) {
+      key = createKey(siteId, item.getDocumentId()) + "/" + item.getS3version() + "/"
+          + item.getChecksum();
+    }
+
+    return key;
+  }
+
+  /**
+   * Get Cached Content, if the cached text satisfies the requested character maximum.
+   * 
+   * @param siteId {@link String}
+   * @param item {@link DocumentItem}
+   * @param characterMax int, -1 for all content
+   * @return {@link Optional} {@link String}
+   */
+  public synchronized Optional<String> get(final String siteId, final DocumentItem item,
+      final int characterMax) {
+
+    Optional<String> result = Optional.empty();
+    String key = createKey(siteId, item);
+    CachedContent c = key != null ? this.entries.get(key) : null;
+
+    if (c != null && c.expires < System.currentTimeMillis()) {
+      this.entries.remove(key);
+    } else if (c != null) {
+
+      if (characterMax < 0 && c.complete) {
+        result = Optional.of(c.content);
+      } else if (characterMax >= 0 && (c.complete || c.content.length() >= characterMax)) {
+        result = Optional.of(c.content.length() > characterMax
+            ? c.content.substring(0, characterMax) : c.content);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Remove all cached content for a Document.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   */
+  public synchronized void invalidate(final String siteId, final String documentId) {
+    String prefix = createKey(siteId, documentId) + "/";
+    this.entries.keySet().removeIf(k -> k.startsWith(prefix));
+  }
+
+  /**
+   * Add Content to cache.
+   * 
+   * @param siteId {@link String}
+   * @param item {@link DocumentItem}
+   * @param content {@link String}
+   * @param complete boolean whether content is the full document text
+   */
+  public synchronized void put(final String siteId, final DocumentItem item,
+      final String content, final boolean complete) {
+
+    String key = createKey(siteId, item);
+
+    if (key != null) {
+
+      CachedContent c = this.entries.get(key);
+
+      if (c == null || complete || !c.complete && content.length() > c.content.length()) {
+        long expires = System.currentTimeMillis() + this.ttl;
+        this.entries.put(key, new CachedContent(content, complete, expires));
+      }
+
+      Iterator<Map.Entry<String, CachedContent>> itr = this.entries.entrySet().iterator();
+      while (this.entries.size() > this.maxEntries && itr.hasNext()) {
+        itr.next();
+        itr.remove();
+      }
+    }
+  }
+}
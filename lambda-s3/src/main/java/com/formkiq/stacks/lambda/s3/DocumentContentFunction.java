@@ -24,19 +24,28 @@
 package com.formkiq.stacks.lambda.s3;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
@@ -56,6 +65,15 @@ import com.google.gson.GsonBuilder;
  */
 public class DocumentContentFunction {
 
+  /** Read Buffer Size. */
+  private static final int BUFFER_SIZE = 8192;
+  /** Shared {@link HttpClient} for fetching content urls. */
+  private static final HttpClient CLIENT = HttpClient.newBuilder().build();
+  /** Maximum number of content urls to fetch concurrently. */
+  private static final int MAX_CONCURRENT_REQUESTS = 4;
+
+  /** {@link DocumentContentCache}. */
+  private DocumentContentCache contentCache;
   /** S3 Documents Bucket. */
   private String documentsBucket;
   /** {@link Gson}. */
@@ -77,6 +95,22 @@ public class DocumentContentFunction {
     this.documentsBucket = serviceCache.environment("DOCUMENTS_S3_BUCKET");
     this.documentsIamUrl = serviceCache.environment("documentsIamUrl");
     this.http = serviceCache.getExtension(HttpService.class);
+    this.contentCache = serviceCache.getExtensionOrNull(DocumentContentCache.class);
+  }
+
+  /**
+   * Close {@link HttpResponse} body.
+   * 
+   * @param response {@link HttpResponse}
+   */
+  private void close(final HttpResponse<InputStream> response) {
+    try {
+      if (response != null) {
+        response.body().close();
+      }
+    } catch (IOException e) {
+      // ignore
+    }
   }
 
   /**
@@ -138,28 +172,62 @@ public class DocumentContentFunction {
   }
 
   /**
-   * Get Content from external urls.
+   * Get Cached Document Content.
    * 
+   * @param siteId {@link String}
+   * @param item {@link DocumentItem}
+   * @param characterMax int, -1 for all content
+   * @return {@link Optional} {@link String}
+   */
+  public Optional<String> getCachedContent(final String siteId, final DocumentItem item,
+      final int characterMax) {
+    return this.contentCache != null ? this.contentCache.get(siteId, item, characterMax)
+        : Optional.empty();
+  }
+
+  /**
+   * Get Document Content from external urls, reading no more than characterMax characters.
+   * 
+   * @param siteId {@link String}
+   * @param item {@link DocumentItem}
    * @param contentUrls {@link List} {@link String}
-   * @return {@link StringBuilder}
+   * @param characterMax int, -1 for all content
+   * @return {@link String}
    * @throws IOException IOException
    */
-  public StringBuilder getContentUrls(final List<String> contentUrls) throws IOException {
+  public String getContent(final String siteId, final DocumentItem item,
+      final List<String> contentUrls, final int characterMax) throws IOException {
 
-    StringBuilder sb = new StringBuilder();
+    Optional<String> cached = getCachedContent(siteId, item, characterMax);
 
-    try {
-      for (String contentUrl : contentUrls) {
-        HttpRequest req =
-            HttpRequest.newBuilder(new URI(contentUrl)).timeout(Duration.ofMinutes(1)).build();
-        HttpResponse<String> response =
-            HttpClient.newBuilder().build().send(req, BodyHandlers.ofString());
-        sb.append(response.body());
+    String content = null;
+
+    if (cached.isPresent()) {
+      content = cached.get();
+    } else {
+
+      StringBuilder sb = new StringBuilder();
+      boolean complete = readContentUrls(contentUrls, characterMax, sb);
+      content = sb.toString();
+
+      if (this.contentCache != null) {
+        this.contentCache.put(siteId, item, content, complete);
       }
-    } catch (URISyntaxException | InterruptedException e) {
-      throw new IOException(e);
     }
 
+    return content;
+  }
+
+  /**
+   * Get Content from external urls.
+   * 
+   * @param contentUrls {@link List} {@link String}
+   * @return {@link StringBuilder}
+   * @throws IOException IOException
+   */
+  public StringBuilder getContentUrls(final List<String> contentUrls) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    readContentUrls(contentUrls, -1, sb);
     return sb;
   }
 
@@ -182,4 +250,117 @@ public class DocumentContentFunction {
     return contentUrls;
   }
 
+  /**
+   * Read {@link InputStream} into {@link StringBuilder} until characterMax is reached.
+   * 
+   * @param is {@link InputStream}
+   * @param characterMax int, -1 for all content
+   * @param sb {@link StringBuilder}
+   * @return boolean whether the whole {@link InputStream} was read
+   * @throws IOException IOException
+   */
+  private boolean read(final InputStream is, final int characterMax, final StringBuilder sb)
+      throws IOException {
+
+    boolean complete = true;
+    char[] buffer = new char[BUFFER_SIZE];
+    Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+
+    int len = reader.read(buffer);
+
+    while (len != -1) {
+
+      int remaining = characterMax < 0 ? len : Math.min(len, characterMax - sb.length());
+      sb.append(buffer, 0, remaining);
+
+      if (remaining < len) {
+        complete = false;
+        len = -1;
+      } else {
+        len = reader.read(buffer);
+      }
+    }
+
+    return complete;
+  }
+
+  /**
+   * Read Content Urls into {@link StringBuilder}. Urls are fetched concurrently (up to
+   * MAX_CONCURRENT_REQUESTS at a time) and appended in order, and reading stops once
+   * characterMax characters have been read.
+   * 
+   * @param contentUrls {@link List} {@link String}
+   * @param characterMax int, -1 for all content
+   * @param sb {@link StringBuilder}
+   * @return boolean whether all the content was read
+   * @throws IOException IOException
+   */
+  private boolean readContentUrls(final List<String> contentUrls, final int characterMax,
+      final StringBuilder sb) throws IOException {
+
+    boolean complete = true;
+    Iterator<String> urls = contentUrls.iterator();
+    Deque<CompletableFuture<HttpResponse<InputStream>>> requests = new ArrayDeque<>();
+
+    try {
+
+      sendRequests(urls, requests);
+
+      while (complete && !requests.isEmpty()) {
+
+        HttpResponse<InputStream> response = requests.removeFirst().get();
+
+        try (InputStream is = response.body()) {
+          complete = read(is, characterMax, sb);
+        }
+
+        if (characterMax >= 0 && sb.length() >= characterMax) {
+          complete = complete && requests.isEmpty() && !urls.hasNext();
+        }
+
+        if (complete) {
+          sendRequests(urls, requests);
+        }
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } finally {
+
+      // requests that completed before they could be cancelled still hold an open body
+      for (CompletableFuture<HttpResponse<InputStream>> request : requests) {
+        if (!request.cancel(true) && !request.isCompletedExceptionally()) {
+          close(request.getNow(null));
+        }
+      }
+    }
+
+    return complete;
+  }
+
+  /**
+   * Send async requests for content urls, until MAX_CONCURRENT_REQUESTS are in flight.
+   * 
+   * @param urls {@link Iterator} {@link String}
+   * @param requests {@link Deque} {@link CompletableFuture}
+   * @throws IOException IOException
+   */
+  private void sendRequests(final Iterator<String> urls,
+      final Deque<CompletableFuture<HttpResponse<InputStream>>> requests) throws IOException {
+
+    try {
+
+      while (requests.size() < MAX_CONCURRENT_REQUESTS && urls.hasNext()) {
+        HttpRequest req =
+            HttpRequest.newBuilder(new URI(urls.next())).timeout(Duration.ofMinutes(1)).build();
+        requests.add(CLIENT.sendAsync(req, BodyHandlers.ofInputStream()));
+      }
+
+    } catch (URISyntaxException e) {
+      throw new IOException(e);
+    }
+  }
 }
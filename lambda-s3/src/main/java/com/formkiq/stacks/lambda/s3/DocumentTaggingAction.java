@@ -29,12 +29,16 @@ import static com.formkiq.module.http.HttpResponseStatus.is2XX;
 import static com.formkiq.stacks.dynamodb.ConfigService.CHATGPT_API_KEY;
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,10 +46,12 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.DynamicObject;
+import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
 import com.formkiq.aws.dynamodb.objects.Strings;
+import com.formkiq.aws.services.lambda.services.CacheService;
 import com.formkiq.module.actions.Action;
 import com.formkiq.module.actions.ActionType;
 import com.formkiq.module.http.HttpHeaders;
@@ -57,6 +63,7 @@ import com.formkiq.stacks.dynamodb.DocumentService;
 import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsChoice;
 import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsChoiceMessage;
 import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsChoiceMessageFunctionCall;
+import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsClient;
 import com.formkiq.stacks.lambda.s3.openai.OpenAiChatCompletionsResponse;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -72,6 +79,32 @@ public class DocumentTaggingAction implements DocumentAction {
   private static final int CHAT_GPT_MAX_LENGTH = 2000;
   /** Chat Gpt Temperature. */
   private static final Double CHAT_GPT_TEMPERATURE = Double.valueOf(0.5);
+  /** Number of days to cache Chat Gpt responses. */
+  private static final int CHAT_GPT_CACHE_DAYS = 30;
+
+  /**
+   * Create {@link CacheService} key for a Tagging Request.
+   * 
+   * @param siteId {@link String}
+   * @param url {@link String}
+   * @param body {@link String}
+   * @return {@link String}
+   */
+  static String createCacheKey(final String siteId, final String url, final String body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(url.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+      digest.update(body.getBytes(StandardCharsets.UTF_8));
+      return SiteIdKeyGenerator.createDatabaseKey(siteId,
+          "tagging#" + HexFormat.of().formatHex(digest.digest()));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** {@link OpenAiChatCompletionsClient}. */
+  private OpenAiChatCompletionsClient client;
   /** {@link ConfigService}. */
   private ConfigService configsService;
   /** {@link DocumentService}. */
@@ -82,6 +115,10 @@ public class DocumentTaggingAction implements DocumentAction {
   private HttpService http = new HttpServiceJdk11();
   /** {@link AwsServiceCache}. */
   private AwsServiceCache serviceCache;
+  /** {@link CacheService}. */
+  private CacheService cacheService;
+  /** {@link DocumentTaggingCache}. */
+  private DocumentTaggingCache taggingCache;
 
   /**
    * constructor.
@@ -92,31 +129,94 @@ public class DocumentTaggingAction implements DocumentAction {
     this.serviceCache = services;
     this.configsService = services.getExtension(ConfigService.class);
     this.documentService = services.getExtension(DocumentService.class);
+    this.cacheService = services.getExtensionOrNull(CacheService.class);
+    this.taggingCache = services.getExtensionOrNull(DocumentTaggingCache.class);
+    this.client = services.getExtensionOrNull(OpenAiChatCompletionsClient.class);
+
+    if (this.client == null) {
+      this.client = new OpenAiChatCompletionsClient(this.http,
+          OpenAiChatCompletionsClient.DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
   }
 
   private String createChatGptPrompt(final LambdaLogger logger, final String siteId,
       final String documentId, final Action action) throws IOException {
 
-    DocumentItem item = this.documentService.findDocument(siteId, documentId);
+    DocumentItem item =
+        this.documentService.findDocument(siteId, documentId, DocumentService.CONTENT_ATTRIBUTES);
 
     DocumentContentFunction docContentFucn = new DocumentContentFunction(this.serviceCache);
-    List<String> contentUrls =
-        docContentFucn.getContentUrls(this.serviceCache.debug() ? logger : null, siteId, item);
 
-    if (contentUrls.isEmpty()) {
-      throw new IOException("'contentUrls' is empty");
-    }
+    List<String> contentUrls = null;
+    String text = null;
+    int characterMax = CHAT_GPT_MAX_LENGTH;
+
+    while (text == null) {
+
+      Optional<String> cached = docContentFucn.getCachedContent(siteId, item, characterMax);
+
+      if (cached.isEmpty() && contentUrls == null) {
+        contentUrls =
+            docContentFucn.getContentUrls(this.serviceCache.debug() ? logger : null, siteId, item);
+
+        if (contentUrls.isEmpty()) {
+          throw new IOException("'contentUrls' is empty");
+        }
+      }
 
-    StringBuilder sb = docContentFucn.getContentUrls(contentUrls);
+      String content = cached.isPresent() ? cached.get()
+          : docContentFucn.getContent(siteId, item, contentUrls, characterMax);
 
-    String text = sb.toString().trim();
-    if (text.length() > CHAT_GPT_MAX_LENGTH) {
-      text = text.substring(0, CHAT_GPT_MAX_LENGTH);
+      text = toPromptText(content, characterMax);
+      characterMax *= 2;
     }
 
     return "Extract the tags from the text below.\n\n" + text;
   }
 
+  /**
+   * Trim the text and then truncate it to CHAT_GPT_MAX_LENGTH, the same as trimming the whole
+   * document content first.
+   * 
+   * @param content {@link String} read with characterMax
+   * @param characterMax int
+   * @return {@link String}, null when more content needs to be read
+   */
+  private String toPromptText(final String content, final int characterMax) {
+
+    int start = 0;
+    while (start < content.length() && content.charAt(start) <= ' ') {
+      start++;
+    }
+
+    String text = content.substring(start);
+    String result = null;
+
+    if (content.length() < characterMax) {
+      text = text.trim();
+      result = text.length() > CHAT_GPT_MAX_LENGTH ? text.substring(0, CHAT_GPT_MAX_LENGTH) : text;
+    } else if (hasText(text, CHAT_GPT_MAX_LENGTH)) {
+      result = text.substring(0, CHAT_GPT_MAX_LENGTH);
+    }
+
+    return result;
+  }
+
+  /**
+   * Whether there is a non whitespace character at or after an index.
+   * 
+   * @param text {@link String}
+   * @param from int
+   * @return boolean
+   */
+  private boolean hasText(final String text, final int from) {
+    boolean found = false;
+    for (int i = from; i < text.length() && !found; i++) {
+      found = text.charAt(i) > ' ';
+    }
+    return found;
+  }
+
   private Map<String, Object> generateOpenApiSchema(final Action action) throws IOException {
 
     List<String> tags = getTagsAsList(action);
@@ -150,12 +250,12 @@ public class DocumentTaggingAction implements DocumentAction {
 
   @SuppressWarnings("unchecked")
   private void parseChatGptResponse(final String siteId, final String documentId,
-      final Action action, final HttpResponse<String> httpResponse) throws IOException {
+      final Action action, final String responseBody) throws IOException {
 
     List<String> paramTags = getTagsAsList(action);
 
     OpenAiChatCompletionsResponse response =
-        this.gson.fromJson(httpResponse.body(), OpenAiChatCompletionsResponse.class);
+        this.gson.fromJson(responseBody, OpenAiChatCompletionsResponse.class);
 
     List<OpenAiChatCompletionsChoice> choices = response.choices();
 
@@ -291,17 +391,73 @@ public class DocumentTaggingAction implements DocumentAction {
       logger.log("sending POST request to " + url + " body: " + body);
     }
 
-    HttpResponse<String> response = this.http.post(url, headers, Optional.empty(), body);
+    String key = createCacheKey(siteId, url, body);
+    String cached = readCache(key);
 
-    if (this.serviceCache.debug()) {
-      logger.log(String.format("{\"engine\":\"%s\",\"statusCode\":\"%s\",\"body\":\"%s\"}",
-          "chatgpt", String.valueOf(response.statusCode()), response.body()));
-    }
+    if (cached != null) {
+
+      if (this.serviceCache.debug()) {
+        logger.log("using cached chatgpt response " + key);
+      }
+
+      parseChatGptResponse(siteId, documentId, action, cached);
 
-    if (is2XX(response)) {
-      parseChatGptResponse(siteId, documentId, action, response);
     } else {
-      throw new IOException("ChatGpt status " + response.statusCode() + " " + response.body());
+
+      HttpResponse<String> response = this.client.post(key, url, headers, body);
+
+      if (this.serviceCache.debug()) {
+        logger.log(String.format("{\"engine\":\"%s\",\"statusCode\":\"%s\",\"body\":\"%s\"}",
+            "chatgpt", String.valueOf(response.statusCode()), response.body()));
+      }
+
+      if (is2XX(response)) {
+
+        parseChatGptResponse(siteId, documentId, action, response.body());
+
+        writeCache(key, response.body());
+
+      } else {
+        throw new IOException("ChatGpt status " + response.statusCode() + " " + response.body());
+      }
+    }
+  }
+
+  /**
+   * Read Tagging Response from the in process cache, then the {@link CacheService}.
+   * 
+   * @param key {@link String}
+   * @return {@link String}
+   */
+  private String readCache(final String key) {
+
+    String cached = this.taggingCache != null ? this.taggingCache.get(key).orElse(null) : null;
+
+    if (cached == null && this.cacheService != null) {
+      cached = this.cacheService.read(key);
+
+      if (cached != null && this.taggingCache != null) {
+        this.taggingCache.put(key, cached);
+      }
+    }
+
+    return cached;
+  }
+
+  /**
+   * Write Tagging Response to the in process cache and the {@link CacheService}.
+   * 
+   * @param key {@link String}
+   * @param body {@link String}
+   */
+  private void writeCache(final String key, final String body) {
+
+    if (this.taggingCache != null) {
+      this.taggingCache.put(key, body);
+    }
+
+    if (this.cacheService != null) {
+      this.cacheService.write(key, body, CHAT_GPT_CACHE_DAYS);
     }
   }
 }
@@ -0,0 +1,130 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 
+ * In process cache of Document Tagging responses, kept in front of the CacheService so repeated
+ * requests on a warm container do not need a Cache table read.
+ *
+ */
+public class DocumentTaggingCache {
+
+  /** Default Maximum number of cached responses. */
+  private static final int DEFAULT_MAX_ENTRIES = 256;
+  /** Default Time to live. */
+  private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+  /**
+   * Cached Response.
+   */
+  private static final class CachedResponse {
+
+    /** Response body. */
+    private final String body;
+    /** Expiry time in millis. */
+    private final long expires;
+
+    /**
+     * constructor.
+     * 
+     * @param responseBody {@link String}
+     * @param expiresAt long
+     */
+    CachedResponse(final String responseBody, final long expiresAt) {
+      this.body = responseBody;
+      this.expires = expiresAt;
+    }
+  }
+
+  /** Cached Entries, in access order. */
+  private final LinkedHashMap<String, CachedResponse> entries =
+      new LinkedHashMap<>(DEFAULT_MAX_ENTRIES, 1f, true);
+  /** Maximum number of entries. */
+  private final int maxEntries;
+  /** Time to live in millis. */
+  private final long ttl;
+
+  /**
+   * constructor.
+   */
+  public DocumentTaggingCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param maximumEntries int
+   * @param timeToLive {@link Duration}
+   */
+  public DocumentTaggingCache(final int maximumEntries, final Duration timeToLive) {
+    this.maxEntries = maximumEntries;
+    this.ttl = timeToLive.toMillis();
+  }
+
+  /**
+   * Get Cached Tagging Response.
+   * 
+   * @param key {@link String}
+   * @return {@link Optional} {@link String}
+   */
+  public synchronized Optional<String> get(final String key) {
+
+    Optional<String> result = Optional.empty();
+    CachedResponse c = this.entries.get(key);
+
+    if (c != null && c.expires < System.currentTimeMillis()) {
+      this.entries.remove(key);
+    } else if (c != null) {
+      result = Optional.of(c.body);
+    }
+
+    return result;
+  }
+
+  /**
+   * Add Tagging Response to cache.
+   * 
+   * @param key {@link String}
+   * @param body {@link String}
+   */
+  public synchronized void put(final String key, final String body) {
+
+    long expires = System.currentTimeMillis() + this.ttl;
+    this.entries.put(key, new CachedResponse(body, expires));
+
+    Iterator<Map.Entry<String, CachedResponse>> itr = this.entries.entrySet().iterator();
+    while (this.entries.size() > this.maxEntries && itr.hasNext()) {
+      itr.next();
+      itr.remove();
+    }
+  }
+}
@@ -39,9 +39,14 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
@@ -99,6 +104,12 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
   static final int BAD_REQUEST = 400;
   /** {@link EventService}. */
   private static EventService documentEventService;
+  /** {@link ExecutorService} for concurrent S3 / DynamoDB requests. */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "documents-s3-update");
+    thread.setDaemon(true);
+    return thread;
+  });
 
   /** {@link ActionsNotificationService}. */
   private static ActionsNotificationService notificationService;
@@ -130,6 +141,21 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     }
   }
 
+  /**
+   * Wait for {@link CompletableFuture} to complete, rethrowing the cause of any failure.
+   * 
+   * @param <T> Type of result
+   * @param future {@link CompletableFuture}
+   * @return T
+   */
+  private static <T> T join(final CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+  }
+
   /**
    * Get Bucket Name.
    *
@@ -172,7 +198,11 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     awsServiceCache.register(SsmService.class, new SsmServiceExtension());
     awsServiceCache.register(DocumentService.class, new DocumentServiceExtension());
     awsServiceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
-    awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+
+    if (!awsServiceCache.containsExtension(EventService.class)) {
+      awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+    }
+
     awsServiceCache.register(ActionsNotificationService.class,
         new ActionsNotificationServiceExtension());
 
@@ -283,6 +313,22 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     return content;
   }
 
+  /**
+   * Get Document {@link Action}, which are only needed for newly created documents.
+   * 
+   * @param create boolean
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @return {@link CompletableFuture} {@link List} {@link Action}
+   */
+  private CompletableFuture<List<Action>> getActions(final boolean create, final String siteId,
+      final String documentId) {
+    return create
+        ? CompletableFuture.supplyAsync(() -> actionsService.getActions(siteId, documentId),
+            EXECUTOR)
+        : CompletableFuture.completedFuture(null);
+  }
+
   /**
    * Get Object Tags from S3.
    * 
@@ -318,51 +364,95 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
 
     List<Map<String, Object>> list = processRecords(logger, map);
 
-    for (Map<String, Object> e : list) {
+    documentEventService.beginBatch();
+
+    try {
+      processDocumentEvents(logger, list, debug);
+    } finally {
+      documentEventService.flush();
+    }
+
+    return null;
+  }
 
-      Object eventName = e.getOrDefault("eventName", null);
-      Object bucket = e.getOrDefault("s3bucket", null);
-      Object key = e.getOrDefault("s3key", null);
+  private boolean isChecksumChanged(final S3ObjectMetadata resp, final DocumentItem doc) {
+    String s3Checksum = resp.getMetadata().getOrDefault("checksum", "");
+    return doc.getChecksum() != null && !s3Checksum.contains(doc.getChecksum());
+  }
 
-      String s = String.format("{\"eventName\": \"%s\",\"bucket\": \"%s\",\"key\": \"%s\"}",
-          eventName, bucket, key);
-      logger.log(s);
+  /**
+   * Process Document Events, events for the same object are processed in order, different objects
+   * in parallel.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param list {@link List} {@link Map}
+   * @param debug boolean
+   */
+  private void processDocumentEvents(final LambdaLogger logger,
+      final List<Map<String, Object>> list, final boolean debug) {
 
-      if (bucket != null && key != null) {
+    Map<Object, List<Map<String, Object>>> groups = new LinkedHashMap<>();
+    list.forEach(e -> groups.computeIfAbsent(e.get("s3key"), k -> new ArrayList<>()).add(e));
 
-        boolean create =
-            eventName != null && eventName.toString().toLowerCase().contains("objectcreated");
+    if (groups.size() > 1) {
 
-        boolean remove =
-            eventName != null && eventName.toString().toLowerCase().contains("objectremove");
+      List<CompletableFuture<Void>> futures = groups.values().stream()
+          .map(events -> CompletableFuture.runAsync(
+              () -> events.forEach(e -> processDocumentEvent(logger, e, debug)), EXECUTOR))
+          .collect(Collectors.toList());
 
-        if (debug) {
-          logger.log(String.format("processing event %s for file %s in bucket %s", eventName,
-              bucket, key));
-        }
+      join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
 
-        try {
+    } else {
+      list.forEach(e -> processDocumentEvent(logger, e, debug));
+    }
+  }
+
+  /**
+   * Process Document Event.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param e {@link Map}
+   * @param debug boolean
+   */
+  private void processDocumentEvent(final LambdaLogger logger, final Map<String, Object> e,
+      final boolean debug) {
 
-          if (remove) {
+    Object eventName = e.getOrDefault("eventName", null);
+    Object bucket = e.getOrDefault("s3bucket", null);
+    Object key = e.getOrDefault("s3key", null);
 
-            processS3Delete(logger, bucket.toString(), key.toString());
+    String s = String.format("{\"eventName\": \"%s\",\"bucket\": \"%s\",\"key\": \"%s\"}",
+        eventName, bucket, key);
+    logger.log(s);
 
-          } else {
-            processS3File(logger, create, bucket.toString(), key.toString(), debug);
-          }
+    if (bucket != null && key != null) {
 
-        } catch (IOException | InterruptedException ex) {
-          throw new RuntimeException(ex);
-        }
+      boolean create =
+          eventName != null && eventName.toString().toLowerCase().contains("objectcreated");
+
+      boolean remove =
+          eventName != null && eventName.toString().toLowerCase().contains("objectremove");
+
+      if (debug) {
+        logger.log(String.format("processing event %s for file %s in bucket %s", eventName,
+            bucket, key));
       }
-    }
 
-    return null;
-  }
+      try {
 
-  private boolean isChecksumChanged(final S3ObjectMetadata resp, final DocumentItem doc) {
-    String s3Checksum = resp.getMetadata().getOrDefault("checksum", "");
-    return doc.getChecksum() != null && !s3Checksum.contains(doc.getChecksum());
+        if (remove) {
+
+          processS3Delete(logger, bucket.toString(), key.toString());
+
+        } else {
+          processS3File(logger, create, bucket.toString(), key.toString(), debug);
+        }
+
+      } catch (IOException | InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+    }
   }
 
   /**
@@ -509,7 +599,7 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
       DocumentEvent event =
           buildDocumentEvent(DELETE, siteId, doc, bucket, key, doc.getContentType());
 
-      sendSnsMessage(logger, event, doc.getContentType(), bucket, key, null);
+      sendSnsMessage(logger, event, doc.getContentType(), bucket, key, null, null);
     }
   }
 
@@ -531,16 +621,26 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     String siteId = getSiteId(key);
     String documentId = resetDatabaseKey(siteId, key);
 
-    S3ObjectMetadata resp = s3service.getObjectMetadata(s3bucket, key, null);
+    // independent reads run concurrently
+    CompletableFuture<S3ObjectMetadata> metadata = CompletableFuture
+        .supplyAsync(() -> s3service.getObjectMetadata(s3bucket, key, null), EXECUTOR);
+    CompletableFuture<DocumentItem> document =
+        CompletableFuture.supplyAsync(() -> service.findDocument(siteId, documentId), EXECUTOR);
+    CompletableFuture<List<Action>> actions = getActions(create, siteId, documentId);
+
+    S3ObjectMetadata resp = join(metadata);
 
     if (!resp.isObjectExists()) {
       throw new FileNotFoundException("Object " + documentId + " not found in bucket " + s3bucket);
     }
 
+    CompletableFuture<List<DocumentTag>> tags =
+        CompletableFuture.supplyAsync(() -> getObjectTags(s3bucket, key), EXECUTOR);
+
     String contentType = resp.getContentType();
     Long contentLength = resp.getContentLength();
 
-    DocumentItem item = service.findDocument(siteId, documentId);
+    DocumentItem item = join(document);
 
     if (item != null) {
 
@@ -572,16 +672,19 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
         attributes.put(S3VERSION_ATTRIBUTE, AttributeValue.fromS(resp.getVersionId()));
       }
 
-      service.updateDocument(siteId, documentId, attributes, isChecksumChanged);
-
-      List<DocumentTag> tags = getObjectTags(s3bucket, key);
-      service.addTags(siteId, documentId, tags, null);
+      // document, tag and format writes touch different items so are written concurrently
+      CompletableFuture<Void> update = CompletableFuture.runAsync(
+          () -> service.updateDocument(siteId, documentId, attributes, isChecksumChanged),
+          EXECUTOR);
+      CompletableFuture<Void> formats = CompletableFuture
+          .runAsync(() -> service.deleteDocumentFormats(siteId, documentId), EXECUTOR);
 
-      service.deleteDocumentFormats(siteId, documentId);
+      service.addTags(siteId, documentId, join(tags), null);
+      join(CompletableFuture.allOf(update, formats));
 
       DocumentEvent event =
           buildDocumentEvent(create ? CREATE : UPDATE, siteId, item, s3bucket, key, contentType);
-      sendSnsMessage(logger, event, contentType, s3bucket, key, resp);
+      sendSnsMessage(logger, event, contentType, s3bucket, key, resp, join(actions));
 
     } else {
       logger.log("Cannot find document " + documentId + " in site " + siteId);
@@ -597,17 +700,26 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
    * @param s3bucket {@link String}
    * @param key {@link String}
    * @param resp {@link S3ObjectMetadata}
+   * @param actions {@link List} {@link Action}
    */
   private void sendSnsMessage(final LambdaLogger logger, final DocumentEvent event,
       final String contentType, final String s3bucket, final String key,
-      final S3ObjectMetadata resp) {
+      final S3ObjectMetadata resp, final List<Action> actions) {
 
     String siteId = event.siteId();
     String documentId = event.documentId();
 
+    if (resp != null) {
+      event.s3version(resp.getVersionId());
+    }
+
     if ("application/json".equals(contentType)) {
       String content = getContent(s3bucket, key, resp, contentType);
       event.content(content);
+
+      if (content == null) {
+        event.contentUrl(EventServiceSns.toS3Url(s3bucket, key, event.s3version()));
+      }
     }
 
     String eventJson = documentEventService.publish(event);
@@ -620,8 +732,7 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     String eventType = event.type();
     logger.log("publishing " + event.type() + " document message to " + snsDocumentEvent);
 
-    if (CREATE.equals(eventType)) {
-      List<Action> actions = actionsService.getActions(siteId, documentId);
+    if (CREATE.equals(eventType) && actions != null) {
       notificationService.publishNextActionEvent(actions, siteId, documentId);
     }
   }
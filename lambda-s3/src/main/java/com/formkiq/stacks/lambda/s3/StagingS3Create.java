@@ -29,6 +29,7 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.resetDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isUuid;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
@@ -58,6 +59,7 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ObjectEnvelope;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
@@ -113,6 +115,12 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
 
   /** Extension for FormKiQ config file. */
   public static final String FORMKIQ_B64_EXT = ".fkb64";
+  /** Extension for FormKiQ binary staging file. */
+  public static final String FORMKIQ_BIN_EXT = ".fkbin";
+  /** Staged Content header key. */
+  private static final String STAGED_CONTENT = "stagedContent";
+  /** Staged Content header length key. */
+  private static final String STAGED_HEADER_LENGTH = "headerLength";
 
   /**
    * Get Bucket Name.
@@ -158,6 +166,8 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
   private static ActionsService actionsService;
   /** {@link String}. */
   private static String documentsBucket;
+  /** {@link EventService}. */
+  private static EventService eventService;
   /** {@link FolderIndexProcessor}. */
   private static FolderIndexProcessor folderIndexProcesor;
   /** {@link Gson}. */
@@ -221,7 +231,11 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     awsServiceCache.register(DocumentSyncService.class, new DocumentSyncServiceExtension());
     awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
     awsServiceCache.register(FolderIndexProcessor.class, new FolderIndexProcessorExtension());
-    awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+
+    if (!awsServiceCache.containsExtension(EventService.class)) {
+      awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
+    }
+
     awsServiceCache.register(ActionsNotificationService.class,
         new ActionsNotificationServiceExtension());
     awsServiceCache.register(DocumentTagSchemaPlugin.class,
@@ -236,6 +250,7 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
 
     snsDocumentEvent = awsServiceCache.environment("SNS_DOCUMENT_EVENT");
     notificationService = awsServiceCache.getExtension(ActionsNotificationService.class);
+    eventService = awsServiceCache.getExtension(EventService.class);
     folderIndexProcesor = awsServiceCache.getExtension(FolderIndexProcessor.class);
 
     if (isEmpty(awsServiceCache.environment("DOCUMENTS_IAM_URL"))) {
@@ -409,7 +424,14 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     }
 
     List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
-    processRecords(logger, date, records);
+
+    eventService.beginBatch();
+
+    try {
+      processRecords(logger, date, records);
+    } finally {
+      eventService.flush();
+    }
 
     return null;
   }
@@ -425,7 +447,7 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
    */
   @SuppressWarnings("unchecked")
   private DynamicDocumentItem loadDocument(final LambdaLogger logger, final String bucket,
-      final String siteId, final String s3Key) {
+      final String siteId, final String s3Key) throws IOException {
 
     DynamicDocumentItem doc = null;
 
@@ -436,6 +458,18 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
       Map<String, Object> map = this.gson.fromJson(s, Map.class);
       doc = new DynamicDocumentItem(map);
 
+    } else if (s3Key.endsWith(FORMKIQ_BIN_EXT)) {
+
+      byte[] header = S3ObjectEnvelope.readHeader(s3, bucket, s3Key);
+
+      Map<String, Object> map =
+          this.gson.fromJson(new String(header, StandardCharsets.UTF_8), Map.class);
+      doc = new DynamicDocumentItem(map);
+
+      List<DynamicObject> stagedContent = doc.getList(STAGED_CONTENT);
+      stagedContent.forEach(c -> c.put(STAGED_HEADER_LENGTH, Integer.valueOf(header.length)));
+      doc.put(STAGED_CONTENT, stagedContent);
+
     } else {
       doc = new DynamicDocumentItem(Collections.emptyMap());
 
@@ -510,11 +544,13 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
       throws IOException, InterruptedException {
 
     DynamicDocumentItem loadDocument = loadDocument(logger, bucket, siteId, s3Key);
+    List<DynamicObject> stagedContent = loadDocument.getList(STAGED_CONTENT);
+    loadDocument.remove(STAGED_CONTENT);
 
     Map<String, String> contentMap = createContentMap(loadDocument);
     Map<String, String> contentTypeMap = createContentTypeMap(loadDocument);
 
-    boolean hasContent = !contentMap.isEmpty();
+    boolean hasContent = !contentMap.isEmpty() || !stagedContent.isEmpty();
 
     DocumentItem existingDocument = service.findDocument(siteId, loadDocument.getDocumentId());
     DynamicDocumentItem item =
@@ -529,9 +565,13 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
         postDocumentTags(siteId, item);
       }
 
-      writeS3Document(logger, bucket, s3Key, siteId, item, contentMap, contentTypeMap);
+      if (s3Key.endsWith(FORMKIQ_BIN_EXT)) {
+        writeS3StagedContent(logger, bucket, s3Key, siteId, item, stagedContent, contentTypeMap);
+      } else {
+        writeS3Document(logger, bucket, s3Key, siteId, item, contentMap, contentTypeMap);
+      }
 
-      if (contentMap.isEmpty()) {
+      if (!hasContent) {
         logger.log(String.format("Skipping %s no content", item.getPath()));
       }
 
@@ -837,6 +877,52 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     }
   }
 
+  /**
+   * Stream the content segments of a binary staging file into the documents bucket.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param bucket {@link String}
+   * @param s3Key {@link String}
+   * @param siteId {@link String}
+   * @param item {@link DynamicDocumentItem}
+   * @param stagedContent {@link List} {@link DynamicObject}
+   * @param contentTypeMap {@link Map}
+   * @throws IOException IOException
+   */
+  private void writeS3StagedContent(final LambdaLogger logger, final String bucket,
+      final String s3Key, final String siteId, final DynamicDocumentItem item,
+      final List<DynamicObject> stagedContent, final Map<String, String> contentTypeMap)
+      throws IOException {
+
+    Map<String, String> map = Map.of("checksum", item.getChecksum());
+
+    for (DynamicObject staged : stagedContent) {
+
+      String documentId = staged.getString("documentId");
+      long length = ((Number) staged.get("length")).longValue();
+
+      String key = createDatabaseKey(siteId, documentId);
+      String contentType = contentTypeMap.get(documentId);
+
+      logger.log(String.format("Inserted %s into bucket %s as %s", item.getPath(),
+          documentsBucket, key));
+
+      if (length > 0) {
+
+        String range =
+            S3ObjectEnvelope.segmentRange(((Number) staged.get(STAGED_HEADER_LENGTH)).intValue(),
+                ((Number) staged.get("offset")).longValue(), length);
+
+        try (InputStream is = s3.getContentAsStream(bucket, s3Key, range)) {
+          s3.putObject(documentsBucket, key, is, length, contentType, map);
+        }
+
+      } else {
+        s3.putObject(documentsBucket, key, new byte[0], contentType, map);
+      }
+    }
+  }
+
   /**
    * Handle Document Compression Request.
    * 
@@ -0,0 +1,198 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3.openai;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import com.formkiq.module.http.HttpHeaders;
+import com.formkiq.module.http.HttpService;
+
+/**
+ * 
+ * Open AI Chat Completions client that limits the number of concurrent requests, retries rate
+ * limited (429) and unavailable (5XX) responses with backoff and coalesces identical in flight
+ * requests into a single call.
+ *
+ */
+public class OpenAiChatCompletionsClient {
+
+  /** Default Maximum concurrent requests. */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+  /** Initial Retry Backoff in millis. */
+  private static final long INITIAL_BACKOFF = 1000L;
+  /** Maximum Retry Backoff in millis. */
+  private static final long MAX_BACKOFF = 20000L;
+  /** Maximum number of retries. */
+  private static final int MAX_RETRIES = 3;
+  /** MilliSeconds per Second. */
+  private static final long MILLISECONDS = 1000L;
+  /** Too Many Requests Status Code. */
+  private static final int STATUS_TOO_MANY_REQUESTS = 429;
+  /** Internal Server Error Status Code. */
+  private static final int STATUS_SERVER_ERROR = 500;
+
+  /** {@link HttpService}. */
+  private HttpService http;
+  /** In flight requests. */
+  private ConcurrentHashMap<String, CompletableFuture<HttpResponse<String>>> inflight =
+      new ConcurrentHashMap<>();
+  /** Concurrent Requests {@link Semaphore}. */
+  private Semaphore permits;
+
+  /**
+   * constructor.
+   * 
+   * @param httpService {@link HttpService}
+   * @param maxConcurrentRequests int
+   */
+  public OpenAiChatCompletionsClient(final HttpService httpService,
+      final int maxConcurrentRequests) {
+    this.http = httpService;
+    this.permits = new Semaphore(maxConcurrentRequests, true);
+  }
+
+  /**
+   * Get Retry Delay, using the Retry-After header when available.
+   * 
+   * @param response {@link HttpResponse}
+   * @param attempt int
+   * @return long
+   */
+  private long getRetryDelay(final HttpResponse<String> response, final int attempt) {
+
+    long delay = Math.min(MAX_BACKOFF, INITIAL_BACKOFF << attempt);
+
+    Optional<String> retryAfter = response.headers().firstValue("retry-after");
+    if (retryAfter.isPresent()) {
+      try {
+        delay = Math.min(MAX_BACKOFF,
+            (long) (Double.parseDouble(retryAfter.get()) * MILLISECONDS));
+      } catch (NumberFormatException e) {
+        // use backoff delay
+      }
+    }
+
+    return delay;
+  }
+
+  private boolean isRetryable(final HttpResponse<String> response) {
+    int statusCode = response.statusCode();
+    return statusCode == STATUS_TOO_MANY_REQUESTS || statusCode >= STATUS_SERVER_ERROR;
+  }
+
+  /**
+   * Send Chat Completions request, requests with the same key that are already in flight share
+   * the same response.
+   * 
+   * @param key {@link String} request key
+   * @param url {@link String}
+   * @param headers {@link Optional} {@link HttpHeaders}
+   * @param body {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  public HttpResponse<String> post(final String key, final String url,
+      final Optional<HttpHeaders> headers, final String body) throws IOException {
+
+    HttpResponse<String> response = null;
+    CompletableFuture<HttpResponse<String>> future = new CompletableFuture<>();
+    CompletableFuture<HttpResponse<String>> existing = this.inflight.putIfAbsent(key, future);
+
+    if (existing != null) {
+
+      try {
+        response = existing.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        throw new IOException(e.getCause());
+      }
+
+    } else {
+
+      try {
+        response = send(url, headers, body);
+        future.complete(response);
+      } catch (IOException | RuntimeException e) {
+        future.completeExceptionally(e);
+        throw e;
+      } finally {
+        this.inflight.remove(key, future);
+      }
+    }
+
+    return response;
+  }
+
+  /**
+   * Send request, retrying rate limited responses.
+   * 
+   * @param url {@link String}
+   * @param headers {@link Optional} {@link HttpHeaders}
+   * @param body {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  private HttpResponse<String> send(final String url, final Optional<HttpHeaders> headers,
+      final String body) throws IOException {
+
+    HttpResponse<String> response = null;
+
+    try {
+
+      int attempt = 0;
+      boolean retry = true;
+
+      while (retry) {
+
+        this.permits.acquire();
+
+        try {
+          response = this.http.post(url, headers, Optional.empty(), body);
+        } finally {
+          this.permits.release();
+        }
+
+        retry = attempt < MAX_RETRIES && isRetryable(response);
+
+        if (retry) {
+          Thread.sleep(getRetryDelay(response, attempt));
+          attempt++;
+        }
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+
+    return response;
+  }
+}
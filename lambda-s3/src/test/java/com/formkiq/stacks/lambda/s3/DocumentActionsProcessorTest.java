@@ -26,6 +26,7 @@ package com.formkiq.stacks.lambda.s3;
 import static com.formkiq.stacks.dynamodb.ConfigService.CHATGPT_API_KEY;
 import static com.formkiq.stacks.dynamodb.DocumentService.MAX_RESULTS;
 import static com.formkiq.stacks.lambda.s3.util.FileUtils.loadFileAsMap;
+import static com.formkiq.testutils.aws.DynamoDbExtension.CACHE_TABLE;
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_VERSION_TABLE;
 import static com.formkiq.testutils.aws.TestServices.AWS_REGION;
@@ -57,6 +58,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockserver.integration.ClientAndServer;
 import org.mockserver.model.HttpRequest;
+import org.mockserver.model.StringBody;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
@@ -68,6 +70,8 @@ import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
 import com.formkiq.aws.s3.S3Service;
+import com.formkiq.aws.services.lambda.services.CacheService;
+import com.formkiq.aws.services.lambda.services.DynamoDbCacheService;
 import com.formkiq.aws.ses.SesAwsServiceRegistry;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
 import com.formkiq.aws.sns.SnsService;
@@ -106,6 +110,7 @@ import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 
 /** Unit Tests for {@link DocumentActionsProcessor}. */
 @ExtendWith(DynamoDbExtension.class)
@@ -225,6 +230,7 @@ public class DocumentActionsProcessorTest implements DbKeys {
     Map<String, String> env = new HashMap<>();
     env.put("AWS_REGION", AWS_REGION.toString());
     env.put("DOCUMENTS_TABLE", DOCUMENTS_TABLE);
+    env.put("CACHE_TABLE", CACHE_TABLE);
     env.put("DOCUMENT_VERSIONS_TABLE", DOCUMENTS_VERSION_TABLE);
     env.put("APP_ENVIRONMENT", APP_ENVIRONMENT);
     env.put("DOCUMENTS_S3_BUCKET", BUCKET_NAME);
@@ -232,6 +238,7 @@ public class DocumentActionsProcessorTest implements DbKeys {
     env.put("SNS_DOCUMENT_EVENT", snsDocumentEventTopicArn);
     env.put("DOCUMENT_VERSIONS_PLUGIN", DocumentVersionServiceNoVersioning.class.getName());
     env.put("CHATGPT_API_COMPLETIONS_URL", URL + "/" + chatgptUrl);
+    env.put("CONFIG_CACHE_TTL_SECONDS", "0");
 
     AwsCredentials creds = AwsBasicCredentials.create("aaa", "bbb");
     StaticCredentialsProvider credentialsProvider = StaticCredentialsProvider.create(creds);
@@ -759,6 +766,123 @@ public class DocumentActionsProcessorTest implements DbKeys {
     }
   }
 
+  /**
+   * Handle documentTagging ChatApt Action for documents with identical content, uses the cached
+   * response.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testDocumentTaggingAction09() throws Exception {
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      configService.save(siteId, new DynamicObject(Map.of(CHATGPT_API_KEY, "asd")));
+      String content = "this is some cached data " + UUID.randomUUID();
+
+      for (int i = 0; i < 2; i++) {
+
+        // when
+        PaginationResults<DocumentTag> tags = processDocumentTagging(siteId, content);
+
+        // then
+        final int expectedSize = 5;
+        assertEquals(expectedSize, tags.getResults().size());
+        assertEquals("Great Auk Enterprises", tags.getResults().get(2).getValue());
+      }
+
+      HttpRequest[] requests = mockServer.retrieveRecordedRequests(
+          request().withPath("/chatgpt1").withBody(StringBody.subString(content)));
+      assertEquals(1, requests.length);
+    }
+  }
+
+  /**
+   * Process a documentTagging ChatGpt Action for a new text document.
+   * 
+   * @param siteId {@link String}
+   * @param content {@link String}
+   * @return {@link PaginationResults} {@link DocumentTag}
+   * @throws Exception Exception
+   */
+  private PaginationResults<DocumentTag> processDocumentTagging(final String siteId,
+      final String content) throws Exception {
+
+    String documentId = UUID.randomUUID().toString();
+
+    DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+    item.setContentType("text/plain");
+
+    String s3Key = SiteIdKeyGenerator.createS3Key(siteId, documentId);
+    s3Service.putObject(BUCKET_NAME, s3Key, content.getBytes(StandardCharsets.UTF_8),
+        "text/plain");
+
+    documentService.saveDocument(siteId, item, null);
+
+    List<Action> actions = Arrays.asList(new Action().type(ActionType.DOCUMENTTAGGING)
+        .userId("joe").parameters(Map.of("engine", "chatgpt", "tags",
+            "organization,location,person,subject,sentiment,document type")));
+    actionsService.saveNewActions(siteId, documentId, actions);
+
+    Map<String, Object> map =
+        loadFileAsMap(this, "/actions-event01.json", "c2695f67-d95e-4db0-985e-574168b12e57",
+            documentId, "default", siteId != null ? siteId : "default");
+
+    processor.handleRequest(map, this.context);
+
+    assertEquals(ActionStatus.COMPLETE,
+        actionsService.getActions(siteId, documentId).get(0).status());
+
+    return documentService.findDocumentTags(siteId, documentId, null, MAX_RESULTS);
+  }
+
+  /**
+   * Handle documentTagging ChatApt Action on a new container, the cached response is read from
+   * the Cache table.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testDocumentTaggingAction10() throws Exception {
+
+    CacheService cacheService = new DynamoDbCacheService(dbBuilder, CACHE_TABLE);
+    String response2 = FileUtils.loadFile(this, "/chatgpt/response2.json");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      configService.save(siteId, new DynamicObject(Map.of(CHATGPT_API_KEY, "asd")));
+      String content = "this is some other cached data " + UUID.randomUUID();
+      processDocumentTagging(siteId, content);
+
+      String prefix = SiteIdKeyGenerator.createDatabaseKey(siteId, "tagging#");
+      List<String> keys = findPartitionKeys(CACHE_TABLE).stream()
+          .filter(pk -> pk.startsWith(prefix)).collect(Collectors.toList());
+      assertEquals(1, keys.size());
+      assertTrue(findPartitionKeys(DOCUMENTS_TABLE).stream()
+          .noneMatch(pk -> pk.contains("tagging#")));
+
+      cacheService.write(keys.get(0), response2, 1);
+      initProcessor("opensearch", "chatgpt1");
+
+      // when
+      PaginationResults<DocumentTag> tags = processDocumentTagging(siteId, content);
+
+      // then
+      assertEquals("East Repair Inc.",
+          tags.getResults().stream().filter(t -> "organization".equals(t.getKey())).findFirst()
+              .get().getValue());
+      assertEquals(1, mockServer.retrieveRecordedRequests(
+          request().withPath("/chatgpt1").withBody(StringBody.subString(content))).length);
+    }
+  }
+
+  private List<String> findPartitionKeys(final String tableName) {
+    try (DynamoDbClient db = dbBuilder.build()) {
+      return db.scan(ScanRequest.builder().tableName(tableName).build()).items().stream()
+          .map(i -> i.get(PK).s()).collect(Collectors.toList());
+    }
+  }
+
   /**
    * Test converting Ocr Parse Types.
    */
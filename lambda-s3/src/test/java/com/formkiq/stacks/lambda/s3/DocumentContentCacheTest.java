@@ -0,0 +1,170 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
+import com.formkiq.stacks.dynamodb.DocumentItemDynamoDb;
+
+/**
+ * Unit Test for {@link DocumentContentCache}.
+ */
+public class DocumentContentCacheTest {
+
+  private DocumentItem createItem() {
+    DocumentItem item =
+        new DocumentItemDynamoDb(UUID.randomUUID().toString(), new Date(), "joe");
+    item.setS3version("1");
+    return item;
+  }
+
+  /**
+   * Test partial content only satisfies smaller character max.
+   */
+  @Test
+  public void testGet01() {
+    // given
+    final int max = 5;
+    DocumentContentCache cache = new DocumentContentCache();
+    DocumentItem item = createItem();
+
+    // when
+    cache.put(null, item, "abcde", false);
+
+    // then
+    assertEquals("abc", cache.get(null, item, max - 2).get());
+    assertEquals("abcde", cache.get(null, item, max).get());
+    assertFalse(cache.get(null, item, max + 1).isPresent());
+    assertFalse(cache.get(null, item, -1).isPresent());
+    assertFalse(cache.get("other", item, max).isPresent());
+  }
+
+  /**
+   * Test complete content satisfies any character max.
+   */
+  @Test
+  public void testGet02() {
+    // given
+    final int max = 100;
+    DocumentContentCache cache = new DocumentContentCache();
+    DocumentItem item = createItem();
+
+    // when
+    cache.put(null, item, "abcde", false);
+    cache.put(null, item, "abcdefgh", true);
+    cache.put(null, item, "ab", false);
+
+    // then
+    assertEquals("abcdefgh", cache.get(null, item, max).get());
+    assertEquals("abcdefgh", cache.get(null, item, -1).get());
+  }
+
+  /**
+   * Test invalidate and new S3 version.
+   */
+  @Test
+  public void testInvalidate01() {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    DocumentContentCache cache = new DocumentContentCache();
+    DocumentItem item = createItem();
+    cache.put(siteId, item, "abcde", true);
+
+    // when
+    item.setS3version("2");
+
+    // then
+    assertFalse(cache.get(siteId, item, -1).isPresent());
+
+    // given
+    cache.put(siteId, item, "abcde", true);
+
+    // when
+    cache.invalidate(siteId, item.getDocumentId());
+
+    // then
+    assertFalse(cache.get(siteId, item, -1).isPresent());
+  }
+
+  /**
+   * Test unversioned documents are keyed by checksum, and not cached without one.
+   */
+  @Test
+  public void testKey01() {
+    // given
+    DocumentContentCache cache = new DocumentContentCache();
+    DocumentItem item = createItem();
+    item.setS3version(null);
+    item.setChecksum("abc");
+    cache.put(null, item, "abcde", true);
+
+    // when
+    item.setChecksum("def");
+
+    // then
+    assertFalse(cache.get(null, item, -1).isPresent());
+
+    // given
+    item.setChecksum(null);
+
+    // when
+    cache.put(null, item, "abcde", true);
+
+    // then
+    assertFalse(cache.get(null, item, -1).isPresent());
+  }
+
+  /**
+   * Test max entries and expiry.
+   */
+  @Test
+  public void testMaxEntries01() {
+    // given
+    DocumentContentCache cache = new DocumentContentCache(1, Duration.ofMinutes(1));
+    DocumentItem item0 = createItem();
+    DocumentItem item1 = createItem();
+
+    // when
+    cache.put(null, item0, "abc", true);
+    cache.put(null, item1, "def", true);
+
+    // then
+    assertFalse(cache.get(null, item0, -1).isPresent());
+    assertEquals("def", cache.get(null, item1, -1).get());
+
+    // given
+    cache = new DocumentContentCache(1, Duration.ofMillis(-1));
+
+    // when
+    cache.put(null, item0, "abc", true);
+
+    // then
+    assertFalse(cache.get(null, item0, -1).isPresent());
+  }
+}
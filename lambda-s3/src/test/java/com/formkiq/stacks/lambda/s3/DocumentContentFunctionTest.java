@@ -0,0 +1,157 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockserver.integration.ClientAndServer.startClientAndServer;
+import static org.mockserver.model.HttpRequest.request;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Delay;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
+import com.formkiq.aws.s3.S3PresignerService;
+import com.formkiq.module.http.HttpService;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.stacks.dynamodb.DocumentItemDynamoDb;
+
+/**
+ * Unit Test for {@link DocumentContentFunction}.
+ */
+public class DocumentContentFunctionTest {
+
+  /** Port to run Test server. */
+  private static final int PORT = 8889;
+  /** Test Server URL. */
+  private static final String URL = "http://localhost:" + PORT;
+  /** {@link ClientAndServer}. */
+  private static ClientAndServer mockServer;
+
+  /**
+   * Before All.
+   */
+  @BeforeAll
+  public static void beforeAll() {
+
+    mockServer = startClientAndServer(Integer.valueOf(PORT));
+
+    final long delay = 500;
+    mockServer.when(request().withMethod("GET").withPath("/content0"))
+        .respond(org.mockserver.model.HttpResponse.response("aaaaaaaaaa")
+            .withDelay(new Delay(TimeUnit.MILLISECONDS, delay)));
+    mockServer.when(request().withMethod("GET").withPath("/content1"))
+        .respond(org.mockserver.model.HttpResponse.response("bbbbbbbbbb"));
+    mockServer.when(request().withMethod("GET").withPath("/content2"))
+        .respond(org.mockserver.model.HttpResponse.response("cccccccccc"));
+  }
+
+  /**
+   * After All.
+   */
+  @AfterAll
+  public static void afterAll() {
+    mockServer.stop();
+  }
+
+  /** {@link DocumentContentFunction}. */
+  private DocumentContentFunction function;
+
+  /**
+   * constructor.
+   */
+  public DocumentContentFunctionTest() {
+    AwsServiceCache services = new AwsServiceCache().environment(Map.of());
+    services.register(S3PresignerService.class, new ClassServiceExtension<>(null));
+    services.register(HttpService.class, new ClassServiceExtension<>(null));
+    this.function = new DocumentContentFunction(services);
+  }
+
+  private DocumentItem createItem() {
+    DocumentItem item = new DocumentItemDynamoDb(UUID.randomUUID().toString(), new Date(), "joe");
+    item.setS3version("1");
+    return item;
+  }
+
+  /**
+   * Test concurrent fetch, the slowest url is first and content is appended in order.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  public void testGetContent01() throws IOException {
+    // given
+    List<String> urls = Arrays.asList(URL + "/content0", URL + "/content1", URL + "/content2");
+
+    // when
+    String content = this.function.getContent(null, createItem(), urls, -1);
+
+    // then
+    assertEquals("aaaaaaaaaabbbbbbbbbbcccccccccc", content);
+  }
+
+  /**
+   * Test concurrent fetch capped at the character budget.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  public void testGetContent02() throws IOException {
+    // given
+    final int max = 15;
+    List<String> urls = Arrays.asList(URL + "/content0", URL + "/content1", URL + "/content2");
+
+    // when
+    String content = this.function.getContent(null, createItem(), urls, max);
+
+    // then
+    assertEquals("aaaaaaaaaabbbbb", content);
+  }
+
+  /**
+   * Test character budget ending exactly on a url boundary.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  public void testGetContent03() throws IOException {
+    // given
+    final int max = 10;
+    List<String> urls = Arrays.asList(URL + "/content0", URL + "/content1", URL + "/content2");
+
+    // when
+    String content = this.function.getContent(null, createItem(), urls, max);
+
+    // then
+    assertEquals("aaaaaaaaaa", content);
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Test for {@link DocumentTaggingCache}.
+ */
+public class DocumentTaggingCacheTest {
+
+  /**
+   * Test cached response is returned.
+   */
+  @Test
+  public void testGet01() {
+    // given
+    DocumentTaggingCache cache = new DocumentTaggingCache();
+
+    // when
+    cache.put("key1", "body1");
+
+    // then
+    assertEquals("body1", cache.get("key1").get());
+    assertFalse(cache.get("key2").isPresent());
+  }
+
+  /**
+   * Test expired response is not returned.
+   */
+  @Test
+  public void testGet02() {
+    // given
+    DocumentTaggingCache cache = new DocumentTaggingCache(1, Duration.ofMillis(-1));
+
+    // when
+    cache.put("key1", "body1");
+
+    // then
+    assertFalse(cache.get("key1").isPresent());
+  }
+
+  /**
+   * Test least recently used response is evicted.
+   */
+  @Test
+  public void testPut01() {
+    // given
+    final int max = 2;
+    DocumentTaggingCache cache = new DocumentTaggingCache(max, Duration.ofMinutes(1));
+
+    // when
+    cache.put("key1", "body1");
+    cache.put("key2", "body2");
+    cache.get("key1");
+    cache.put("key3", "body3");
+
+    // then
+    assertEquals("body1", cache.get("key1").get());
+    assertFalse(cache.get("key2").isPresent());
+    assertEquals("body3", cache.get("key3").get());
+  }
+}
@@ -47,6 +47,7 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -1084,6 +1085,59 @@ public class DocumentsS3UpdateTest implements DbKeys {
     }
   }
 
+  /**
+   * Create multiple Documents in the same Request.
+   *
+   * @throws Exception Exception
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testHandleRequest15() throws Exception {
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 5;
+      List<String> documentIds = new ArrayList<>();
+      Map<String, Object> map = null;
+
+      for (int i = 0; i < count; i++) {
+
+        String documentId = UUID.randomUUID().toString();
+        documentIds.add(documentId);
+
+        String key = createDatabaseKey(siteId, documentId);
+        Map<String, Object> event =
+            loadFileAsMap(this, "/objectcreate-event1.json", BUCKET_KEY, key);
+
+        if (map == null) {
+          map = event;
+        } else {
+          ((List<Object>) map.get("Records")).addAll((List<Object>) event.get("Records"));
+        }
+
+        DynamicDocumentItem doc = new DynamicDocumentItem(Map.of());
+        doc.setInsertedDate(new Date());
+        doc.setDocumentId(documentId);
+        doc.setUserId("joe");
+        doc.setPath("test" + i + ".txt");
+        service.saveDocumentItemWithTag(siteId, doc);
+
+        addS3File(key, "pdf", false, "testdata");
+      }
+
+      // when
+      handler.handleRequest(map, this.context);
+
+      // then
+      for (String documentId : documentIds) {
+        DocumentItem item = service.findDocument(siteId, documentId);
+        assertNotNull(item.getChecksum());
+        verifyDocumentSaved(siteId, item, "pdf", "8");
+      }
+    }
+  }
+
   /**
    * Verify {@link DocumentItem}.
    * 
@@ -95,6 +95,7 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.schema.DocumentSchema;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ObjectEnvelope;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
@@ -1458,6 +1459,70 @@ public class StagingS3CreateTest implements DbKeys {
     }
   }
 
+  /**
+   * Test .fkbin file with multiple documents.
+   *
+   * @throws IOException IOException
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  void testFkBinExtension01() throws IOException {
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      // given
+      String documentId0 = UUID.randomUUID().toString();
+      String documentId1 = UUID.randomUUID().toString();
+      byte[] content0 = "this is some content".getBytes(UTF_8);
+      byte[] content1 = Base64.getDecoder().decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJ");
+
+      S3ObjectEnvelope envelope = new S3ObjectEnvelope();
+      long offset0 = envelope.addSegment(content0);
+      long offset1 = envelope.addSegment(content1);
+
+      Map<String, Object> header = new HashMap<>();
+      header.put("documentId", documentId0);
+      header.put("userId", "joe");
+      header.put("path", "test.txt");
+      header.put("contentType", "text/plain");
+      header.put("documents", Arrays.asList(Map.of("documentId", documentId1, "userId", "joe",
+          "path", "test.png", "contentType", "image/png")));
+      header.put("stagedContent",
+          Arrays.asList(
+              Map.of("documentId", documentId0, "offset", Long.valueOf(offset0), "length",
+                  Long.valueOf(content0.length)),
+              Map.of("documentId", documentId1, "offset", Long.valueOf(offset1), "length",
+                  Long.valueOf(content1.length))));
+      envelope.header(gson.toJson(header).getBytes(UTF_8));
+
+      String key = createDatabaseKey(siteId, documentId0 + StagingS3Create.FORMKIQ_BIN_EXT);
+      s3.putObject(STAGING_BUCKET, key, envelope.toInputStream(), envelope.length(), null, null);
+
+      // when
+      handleRequest(loadFileAsMap(this, "/objectcreate-event4.json", UUID1, key));
+
+      // then
+      assertFalse(s3.getObjectMetadata(STAGING_BUCKET, key, null).isObjectExists());
+
+      DocumentItem item = service.findDocument(siteId, documentId0);
+      assertEquals("text/plain", item.getContentType());
+      assertEquals("test.txt", item.getPath());
+      assertNull(item.getContentLength());
+
+      String k = createDatabaseKey(siteId, documentId0);
+      assertEquals("this is some content", s3.getContentAsString(DOCUMENTS_BUCKET, k, null));
+      assertEquals("text/plain", s3.getObjectMetadata(DOCUMENTS_BUCKET, k, null).getContentType());
+
+      item = service.findDocument(siteId, documentId1);
+      assertEquals(documentId0, item.getBelongsToDocumentId());
+
+      k = createDatabaseKey(siteId, documentId1);
+      assertEquals(Base64.getEncoder().encodeToString(content1), Base64.getEncoder()
+          .encodeToString(S3Service.toByteArray(s3.getContentAsInputStream(DOCUMENTS_BUCKET, k))));
+      assertEquals("image/png", s3.getObjectMetadata(DOCUMENTS_BUCKET, k, null).getContentType());
+    }
+  }
+
   /**
    * Test processing S3 file from PATCH /documents/tags.
    */
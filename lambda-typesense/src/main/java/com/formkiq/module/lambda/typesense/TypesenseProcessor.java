@@ -28,22 +28,35 @@ import static com.formkiq.aws.dynamodb.DbKeys.GSI1_SK;
 import static com.formkiq.aws.dynamodb.DbKeys.GSI2_PK;
 import static com.formkiq.aws.dynamodb.DbKeys.GSI2_SK;
 import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_DOCS;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAGS;
 import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.getSiteId;
+import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 import static com.formkiq.module.http.HttpResponseStatus.is2XX;
+import static com.formkiq.module.http.HttpResponseStatus.is404;
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.model.DocumentMapToDocument;
 import com.formkiq.aws.dynamodb.model.DocumentSyncServiceType;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
+import com.formkiq.aws.dynamodb.model.DocumentTagMapToDocument;
+import com.formkiq.aws.services.lambda.services.CacheService;
+import com.formkiq.aws.services.lambda.services.DynamoDbCacheServiceExtension;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
@@ -55,6 +68,9 @@ import com.formkiq.stacks.dynamodb.DocumentVersionService;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 
 /** {@link RequestHandler} for handling DynamoDb to Typesense Processor. */
 @Reflectable
@@ -83,6 +99,12 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
 
     awsServices.register(TypeSenseService.class, new TypeSenseServiceExtension());
     awsServices.register(DocumentSyncService.class, new DocumentSyncServiceExtension());
+
+    if (!isEmpty(awsServices.environment("CACHE_TABLE"))
+        && !awsServices.containsExtension(CacheService.class)) {
+      awsServices.register(CacheService.class, new DynamoDbCacheServiceExtension());
+    }
+
     serviceCache = awsServices;
   }
 
@@ -103,6 +125,21 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     initialize(awsServices);
   }
 
+  /**
+   * Add the values of a Document Tag record.
+   * 
+   * @param values {@link Collection}
+   * @param item {@link Map}
+   */
+  private void addTagValues(final Collection<String> values,
+      final Map<String, AttributeValue> item) {
+    if (item.containsKey("tagValues")) {
+      item.get("tagValues").l().forEach(v -> values.add(v.s()));
+    } else if (item.containsKey("tagValue")) {
+      values.add(item.get("tagValue").s());
+    }
+  }
+
   private void addDocumentSync(final HttpResponse<String> response, final String siteId,
       final String documentId, final String userId, final boolean s3VersionChanged,
       final boolean added) {
@@ -188,6 +225,60 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     return getAttributeStringValue(field);
   }
 
+  /**
+   * Get the collection a site is being reindexed into.
+   * 
+   * @param siteId {@link String}
+   * @return {@link String} or null if no reindex of the site is running
+   */
+  private String getReindexCollection(final String siteId) {
+    CacheService cacheService = serviceCache.getExtensionOrNull(CacheService.class);
+    return cacheService != null ? TypesenseReindexer.findReindexCollection(cacheService, siteId)
+        : null;
+  }
+
+  /**
+   * Get the current values of a Document Tag from DynamoDb. A multi-value tag is stored as one
+   * record per value, and stream records of those records may arrive in any order.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param tagKey {@link String}
+   * @return {@link List} {@link String}
+   */
+  private List<String> getTagValues(final String siteId, final String documentId,
+      final String tagKey) {
+
+    DynamoDbConnectionBuilder db = serviceCache.getExtension(DynamoDbConnectionBuilder.class);
+
+    QueryRequest.Builder req = QueryRequest.builder()
+        .tableName(serviceCache.environment("DOCUMENTS_TABLE"))
+        .keyConditionExpression("#pk = :pk and begins_with(#sk, :sk)")
+        .expressionAttributeNames(Map.of("#pk", PK, "#sk", SK))
+        .expressionAttributeValues(Map.of(":pk",
+            AttributeValue.fromS(createDatabaseKey(siteId, PREFIX_DOCS + documentId)), ":sk",
+            AttributeValue.fromS(PREFIX_TAGS + tagKey)))
+        .consistentRead(Boolean.TRUE);
+
+    Collection<String> values = new LinkedHashSet<>();
+    Map<String, AttributeValue> startKey = null;
+
+    do {
+
+      QueryResponse response = db.build().query(req.exclusiveStartKey(startKey).build());
+
+      response.items().stream().filter(i -> i.containsKey("tagKey"))
+          .filter(i -> tagKey.equals(i.get("tagKey").s())).forEach(i -> addTagValues(values, i));
+
+      startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+          ? response.lastEvaluatedKey()
+          : null;
+
+    } while (startKey != null);
+
+    return new ArrayList<>(values);
+  }
+
   /**
    * Get User Id.
    * 
@@ -212,8 +303,12 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
       logger.log(json);
     }
 
-    List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
-    processRecords(logger, records);
+    if (map.containsKey("reindex")) {
+      reindex(logger, toMap(map.get("reindex")));
+    } else {
+      List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
+      processRecords(logger, records);
+    }
 
     return null;
   }
@@ -241,6 +336,13 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     return changed;
   }
 
+  @SuppressWarnings("unchecked")
+  private boolean isTagSk(final Map<String, Object> data) {
+    Map<String, String> map = (Map<String, String>) data.get(SK);
+    String sk = map != null ? getAttributeStringValue(map) : null;
+    return sk != null && sk.startsWith(PREFIX_TAGS);
+  }
+
   /**
    * Process Record.
    * 
@@ -310,6 +412,41 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     }
   }
 
+  /**
+   * Rebuild a site's Typesense collection from the Documents table.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param request {@link Map}
+   */
+  private void reindex(final LambdaLogger logger, final Map<String, Object> request) {
+
+    String siteId = (String) request.get("siteId");
+    int segments = request.containsKey("segments")
+        ? ((Number) request.get("segments")).intValue()
+        : TypesenseReindexer.DEFAULT_SEGMENTS;
+
+    CacheService cacheService = serviceCache.getExtensionOrNull(CacheService.class);
+
+    if (cacheService != null) {
+
+      DynamoDbConnectionBuilder db = serviceCache.getExtension(DynamoDbConnectionBuilder.class);
+      TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
+
+      TypesenseReindexer reindexer =
+          new TypesenseReindexer(db.build(), serviceCache.environment("DOCUMENTS_TABLE"),
+              typeSenseService, cacheService, logger, segments);
+
+      try {
+        reindexer.reindex(siteId);
+      } catch (IOException e) {
+        logger.log("reindex of site " + siteId + " failed, re-run to resume: " + e.getMessage());
+      }
+
+    } else {
+      logger.log("reindex of site " + siteId + " requires CACHE_TABLE to save its progress");
+    }
+  }
+
   /**
    * Remove Document from TypeSense.
    * 
@@ -325,6 +462,17 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
       TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
       typeSenseService.deleteDocument(siteId, documentId);
       deleteSyncs(siteId, documentId);
+
+      String reindexCollection = getReindexCollection(siteId);
+      if (reindexCollection != null) {
+        HttpResponse<String> response =
+            typeSenseService.deleteDocumentByName(reindexCollection, documentId);
+        if (!is2XX(response) && !is404(response)) {
+          throw new IOException(response.body());
+        }
+      }
+    } else if (isTagSk(oldImage)) {
+      writeTag(siteId, documentId, oldImage);
     }
   }
 
@@ -364,6 +512,7 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
       throws IOException {
 
     boolean isDocument = isDocumentSk(data);
+    boolean isTag = isTagSk(data);
 
     removeDynamodbKeys(data);
 
@@ -375,8 +524,107 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
 
       Map<String, Object> document = new DocumentMapToDocument().apply(data);
       addOrUpdate(siteId, documentId, document, userId, s3VersionChanged);
+      writeToReindex(siteId, documentId, document, false);
+
+    } else if (isTag) {
+
+      writeTag(siteId, documentId, data);
+
     } else if (serviceCache.debug()) {
       logger.log("skipping dynamodb record");
     }
   }
+
+  /**
+   * Write a Document Tag to the Typesense Index, the field is rebuilt from the tag records that
+   * remain in DynamoDb. Collections whose "tags#.*" field is still a "string" are updated to
+   * "string[]" and the write is retried.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param data {@link Map}
+   * @throws IOException IOException
+   */
+  private void writeTag(final String siteId, final String documentId,
+      final Map<String, Object> data) throws IOException {
+
+    String tagKey = getField(data, data, "tagKey");
+
+    if (tagKey != null) {
+
+      List<String> values = getTagValues(siteId, documentId, tagKey);
+      Map<String, Object> tag = Map.of(DocumentTagMapToDocument.PREFIX_TAGS + tagKey, values);
+      TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
+
+      try {
+        writeTagValues(typeSenseService, siteId, documentId, tag, values.isEmpty());
+      } catch (IOException e) {
+
+        if (!typeSenseService.updateTagsFieldType(siteId)) {
+          throw e;
+        }
+
+        writeTagValues(typeSenseService, siteId, documentId, tag, values.isEmpty());
+      }
+
+      writeToReindex(siteId, documentId, tag, values.isEmpty());
+    }
+  }
+
+  /**
+   * Write document fields to the collection the site is being reindexed into, so changes made
+   * while the reindex runs are not lost when it swaps the site alias.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param fields {@link Map}
+   * @param clear boolean only update a document that is already in the collection
+   * @throws IOException IOException
+   */
+  private void writeToReindex(final String siteId, final String documentId,
+      final Map<String, Object> fields, final boolean clear) throws IOException {
+
+    String reindexCollection = getReindexCollection(siteId);
+
+    if (reindexCollection != null) {
+
+      TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
+
+      if (clear) {
+        HttpResponse<String> response =
+            typeSenseService.updateDocumentByName(reindexCollection, documentId, fields);
+        if (!is2XX(response) && !is404(response)) {
+          throw new IOException(response.body());
+        }
+      } else {
+        Map<String, Object> document = new HashMap<>(fields);
+        document.put("documentId", documentId);
+        typeSenseService.importDocumentsByName(reindexCollection, List.of(document));
+      }
+    }
+  }
+
+  /**
+   * Write Document Tag values. Clearing a tag does not create a document that is not indexed.
+   * 
+   * @param typeSenseService {@link TypeSenseService}
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param tag {@link Map}
+   * @param clear boolean
+   * @throws IOException IOException
+   */
+  private void writeTagValues(final TypeSenseService typeSenseService, final String siteId,
+      final String documentId, final Map<String, Object> tag, final boolean clear)
+      throws IOException {
+
+    if (clear) {
+      HttpResponse<String> response = typeSenseService.updateDocument(siteId, documentId, tag);
+      if (!is2XX(response) && !is404(response)) {
+        throw new IOException(response.body());
+      }
+    } else {
+      typeSenseService.addOrUpdateDocument(siteId, documentId, tag);
+    }
+  }
 }
@@ -0,0 +1,398 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.typesense;
+
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAGS;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import static com.formkiq.module.http.HttpResponseStatus.is2XX;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.aws.dynamodb.model.DocumentMapToDocument;
+import com.formkiq.aws.dynamodb.model.DocumentTagMapToDocument;
+import com.formkiq.aws.services.lambda.services.CacheService;
+import com.formkiq.module.typesense.TypeSenseService;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+/**
+ * 
+ * Rebuilds a site's Typesense collection from the Document and Document Tag records using a
+ * parallel segmented {@link ScanRequest}. Documents are imported into a new collection and the
+ * site alias is swapped to it once every segment completes. Progress is saved to the
+ * {@link CacheService} after every page so a failed or timed out run resumes where it stopped.
+ * While the job runs, {@link TypesenseProcessor} also writes stream changes to the new collection
+ * (see {@link #findReindexCollection}), so changes made during the reindex are kept.
+ *
+ */
+public class TypesenseReindexer {
+
+  /** Default number of Scan segments. */
+  public static final int DEFAULT_SEGMENTS = 4;
+  /** Scan page / import batch size (Typesense search per_page max is 250). */
+  private static final int BATCH_SIZE = 250;
+  /** Number of days reindex progress is kept. */
+  private static final int CACHE_DAYS = 7;
+  /** {@link Gson}. */
+  private static final Gson GSON = new GsonBuilder().create();
+  /** Milliseconds per second. */
+  private static final double MILLIS = 1000.0;
+
+  /** {@link CacheService}. */
+  private CacheService cache;
+  /** {@link DynamoDbClient}. */
+  private DynamoDbClient db;
+  /** Documents Table Name. */
+  private String documentTableName;
+  /** {@link LambdaLogger}. */
+  private LambdaLogger logger;
+  /** Number of Scan segments. */
+  private int segments;
+  /** {@link TypeSenseService}. */
+  private TypeSenseService typeSenseService;
+
+  /**
+   * constructor.
+   * 
+   * @param dbClient {@link DynamoDbClient}
+   * @param documentsTable {@link String}
+   * @param typesense {@link TypeSenseService}
+   * @param cacheService {@link CacheService}
+   * @param lambdaLogger {@link LambdaLogger}
+   * @param totalSegments int
+   */
+  public TypesenseReindexer(final DynamoDbClient dbClient, final String documentsTable,
+      final TypeSenseService typesense, final CacheService cacheService,
+      final LambdaLogger lambdaLogger, final int totalSegments) {
+    this.db = dbClient;
+    this.cache = cacheService;
+    this.documentTableName = documentsTable;
+    this.typeSenseService = typesense;
+    this.logger = lambdaLogger;
+    this.segments = totalSegments;
+  }
+
+  /**
+   * Copy the full text content from the previous collection, which is not stored in DynamoDb.
+   * 
+   * @param oldCollection {@link String}
+   * @param documents {@link List} {@link Map}
+   * @throws IOException IOException
+   */
+  private void copyContent(final String oldCollection, final List<Map<String, Object>> documents)
+      throws IOException {
+
+    if (oldCollection != null && !documents.isEmpty()) {
+
+      List<String> ids =
+          documents.stream().map(d -> (String) d.get("documentId")).collect(Collectors.toList());
+
+      Map<String, Object> contents = this.typeSenseService
+          .getDocumentsByName(oldCollection, ids, "id,content").stream()
+          .filter(d -> d.get("content") != null)
+          .collect(Collectors.toMap(d -> (String) d.get("id"), d -> d.get("content")));
+
+      documents.forEach(d -> {
+        Object content = contents.get(d.get("documentId"));
+        if (content != null) {
+          d.put("content", content);
+        }
+      });
+    }
+  }
+
+  /**
+   * Find the collection a site is being reindexed into.
+   * 
+   * @param cacheService {@link CacheService}
+   * @param siteId {@link String}
+   * @return {@link String} or null if no reindex of the site is running
+   */
+  @SuppressWarnings("unchecked")
+  public static String findReindexCollection(final CacheService cacheService,
+      final String siteId) {
+    String json = cacheService.read(getJobKey(siteId));
+    Map<String, Object> job = json != null ? GSON.fromJson(json, Map.class) : Map.of();
+    return !Boolean.TRUE.equals(job.get("complete")) ? (String) job.get("collectionName") : null;
+  }
+
+  /**
+   * Get the {@link CacheService} key of a site's reindex job.
+   * 
+   * @param siteId {@link String}
+   * @return {@link String}
+   */
+  private static String getJobKey(final String siteId) {
+    return createDatabaseKey(siteId, "typesense#reindex#job");
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getProgress(final String key) {
+    String json = this.cache.read(key);
+    return json != null ? GSON.fromJson(json, Map.class) : Map.of();
+  }
+
+  /**
+   * Get the {@link CacheService} key of a reindex segment.
+   * 
+   * @param siteId {@link String}
+   * @param collectionName {@link String}
+   * @param segment int
+   * @return {@link String}
+   */
+  private String getSegmentKey(final String siteId, final String collectionName,
+      final int segment) {
+    return createDatabaseKey(siteId,
+        "typesense#reindex#" + collectionName + "#segment#" + segment);
+  }
+
+  private boolean isTag(final Map<String, Object> document) {
+    return document.keySet().stream().anyMatch(k -> k.startsWith(PREFIX_TAGS));
+  }
+
+  /**
+   * Reindex a site.
+   * 
+   * @param siteId {@link String}
+   * @return {@link String} the new collection name
+   * @throws IOException IOException
+   */
+  public String reindex(final String siteId) throws IOException {
+
+    Map<String, Object> job = getProgress(getJobKey(siteId));
+
+    String collectionName;
+
+    if (job.containsKey("collectionName") && !Boolean.TRUE.equals(job.get("complete"))) {
+      collectionName = (String) job.get("collectionName");
+      this.logger.log("resuming reindex of site " + siteId + " into " + collectionName);
+    } else {
+      String site = siteId != null ? siteId : "default";
+      collectionName = site + "_" + System.currentTimeMillis();
+
+      HttpResponse<String> response = this.typeSenseService.addCollectionByName(collectionName);
+      if (!is2XX(response)) {
+        throw new IOException(response.body());
+      }
+
+      saveProgress(getJobKey(siteId),
+          Map.of("collectionName", collectionName, "complete", Boolean.FALSE));
+      this.logger.log("starting reindex of site " + siteId + " into " + collectionName);
+    }
+
+    String oldCollection = this.typeSenseService.getSiteCollectionName(siteId);
+    if (collectionName.equals(oldCollection)) {
+      oldCollection = null;
+    }
+
+    scanSegments(siteId, collectionName, oldCollection);
+
+    this.typeSenseService.updateSiteAlias(siteId, collectionName);
+
+    String site = siteId != null ? siteId : "default";
+    if (oldCollection != null && !oldCollection.equals(site)) {
+      this.typeSenseService.deleteCollectionByName(oldCollection);
+    }
+
+    saveProgress(getJobKey(siteId),
+        Map.of("collectionName", collectionName, "complete", Boolean.TRUE));
+
+    this.logger.log("completed reindex of site " + siteId + " into " + collectionName);
+    return collectionName;
+  }
+
+  private void saveProgress(final String key, final Map<String, Object> progress) {
+    this.cache.write(key, GSON.toJson(progress), CACHE_DAYS);
+  }
+
+  /**
+   * Scan a single segment, importing each page into the new collection.
+   * 
+   * @param siteId {@link String}
+   * @param segment int
+   * @param collectionName {@link String}
+   * @param oldCollection {@link String}
+   * @param scanned {@link AtomicLong}
+   * @param indexed {@link AtomicLong}
+   * @throws IOException IOException
+   */
+  private void scanSegment(final String siteId, final int segment, final String collectionName,
+      final String oldCollection, final AtomicLong scanned, final AtomicLong indexed)
+      throws IOException {
+
+    String key = getSegmentKey(siteId, collectionName, segment);
+    Map<String, Object> progress = getProgress(key);
+    boolean complete = Boolean.TRUE.equals(progress.get("complete"));
+
+    Map<String, AttributeValue> startKey = toStartKey(progress.get("lastEvaluatedKey"));
+    long count = progress.containsKey("count") ? ((Number) progress.get("count")).longValue() : 0;
+
+    long start = System.currentTimeMillis();
+
+    while (!complete) {
+
+      ScanRequest req = ScanRequest.builder().tableName(this.documentTableName)
+          .segment(Integer.valueOf(segment)).totalSegments(Integer.valueOf(this.segments))
+          .filterExpression("(#sk = :sk or begins_with(#sk, :tags)) and begins_with(#pk, :pk)")
+          .expressionAttributeNames(Map.of("#pk", PK, "#sk", SK))
+          .expressionAttributeValues(Map.of(":sk", AttributeValue.fromS("document"), ":tags",
+              AttributeValue.fromS(PREFIX_TAGS), ":pk",
+              AttributeValue.fromS(createDatabaseKey(siteId, "docs#"))))
+          .exclusiveStartKey(startKey).limit(Integer.valueOf(BATCH_SIZE)).build();
+
+      ScanResponse response = this.db.scan(req);
+      scanned.addAndGet(response.scannedCount().longValue());
+
+      List<Map<String, Object>> documents =
+          response.items().stream().map(this::toDocument).collect(Collectors.toList());
+
+      if (!documents.isEmpty()) {
+
+        copyContent(oldCollection, documents.stream().filter(d -> !isTag(d))
+            .collect(Collectors.toList()));
+
+        HttpResponse<String> importResponse =
+            this.typeSenseService.importDocumentsByName(collectionName, documents);
+        if (!is2XX(importResponse)) {
+          throw new IOException(importResponse.body());
+        }
+
+        count += documents.size();
+        indexed.addAndGet(documents.size());
+      }
+
+      startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+          ? response.lastEvaluatedKey()
+          : null;
+      complete = startKey == null;
+
+      Map<String, Object> attributes = new HashMap<>();
+      attributes.put("complete", Boolean.valueOf(complete));
+      attributes.put("count", Long.valueOf(count));
+      if (startKey != null) {
+        attributes.put("lastEvaluatedKey", startKey.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().s())));
+      }
+      saveProgress(key, attributes);
+
+      double seconds = Math.max(1, System.currentTimeMillis() - start) / MILLIS;
+      this.logger.log(String.format(
+          "reindex site %s segment %d: scanned %d, indexed %d (%.1f documents/sec)", siteId,
+          Integer.valueOf(segment), Long.valueOf(scanned.get()), Long.valueOf(indexed.get()),
+          Double.valueOf(indexed.get() / seconds)));
+    }
+  }
+
+  /**
+   * Run all Scan segments in parallel.
+   * 
+   * @param siteId {@link String}
+   * @param collectionName {@link String}
+   * @param oldCollection {@link String}
+   * @throws IOException IOException
+   */
+  private void scanSegments(final String siteId, final String collectionName,
+      final String oldCollection) throws IOException {
+
+    AtomicLong scanned = new AtomicLong();
+    AtomicLong indexed = new AtomicLong();
+
+    ExecutorService executor = Executors.newFixedThreadPool(this.segments);
+
+    try {
+
+      List<Future<Void>> futures = new ArrayList<>();
+
+      for (int i = 0; i < this.segments; i++) {
+        final int segment = i;
+        futures.add(executor.submit(() -> {
+          scanSegment(siteId, segment, collectionName, oldCollection, scanned, indexed);
+          return null;
+        }));
+      }
+
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Convert saved progress back to a Scan exclusive start key. The Documents table keys are
+   * strings, so the key is saved as a map of strings.
+   * 
+   * @param lastEvaluatedKey {@link Object}
+   * @return {@link Map}
+   */
+  @SuppressWarnings("unchecked")
+  private Map<String, AttributeValue> toStartKey(final Object lastEvaluatedKey) {
+    return lastEvaluatedKey != null ? ((Map<String, String>) lastEvaluatedKey).entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> AttributeValue.fromS(e.getValue())))
+        : null;
+  }
+
+  /**
+   * Convert a Document or Document Tag record to a fulltext document.
+   * 
+   * @param item {@link Map}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toDocument(final Map<String, AttributeValue> item) {
+
+    Map<String, Object> document;
+
+    if (item.get(SK).s().startsWith(PREFIX_TAGS)) {
+      document = new HashMap<>(new DocumentTagMapToDocument().apply(item));
+      document.put("documentId", item.get("documentId").s());
+    } else {
+      document = new DocumentMapToDocument().apply(item);
+    }
+
+    return document;
+  }
+}
@@ -23,14 +23,25 @@
  */
 package com.formkiq.module.lambda.typesense;
 
+import static com.formkiq.module.http.HttpResponseStatus.is2XX;
+import static com.formkiq.testutils.aws.DynamoDbExtension.CACHE_TABLE;
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENT_SYNCS_TABLE;
 import static com.formkiq.testutils.aws.TypesenseExtension.API_KEY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -42,16 +53,27 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentSync;
 import com.formkiq.aws.dynamodb.model.DocumentSyncServiceType;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
+import com.formkiq.aws.dynamodb.model.DocumentTagType;
+import com.formkiq.aws.services.lambda.services.DynamoDbCacheService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.module.typesense.TypeSenseSearchRequest;
+import com.formkiq.module.typesense.TypeSenseSearchResponse;
 import com.formkiq.module.typesense.TypeSenseService;
 import com.formkiq.module.typesense.TypeSenseServiceImpl;
+import com.formkiq.stacks.dynamodb.DocumentItemDynamoDb;
+import com.formkiq.stacks.dynamodb.DocumentService;
+import com.formkiq.stacks.dynamodb.DocumentServiceImpl;
 import com.formkiq.stacks.dynamodb.DocumentSyncService;
 import com.formkiq.stacks.dynamodb.DocumentSyncServiceDynamoDb;
+import com.formkiq.stacks.dynamodb.DocumentVersionServiceNoVersioning;
 import com.formkiq.testutils.aws.DynamoDbExtension;
 import com.formkiq.testutils.aws.DynamoDbTestServices;
 import com.formkiq.testutils.aws.LambdaContextRecorder;
@@ -63,6 +85,9 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.utils.IoUtils;
 
 /**
@@ -76,6 +101,10 @@ class TypesenseProcessorTest {
 
   /** {@link Gson}. */
   private static final Gson GSON = new GsonBuilder().create();
+  /** {@link DynamoDbClient}. */
+  private static DynamoDbClient dbClient;
+  /** {@link DocumentService}. */
+  private static DocumentService documentService;
   /** Max results. */
   private static final int MAX = 10;
   /** {@link TypesenseProcessor}. */
@@ -91,8 +120,9 @@ class TypesenseProcessorTest {
     DynamoDbConnectionBuilder db = DynamoDbTestServices.getDynamoDbConnection();
 
     Map<String, String> map = Map.of("AWS_REGION", "us-east-1", "DOCUMENT_SYNC_TABLE",
-        DOCUMENT_SYNCS_TABLE, "TYPESENSE_HOST",
-        "http://localhost:" + TypesenseExtension.getMappedPort(), "TYPESENSE_API_KEY", API_KEY);
+        DOCUMENT_SYNCS_TABLE, "DOCUMENTS_TABLE", DOCUMENTS_TABLE, "CACHE_TABLE", CACHE_TABLE,
+        "TYPESENSE_HOST", "http://localhost:" + TypesenseExtension.getMappedPort(),
+        "TYPESENSE_API_KEY", API_KEY);
 
     AwsCredentials creds = AwsBasicCredentials.create("aaa", "bbb");
     StaticCredentialsProvider credentialsProvider = StaticCredentialsProvider.create(creds);
@@ -107,11 +137,33 @@ class TypesenseProcessorTest {
         API_KEY, Region.US_EAST_1, cred);
 
     syncService = new DocumentSyncServiceDynamoDb(db, DOCUMENT_SYNCS_TABLE);
+    dbClient = db.build();
+
+    documentService =
+        new DocumentServiceImpl(db, DOCUMENTS_TABLE, new DocumentVersionServiceNoVersioning());
   }
 
   /** {@link Context}. */
   private Context context = new LambdaContextRecorder();
 
+  @SuppressWarnings("unchecked")
+  private List<String> getTagField(final String siteId, final String documentId,
+      final String tagKey) throws IOException {
+    HttpResponse<String> response = service.getDocument(siteId, documentId);
+    assertTrue(is2XX(response));
+    return (List<String>) GSON.fromJson(response.body(), Map.class).get("tags#" + tagKey);
+  }
+
+  private List<Map<String, AttributeValue>> getTagItems(final String siteId,
+      final String documentId) {
+    String pk = SiteIdKeyGenerator.createDatabaseKey(siteId, "docs#" + documentId);
+    return dbClient.query(QueryRequest.builder().tableName(DOCUMENTS_TABLE)
+        .keyConditionExpression("PK = :pk and begins_with(SK, :sk)")
+        .expressionAttributeValues(
+            Map.of(":pk", AttributeValue.fromS(pk), ":sk", AttributeValue.fromS("tags#")))
+        .build()).items();
+  }
+
   /**
    * Load Request File.
    * 
@@ -482,4 +534,319 @@ class TypesenseProcessorTest {
     Map<String, Object> data = GSON.fromJson(response.body(), Map.class);
     assertEquals("/somewhere/else/test.pdf", data.get("deepLinkPath"));
   }
+
+  /**
+   * Fulltext search with tag filter and stored fields.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSearch01() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId0 = UUID.randomUUID().toString();
+    String documentId1 = UUID.randomUUID().toString();
+
+    service.addOrUpdateDocument(siteId, documentId0,
+        Map.of("path", "invoice/a.pdf", "tags#status", List.of("active")));
+    service.addOrUpdateDocument(siteId, documentId1,
+        Map.of("path", "invoice/b.pdf", "tags#status", List.of("inactive")));
+
+    TypeSenseSearchRequest request = new TypeSenseSearchRequest().text("invoice").maxResults(MAX)
+        .filterBy("tags#status:=[`active`]").facetBy("tags#status");
+
+    // when
+    TypeSenseSearchResponse response = service.search(siteId, request);
+
+    // then
+    assertEquals(1, response.found());
+    assertEquals(1, response.documents().size());
+    assertEquals(documentId0, response.documents().get(0).get("documentId"));
+    assertEquals("invoice/a.pdf", response.documents().get(0).get("path"));
+    assertEquals(1, response.facets().size());
+  }
+
+  /**
+   * Fulltext search without the content field.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSearch02() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId = UUID.randomUUID().toString();
+
+    service.addOrUpdateDocument(siteId, documentId,
+        Map.of("path", "invoice/a.pdf", "content", "quarterly invoice"));
+
+    TypeSenseSearchRequest request = new TypeSenseSearchRequest().text("quarterly")
+        .maxResults(MAX).excludeFields("content");
+
+    // when
+    TypeSenseSearchResponse response = service.search(siteId, request);
+
+    // then
+    assertEquals(1, response.documents().size());
+    assertEquals(documentId, response.documents().get(0).get("documentId"));
+    assertEquals("invoice/a.pdf", response.documents().get(0).get("path"));
+    assertFalse(response.documents().get(0).containsKey("content"));
+  }
+
+  /**
+   * Reindex site into new collection.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testReindex01() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId0 = UUID.randomUUID().toString();
+    String documentId1 = UUID.randomUUID().toString();
+
+    DocumentItem item0 = new DocumentItemDynamoDb(documentId0, new Date(), "joe");
+    item0.setPath("reindex/first.pdf");
+    documentService.saveDocument(siteId, item0, null);
+
+    DocumentItem item1 = new DocumentItemDynamoDb(documentId1, new Date(), "joe");
+    item1.setPath("reindex/second.pdf");
+    documentService.saveDocument(siteId, item1, null);
+
+    service.addOrUpdateDocument(siteId, documentId0,
+        Map.of("path", "reindex/first.pdf", "content", "quarterly invoice"));
+
+    // when
+    processor.handleRequest(Map.of("reindex", Map.of("siteId", siteId)), this.context);
+
+    // then
+    String collectionName = service.getSiteCollectionName(siteId);
+    assertNotNull(collectionName);
+    assertTrue(collectionName.startsWith(siteId + "_"));
+
+    List<String> documents = service.searchFulltext(siteId, "second.pdf", MAX);
+    assertEquals(1, documents.size());
+    assertEquals(documentId1, documents.get(0));
+
+    documents = service.searchFulltext(siteId, "quarterly", MAX);
+    assertEquals(1, documents.size());
+    assertEquals(documentId0, documents.get(0));
+
+    String job = new DynamoDbCacheService(DynamoDbTestServices.getDynamoDbConnection(),
+        CACHE_TABLE).read(SiteIdKeyGenerator.createDatabaseKey(siteId, "typesense#reindex#job"));
+    assertEquals(Map.of("collectionName", collectionName, "complete", Boolean.TRUE),
+        GSON.fromJson(job, Map.class));
+
+    String pk = SiteIdKeyGenerator.createDatabaseKey(siteId, "typesense#reindex");
+    assertEquals(0, dbClient.scan(b -> b.tableName(DOCUMENTS_TABLE)
+        .filterExpression("begins_with(PK, :pk)")
+        .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS(pk)))).count().intValue());
+  }
+
+  /**
+   * Stream records processed while a reindex runs are also written to the new collection.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testReindex02() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId = "666b7588-fc01-4ed3-8b3d-3e8d13264997";
+    String path = "9e803220-127e-45d9-98c6-7b8430812cb5";
+    String collectionName = siteId + "_" + System.currentTimeMillis();
+    assertTrue(is2XX(service.addCollectionByName(collectionName)));
+
+    new DynamoDbCacheService(DynamoDbTestServices.getDynamoDbConnection(), CACHE_TABLE).write(
+        SiteIdKeyGenerator.createDatabaseKey(siteId, "typesense#reindex#job"),
+        GSON.toJson(Map.of("collectionName", collectionName, "complete", Boolean.FALSE)), 1);
+
+    Map<String, Object> map =
+        loadRequest("/insert_siteId.json", "5da6c0ef-20ff-45d1-8c08-d5fb0cfcf9b4", siteId);
+
+    // when
+    processor.handleRequest(map, this.context);
+
+    // then
+    List<String> documents = service.searchFulltext(siteId, path, MAX);
+    assertEquals(1, documents.size());
+    assertEquals(documentId, documents.get(0));
+
+    List<Map<String, Object>> results =
+        service.getDocumentsByName(collectionName, List.of(documentId), "id,path");
+    assertEquals(1, results.size());
+    assertEquals(path, results.get(0).get("path"));
+  }
+
+  /**
+   * Import documents, failed import results are reported.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testImportDocuments01() throws Exception {
+    // given
+    String collectionName = "import_" + UUID.randomUUID();
+    assertTrue(is2XX(service.addCollectionByName(collectionName)));
+
+    String documentId0 = UUID.randomUUID().toString();
+    String documentId1 = UUID.randomUUID().toString();
+    List<Map<String, Object>> documents =
+        List.of(Map.of("documentId", documentId0, "path", "import/a.pdf"),
+            Map.of("documentId", documentId1, "path", Map.of("invalid", "path")));
+
+    // when
+    IOException e = assertThrows(IOException.class,
+        () -> service.importDocumentsByName(collectionName, documents));
+
+    // then
+    assertTrue(e.getMessage().startsWith("1 documents failed to import"));
+
+    List<Map<String, Object>> results =
+        service.getDocumentsByName(collectionName, List.of(documentId0, documentId1), "id,path");
+    assertEquals(1, results.size());
+    assertEquals("import/a.pdf", results.get(0).get("path"));
+  }
+
+  /**
+   * Update Site Alias replaces a collection named after the site.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testUpdateSiteAlias01() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId0 = UUID.randomUUID().toString();
+    String documentId1 = UUID.randomUUID().toString();
+
+    service.addOrUpdateDocument(siteId, documentId0, Map.of("path", "alias/a.pdf"));
+    assertEquals(siteId, service.getSiteCollectionName(siteId));
+
+    String collectionName = siteId + "_" + System.currentTimeMillis();
+    assertTrue(is2XX(service.addCollectionByName(collectionName)));
+
+    // when
+    HttpResponse<String> response = service.updateSiteAlias(siteId, collectionName);
+
+    // then
+    assertTrue(is2XX(response));
+    assertEquals(collectionName, service.getSiteCollectionName(siteId));
+
+    service.addOrUpdateDocument(siteId, documentId1, Map.of("path", "alias/b.pdf"));
+    assertEquals(1, service.getDocumentsByName(collectionName, List.of(documentId1), "id,path")
+        .size());
+    assertEquals(0, service.getDocumentsByName(collectionName, List.of(documentId0), "id,path")
+        .size());
+  }
+
+  /**
+   * Create a DynamoDb Stream request.
+   * 
+   * @param eventName {@link String}
+   * @param oldImage {@link Map}
+   * @param newImage {@link Map}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toStreamRequest(final String eventName,
+      final Map<String, AttributeValue> oldImage, final Map<String, AttributeValue> newImage) {
+
+    Map<String, Object> dynamodb = new HashMap<>();
+    if (oldImage != null) {
+      dynamodb.put("OldImage", GSON.fromJson(GSON.toJson(oldImage), Map.class));
+    }
+
+    if (newImage != null) {
+      dynamodb.put("NewImage", GSON.fromJson(GSON.toJson(newImage), Map.class));
+    }
+
+    return Map.of("Records", List.of(Map.of("eventName", eventName, "dynamodb", dynamodb)));
+  }
+
+  /**
+   * Multi-value tag, remove and modify records of a single value.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest11() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId = UUID.randomUUID().toString();
+
+    DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+    DocumentTag tag = new DocumentTag(documentId, "category", List.of("a", "b", "c"), new Date(),
+        "joe", DocumentTagType.USERDEFINED);
+    documentService.saveDocument(siteId, item, List.of(tag));
+
+    List<Map<String, AttributeValue>> before = getTagItems(siteId, documentId);
+    assertEquals(3, before.size());
+
+    for (Map<String, AttributeValue> i : before) {
+      processor.handleRequest(toStreamRequest("INSERT", null, i), this.context);
+    }
+    assertEquals(List.of("a", "b", "c"), getTagField(siteId, documentId, "category"));
+
+    Map<String, AttributeValue> removed =
+        before.stream().filter(i -> "b".equals(i.get("tagValue").s())).findFirst().get();
+
+    // when
+    documentService.removeTag(siteId, documentId, "category", "b");
+    processor.handleRequest(toStreamRequest("REMOVE", removed, null), this.context);
+
+    // then
+    assertEquals(List.of("a", "c"), getTagField(siteId, documentId, "category"));
+
+    // when
+    for (Map<String, AttributeValue> i : getTagItems(siteId, documentId)) {
+      Map<String, AttributeValue> old = before.stream()
+          .filter(b -> b.get("SK").s().equals(i.get("SK").s())).findFirst().get();
+      processor.handleRequest(toStreamRequest("MODIFY", old, i), this.context);
+    }
+
+    // then
+    assertEquals(List.of("a", "c"), getTagField(siteId, documentId, "category"));
+
+    // when
+    documentService.removeTags(siteId, documentId, List.of("category"));
+    processor.handleRequest(toStreamRequest("REMOVE", before.get(0), null), this.context);
+
+    // then
+    assertEquals(List.of(), getTagField(siteId, documentId, "category"));
+  }
+
+  /**
+   * Multi-value tag written to a collection with the older "tags#.*" string field.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest12() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId = UUID.randomUUID().toString();
+
+    String schema = GSON.toJson(Map.of("name", siteId, "enable_nested_fields", Boolean.TRUE,
+        "fields", List.of(Map.of("name", "path", "type", "string", "optional", Boolean.TRUE),
+            Map.of("name", "tags#.*", "type", "string", "optional", Boolean.TRUE))));
+
+    HttpResponse<String> created = HttpClient.newHttpClient().send(HttpRequest
+        .newBuilder(URI.create(
+            "http://localhost:" + TypesenseExtension.getMappedPort() + "/collections"))
+        .header("X-TYPESENSE-API-KEY", API_KEY).POST(HttpRequest.BodyPublishers.ofString(schema))
+        .build(), HttpResponse.BodyHandlers.ofString());
+    assertTrue(is2XX(created));
+
+    DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+    DocumentTag tag = new DocumentTag(documentId, "category", List.of("a", "b"), new Date(),
+        "joe", DocumentTagType.USERDEFINED);
+    documentService.saveDocument(siteId, item, List.of(tag));
+
+    // when
+    processor.handleRequest(
+        toStreamRequest("INSERT", null, getTagItems(siteId, documentId).get(0)), this.context);
+
+    // then
+    assertEquals(List.of("a", "b"), getTagField(siteId, documentId, "category"));
+  }
 }
@@ -0,0 +1,118 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Measures DynamoDB calls per {@link Operation} by running each {@link Operation} on its own.
+ *
+ * <p>
+ * After each batch the server is given time to settle so asynchronous work triggered by the
+ * request (document actions, staged bulk updates) is counted. Background calls measured while
+ * idle are subtracted, and DynamoDB Streams reads are excluded.
+ * </p>
+ */
+public class DynamoDbCallCalibration {
+
+  /** {@link DynamoDbCallCounter}. */
+  private final DynamoDbCallCounter counter;
+  /** {@link Workload}. */
+  private final Workload workload;
+  /** Requests per {@link Operation}. */
+  private final int iterations;
+  /** Time for asynchronous work to finish. */
+  private final Duration settle;
+
+  /**
+   * constructor.
+   * 
+   * @param callCounter {@link DynamoDbCallCounter}
+   * @param loadWorkload {@link Workload}
+   * @param requests int
+   * @param settleTime {@link Duration}
+   */
+  public DynamoDbCallCalibration(final DynamoDbCallCounter callCounter,
+      final Workload loadWorkload, final int requests, final Duration settleTime) {
+    this.counter = callCounter;
+    this.workload = loadWorkload;
+    this.iterations = requests;
+    this.settle = settleTime;
+  }
+
+  /**
+   * Measure DynamoDB calls per request of each {@link Operation}.
+   * 
+   * @param operations {@link Collection} {@link Operation}
+   * @param random {@link Random}
+   * @return {@link Map} of DynamoDB action to calls per request
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  public Map<Operation, Map<String, Double>> calibrate(final Collection<Operation> operations,
+      final Random random) throws IOException, InterruptedException {
+
+    Map<String, Long> before = this.counter.snapshot();
+    long start = System.nanoTime();
+    Thread.sleep(this.settle.toMillis());
+    Map<String, Long> idle = DynamoDbCallCounter.difference(before, this.counter.snapshot());
+    long idleNanos = System.nanoTime() - start;
+
+    Map<Operation, Map<String, Double>> calls = new EnumMap<>(Operation.class);
+
+    for (Operation op : operations) {
+
+      before = this.counter.snapshot();
+      start = System.nanoTime();
+
+      for (int i = 0; i < this.iterations; i++) {
+        this.workload.execute(op, random);
+      }
+
+      Thread.sleep(this.settle.toMillis());
+
+      Map<String, Long> diff = DynamoDbCallCounter.difference(before, this.counter.snapshot());
+      double idleFactor = (double) (System.nanoTime() - start) / idleNanos;
+
+      Map<String, Double> perRequest = new TreeMap<>();
+      diff.forEach((action, count) -> {
+        double background = idle.getOrDefault(action, Long.valueOf(0)).longValue() * idleFactor;
+        double value = (count.longValue() - background) / this.iterations;
+        if (!action.startsWith(DynamoDbCallCounter.STREAMS_PREFIX) && value > 0) {
+          perRequest.put(action, Double.valueOf(value));
+        }
+      });
+
+      calls.put(op, perRequest);
+    }
+
+    return calls;
+  }
+}
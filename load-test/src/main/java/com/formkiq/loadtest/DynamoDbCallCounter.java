@@ -0,0 +1,208 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Http proxy in front of DynamoDB Local that counts DynamoDB calls by 'X-Amz-Target'.
+ */
+public class DynamoDbCallCounter implements Closeable {
+
+  /** DynamoDB Streams target prefix, counted apart as it is background work. */
+  public static final String STREAMS_PREFIX = "DynamoDBStreams";
+  /** Request Headers the {@link HttpClient} does not allow to be set. */
+  private static final Set<String> RESTRICTED_HEADERS =
+      Set.of("connection", "content-length", "expect", "host", "upgrade");
+  /** Response Headers set by {@link HttpServer}. */
+  private static final Set<String> RESPONSE_HEADERS =
+      Set.of("content-length", "transfer-encoding", "connection", "date");
+
+  /**
+   * Get DynamoDB calls made between two snapshots.
+   * 
+   * @param before {@link Map}
+   * @param after {@link Map}
+   * @return {@link Map}
+   */
+  public static Map<String, Long> difference(final Map<String, Long> before,
+      final Map<String, Long> after) {
+    Map<String, Long> diff = new TreeMap<>();
+    after.forEach((k, v) -> {
+      long d = v.longValue() - before.getOrDefault(k, Long.valueOf(0)).longValue();
+      if (d > 0) {
+        diff.put(k, Long.valueOf(d));
+      }
+    });
+    return diff;
+  }
+
+  /** {@link HttpClient}. */
+  private final HttpClient client;
+  /** DynamoDB call counts by action. */
+  private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+  /** Proxy {@link ExecutorService}. */
+  private final ExecutorService executor;
+  /** Proxy {@link HttpServer}. */
+  private final HttpServer server;
+  /** DynamoDB Url. */
+  private final URI target;
+
+  /**
+   * constructor.
+   * 
+   * @param port int
+   * @param dynamoDbUrl {@link URI}
+   * @throws IOException IOException
+   */
+  public DynamoDbCallCounter(final int port, final URI dynamoDbUrl) throws IOException {
+    this.target = dynamoDbUrl;
+    this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    this.executor = Executors.newCachedThreadPool(r -> {
+      Thread t = new Thread(r, "dynamodb-proxy");
+      t.setDaemon(true);
+      return t;
+    });
+    this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/", this::proxy);
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * Count DynamoDB action.
+   * 
+   * @param amzTarget {@link String}
+   */
+  private void count(final String amzTarget) {
+    if (amzTarget != null) {
+      String action = amzTarget.startsWith(STREAMS_PREFIX)
+          ? STREAMS_PREFIX + "." + amzTarget.substring(amzTarget.indexOf('.') + 1)
+          : amzTarget.substring(amzTarget.indexOf('.') + 1);
+      this.counts.computeIfAbsent(action, a -> new LongAdder()).increment();
+    }
+  }
+
+  /**
+   * Proxy Url.
+   * 
+   * @return {@link URI}
+   */
+  public URI getUrl() {
+    return URI.create("http://localhost:" + this.server.getAddress().getPort());
+  }
+
+  /**
+   * Forward request to DynamoDB.
+   * 
+   * @param exchange {@link HttpExchange}
+   * @throws IOException IOException
+   */
+  private void proxy(final HttpExchange exchange) throws IOException {
+
+    try {
+
+      byte[] body;
+      try (InputStream is = exchange.getRequestBody()) {
+        body = is.readAllBytes();
+      }
+
+      count(exchange.getRequestHeaders().getFirst("X-Amz-Target"));
+
+      HttpRequest.Builder request =
+          HttpRequest.newBuilder(this.target.resolve(exchange.getRequestURI().toString()))
+              .method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.ofByteArray(body));
+
+      for (Map.Entry<String, List<String>> e : exchange.getRequestHeaders().entrySet()) {
+        if (!RESTRICTED_HEADERS.contains(e.getKey().toLowerCase())) {
+          e.getValue().forEach(v -> request.header(e.getKey(), v));
+        }
+      }
+
+      HttpResponse<byte[]> response =
+          this.client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+      response.headers().map().forEach((k, v) -> {
+        if (!RESPONSE_HEADERS.contains(k.toLowerCase())) {
+          exchange.getResponseHeaders().put(k, v);
+        }
+      });
+
+      byte[] responseBody = response.body();
+      exchange.sendResponseHeaders(response.statusCode(),
+          responseBody.length > 0 ? responseBody.length : -1);
+
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(responseBody);
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Snapshot of DynamoDB call counts by action.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Long> snapshot() {
+    Map<String, Long> map = new TreeMap<>();
+    this.counts.forEach((k, v) -> map.put(k, Long.valueOf(v.sum())));
+    return map;
+  }
+
+  /**
+   * Start Proxy.
+   */
+  public void start() {
+    this.server.start();
+  }
+}
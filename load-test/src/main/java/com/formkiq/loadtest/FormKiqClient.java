@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import com.google.gson.Gson;
+
+/**
+ * Minimal FormKiQ API client, sends raw JSON so requests match what the API receives.
+ */
+public class FormKiqClient {
+
+  /** {@link Gson}. */
+  private final Gson gson = new Gson();
+  /** {@link HttpClient}. */
+  private final HttpClient http;
+  /** FormKiQ Url. */
+  private final String baseUrl;
+  /** Api Key. */
+  private final String apiKey;
+  /** Request Timeout. */
+  private final Duration timeout;
+
+  /**
+   * constructor.
+   * 
+   * @param url {@link String}
+   * @param key {@link String}
+   * @param requestTimeout {@link Duration}
+   */
+  public FormKiqClient(final String url, final String key, final Duration requestTimeout) {
+    this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    this.apiKey = key;
+    this.timeout = requestTimeout;
+    this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(requestTimeout).build();
+  }
+
+  /**
+   * Send Request.
+   * 
+   * @param method {@link String}
+   * @param path {@link String}
+   * @param body {@link Object}, serialized to JSON
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  public HttpResponse<String> send(final String method, final String path, final Object body)
+      throws IOException, InterruptedException {
+
+    HttpRequest.BodyPublisher publisher = body != null
+        ? HttpRequest.BodyPublishers.ofString(this.gson.toJson(body))
+        : HttpRequest.BodyPublishers.noBody();
+
+    HttpRequest request = HttpRequest.newBuilder(URI.create(this.baseUrl + path))
+        .timeout(this.timeout).header("Authorization", this.apiKey)
+        .header("Content-Type", "application/json").method(method, publisher).build();
+
+    return this.http.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Convert {@link HttpResponse} body to {@link Map}.
+   * 
+   * @param response {@link HttpResponse}
+   * @return {@link Map}
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> toMap(final HttpResponse<String> response) {
+    Map<String, Object> map = this.gson.fromJson(response.body(), Map.class);
+    return map != null ? map : Collections.emptyMap();
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Prints throughput, latency percentiles and DynamoDB calls per {@link Operation}.
+ */
+public class LoadReport {
+
+  /** Microseconds in a millisecond. */
+  private static final double MICROS_PER_MILLI = 1000d;
+  /** Nanoseconds in a second. */
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+  /** 50th percentile. */
+  private static final double P50 = 50d;
+  /** 90th percentile. */
+  private static final double P90 = 90d;
+  /** 99th percentile. */
+  private static final double P99 = 99d;
+  /** 99.9th percentile. */
+  private static final double P999 = 99.9d;
+  /** Row format. */
+  private static final String ROW = "%-14s %9s %7s %9s %9s %9s %9s %9s %9s %10s%n";
+  /** Latency format. */
+  private static final String MS = "%.2f";
+
+  /** {@link LoadResult}. */
+  private final LoadResult result;
+  /** DynamoDB calls per request, by {@link Operation}. */
+  private final Map<Operation, Map<String, Double>> calls;
+
+  /**
+   * constructor.
+   * 
+   * @param loadResult {@link LoadResult}
+   * @param dynamoDbCalls {@link Map}, may be empty
+   */
+  public LoadReport(final LoadResult loadResult,
+      final Map<Operation, Map<String, Double>> dynamoDbCalls) {
+    this.result = loadResult;
+    this.calls = dynamoDbCalls;
+  }
+
+  /**
+   * Format latency in milliseconds.
+   * 
+   * @param h {@link Histogram}
+   * @param percentile double
+   * @return {@link String}
+   */
+  private String latency(final Histogram h, final double percentile) {
+    return String.format(MS, h.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+  }
+
+  /**
+   * Print Report.
+   * 
+   * @param out {@link PrintStream}
+   * @param operations {@link Collection} {@link Operation}
+   */
+  public void print(final PrintStream out, final Collection<Operation> operations) {
+
+    double seconds = this.result.elapsedNanos() / NANOS_PER_SECOND;
+    long total = 0;
+
+    out.printf(ROW, "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms",
+        "p99.9 ms", "max ms", "ddb/op");
+
+    for (Operation op : operations) {
+
+      Histogram h = this.result.histogram(op);
+      long errors = this.result.errors(op);
+      long count = h.getTotalCount() + errors;
+      total += count;
+
+      Map<String, Double> ddb = this.calls.get(op);
+      String ddbCalls = ddb != null
+          ? String.format("%.1f", ddb.values().stream().mapToDouble(Double::doubleValue).sum())
+          : "-";
+
+      out.printf(ROW, op.key(), String.valueOf(count), String.valueOf(errors),
+          String.format("%.1f", count / seconds), latency(h, P50), latency(h, P90),
+          latency(h, P99), latency(h, P999), String.format(MS, h.getMaxValue() / MICROS_PER_MILLI),
+          ddbCalls);
+    }
+
+    out.printf("%ntotal %d requests in %.1fs, %.1f ops/s%n", Long.valueOf(total),
+        Double.valueOf(seconds), Double.valueOf(total / seconds));
+
+    if (!this.calls.isEmpty()) {
+      out.printf("%nDynamoDB calls per request%n");
+      this.calls.forEach((op, actions) -> out.printf("%-14s %s%n", op.key(),
+          actions.entrySet().stream()
+              .map(e -> e.getKey() + "=" + String.format("%.2f", e.getValue()))
+              .collect(Collectors.joining(" "))));
+    }
+  }
+
+  /**
+   * Write each {@link Operation} percentile distribution as a '.hgrm' file, in milliseconds.
+   * 
+   * @param dir {@link Path}
+   * @param operations {@link Collection} {@link Operation}
+   * @throws IOException IOException
+   */
+  public void writeHistograms(final Path dir, final Collection<Operation> operations)
+      throws IOException {
+
+    Files.createDirectories(dir);
+
+    for (Operation op : operations) {
+      try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(op.key() + ".hgrm")),
+          false, StandardCharsets.UTF_8)) {
+        this.result.histogram(op).outputPercentileDistribution(out,
+            Double.valueOf(MICROS_PER_MILLI));
+      }
+    }
+  }
+}
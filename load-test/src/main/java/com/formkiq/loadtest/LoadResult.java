@@ -0,0 +1,107 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency {@link Histogram} and error counts per {@link Operation}.
+ */
+public class LoadResult {
+
+  /** Highest trackable latency, in microseconds. */
+  static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+  /** {@link Histogram} significant value digits. */
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  /**
+   * Create latency {@link Histogram}, in microseconds.
+   * 
+   * @return {@link Histogram}
+   */
+  static Histogram createHistogram() {
+    return new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+  }
+
+  /** Latency {@link Histogram} of successful requests. */
+  private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+  /** Failed request counts. */
+  private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+  /** Measured time, in nanoseconds. */
+  private long elapsedNanos;
+
+  /**
+   * Merge a worker's results.
+   * 
+   * @param op {@link Operation}
+   * @param histogram {@link Histogram}
+   * @param errorCount long
+   */
+  public synchronized void add(final Operation op, final Histogram histogram,
+      final long errorCount) {
+    this.histograms.computeIfAbsent(op, o -> createHistogram()).add(histogram);
+    this.errors.merge(op, Long.valueOf(errorCount), Long::sum);
+  }
+
+  /**
+   * Get Elapsed measured time.
+   * 
+   * @return long
+   */
+  public long elapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Set Elapsed measured time.
+   * 
+   * @param nanos long
+   */
+  public void elapsedNanos(final long nanos) {
+    this.elapsedNanos = nanos;
+  }
+
+  /**
+   * Get Failed request count.
+   * 
+   * @param op {@link Operation}
+   * @return long
+   */
+  public synchronized long errors(final Operation op) {
+    return this.errors.getOrDefault(op, Long.valueOf(0)).longValue();
+  }
+
+  /**
+   * Get Latency {@link Histogram}, in microseconds.
+   * 
+   * @param op {@link Operation}
+   * @return {@link Histogram}
+   */
+  public synchronized Histogram histogram(final Operation op) {
+    return this.histograms.computeIfAbsent(op, o -> createHistogram());
+  }
+}
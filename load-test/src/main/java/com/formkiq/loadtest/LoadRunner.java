@@ -0,0 +1,211 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Runs a {@link WorkloadMix} from a number of worker threads.
+ *
+ * <p>
+ * Without a target rate each worker sends requests back to back (closed loop). With a target
+ * rate requests are scheduled at fixed intervals and latency is measured from the intended start
+ * time, so a stalled server is not hidden by coordinated omission.
+ * </p>
+ */
+public class LoadRunner {
+
+  /** Nanoseconds in a second. */
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+  /** First Http error status code. */
+  private static final int SC_ERROR = 400;
+  /** {@link Logger}. */
+  private static Logger logger = Logger.getLogger(LoadRunner.class.getName());
+
+  /** {@link Workload}. */
+  private final Workload workload;
+  /** {@link WorkloadMix}. */
+  private final WorkloadMix mix;
+  /** Number of worker threads. */
+  private final int threads;
+  /** Warmup, not measured. */
+  private final Duration warmup;
+  /** Measured duration. */
+  private final Duration duration;
+  /** Interval between requests of a worker, 0 for closed loop. */
+  private final long intervalNanos;
+
+  /**
+   * constructor.
+   * 
+   * @param loadWorkload {@link Workload}
+   * @param workloadMix {@link WorkloadMix}
+   * @param workerThreads int
+   * @param warmupDuration {@link Duration}
+   * @param measureDuration {@link Duration}
+   * @param requestsPerSecond double, 0 for closed loop
+   */
+  public LoadRunner(final Workload loadWorkload, final WorkloadMix workloadMix,
+      final int workerThreads, final Duration warmupDuration, final Duration measureDuration,
+      final double requestsPerSecond) {
+    this.workload = loadWorkload;
+    this.mix = workloadMix;
+    this.threads = workerThreads;
+    this.warmup = warmupDuration;
+    this.duration = measureDuration;
+    this.intervalNanos =
+        requestsPerSecond > 0 ? (long) (workerThreads * NANOS_PER_SECOND / requestsPerSecond) : 0;
+  }
+
+  /**
+   * Execute {@link Operation}.
+   * 
+   * @param op {@link Operation}
+   * @param random {@link Random}
+   * @return boolean whether request was successful
+   * @throws InterruptedException InterruptedException
+   */
+  private boolean execute(final Operation op, final Random random) throws InterruptedException {
+
+    boolean success = false;
+
+    try {
+      success = this.workload.execute(op, random) < SC_ERROR;
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.FINE, op.key() + " failed", e);
+    }
+
+    return success;
+  }
+
+  /**
+   * Record the result of a request.
+   * 
+   * @param histograms {@link Map}
+   * @param errors {@link Map}
+   * @param op {@link Operation}
+   * @param success boolean
+   * @param latency long, in microseconds
+   */
+  private void record(final Map<Operation, Histogram> histograms,
+      final Map<Operation, Long> errors, final Operation op, final boolean success,
+      final long latency) {
+
+    if (success) {
+      histograms.computeIfAbsent(op, o -> LoadResult.createHistogram())
+          .recordValue(Math.min(latency, LoadResult.MAX_LATENCY_MICROS));
+    } else {
+      errors.merge(op, Long.valueOf(1), Long::sum);
+    }
+  }
+
+  /**
+   * Run Load Test.
+   * 
+   * @return {@link LoadResult}
+   * @throws InterruptedException InterruptedException
+   */
+  public LoadResult run() throws InterruptedException {
+
+    LoadResult result = new LoadResult();
+
+    long measureFrom = System.nanoTime() + this.warmup.toNanos();
+    long end = measureFrom + this.duration.toNanos();
+
+    List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < this.threads; i++) {
+      Thread t = new Thread(() -> work(measureFrom, end, result), "load-worker-" + i);
+      t.start();
+      workers.add(t);
+    }
+
+    for (Thread t : workers) {
+      t.join();
+    }
+
+    result.elapsedNanos(end - measureFrom);
+    return result;
+  }
+
+  /**
+   * Worker loop, records to thread local {@link Histogram} and merges them when done.
+   * 
+   * @param measureFrom long
+   * @param end long
+   * @param result {@link LoadResult}
+   */
+  private void work(final long measureFrom, final long end, final LoadResult result) {
+
+    Random random = ThreadLocalRandom.current();
+    Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+
+    long intended = System.nanoTime();
+
+    try {
+
+      while (intended < end && System.nanoTime() < end) {
+
+        long start = System.nanoTime();
+
+        if (this.intervalNanos > 0) {
+          intended += this.intervalNanos;
+          if (intended >= end) {
+            break;
+          }
+          LockSupport.parkNanos(intended - start);
+          start = intended;
+        }
+
+        Operation op = this.mix.next(random);
+        boolean success = execute(op, random);
+        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        if (start >= measureFrom) {
+          record(histograms, errors, op, success, latency);
+        }
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    for (Operation op : Operation.values()) {
+      Histogram h = histograms.getOrDefault(op, LoadResult.createHistogram());
+      result.add(op, h, errors.getOrDefault(op, Long.valueOf(0)).longValue());
+    }
+  }
+}
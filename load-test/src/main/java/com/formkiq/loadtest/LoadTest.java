@@ -0,0 +1,274 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Logger;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import com.formkiq.server.HttpServer;
+
+/**
+ * FormKiQ load test against a netty-server backed by DynamoDB Local and MinIO.
+ *
+ * <p>
+ * DynamoDB requests are sent through a {@link DynamoDbCallCounter} proxy. By default the
+ * netty-server is started in process, pointed at the proxy. When '--server-url' is used, that
+ * server's DYNAMODB_URL must point at the proxy for DynamoDB calls to be counted.
+ * </p>
+ */
+public class LoadTest {
+
+  /** {@link Logger}. */
+  private static Logger logger = Logger.getLogger(LoadTest.class.getName());
+  /** Server start timeout, in seconds. */
+  private static final int SERVER_TIMEOUT = 60;
+  /** Request timeout, in seconds. */
+  private static final int REQUEST_TIMEOUT = 30;
+  /** Socket connect timeout, in milliseconds. */
+  private static final int CONNECT_TIMEOUT = 1000;
+
+  /**
+   * Create Options.
+   * 
+   * @return {@link Options}
+   */
+  private static Options createOptions() {
+
+    Options options = new Options();
+    options.addOption(new Option(null, "server-url", true, "use a running FormKiQ server"));
+    options.addOption(new Option(null, "port", true, "in process server port (8080)"));
+    options.addOption(new Option(null, "api-key", true, "API Key (changeme)"));
+    options.addOption(new Option(null, "dynamodb-url", true, "dynamodb url (localhost:8000)"));
+    options.addOption(new Option(null, "proxy-port", true, "dynamodb counting proxy port (8001)"));
+    options.addOption(new Option(null, "s3-url", true, "s3 url (localhost:9000)"));
+    options.addOption(new Option(null, "minio-access-key", true, "Minio Access Key"));
+    options.addOption(new Option(null, "minio-secret-key", true, "Minio Secret Key"));
+    options.addOption(new Option(null, "typesense-host", true, "Typesense Host"));
+    options.addOption(new Option(null, "typesense-api-key", true, "Typesense Api Key"));
+    options.addOption(new Option(null, "mix", true,
+        "balanced, read-heavy, write-heavy or operation=weight pairs, ie: create=80,tagSearch=20"));
+    options.addOption(new Option(null, "threads", true, "worker threads (8)"));
+    options.addOption(new Option(null, "duration", true, "measured seconds (60)"));
+    options.addOption(new Option(null, "warmup", true, "warmup seconds (10)"));
+    options.addOption(new Option(null, "rate", true, "target requests per second (closed loop)"));
+    options.addOption(new Option(null, "seed", true, "documents created before the run (200)"));
+    options.addOption(new Option(null, "calibration", true,
+        "requests per operation to measure DynamoDB calls, 0 to disable (20)"));
+    options.addOption(new Option(null, "settle", true, "seconds for async work to finish (3)"));
+    options.addOption(new Option(null, "hdr-output", true, "directory to write .hgrm files to"));
+    return options;
+  }
+
+  /**
+   * Main.
+   * 
+   * @param args {@link String}
+   * @throws ParseException ParseException
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  public static void main(final String[] args)
+      throws ParseException, IOException, InterruptedException {
+    new LoadTest(new DefaultParser().parse(createOptions(), args)).run();
+    // in process server threads are not daemon threads
+    System.exit(0);
+  }
+
+  /** {@link CommandLine}. */
+  private CommandLine commandLine;
+
+  /**
+   * constructor.
+   * 
+   * @param line {@link CommandLine}
+   */
+  public LoadTest(final CommandLine line) {
+    this.commandLine = line;
+  }
+
+  /**
+   * Get Option Value.
+   * 
+   * @param name {@link String}
+   * @param defaultValue {@link String}
+   * @return {@link String}
+   */
+  private String option(final String name, final String defaultValue) {
+    return this.commandLine.getOptionValue(name, defaultValue);
+  }
+
+  /**
+   * Get Option Value.
+   * 
+   * @param name {@link String}
+   * @param defaultValue int
+   * @return int
+   */
+  private int option(final String name, final int defaultValue) {
+    return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+  }
+
+  /**
+   * Run Load Test.
+   * 
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   * @throws ParseException ParseException
+   */
+  public void run() throws IOException, InterruptedException, ParseException {
+
+    WorkloadMix mix = WorkloadMix.parse(option("mix", "balanced"));
+    Collection<Operation> operations = mix.weights().keySet();
+    Random random = new Random();
+
+    URI dynamoDbUrl = URI.create(option("dynamodb-url", "http://localhost:8000"));
+    final int defaultProxyPort = 8001;
+
+    try (DynamoDbCallCounter counter =
+        new DynamoDbCallCounter(option("proxy-port", defaultProxyPort), dynamoDbUrl)) {
+
+      counter.start();
+
+      String serverUrl = this.commandLine.getOptionValue("server-url");
+      if (serverUrl == null) {
+        serverUrl = startServer(counter.getUrl());
+      } else {
+        logger.info("set DYNAMODB_URL of " + serverUrl + " to " + counter.getUrl()
+            + " to count DynamoDB calls");
+      }
+
+      Workload workload = new Workload(new FormKiqClient(serverUrl,
+          option("api-key", "changeme"), Duration.ofSeconds(REQUEST_TIMEOUT)));
+
+      final int defaultSeed = 200;
+      logger.info("seeding documents");
+      workload.seed(Math.max(1, option("seed", defaultSeed)), random);
+
+      final int defaultCalibration = 20;
+      final int defaultSettle = 3;
+      int calibration = option("calibration", defaultCalibration);
+      Map<Operation, Map<String, Double>> calls = calibration > 0
+          ? new DynamoDbCallCalibration(counter, workload, calibration,
+              Duration.ofSeconds(option("settle", defaultSettle))).calibrate(operations, random)
+          : Map.of();
+
+      final int defaultThreads = 8;
+      final int defaultWarmup = 10;
+      final int defaultDuration = 60;
+      LoadRunner runner = new LoadRunner(workload, mix, option("threads", defaultThreads),
+          Duration.ofSeconds(option("warmup", defaultWarmup)),
+          Duration.ofSeconds(option("duration", defaultDuration)),
+          Double.parseDouble(option("rate", "0")));
+
+      logger.info("running " + option("mix", "balanced") + " workload");
+      Map<String, Long> before = counter.snapshot();
+      LoadResult result = runner.run();
+      Map<String, Long> during = DynamoDbCallCounter.difference(before, counter.snapshot());
+
+      LoadReport report = new LoadReport(result, calls);
+      report.print(System.out, operations);
+      System.out.printf("%nDynamoDB calls during run (including warmup) %s%n", during);
+
+      if (this.commandLine.hasOption("hdr-output")) {
+        report.writeHistograms(Path.of(option("hdr-output", null)), operations);
+      }
+    }
+  }
+
+  /**
+   * Start netty-server in process.
+   * 
+   * @param dynamoDbUrl {@link URI}
+   * @return {@link String}
+   * @throws ParseException ParseException
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private String startServer(final URI dynamoDbUrl)
+      throws ParseException, IOException, InterruptedException {
+
+    final int defaultPort = 8080;
+    int port = option("port", defaultPort);
+    String s3Url = option("s3-url", "http://localhost:9000");
+
+    String[] args = new String[] {"--port=" + port, "--dynamodb-url=" + dynamoDbUrl,
+        "--s3-url=" + s3Url, "--s3-presigner-url=" + s3Url,
+        "--minio-access-key=" + option("minio-access-key", "minioadmin"),
+        "--minio-secret-key=" + option("minio-secret-key", "minioadmin"),
+        "--api-key=" + option("api-key", "changeme"),
+        "--typesense-host=" + option("typesense-host", "http://localhost:8108"),
+        "--typesense-api-key=" + option("typesense-api-key", "xyz")};
+
+    HttpServer server = new HttpServer(args);
+
+    Thread thread = new Thread(() -> {
+      try {
+        server.run();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, "formkiq-server");
+    thread.setDaemon(true);
+    thread.start();
+
+    waitForPort(port);
+    return "http://localhost:" + port;
+  }
+
+  /**
+   * Wait for server port to accept connections.
+   * 
+   * @param port int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private void waitForPort(final int port) throws IOException, InterruptedException {
+
+    long end = System.currentTimeMillis() + Duration.ofSeconds(SERVER_TIMEOUT).toMillis();
+
+    while (true) {
+      try (Socket socket = new Socket()) {
+        socket.connect(new InetSocketAddress("localhost", port), CONNECT_TIMEOUT);
+        break;
+      } catch (IOException e) {
+        if (System.currentTimeMillis() > end) {
+          throw new IOException("FormKiQ server did not start on port " + port, e);
+        }
+        Thread.sleep(CONNECT_TIMEOUT);
+      }
+    }
+  }
+}
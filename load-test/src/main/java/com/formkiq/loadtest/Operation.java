@@ -0,0 +1,80 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+/**
+ * Load Test Operations.
+ */
+public enum Operation {
+
+  /** POST /documents with tags. */
+  CREATE("create"),
+  /** GET /documents?date=. */
+  LIST_BY_DATE("listByDate"),
+  /** POST /search by tag. */
+  TAG_SEARCH("tagSearch"),
+  /** GET /folders?indexKey=. */
+  FOLDER_BROWSE("folderBrowse"),
+  /** GET /documents/{documentId}/content. */
+  CONTENT_FETCH("contentFetch"),
+  /** PATCH /documents/tags. */
+  BULK_TAG_PATCH("bulkTagPatch");
+
+  /**
+   * Find {@link Operation} by key.
+   * 
+   * @param key {@link String}
+   * @return {@link Operation}
+   */
+  public static Operation fromKey(final String key) {
+    for (Operation op : values()) {
+      if (op.key.equals(key)) {
+        return op;
+      }
+    }
+
+    throw new IllegalArgumentException("unknown operation '" + key + "'");
+  }
+
+  /** Operation Key. */
+  private final String key;
+
+  /**
+   * constructor.
+   * 
+   * @param operationKey {@link String}
+   */
+  Operation(final String operationKey) {
+    this.key = operationKey;
+  }
+
+  /**
+   * Get Operation Key.
+   * 
+   * @return {@link String}
+   */
+  public String key() {
+    return this.key;
+  }
+}
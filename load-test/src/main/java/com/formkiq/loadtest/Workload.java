@@ -0,0 +1,313 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Executes {@link Operation} against the FormKiQ API.
+ */
+public class Workload {
+
+  /** Root Folder of load test documents. */
+  private static final String ROOT_FOLDER = "loadtest";
+  /** Tag 'category' values. */
+  private static final String[] CATEGORIES =
+      {"invoice", "receipt", "contract", "statement", "report"};
+  /** Number of Folders documents are spread over. */
+  private static final int FOLDER_COUNT = 20;
+  /** Number of 'customer' tag values. */
+  private static final int CUSTOMER_COUNT = 500;
+  /** Number of recently created Document Ids kept for reads. */
+  private static final int RECENT_DOCUMENTS = 10000;
+  /** Document Content size. */
+  private static final int CONTENT_SIZE = 2048;
+  /** Page size for list, search and browse. */
+  private static final String PAGE_LIMIT = "20";
+  /** Page size when resolving folders. */
+  private static final String FOLDER_LIMIT = "100";
+
+  /** {@link FormKiqClient}. */
+  private final FormKiqClient client;
+  /** Document Content. */
+  private final String content;
+  /** Recently created Document Ids. */
+  private final AtomicReferenceArray<String> documentIds =
+      new AtomicReferenceArray<>(RECENT_DOCUMENTS);
+  /** Number of created Documents. */
+  private final AtomicLong created = new AtomicLong();
+  /** Folder Index Keys. */
+  private final List<String> folderIndexKeys = new CopyOnWriteArrayList<>();
+
+  /**
+   * constructor.
+   * 
+   * @param formkiqClient {@link FormKiqClient}
+   */
+  public Workload(final FormKiqClient formkiqClient) {
+    this.client = formkiqClient;
+    this.content = "lorem ipsum ".repeat(CONTENT_SIZE / "lorem ipsum ".length());
+  }
+
+  /**
+   * POST /documents with tags.
+   * 
+   * @param random {@link Random}
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int create(final Random random) throws IOException, InterruptedException {
+
+    String path = ROOT_FOLDER + "/folder" + random.nextInt(FOLDER_COUNT) + "/" + UUID.randomUUID()
+        + ".txt";
+
+    List<Map<String, String>> tags = List.of(Map.of("key", "category", "value", category(random)),
+        Map.of("key", "customer", "value", "customer" + random.nextInt(CUSTOMER_COUNT)),
+        Map.of("key", "year", "value", String.valueOf(LocalDate.now(ZoneOffset.UTC).getYear())),
+        Map.of("key", "status", "value", "new"), Map.of("key", "loadtest"));
+
+    Map<String, Object> body = Map.of("path", path, "contentType", "text/plain", "content",
+        this.content, "tags", tags);
+
+    HttpResponse<String> response = this.client.send("POST", "/documents", body);
+
+    Object documentId = this.client.toMap(response).get("documentId");
+    if (documentId != null) {
+      long i = this.created.getAndIncrement();
+      this.documentIds.set((int) (i % RECENT_DOCUMENTS), documentId.toString());
+    }
+
+    return response.statusCode();
+  }
+
+  /**
+   * Random 'category' tag value.
+   * 
+   * @param random {@link Random}
+   * @return {@link String}
+   */
+  private String category(final Random random) {
+    return CATEGORIES[random.nextInt(CATEGORIES.length)];
+  }
+
+  /**
+   * GET /documents/{documentId}/content.
+   * 
+   * @param random {@link Random}
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int contentFetch(final Random random) throws IOException, InterruptedException {
+    String documentId = randomDocumentId(random);
+    return this.client.send("GET", "/documents/" + documentId + "/content", null).statusCode();
+  }
+
+  /**
+   * Execute {@link Operation}.
+   * 
+   * @param op {@link Operation}
+   * @param random {@link Random}
+   * @return int http status code
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  public int execute(final Operation op, final Random random)
+      throws IOException, InterruptedException {
+
+    int status;
+
+    switch (op) {
+      case CREATE:
+        status = create(random);
+        break;
+      case LIST_BY_DATE:
+        status = listByDate();
+        break;
+      case TAG_SEARCH:
+        status = tagSearch(random);
+        break;
+      case FOLDER_BROWSE:
+        status = folderBrowse(random);
+        break;
+      case CONTENT_FETCH:
+        status = contentFetch(random);
+        break;
+      case BULK_TAG_PATCH:
+        status = bulkTagPatch(random);
+        break;
+      default:
+        throw new IllegalArgumentException("unsupported operation " + op);
+    }
+
+    return status;
+  }
+
+  /**
+   * PATCH /documents/tags, tags all documents matching a 'category'.
+   * 
+   * @param random {@link Random}
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int bulkTagPatch(final Random random) throws IOException, InterruptedException {
+
+    Map<String, Object> body =
+        Map.of("match", Map.of("tag", Map.of("key", "category", "eq", category(random))),
+            "update", Map.of("tags", List.of(Map.of("key", "reviewed", "value", "true"))));
+
+    return this.client.send("PATCH", "/documents/tags", body).statusCode();
+  }
+
+  /**
+   * GET /folders?indexKey= of a random folder.
+   * 
+   * @param random {@link Random}
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int folderBrowse(final Random random) throws IOException, InterruptedException {
+
+    String query = "?limit=" + PAGE_LIMIT;
+    if (!this.folderIndexKeys.isEmpty()) {
+      String indexKey = this.folderIndexKeys.get(random.nextInt(this.folderIndexKeys.size()));
+      query += "&indexKey=" + URLEncoder.encode(indexKey, StandardCharsets.UTF_8);
+    }
+
+    return this.client.send("GET", "/folders" + query, null).statusCode();
+  }
+
+  /**
+   * Find the Index Keys of the sub folders of a folder.
+   * 
+   * @param indexKey {@link String}
+   * @param path {@link String}, only include this folder when set
+   * @return {@link List} {@link String}
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  @SuppressWarnings("unchecked")
+  private List<String> findFolders(final String indexKey, final String path)
+      throws IOException, InterruptedException {
+
+    String query = "?limit=" + FOLDER_LIMIT
+        + (indexKey != null ? "&indexKey=" + URLEncoder.encode(indexKey, StandardCharsets.UTF_8)
+            : "");
+
+    Map<String, Object> map = this.client.toMap(this.client.send("GET", "/folders" + query, null));
+    List<Map<String, Object>> documents =
+        (List<Map<String, Object>>) map.getOrDefault("documents", List.of());
+
+    List<String> keys = new ArrayList<>();
+    for (Map<String, Object> doc : documents) {
+      boolean matches = path == null || path.equals(doc.get("path"));
+      if (Boolean.TRUE.equals(doc.get("folder")) && matches) {
+        keys.add(doc.get("indexKey").toString());
+      }
+    }
+
+    return keys;
+  }
+
+  /**
+   * GET /documents?date= for today.
+   * 
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int listByDate() throws IOException, InterruptedException {
+    String date = LocalDate.now(ZoneOffset.UTC).toString();
+    return this.client.send("GET", "/documents?date=" + date + "&limit=" + PAGE_LIMIT, null)
+        .statusCode();
+  }
+
+  /**
+   * Random recently created Document Id.
+   * 
+   * @param random {@link Random}
+   * @return {@link String}
+   */
+  private String randomDocumentId(final Random random) {
+
+    long count = Math.min(this.created.get(), RECENT_DOCUMENTS);
+    if (count == 0) {
+      throw new IllegalStateException("no documents available, increase --seed");
+    }
+
+    // a concurrent create may have claimed a slot without setting it yet, seeding fills slot 0
+    String documentId = this.documentIds.get(random.nextInt((int) count));
+    return documentId != null ? documentId : this.documentIds.get(0);
+  }
+
+  /**
+   * Create documents and resolve the folders they were created in.
+   * 
+   * @param count int
+   * @param random {@link Random}
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  public void seed(final int count, final Random random) throws IOException, InterruptedException {
+
+    for (int i = 0; i < count; i++) {
+      create(random);
+    }
+
+    this.folderIndexKeys.clear();
+    for (String root : findFolders(null, ROOT_FOLDER)) {
+      this.folderIndexKeys.addAll(findFolders(root, null));
+    }
+  }
+
+  /**
+   * POST /search by 'category' tag.
+   * 
+   * @param random {@link Random}
+   * @return int
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private int tagSearch(final Random random) throws IOException, InterruptedException {
+    Map<String, Object> body =
+        Map.of("query", Map.of("tag", Map.of("key", "category", "eq", category(random))));
+    return this.client.send("POST", "/search?limit=" + PAGE_LIMIT, body).statusCode();
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of {@link Operation}.
+ */
+public class WorkloadMix {
+
+  /** Preset Workload Mixes. */
+  private static final Map<String, String> PRESETS = Map.of("balanced",
+      "create=20,listByDate=15,tagSearch=20,folderBrowse=15,contentFetch=25,bulkTagPatch=5",
+      "read-heavy",
+      "create=5,listByDate=20,tagSearch=25,folderBrowse=20,contentFetch=29,bulkTagPatch=1",
+      "write-heavy",
+      "create=60,listByDate=10,tagSearch=10,folderBrowse=5,contentFetch=10,bulkTagPatch=5");
+
+  /**
+   * Parse a preset name or a list of 'operation=weight' pairs, ie: "create=80,contentFetch=20".
+   * 
+   * @param s {@link String}
+   * @return {@link WorkloadMix}
+   */
+  public static WorkloadMix parse(final String s) {
+
+    String mix = PRESETS.getOrDefault(s, s);
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    for (String pair : mix.split(",")) {
+
+      String[] kv = pair.trim().split("=");
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("invalid workload mix '" + s + "'");
+      }
+
+      int weight = Integer.parseInt(kv[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("invalid weight '" + pair + "'");
+      }
+
+      weights.put(Operation.fromKey(kv[0].trim()), Integer.valueOf(weight));
+    }
+
+    return new WorkloadMix(weights);
+  }
+
+  /** {@link Operation} weights. */
+  private final Map<Operation, Integer> weights;
+  /** {@link Operation} in selection order. */
+  private final Operation[] operations;
+  /** Cumulative weights. */
+  private final int[] cumulative;
+  /** Total Weight. */
+  private final int total;
+
+  /**
+   * constructor.
+   * 
+   * @param operationWeights {@link Map}
+   */
+  public WorkloadMix(final Map<Operation, Integer> operationWeights) {
+
+    this.weights = Collections.unmodifiableMap(new EnumMap<>(operationWeights));
+    this.operations = new Operation[this.weights.size()];
+    this.cumulative = new int[this.weights.size()];
+
+    int sum = 0;
+    int i = 0;
+    for (Map.Entry<Operation, Integer> e : this.weights.entrySet()) {
+      sum += e.getValue().intValue();
+      this.operations[i] = e.getKey();
+      this.cumulative[i++] = sum;
+    }
+
+    if (sum <= 0) {
+      throw new IllegalArgumentException("workload mix has no weight");
+    }
+
+    this.total = sum;
+  }
+
+  /**
+   * Pick the next {@link Operation}.
+   * 
+   * @param random {@link Random}
+   * @return {@link Operation}
+   */
+  public Operation next(final Random random) {
+
+    int r = random.nextInt(this.total);
+
+    int i = 0;
+    while (r >= this.cumulative[i]) {
+      i++;
+    }
+
+    return this.operations[i];
+  }
+
+  /**
+   * Get {@link Operation} weights.
+   * 
+   * @return {@link Map}
+   */
+  public Map<Operation, Integer> weights() {
+    return this.weights;
+  }
+}
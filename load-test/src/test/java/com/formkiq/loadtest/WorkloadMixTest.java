@@ -0,0 +1,87 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test {@link WorkloadMix}.
+ *
+ */
+class WorkloadMixTest {
+
+  @Test
+  void testParse01() {
+    // given
+    // when
+    WorkloadMix mix = WorkloadMix.parse("balanced");
+
+    // then
+    assertEquals(Operation.values().length, mix.weights().size());
+    assertEquals(100, mix.weights().values().stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  void testParse02() {
+    // given
+    // when
+    WorkloadMix mix = WorkloadMix.parse("create=80, contentFetch=20");
+
+    // then
+    assertEquals(2, mix.weights().size());
+    assertEquals(80, mix.weights().get(Operation.CREATE).intValue());
+    assertEquals(20, mix.weights().get(Operation.CONTENT_FETCH).intValue());
+  }
+
+  @Test
+  void testParse03() {
+    assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("unknown=1"));
+    assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("create"));
+    assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("create=0"));
+  }
+
+  @Test
+  void testNext01() {
+    // given
+    WorkloadMix mix = WorkloadMix.parse("create=75,tagSearch=0,contentFetch=25");
+    Random random = new Random(1);
+    Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+
+    // when
+    for (int i = 0; i < 10000; i++) {
+      counts.merge(mix.next(random), Integer.valueOf(1), Integer::sum);
+    }
+
+    // then
+    assertEquals(2, counts.size());
+    assertEquals(7500, counts.get(Operation.CREATE).intValue(), 250);
+    assertEquals(2500, counts.get(Operation.CONTENT_FETCH).intValue(), 250);
+  }
+}
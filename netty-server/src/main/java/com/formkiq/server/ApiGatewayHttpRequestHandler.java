@@ -28,16 +28,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import com.amazonaws.services.lambda.runtime.Context;
-import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestContext;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
+import com.formkiq.aws.services.lambda.ApiRouteMatch;
+import com.formkiq.aws.services.lambda.ApiRouteTable;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -61,22 +62,22 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
   private Gson gson = new GsonBuilder().create();
   /** {@link NettyRequestHandler}. */
   private NettyRequestHandler handler;
-  /** {@link NettyRequestHandler} Urls. */
-  private Collection<String> urls;
+  /** {@link NettyRequestHandler} Routes. */
+  private ApiRouteTable<ApiGatewayRequestHandler> routes;
 
   /**
    * constructor.
    * 
    * @param reqestHandler {@link NettyRequestHandler}
    * @param requestApiKey {@link String}
-   * @param handlerUrls {@link Collection} {@link String}
+   * @param handlerRoutes {@link ApiRouteTable}
    * 
    */
   public ApiGatewayHttpRequestHandler(final NettyRequestHandler reqestHandler,
-      final String requestApiKey, final Collection<String> handlerUrls) {
+      final String requestApiKey, final ApiRouteTable<ApiGatewayRequestHandler> handlerRoutes) {
     this.apiKey = requestApiKey;
     this.handler = reqestHandler;
-    this.urls = handlerUrls;
+    this.routes = handlerRoutes;
   }
 
   @SuppressWarnings("unchecked")
@@ -99,24 +100,6 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
     return response;
   }
 
-  private Map<String, String> createPathParameters(final String resource, final String uri) {
-
-    Map<String, String> map = new HashMap<>();
-
-    if (resource != null && uri != null) {
-      String[] s0 = resource.split("/");
-      String[] s1 = uri.split("/");
-
-      for (int i = 0; i < s0.length; i++) {
-        if (s0[i].startsWith("{") && s0[i].endsWith("}")) {
-          map.put(s0[i].substring(1, s0[i].length() - 1), s1[i]);
-        }
-      }
-    }
-
-    return map;
-  }
-
   private Map<String, String> createQueryParameters(final FullHttpRequest request) {
 
     Map<String, String> map = new HashMap<>();
@@ -158,15 +141,14 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
       final FullHttpRequest request) throws IOException {
     String uri = getUri(request);
 
-    String resource = Strings.findUrlMatch(this.urls, uri);
-    Map<String, String> pathParams = createPathParameters(resource, uri);
+    ApiRouteMatch<ApiGatewayRequestHandler> match = this.routes.find(uri);
     Map<String, String> queryParameters = createQueryParameters(request);
 
     ApiGatewayRequestEvent apiEvent = new ApiGatewayRequestEvent();
     apiEvent.setPath(request.uri());
-    apiEvent.setResource(resource != null ? resource : uri);
+    apiEvent.setResource(match != null ? match.getResource() : uri);
     apiEvent.setHttpMethod(request.method().name());
-    apiEvent.setPathParameters(pathParams);
+    apiEvent.setPathParameters(match != null ? match.getPathParameters() : new HashMap<>());
     apiEvent.setQueryStringParameters(queryParameters);
 
     String group = "default";
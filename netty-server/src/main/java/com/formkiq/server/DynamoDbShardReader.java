@@ -0,0 +1,224 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
+
+/**
+ * 
+ * Reads a single DynamoDb Stream shard, checkpointing the last successfully processed sequence
+ * number after every batch. When a record fails, the shard is read again from the checkpoint so
+ * the failed record is retried. The reader reschedules itself, polling quickly while the shard has
+ * records and backing off while it is idle or failing, until the shard is closed.
+ *
+ */
+public class DynamoDbShardReader implements Runnable {
+
+  /** Maximum Poll Delay in millis. */
+  private static final long MAX_POLL_DELAY = 5000L;
+  /** Minimum Poll Delay in millis. */
+  private static final long MIN_POLL_DELAY = 200L;
+
+  /** {@link ShardCheckpointService}. */
+  private ShardCheckpointService checkpoints;
+  /** Is Reader closed. */
+  private volatile boolean closed = false;
+  /** Current Poll Delay in millis. */
+  private long delay = MIN_POLL_DELAY;
+  /** {@link ScheduledExecutorService}. */
+  private ScheduledExecutorService executor;
+  /** Called when the shard has been completely read. */
+  private Consumer<String> onShardEnd;
+  /** Records Processor, returns the number of records, in order, that were processed. */
+  private Function<List<Record>, Integer> processor;
+  /** Shard Id. */
+  private String shardId;
+  /** Shard Iterator. */
+  private String shardIterator;
+  /** Stream Arn. */
+  private String streamArn;
+  /** {@link DynamoDbStreamsAsyncClient}. */
+  private DynamoDbStreamsAsyncClient streamsClient;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbStreamsAsyncClient}
+   * @param dynamoDbStreamArn {@link String}
+   * @param shard {@link String}
+   * @param checkpointService {@link ShardCheckpointService}
+   * @param recordProcessor {@link Function}
+   * @param scheduledExecutor {@link ScheduledExecutorService}
+   * @param shardEnd {@link Consumer}
+   */
+  public DynamoDbShardReader(final DynamoDbStreamsAsyncClient client,
+      final String dynamoDbStreamArn, final String shard,
+      final ShardCheckpointService checkpointService,
+      final Function<List<Record>, Integer> recordProcessor,
+      final ScheduledExecutorService scheduledExecutor, final Consumer<String> shardEnd) {
+    this.streamsClient = client;
+    this.streamArn = dynamoDbStreamArn;
+    this.shardId = shard;
+    this.checkpoints = checkpointService;
+    this.processor = recordProcessor;
+    this.executor = scheduledExecutor;
+    this.onShardEnd = shardEnd;
+  }
+
+  /**
+   * Close Reader.
+   */
+  public void close() {
+    this.closed = true;
+  }
+
+  /**
+   * Get Shard Iterator, starting after the checkpoint if there is one.
+   * 
+   * @return {@link String}
+   * @throws InterruptedException InterruptedException
+   * @throws ExecutionException ExecutionException
+   */
+  private String getShardIterator() throws InterruptedException, ExecutionException {
+
+    String checkpoint = this.checkpoints.getCheckpoint(this.streamArn, this.shardId);
+
+    GetShardIteratorRequest.Builder req =
+        GetShardIteratorRequest.builder().streamArn(this.streamArn).shardId(this.shardId);
+
+    String iterator = null;
+
+    if (checkpoint != null) {
+
+      try {
+        iterator = this.streamsClient.getShardIterator(req
+            .shardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER).sequenceNumber(checkpoint)
+            .build()).get().shardIterator();
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof TrimmedDataAccessException)) {
+          throw e;
+        }
+      }
+    }
+
+    if (iterator == null) {
+      iterator = this.streamsClient
+          .getShardIterator(
+              req.shardIteratorType(ShardIteratorType.TRIM_HORIZON).sequenceNumber(null).build())
+          .get().shardIterator();
+    }
+
+    return iterator;
+  }
+
+  /**
+   * Get Shard Id.
+   * 
+   * @return {@link String}
+   */
+  public String getShardId() {
+    return this.shardId;
+  }
+
+  /**
+   * Read and process the next batch of records.
+   * 
+   * @return long next poll delay in millis, -1 once the shard has been completely read
+   * @throws InterruptedException InterruptedException
+   * @throws ExecutionException ExecutionException
+   */
+  private long readRecords() throws InterruptedException, ExecutionException {
+
+    if (this.shardIterator == null) {
+      this.shardIterator = getShardIterator();
+    }
+
+    GetRecordsResponse response = this.streamsClient
+        .getRecords(GetRecordsRequest.builder().shardIterator(this.shardIterator).build()).get();
+
+    List<Record> records = response.records();
+    int processed = records.isEmpty() ? 0 : this.processor.apply(records).intValue();
+
+    if (processed > 0) {
+      String sequenceNumber = records.get(processed - 1).dynamodb().sequenceNumber();
+      this.checkpoints.saveCheckpoint(this.streamArn, this.shardId, sequenceNumber);
+    }
+
+    long nextDelay = -1;
+
+    if (processed < records.size()) {
+      this.shardIterator = null;
+      nextDelay = MAX_POLL_DELAY;
+    } else {
+
+      this.shardIterator = response.nextShardIterator();
+
+      if (this.shardIterator == null) {
+        this.checkpoints.saveCheckpoint(this.streamArn, this.shardId,
+            ShardCheckpointService.SHARD_END);
+        this.onShardEnd.accept(this.shardId);
+      } else {
+        nextDelay = records.isEmpty() ? Math.min(MAX_POLL_DELAY, this.delay * 2) : MIN_POLL_DELAY;
+      }
+    }
+
+    return nextDelay;
+  }
+
+  @Override
+  public void run() {
+
+    long nextDelay = -1;
+
+    if (!this.closed) {
+
+      try {
+        nextDelay = readRecords();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | RuntimeException e) {
+        e.printStackTrace();
+        this.shardIterator = null;
+        nextDelay = MAX_POLL_DELAY;
+      }
+    }
+
+    if (nextDelay >= 0 && !this.closed && !this.executor.isShutdown()) {
+      this.delay = nextDelay;
+      this.executor.schedule(this, nextDelay, TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -26,14 +26,20 @@ package com.formkiq.server;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
 import com.formkiq.module.lambda.typesense.TypesenseProcessor;
 import com.google.gson.Gson;
@@ -43,24 +49,30 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
 import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
-import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
-import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
-import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
 import software.amazon.awssdk.services.dynamodb.model.Shard;
-import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
 import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
 
 /**
  * Polls DynamoDb Stream and sends stream to Http Endpoint.
+ * 
+ * Each shard is read by its own {@link DynamoDbShardReader}, child shards are only read once
+ * their parent shard has been completely read, and progress is checkpointed with a
+ * {@link ShardCheckpointService} so a restart resumes where it left off.
  */
 public class DynamoDbStreamToTypesense implements Closeable {
 
+  /** {@link ShardCheckpointService}. */
+  private ShardCheckpointService checkpoints;
+  /** Completed Shard Ids. */
+  private Set<String> completedShards = ConcurrentHashMap.newKeySet();
+  /** {@link ScheduledExecutorService} for shard readers. */
+  private ScheduledExecutorService executor;
   /** {@link Gson}. */
   private Gson gson = new GsonBuilder().create();
-  /** {@link Map}. */
-  private Map<String, String> nextShardIteratorMap = new HashMap<>();
-  /** {@link TypesenseProcessor}. */
-  private TypesenseProcessor processor;
+  /** Stream Records {@link RequestHandler}. */
+  private RequestHandler<Map<String, Object>, Void> processor;
+  /** Active {@link DynamoDbShardReader}. */
+  private Map<String, DynamoDbShardReader> readers = new ConcurrentHashMap<>();
   /** {@link String}. */
   private String streamArn;
   /** {@link DynamoDbStreamsAsyncClient}. */
@@ -74,43 +86,66 @@ public class DynamoDbStreamToTypesense implements Closeable {
    * @param dynamoDbStreamArn {@link String}
    * @param dynamodbUri {@link String}
    * @param typesenseProcessor {@link String}
+   * @param checkpointService {@link ShardCheckpointService}
+   * @param readerThreads int
    */
   public DynamoDbStreamToTypesense(final Region awsRegion,
       final AwsCredentialsProvider awsCredentialsProvider, final String dynamoDbStreamArn,
-      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor) {
+      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor,
+      final ShardCheckpointService checkpointService, final int readerThreads) {
+    this(DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri).region(awsRegion)
+        .credentialsProvider(awsCredentialsProvider).build(), dynamoDbStreamArn,
+        typesenseProcessor, checkpointService, Executors.newScheduledThreadPool(readerThreads));
+  }
 
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbStreamsAsyncClient}
+   * @param dynamoDbStreamArn {@link String}
+   * @param recordsHandler {@link RequestHandler}
+   * @param checkpointService {@link ShardCheckpointService}
+   * @param scheduledExecutor {@link ScheduledExecutorService}
+   */
+  DynamoDbStreamToTypesense(final DynamoDbStreamsAsyncClient client, final String dynamoDbStreamArn,
+      final RequestHandler<Map<String, Object>, Void> recordsHandler,
+      final ShardCheckpointService checkpointService,
+      final ScheduledExecutorService scheduledExecutor) {
+    this.streamsClient = client;
     this.streamArn = dynamoDbStreamArn;
-    this.processor = typesenseProcessor;
-
-    this.streamsClient = DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri)
-        .region(awsRegion).credentialsProvider(awsCredentialsProvider).build();
+    this.processor = recordsHandler;
+    this.checkpoints = checkpointService;
+    this.executor = scheduledExecutor;
   }
 
   @Override
   public void close() throws IOException {
+
+    this.readers.values().forEach(r -> r.close());
+    this.executor.shutdown();
+
     if (this.streamsClient != null) {
       this.streamsClient.close();
     }
   }
 
-  private String getShardIterator(final String shardId, final String iteratorType) {
+  private List<Shard> getShards() {
 
-    GetShardIteratorRequest getShardIteratorRequest = GetShardIteratorRequest.builder()
-        .streamArn(this.streamArn).shardId(shardId).shardIteratorType(iteratorType).build();
+    List<Shard> shards = new ArrayList<>();
+    String lastEvaluatedShardId = null;
 
-    return this.streamsClient.getShardIterator(getShardIteratorRequest).join().shardIterator();
-  }
+    try {
 
-  private List<Shard> getShards() {
+      do {
+        DescribeStreamRequest streamRequest = DescribeStreamRequest.builder()
+            .streamArn(this.streamArn).exclusiveStartShardId(lastEvaluatedShardId).build();
 
-    List<Shard> shards = Collections.emptyList();
-    try {
-      DescribeStreamRequest streamRequest =
-          DescribeStreamRequest.builder().streamArn(this.streamArn).build();
+        DescribeStreamResponse streamResponse =
+            this.streamsClient.describeStream(streamRequest).get();
+        shards.addAll(streamResponse.streamDescription().shards());
+        lastEvaluatedShardId = streamResponse.streamDescription().lastEvaluatedShardId();
 
-      DescribeStreamResponse streamResponse =
-          this.streamsClient.describeStream(streamRequest).get();
-      shards = streamResponse.streamDescription().shards();
+      } while (lastEvaluatedShardId != null);
 
     } catch (InterruptedException | ExecutionException e) {
       e.printStackTrace();
@@ -120,59 +155,99 @@ public class DynamoDbStreamToTypesense implements Closeable {
   }
 
   /**
-   * Run Stream Poller.
+   * Is the parent shard completely read. A parent that is no longer in the stream has been trimmed,
+   * otherwise its {@link ShardCheckpointService#SHARD_END} checkpoint is checked, so the result
+   * does not depend on the order DescribeStream returns the shards in.
+   * 
+   * @param shard {@link Shard}
+   * @param shardIds {@link Set} of shard ids in the stream
+   * @return boolean
    */
-  public void run() {
+  private boolean isParentComplete(final Shard shard, final Set<String> shardIds) {
 
-    // Describe the stream to get shard information
-    List<Shard> shards = getShards();
+    String parentId = shard.parentShardId();
+    boolean complete = parentId == null || !shardIds.contains(parentId)
+        || this.completedShards.contains(parentId);
 
-    // Iterate through each shard in the stream
-    for (Shard shard : shards) {
+    if (!complete && ShardCheckpointService.SHARD_END
+        .equals(this.checkpoints.getCheckpoint(this.streamArn, parentId))) {
+      this.completedShards.add(parentId);
+      complete = true;
+    }
 
-      String shardId = shard.shardId();
+    return complete;
+  }
 
-      try {
-        String shardIterator = this.nextShardIteratorMap.get(shardId);
-        if (shardIterator == null) {
+  private void onShardEnd(final String shardId) {
+    this.completedShards.add(shardId);
+    this.readers.remove(shardId);
+  }
 
-          String iteratorType = ShardIteratorType.TRIM_HORIZON.toString();
-          shardIterator = getShardIterator(shardId, iteratorType);
-        }
+  /**
+   * Process Shard Records, in order, stopping at the first record that fails.
+   * 
+   * @param records {@link List} {@link software.amazon.awssdk.services.dynamodb.model.Record}
+   * @return {@link Integer} number of records processed
+   */
+  private Integer process(
+      final List<software.amazon.awssdk.services.dynamodb.model.Record> records) {
 
-        GetRecordsRequest getRecordsRequest =
-            GetRecordsRequest.builder().shardIterator(shardIterator).build();
+    int processed = 0;
 
-        GetRecordsResponse getRecordsResponse =
-            this.streamsClient.getRecords(getRecordsRequest).get();
+    for (software.amazon.awssdk.services.dynamodb.model.Record record : records) {
 
-        List<software.amazon.awssdk.services.dynamodb.model.Record> records =
-            getRecordsResponse.records();
+      Map<String, Object> map = transform(record);
 
-        for (software.amazon.awssdk.services.dynamodb.model.Record record : records) {
+      Context context = new LambdaContext(UUID.randomUUID().toString());
 
-          Map<String, Object> map = transform(record);
+      try {
+        this.processor.handleRequest(map, context);
+        processed++;
+      } catch (Exception e) {
+        e.printStackTrace();
+        break;
+      }
+    }
 
-          Context context = new LambdaContext(UUID.randomUUID().toString());
+    return Integer.valueOf(processed);
+  }
 
-          try {
-            this.processor.handleRequest(map, context);
-          } catch (Exception e) {
-            e.printStackTrace();
-          }
-        }
+  /**
+   * Run Shard Discovery, starting a {@link DynamoDbShardReader} for every open shard whose parent
+   * shard has been completely read.
+   */
+  public void run() {
 
-        // Update the shard iterator
-        String nextShardIterator = getRecordsResponse.nextShardIterator();
-        this.nextShardIteratorMap.put(shardId, nextShardIterator);
+    List<Shard> shards = getShards();
+    Set<String> shardIds = shards.stream().map(s -> s.shardId()).collect(Collectors.toSet());
 
-      } catch (InterruptedException | ExecutionException e) {
-        this.nextShardIteratorMap.remove(shardId);
-        e.printStackTrace();
+    for (Shard shard : shards) {
+
+      String shardId = shard.shardId();
+
+      if (!this.readers.containsKey(shardId) && !this.completedShards.contains(shardId)
+          && isParentComplete(shard, shardIds)) {
+        startReader(shardId);
       }
     }
   }
 
+  private void startReader(final String shardId) {
+
+    String checkpoint = this.checkpoints.getCheckpoint(this.streamArn, shardId);
+
+    if (ShardCheckpointService.SHARD_END.equals(checkpoint)) {
+      this.completedShards.add(shardId);
+    } else if (!this.executor.isShutdown()) {
+
+      DynamoDbShardReader reader = new DynamoDbShardReader(this.streamsClient, this.streamArn,
+          shardId, this.checkpoints, this::process, this.executor, this::onShardEnd);
+
+      this.readers.put(shardId, reader);
+      this.executor.execute(reader);
+    }
+  }
+
   private Map<String, Object> transform(
       final software.amazon.awssdk.services.dynamodb.model.Record record) {
     Map<String, Object> dynamodb = new HashMap<>();
@@ -184,7 +259,7 @@ public class DynamoDbStreamToTypesense implements Closeable {
       dynamodb.put("NewImage", this.gson.fromJson(json, Map.class));
     }
 
-    if (!record.dynamodb().newImage().isEmpty()) {
+    if (!record.dynamodb().oldImage().isEmpty()) {
       Map<String, AttributeValue> oldImage = record.dynamodb().oldImage();
       String json = this.gson.toJson(oldImage);
       dynamodb.put("OldImage", this.gson.fromJson(json, Map.class));
@@ -0,0 +1,221 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.formkiq.module.events.document.DocumentEvent;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * 
+ * Append only journal of {@link DocumentEvent}, so events that were published but not yet processed
+ * survive a server restart. Each published event is written as a '+id json' line and each
+ * processed event as a '-id' line. The journal is truncated whenever no events are outstanding and
+ * compacted to the outstanding events after every 'compactAfter' processed events, so it stays
+ * bounded under steady load.
+ *
+ */
+public class EventJournal implements Closeable {
+
+  /** Default number of processed events between compactions. */
+  private static final int DEFAULT_COMPACT_AFTER = 1000;
+
+  /** Number of processed events between compactions. */
+  private final int compactAfter;
+  /** Number of processed events since last compaction. */
+  private int completed;
+  /** Journal File. */
+  private final Path file;
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().create();
+  /** Next Event Id. */
+  private long nextId = 1;
+  /** Outstanding events json, by event id. */
+  private final Map<Long, String> outstanding = new LinkedHashMap<>();
+  /** Journal {@link BufferedWriter}. */
+  private BufferedWriter writer;
+
+  /**
+   * constructor.
+   * 
+   * @param journalFile {@link Path}
+   */
+  public EventJournal(final Path journalFile) {
+    this(journalFile, DEFAULT_COMPACT_AFTER);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param journalFile {@link Path}
+   * @param compactAfterEvents int number of processed events between compactions
+   */
+  public EventJournal(final Path journalFile, final int compactAfterEvents) {
+    this.file = journalFile;
+    this.compactAfter = compactAfterEvents;
+  }
+
+  /**
+   * Append {@link DocumentEvent} to the journal.
+   * 
+   * @param event {@link DocumentEvent}
+   * @return long event id
+   * @throws IOException IOException
+   */
+  public synchronized long append(final DocumentEvent event) throws IOException {
+    long id = this.nextId++;
+    String json = this.gson.toJson(event);
+    this.writer.write("+" + id + " " + json);
+    this.writer.newLine();
+    this.writer.flush();
+    this.outstanding.put(Long.valueOf(id), json);
+    return id;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (this.writer != null) {
+      this.writer.close();
+      this.writer = null;
+    }
+  }
+
+  /**
+   * Mark event as processed.
+   * 
+   * @param id long
+   * @throws IOException IOException
+   */
+  public synchronized void complete(final long id) throws IOException {
+
+    this.outstanding.remove(Long.valueOf(id));
+
+    if (this.writer == null) {
+      // journal closed, event is replayed on next open
+    } else if (this.outstanding.isEmpty()) {
+      this.completed = 0;
+      this.writer.close();
+      this.writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.WRITE);
+    } else if (++this.completed >= this.compactAfter) {
+      this.completed = 0;
+      this.writer.close();
+      rewrite();
+    } else {
+      this.writer.write("-" + id);
+      this.writer.newLine();
+      this.writer.flush();
+    }
+  }
+
+  /**
+   * Number of outstanding events.
+   * 
+   * @return int
+   */
+  public synchronized int getOutstanding() {
+    return this.outstanding.size();
+  }
+
+  /**
+   * Open the journal, returning the events that were published but not processed, in publish
+   * order. The journal is rewritten to contain only those events.
+   * 
+   * @return {@link Map} of event id to {@link DocumentEvent}
+   * @throws IOException IOException
+   */
+  public synchronized Map<Long, DocumentEvent> open() throws IOException {
+
+    this.outstanding.clear();
+
+    if (Files.exists(this.file)) {
+
+      List<String> lines = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+
+      for (String line : lines) {
+
+        int pos = line.indexOf(' ');
+
+        if (line.startsWith("+") && pos > 0) {
+          long id = Long.parseLong(line.substring(1, pos));
+          this.outstanding.put(Long.valueOf(id), line.substring(pos + 1));
+          this.nextId = Math.max(this.nextId, id + 1);
+        } else if (line.startsWith("-")) {
+          this.outstanding.remove(Long.valueOf(line.substring(1).trim()));
+        }
+      }
+    }
+
+    Path parent = this.file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+
+    rewrite();
+
+    Map<Long, DocumentEvent> pending = new LinkedHashMap<>();
+    this.outstanding
+        .forEach((id, json) -> pending.put(id, this.gson.fromJson(json, DocumentEvent.class)));
+    return pending;
+  }
+
+  /**
+   * Rewrite the journal to contain only the outstanding events, replacing it atomically so a
+   * crash during compaction never loses events, and reopen it for appending.
+   * 
+   * @throws IOException IOException
+   */
+  private void rewrite() throws IOException {
+
+    Path tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+    try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE)) {
+
+      for (Map.Entry<Long, String> e : this.outstanding.entrySet()) {
+        w.write("+" + e.getKey() + " " + e.getValue());
+        w.newLine();
+      }
+    }
+
+    Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+
+    this.writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+  }
+}
@@ -0,0 +1,373 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static com.formkiq.module.events.document.DocumentEventType.ACTIONS;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.formkiq.module.events.EventService;
+import com.formkiq.module.events.document.DocumentEvent;
+import com.formkiq.module.events.folder.FolderEvent;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * 
+ * In process {@link EventService}, used in place of SNS / SQS when running self hosted.
+ * 
+ * <p>
+ * ACTIONS {@link DocumentEvent} are dispatched to a fixed number of worker lanes, chosen by
+ * document, so events for a document are processed in order while different documents are
+ * processed in parallel. Each lane accepts a bounded number of events, blocking publishers when
+ * full. Events published by the workers themselves (the next action of a document) are never
+ * blocked, so a worker cannot deadlock on its own lane. Failed events are retried with backoff on
+ * their lane. Optionally every event is written to an {@link EventJournal} and replayed on
+ * {@link #start()}; events that still fail are left in the journal, so they are replayed on the
+ * next start instead of being lost.
+ * </p>
+ *
+ */
+public class EventServiceLocal implements EventService, Closeable {
+
+  /**
+   * Processes a {@link DocumentEvent}.
+   */
+  @FunctionalInterface
+  public interface EventProcessor {
+
+    /**
+     * Process {@link DocumentEvent}.
+     * 
+     * @param event {@link DocumentEvent}
+     * @throws IOException IOException
+     * @throws InterruptedException InterruptedException
+     */
+    void process(DocumentEvent event) throws IOException, InterruptedException;
+  }
+
+  /** Max attempts to process an event. */
+  private static final int MAX_ATTEMPTS = 3;
+  /** Retry backoff base, in milliseconds. */
+  private static final long RETRY_BACKOFF_MS = 100;
+  /** Shutdown wait in seconds. */
+  private static final long SHUTDOWN_WAIT_SECONDS = 30;
+  /** Whether current thread is a worker thread. */
+  private static final ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().create();
+  /** {@link EventJournal}, null when events are not journaled. */
+  private final EventJournal journal;
+  /** Worker Lanes. */
+  private final Lane[] lanes;
+  /** {@link EventProcessor}. */
+  private final EventProcessor processor;
+
+  /**
+   * constructor.
+   * 
+   * @param eventProcessor {@link EventProcessor}
+   * @param workers int
+   * @param capacity int max events waiting per worker
+   * @param eventJournal {@link EventJournal}, optional
+   */
+  public EventServiceLocal(final EventProcessor eventProcessor, final int workers,
+      final int capacity, final EventJournal eventJournal) {
+    this.processor = eventProcessor;
+    this.journal = eventJournal;
+    this.lanes = new Lane[workers];
+
+    for (int i = 0; i < workers; i++) {
+      this.lanes[i] = new Lane(i, capacity);
+    }
+  }
+
+  /**
+   * Stop the workers, waiting for in progress events to complete. Events still waiting remain in
+   * the {@link EventJournal}.
+   */
+  @Override
+  public void close() throws IOException {
+
+    for (Lane lane : this.lanes) {
+      lane.stop();
+    }
+
+    try {
+      for (Lane lane : this.lanes) {
+        lane.thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_WAIT_SECONDS));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (this.journal != null) {
+      this.journal.close();
+    }
+  }
+
+  /**
+   * Find {@link Lane} for {@link DocumentEvent}.
+   * 
+   * @param event {@link DocumentEvent}
+   * @return {@link Lane}
+   */
+  private Lane getLane(final DocumentEvent event) {
+    String key = event.siteId() + "/" + event.documentId();
+    return this.lanes[Math.floorMod(key.hashCode(), this.lanes.length)];
+  }
+
+  /**
+   * Number of events waiting or in progress.
+   * 
+   * @return int
+   */
+  public int getPending() {
+    int count = 0;
+    for (Lane lane : this.lanes) {
+      count += lane.pending();
+    }
+    return count;
+  }
+
+  @Override
+  public String publish(final DocumentEvent event) {
+
+    String eventJson = this.gson.toJson(event);
+
+    if (ACTIONS.equals(event.type())) {
+
+      try {
+        long id = this.journal != null ? this.journal.append(event) : 0;
+        getLane(event).submit(new Task(id, event, !WORKER.get().booleanValue()));
+      } catch (IOException e) {
+        throw new IllegalStateException("unable to journal event", e);
+      }
+    }
+
+    return eventJson;
+  }
+
+  @Override
+  public String publish(final FolderEvent event) {
+    // no local subscribers for folder events
+    return this.gson.toJson(event);
+  }
+
+  /**
+   * Replay any journaled events and start the workers.
+   * 
+   * @throws IOException IOException
+   */
+  public void start() throws IOException {
+
+    if (this.journal != null) {
+      Map<Long, DocumentEvent> pending = this.journal.open();
+      pending.forEach((id, event) -> getLane(event).submit(new Task(id.longValue(), event, false)));
+    }
+
+    for (Lane lane : this.lanes) {
+      lane.thread.start();
+    }
+  }
+
+  /**
+   * Worker Lane, a single thread processing its queue in order.
+   */
+  private final class Lane implements Runnable {
+
+    /** Free capacity for external publishers. */
+    private final Semaphore capacity;
+    /** Event Queue. */
+    private final LinkedBlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    /** Is Running. */
+    private volatile boolean running = true;
+    /** Worker {@link Thread}. */
+    private final Thread thread;
+    /** Number of events waiting or in progress. */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * constructor.
+     * 
+     * @param index int
+     * @param maxEvents int
+     */
+    Lane(final int index, final int maxEvents) {
+      this.capacity = new Semaphore(maxEvents);
+      this.thread = new Thread(this, "event-worker-" + index);
+      this.thread.setDaemon(true);
+    }
+
+    /**
+     * Number of events waiting or in progress.
+     * 
+     * @return int
+     */
+    int pending() {
+      return this.pending.get();
+    }
+
+    /**
+     * Process {@link Task}, it is only marked complete once processed.
+     * 
+     * @param task {@link Task}
+     */
+    private void process(final Task task) {
+
+      boolean processed = false;
+
+      try {
+        processed = processWithRetry(task.event);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (task.blocking) {
+          this.capacity.release();
+        }
+
+        if (processed) {
+          complete(task);
+        }
+      }
+    }
+
+    /**
+     * Process {@link DocumentEvent}, retrying with exponential backoff while the lane is running.
+     * 
+     * @param event {@link DocumentEvent}
+     * @return boolean whether the event was processed
+     * @throws InterruptedException InterruptedException
+     */
+    private boolean processWithRetry(final DocumentEvent event) throws InterruptedException {
+
+      boolean processed = false;
+
+      for (int attempt = 1; !processed && attempt <= MAX_ATTEMPTS; attempt++) {
+
+        try {
+          EventServiceLocal.this.processor.process(event);
+          processed = true;
+
+        } catch (IOException | RuntimeException e) {
+
+          if (attempt == MAX_ATTEMPTS || !this.running) {
+            e.printStackTrace();
+            break;
+          }
+
+          Thread.sleep(RETRY_BACKOFF_MS << (attempt - 1));
+        }
+      }
+
+      return processed;
+    }
+
+    /**
+     * Mark {@link Task} as complete in the {@link EventJournal}.
+     * 
+     * @param task {@link Task}
+     */
+    private void complete(final Task task) {
+      if (EventServiceLocal.this.journal != null) {
+        try {
+          EventServiceLocal.this.journal.complete(task.id);
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+
+      WORKER.set(Boolean.TRUE);
+
+      try {
+        while (this.running) {
+          Task task = this.queue.take();
+
+          if (task.event != null) {
+            process(task);
+            this.pending.decrementAndGet();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Stop worker once the task in progress completes.
+     */
+    void stop() {
+      this.running = false;
+      this.queue.add(new Task(0, null, false));
+    }
+
+    /**
+     * Add {@link Task} to the queue, blocking while the lane is full.
+     * 
+     * @param task {@link Task}
+     */
+    void submit(final Task task) {
+      if (task.blocking) {
+        this.capacity.acquireUninterruptibly();
+      }
+      this.pending.incrementAndGet();
+      this.queue.add(task);
+    }
+  }
+
+  /**
+   * Queued {@link DocumentEvent}.
+   */
+  private static final class Task {
+
+    /** Whether the task holds lane capacity. */
+    private final boolean blocking;
+    /** {@link DocumentEvent}, null to stop the worker. */
+    private final DocumentEvent event;
+    /** Journal Id. */
+    private final long id;
+
+    /**
+     * constructor.
+     * 
+     * @param journalId long
+     * @param documentEvent {@link DocumentEvent}
+     * @param holdsCapacity boolean
+     */
+    Task(final long journalId, final DocumentEvent documentEvent, final boolean holdsCapacity) {
+      this.id = journalId;
+      this.event = documentEvent;
+      this.blocking = holdsCapacity;
+    }
+  }
+}
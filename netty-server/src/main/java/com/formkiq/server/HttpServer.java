@@ -98,6 +98,14 @@ public class HttpServer {
     typesenseApiKey.setRequired(true);
     options.addOption(typesenseApiKey);
 
+    Option eventJournal = new Option(null, "event-journal", true,
+        "Event Journal file, unprocessed events are replayed on startup");
+    options.addOption(eventJournal);
+
+    Option enableMetrics =
+        new Option(null, "enable-metrics", false, "Enable '/metrics' and AWS SDK metrics");
+    options.addOption(enableMetrics);
+
     return options;
   }
 
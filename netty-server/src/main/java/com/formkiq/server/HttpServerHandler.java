@@ -25,10 +25,10 @@ package com.formkiq.server;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
 import com.formkiq.stacks.lambda.s3.DocumentsS3Update;
 import com.formkiq.stacks.lambda.s3.StagingS3Create;
 import io.netty.channel.ChannelHandlerContext;
@@ -60,11 +60,11 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     String adminUser = awsServices.environment("ADMIN_USERNAME");
     String adminPassword = awsServices.environment("ADMIN_PASSWORD");
 
-    Collection<String> urls = requestHandler.getUrlMap().keySet();
-
     this.handlers = Arrays.asList(new OptionsHttpRequestHandler(),
+        new MetricsHttpRequestHandler(MetricsRegistry.getDefault(), awsServices.enableMetrics(),
+            apiKey),
         new MinioS3HttpRequestHandler(stagingS3Create, documentS3Update),
-        new ApiGatewayHttpRequestHandler(requestHandler, apiKey, urls),
+        new ApiGatewayHttpRequestHandler(requestHandler, apiKey, requestHandler.getRoutes()),
         new AuthenticationLoginHttpRequestHandler(adminUser, adminPassword, apiKey));
   }
 
@@ -26,6 +26,7 @@ package com.formkiq.server;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -36,6 +37,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.cli.CommandLine;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.objects.Strings;
@@ -48,10 +50,17 @@ import com.formkiq.aws.sqs.SqsService;
 import com.formkiq.aws.ssm.SmsAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmService;
 import com.formkiq.aws.ssm.SsmServiceNoOpExtension;
+import com.formkiq.lambda.runtime.graalvm.LambdaContext;
+import com.formkiq.module.actions.services.ActionsNotificationService;
+import com.formkiq.module.actions.services.ActionsNotificationServiceExtension;
+import com.formkiq.module.events.EventService;
 import com.formkiq.module.lambda.typesense.TypesenseProcessor;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.module.lambdaservices.SdkHttpTransportBuilder;
 import com.formkiq.stacks.dynamodb.DocumentVersionServiceNoVersioning;
+import com.formkiq.stacks.lambda.s3.DocumentActionsProcessor;
 import com.formkiq.stacks.lambda.s3.DocumentsS3Update;
 import com.formkiq.stacks.lambda.s3.StagingS3Create;
 import io.minio.BucketExistsArgs;
@@ -100,14 +109,24 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
   private static final String DOCUMENTS_BUCKET = "documents";
   /** Documents Table. */
   private static final String DOCUMENTS_TABLE = "Documents";
+  /** Max events waiting per event worker. */
+  private static final int EVENT_QUEUE_CAPACITY = 1000;
+  /** Number of event worker threads. */
+  private static final int EVENT_WORKER_THREADS = 4;
   /** Initial Time Delay. */
   private static final int INITIAL_TIME_DELAY_IN_SECONDS = 0;
   /** Max Content Length. */
   private static final int MAX_CONTENT_LENGTH = 5242880;
   /** Scheduled Time Delay. */
   private static final int SCHEDULED_TIME_DELAY_IN_SECONDS = 5;
+  /** Number of DynamoDb Stream shard reader threads. */
+  private static final int STREAM_READER_THREADS = 4;
   /** Documents Stating S3 Bucket. */
   private static final String STAGING_DOCUMENTS_BUCKET = "stagingdocuments";
+  /** {@link DocumentActionsProcessor}. */
+  private DocumentActionsProcessor actionsProcessor;
+  /** {@link EventServiceLocal}. */
+  private EventServiceLocal events;
   /** {@link ScheduledExecutorService}. */
   private ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
   /** {@link NettyRequestHandler}. */
@@ -135,10 +154,46 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
     Map<String, URI> awsServiceEndpoints = getEndpoints(commandLine);
 
     setupHandler(commandLine, credentialsProvider, awsServiceEndpoints);
+    this.events = createEventService(commandLine);
     setupS3Lambda(commandLine, credentialsProvider);
+    setupEvents();
     setupStreamToHttpEndpoint(credentialsProvider, awsServiceEndpoints);
   }
 
+  /**
+   * Create {@link EventServiceLocal} that runs document actions in process.
+   * 
+   * @param commandLine {@link CommandLine}
+   * @return {@link EventServiceLocal}
+   */
+  private EventServiceLocal createEventService(final CommandLine commandLine) {
+
+    String journalFile = commandLine.getOptionValue("event-journal");
+    EventJournal journal = !Strings.isEmpty(journalFile) ? new EventJournal(Path.of(journalFile))
+        : null;
+
+    LambdaLogger logger = new LambdaContext(UUID.randomUUID().toString()).getLogger();
+
+    return new EventServiceLocal(e -> this.actionsProcessor.processEvent(logger, e),
+        EVENT_WORKER_THREADS, EVENT_QUEUE_CAPACITY, journal);
+  }
+
+  /**
+   * Use {@link EventServiceLocal} for API events and start processing events.
+   */
+  private void setupEvents() {
+
+    AwsServiceCache aws = this.handler.getAwsServices();
+    aws.register(EventService.class, new ClassServiceExtension<EventService>(this.events));
+    aws.register(ActionsNotificationService.class, new ActionsNotificationServiceExtension());
+
+    try {
+      this.events.start();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private void setupStreamToHttpEndpoint(final AwsCredentialsProvider credentialsProvider,
       final Map<String, URI> awsServiceEndpoints) {
 
@@ -152,10 +207,12 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
       TypesenseProcessor processor = new TypesenseProcessor(this.handler.getAwsServices());
 
+      ShardCheckpointService checkpoints = new ShardCheckpointServiceDynamoDb(db, CACHE_TABLE);
+
       this.streams = new DynamoDbStreamToTypesense(AWS_REGION, credentialsProvider, streamArn,
-          awsServiceEndpoints.get("dynamodb"), processor);
+          awsServiceEndpoints.get("dynamodb"), processor, checkpoints, STREAM_READER_THREADS);
 
-      // Schedule a task to read the stream every 5 seconds
+      // Schedule a task to discover new stream shards every 5 seconds
       this.executorService.scheduleWithFixedDelay(() -> this.streams.run(),
           INITIAL_TIME_DELAY_IN_SECONDS, SCHEDULED_TIME_DELAY_IN_SECONDS, TimeUnit.SECONDS);
     }
@@ -264,6 +321,12 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
     env.put("DOCUMENTS_IAM_URL", "http://localhost:8080");
     env.put("PATH_STYLE_ACCESS_ENABLED", "true");
 
+    env.put(SdkHttpTransportBuilder.ENV_HTTP_CLIENT, "apache");
+    System.getenv().entrySet().stream().filter(e -> e.getKey().startsWith("AWS_HTTP_"))
+        .forEach(e -> env.put(e.getKey(), e.getValue()));
+
+    env.put("ENABLE_METRICS", String.valueOf(commandLine.hasOption("enable-metrics")));
+
     env.put("MODULE_typesense", "true");
     env.put("TYPESENSE_HOST", commandLine.getOptionValue("typesense-host"));
     env.put("TYPESENSE_API_KEY", commandLine.getOptionValue("typesense-api-key"));
@@ -370,8 +433,14 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
             new SnsAwsServiceRegistry(), new SqsAwsServiceRegistry(), new SmsAwsServiceRegistry())
         .build();
 
+    serviceCache.register(EventService.class,
+        new ClassServiceExtension<EventService>(this.events));
+
     this.s3Create = new StagingS3Create(serviceCache);
     this.s3Update = new DocumentsS3Update(serviceCache);
+
+    serviceCache.register(SsmService.class, new SsmServiceNoOpExtension());
+    this.actionsProcessor = new DocumentActionsProcessor(serviceCache);
   }
 
   /**
@@ -391,5 +460,15 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
         e.printStackTrace();
       }
     }
+
+    if (this.events != null) {
+      try {
+        this.events.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    SdkHttpTransportBuilder.closeAll();
   }
 }
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import com.formkiq.module.lambdaservices.MetricsRegistry;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+/**
+ * Prometheus '/metrics' {@link HttpRequestHandler}. Requests must send the API Key in the
+ * Authorization header.
+ */
+public class MetricsHttpRequestHandler implements HttpRequestHandler {
+
+  /** Prometheus metric name prefix. */
+  private static final String PREFIX = "formkiq_";
+
+  /** API Key. */
+  private String apiKey;
+  /** Is Metrics Enabled. */
+  private boolean enabled;
+  /** {@link MetricsRegistry}. */
+  private MetricsRegistry metrics;
+
+  /**
+   * constructor.
+   * 
+   * @param metricsRegistry {@link MetricsRegistry}
+   * @param isEnabled boolean
+   * @param requestApiKey {@link String}
+   */
+  public MetricsHttpRequestHandler(final MetricsRegistry metricsRegistry,
+      final boolean isEnabled, final String requestApiKey) {
+    this.metrics = metricsRegistry;
+    this.enabled = isEnabled;
+    this.apiKey = requestApiKey;
+
+    // Prometheus histograms are built from buckets, measured values are only kept for EMF
+    this.metrics.setRecordValues(false);
+  }
+
+  @Override
+  public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request) {
+
+    if (this.apiKey != null && this.apiKey.equals(request.headers().get("Authorization"))) {
+
+      DefaultFullHttpResponse response =
+          buildResponse(HttpResponseStatus.OK, this.metrics.toPrometheus(PREFIX));
+      response.headers().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+      HttpUtil.setContentLength(response, response.content().readableBytes());
+
+      ctx.writeAndFlush(response);
+
+    } else {
+      sendResponse(ctx, HttpResponseStatus.FORBIDDEN,
+          "{\"message\":\"access denied, invalid API_KEY\"}");
+    }
+  }
+
+  @Override
+  public boolean isSupported(final FullHttpRequest request) {
+    return this.enabled && request.method().equals(HttpMethod.GET)
+        && "/metrics".equals(new QueryStringDecoder(request.uri()).path());
+  }
+}
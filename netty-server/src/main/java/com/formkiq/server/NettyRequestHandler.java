@@ -25,6 +25,7 @@ package com.formkiq.server;
 
 import java.net.URI;
 import java.util.Map;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
@@ -32,6 +33,7 @@ import com.formkiq.aws.sqs.SqsAwsServiceRegistry;
 import com.formkiq.aws.ssm.SmsAwsServiceRegistry;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.module.lambdaservices.MetricsRegistry;
 import com.formkiq.plugins.tagschema.DocumentTagSchemaPluginEmpty;
 import com.formkiq.stacks.api.AbstractCoreRequestHandler;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
@@ -66,4 +68,10 @@ public class NettyRequestHandler extends AbstractCoreRequestHandler {
   public AwsServiceCache getAwsServices() {
     return this.serviceCache;
   }
+
+  @Override
+  protected void publishMetrics(final LambdaLogger logger, final AwsServiceCache awsServices,
+      final MetricsRegistry metrics) {
+    // metrics are scraped from the Prometheus '/metrics' endpoint
+  }
 }
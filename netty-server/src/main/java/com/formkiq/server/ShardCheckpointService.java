@@ -0,0 +1,53 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+/**
+ * 
+ * Stores DynamoDb Stream shard checkpoints, so stream processing resumes where it left off.
+ *
+ */
+public interface ShardCheckpointService {
+
+  /** Checkpoint of a shard that has been completely read. */
+  String SHARD_END = "SHARD_END";
+
+  /**
+   * Get the last processed sequence number of a shard.
+   * 
+   * @param streamArn {@link String}
+   * @param shardId {@link String}
+   * @return {@link String} sequence number, {@link #SHARD_END} or null if no checkpoint
+   */
+  String getCheckpoint(String streamArn, String shardId);
+
+  /**
+   * Save the last processed sequence number of a shard.
+   * 
+   * @param streamArn {@link String}
+   * @param shardId {@link String}
+   * @param sequenceNumber {@link String}
+   */
+  void saveCheckpoint(String streamArn, String shardId, String sequenceNumber);
+}
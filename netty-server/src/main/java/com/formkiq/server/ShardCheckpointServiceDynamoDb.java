@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * 
+ * DynamoDb implementation of {@link ShardCheckpointService}.
+ *
+ */
+public class ShardCheckpointServiceDynamoDb implements ShardCheckpointService, DbKeys {
+
+  /** Sequence Number Attribute. */
+  private static final String SEQUENCE_NUMBER = "sequenceNumber";
+
+  /** {@link DynamoDbService}. */
+  private DynamoDbService db;
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param checkpointTable {@link String}
+   */
+  public ShardCheckpointServiceDynamoDb(final DynamoDbConnectionBuilder connection,
+      final String checkpointTable) {
+    this.db = new DynamoDbServiceImpl(connection, checkpointTable);
+  }
+
+  @Override
+  public String getCheckpoint(final String streamArn, final String shardId) {
+    Map<String, AttributeValue> item = this.db.get(pk(streamArn), sk(shardId));
+    return item.containsKey(SEQUENCE_NUMBER) ? item.get(SEQUENCE_NUMBER).s() : null;
+  }
+
+  private AttributeValue pk(final String streamArn) {
+    return AttributeValue.fromS("streams" + TAG_DELIMINATOR + streamArn);
+  }
+
+  @Override
+  public void saveCheckpoint(final String streamArn, final String shardId,
+      final String sequenceNumber) {
+
+    Map<String, AttributeValue> item = new HashMap<>();
+    item.put(PK, pk(streamArn));
+    item.put(SK, sk(shardId));
+    item.put(SEQUENCE_NUMBER, AttributeValue.fromS(sequenceNumber));
+
+    this.db.putItem(item);
+  }
+
+  private AttributeValue sk(final String shardId) {
+    return AttributeValue.fromS("shard" + TAG_DELIMINATOR + shardId);
+  }
+}
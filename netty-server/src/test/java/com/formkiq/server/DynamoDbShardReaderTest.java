@@ -0,0 +1,160 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+
+/**
+ * Unit Test for {@link DynamoDbShardReader}.
+ */
+public class DynamoDbShardReaderTest {
+
+  /** Stream Arn. */
+  private static final String STREAM_ARN = "arn:aws:dynamodb:us-east-1:1:table/Documents/stream";
+
+  /** {@link ShardCheckpointServiceMemory}. */
+  private ShardCheckpointServiceMemory checkpoints;
+  /** {@link ScheduledExecutorService}, shutdown so readers are run by the test. */
+  private ScheduledExecutorService executor;
+  /** Batches of Sequence Numbers sent to the processor. */
+  private List<List<String>> batches;
+  /** Completed Shards. */
+  private List<String> completed;
+
+  /**
+   * Before Each.
+   */
+  @BeforeEach
+  public void beforeEach() {
+    this.checkpoints = new ShardCheckpointServiceMemory();
+    this.executor = Executors.newSingleThreadScheduledExecutor();
+    this.executor.shutdown();
+    this.batches = new ArrayList<>();
+    this.completed = new ArrayList<>();
+  }
+
+  private DynamoDbShardReader createReader(final DynamoDbStreamsAsyncClientMemory client,
+      final int... processed) {
+
+    List<Integer> results = new ArrayList<>();
+    for (int p : processed) {
+      results.add(Integer.valueOf(p));
+    }
+
+    return new DynamoDbShardReader(client, STREAM_ARN, "shard1", this.checkpoints, records -> {
+      this.batches.add(toSequenceNumbers(records));
+      return results.isEmpty() ? Integer.valueOf(records.size()) : results.remove(0);
+    }, this.executor, this.completed::add);
+  }
+
+  private List<String> toSequenceNumbers(final List<Record> records) {
+    return records.stream().map(r -> r.dynamodb().sequenceNumber()).collect(Collectors.toList());
+  }
+
+  /**
+   * All records processed, checkpoint is the last record.
+   */
+  @Test
+  public void testRun01() {
+    // given
+    DynamoDbStreamsAsyncClientMemory client =
+        new DynamoDbStreamsAsyncClientMemory().addShard("shard1", null, false, "1", "2", "3");
+    DynamoDbShardReader reader = createReader(client);
+
+    // when
+    reader.run();
+    reader.run();
+
+    // then
+    assertEquals(List.of(List.of("1", "2", "3")), this.batches);
+    assertEquals("3", this.checkpoints.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals(0, this.completed.size());
+  }
+
+  /**
+   * Record fails, checkpoint is the last successful record and the failed record is retried.
+   */
+  @Test
+  public void testRun02() {
+    // given
+    DynamoDbStreamsAsyncClientMemory client =
+        new DynamoDbStreamsAsyncClientMemory().addShard("shard1", null, true, "1", "2", "3");
+    DynamoDbShardReader reader = createReader(client, 1);
+
+    // when
+    reader.run();
+
+    // then
+    assertEquals("1", this.checkpoints.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals(0, this.completed.size());
+
+    // when
+    reader.run();
+    reader.run();
+
+    // then
+    assertEquals(List.of(List.of("1", "2", "3"), List.of("2", "3")), this.batches);
+    assertEquals(ShardCheckpointService.SHARD_END,
+        this.checkpoints.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals(List.of("shard1"), this.completed);
+  }
+
+  /**
+   * First record fails, no checkpoint is saved and the shard is read again from the start.
+   */
+  @Test
+  public void testRun03() {
+    // given
+    DynamoDbStreamsAsyncClientMemory client =
+        new DynamoDbStreamsAsyncClientMemory().addShard("shard1", null, true, "1", "2");
+    DynamoDbShardReader reader = createReader(client, 0, 0);
+
+    // when
+    reader.run();
+    reader.run();
+
+    // then
+    assertNull(this.checkpoints.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals(0, this.completed.size());
+
+    // when
+    reader.run();
+    reader.run();
+
+    // then
+    assertEquals(List.of(List.of("1", "2"), List.of("1", "2"), List.of("1", "2")), this.batches);
+    assertEquals(ShardCheckpointService.SHARD_END,
+        this.checkpoints.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals(List.of("shard1"), this.completed);
+  }
+}
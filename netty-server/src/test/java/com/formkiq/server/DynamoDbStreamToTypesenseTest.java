@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+
+/**
+ * Unit Test for {@link DynamoDbStreamToTypesense}.
+ */
+public class DynamoDbStreamToTypesenseTest {
+
+  /** Sleep in millis. */
+  private static final long SLEEP = 50L;
+  /** Stream Arn. */
+  private static final String STREAM_ARN = "arn:aws:dynamodb:us-east-1:1:table/Documents/stream";
+  /** Test Timeout. */
+  private static final long TEST_TIMEOUT = 30;
+
+  /** {@link ShardCheckpointServiceMemory}. */
+  private ShardCheckpointServiceMemory checkpoints;
+  /** Processed Record Event Ids. */
+  private List<String> processed;
+
+  /**
+   * Before Each.
+   */
+  @BeforeEach
+  public void beforeEach() {
+    this.checkpoints = new ShardCheckpointServiceMemory();
+    this.processed = Collections.synchronizedList(new ArrayList<>());
+  }
+
+  private RequestHandler<Map<String, Object>, Void> createHandler(final String failOnce) {
+
+    AtomicBoolean failed = new AtomicBoolean(false);
+
+    return (map, context) -> {
+      @SuppressWarnings("unchecked")
+      List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
+      String eventId = (String) records.get(0).get("eventID");
+
+      if (eventId.equals(failOnce) && !failed.getAndSet(true)) {
+        throw new IllegalStateException("failed " + eventId);
+      }
+
+      this.processed.add(eventId);
+      return null;
+    };
+  }
+
+  private DynamoDbStreamToTypesense createStream(final DynamoDbStreamsAsyncClientMemory client,
+      final String failOnce) {
+    return new DynamoDbStreamToTypesense(client, STREAM_ARN, createHandler(failOnce),
+        this.checkpoints, Executors.newScheduledThreadPool(2));
+  }
+
+  private void waitForCheckpoint(final String shardId, final String sequenceNumber)
+      throws InterruptedException {
+    while (!sequenceNumber.equals(this.checkpoints.getCheckpoint(STREAM_ARN, shardId))) {
+      Thread.sleep(SLEEP);
+    }
+  }
+
+  /**
+   * Child shard listed before its parent, parent already checkpointed as complete.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testRun01() throws Exception {
+    // given
+    DynamoDbStreamsAsyncClientMemory client = new DynamoDbStreamsAsyncClientMemory()
+        .addShard("child", "parent", false, "3", "4").addShard("parent", null, true, "1", "2");
+    this.checkpoints.saveCheckpoint(STREAM_ARN, "parent", ShardCheckpointService.SHARD_END);
+
+    try (DynamoDbStreamToTypesense stream = createStream(client, null)) {
+
+      // when
+      stream.run();
+
+      // then
+      waitForCheckpoint("child", "4");
+      assertEquals(List.of("3", "4"), this.processed);
+    }
+  }
+
+  /**
+   * Child shard is only read after its parent shard has been completely read.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testRun02() throws Exception {
+    // given
+    DynamoDbStreamsAsyncClientMemory client = new DynamoDbStreamsAsyncClientMemory()
+        .addShard("child", "parent", false, "3", "4").addShard("parent", null, true, "1", "2");
+
+    try (DynamoDbStreamToTypesense stream = createStream(client, null)) {
+
+      // when
+      stream.run();
+
+      // then
+      waitForCheckpoint("parent", ShardCheckpointService.SHARD_END);
+      assertEquals(List.of("1", "2"), this.processed);
+
+      // when
+      stream.run();
+
+      // then
+      waitForCheckpoint("child", "4");
+      assertEquals(List.of("1", "2", "3", "4"), this.processed);
+    }
+  }
+
+  /**
+   * Failed record is not checkpointed and is retried.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testRun03() throws Exception {
+    // given
+    DynamoDbStreamsAsyncClientMemory client =
+        new DynamoDbStreamsAsyncClientMemory().addShard("shard1", null, false, "1", "2", "3");
+
+    try (DynamoDbStreamToTypesense stream = createStream(client, "2")) {
+
+      // when
+      stream.run();
+
+      // then
+      waitForCheckpoint("shard1", "1");
+      assertEquals(List.of("1"), this.processed);
+
+      waitForCheckpoint("shard1", "3");
+      assertEquals(List.of("1", "2", "3"), this.processed);
+    }
+  }
+}
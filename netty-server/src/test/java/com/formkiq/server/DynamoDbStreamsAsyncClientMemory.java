@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorResponse;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.SequenceNumberRange;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
+
+/**
+ * 
+ * In memory {@link DynamoDbStreamsAsyncClient}, shard iterators are "shardId:index".
+ *
+ */
+public class DynamoDbStreamsAsyncClientMemory implements DynamoDbStreamsAsyncClient {
+
+  /** Closed Shard Ids. */
+  private List<String> closed = new ArrayList<>();
+  /** Shard Records. */
+  private Map<String, List<Record>> records = new LinkedHashMap<>();
+  /** Shards, in DescribeStream order. */
+  private List<Shard> shards = new ArrayList<>();
+
+  /**
+   * Add Shard.
+   * 
+   * @param shardId {@link String}
+   * @param parentShardId {@link String}
+   * @param isClosed boolean
+   * @param sequenceNumbers {@link String}
+   * @return {@link DynamoDbStreamsAsyncClientMemory}
+   */
+  public DynamoDbStreamsAsyncClientMemory addShard(final String shardId,
+      final String parentShardId, final boolean isClosed, final String... sequenceNumbers) {
+
+    List<Record> list = new ArrayList<>();
+    for (String sequenceNumber : sequenceNumbers) {
+      list.add(Record.builder().eventID(sequenceNumber).eventName("INSERT")
+          .dynamodb(StreamRecord.builder().sequenceNumber(sequenceNumber)
+              .keys(Map.of("PK", AttributeValue.fromS(sequenceNumber)))
+              .newImage(Map.of("PK", AttributeValue.fromS(sequenceNumber))).build())
+          .build());
+    }
+
+    this.shards.add(Shard.builder().shardId(shardId).parentShardId(parentShardId)
+        .sequenceNumberRange(SequenceNumberRange.builder().build()).build());
+    this.records.put(shardId, list);
+
+    if (isClosed) {
+      this.closed.add(shardId);
+    }
+
+    return this;
+  }
+
+  @Override
+  public void close() {
+    // empty
+  }
+
+  @Override
+  public CompletableFuture<DescribeStreamResponse> describeStream(
+      final DescribeStreamRequest describeStreamRequest) {
+    return CompletableFuture.completedFuture(DescribeStreamResponse.builder()
+        .streamDescription(StreamDescription.builder().shards(this.shards).build()).build());
+  }
+
+  @Override
+  public CompletableFuture<GetRecordsResponse> getRecords(
+      final GetRecordsRequest getRecordsRequest) {
+
+    String[] iterator = getRecordsRequest.shardIterator().split(":");
+    String shardId = iterator[0];
+    int index = Integer.parseInt(iterator[1]);
+
+    List<Record> list = this.records.get(shardId);
+    List<Record> batch = list.subList(Math.min(index, list.size()), list.size());
+
+    String next =
+        !batch.isEmpty() || !this.closed.contains(shardId) ? shardId + ":" + list.size() : null;
+
+    return CompletableFuture.completedFuture(GetRecordsResponse.builder()
+        .records(new ArrayList<>(batch)).nextShardIterator(next).build());
+  }
+
+  @Override
+  public CompletableFuture<GetShardIteratorResponse> getShardIterator(
+      final GetShardIteratorRequest getShardIteratorRequest) {
+
+    String shardId = getShardIteratorRequest.shardId();
+    int index = 0;
+
+    if (ShardIteratorType.AFTER_SEQUENCE_NUMBER
+        .equals(getShardIteratorRequest.shardIteratorType())) {
+
+      List<Record> list = this.records.get(shardId);
+      for (int i = 0; i < list.size(); i++) {
+        if (list.get(i).dynamodb().sequenceNumber()
+            .equals(getShardIteratorRequest.sequenceNumber())) {
+          index = i + 1;
+        }
+      }
+    }
+
+    return CompletableFuture.completedFuture(
+        GetShardIteratorResponse.builder().shardIterator(shardId + ":" + index).build());
+  }
+
+  @Override
+  public String serviceName() {
+    return "dynamodb";
+  }
+}
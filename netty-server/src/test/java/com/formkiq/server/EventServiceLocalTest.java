@@ -0,0 +1,213 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static com.formkiq.module.events.document.DocumentEventType.ACTIONS;
+import static com.formkiq.module.events.document.DocumentEventType.CREATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import com.formkiq.module.events.document.DocumentEvent;
+
+/**
+ * Unit Test for {@link EventServiceLocal}.
+ */
+public class EventServiceLocalTest {
+
+  /** Sleep in millis. */
+  private static final long SLEEP = 50L;
+  /** Test Timeout. */
+  private static final long TEST_TIMEOUT = 30;
+
+  private static DocumentEvent createEvent(final String type, final String documentId,
+      final int seq) {
+    return new DocumentEvent().siteId("default").documentId(documentId).type(type)
+        .userId(String.valueOf(seq));
+  }
+
+  private static void waitForEvents(final EventServiceLocal service)
+      throws InterruptedException {
+    while (service.getPending() > 0) {
+      Thread.sleep(SLEEP);
+    }
+  }
+
+  /**
+   * Events are processed in order per document.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testPublish01() throws Exception {
+    // given
+    final int documents = 5;
+    final int count = 200;
+    final int capacity = 2;
+    Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+
+    EventServiceLocal service = new EventServiceLocal(
+        e -> processed.computeIfAbsent(e.documentId(), k -> Collections.synchronizedList(
+            new ArrayList<>())).add(Integer.valueOf(e.userId())),
+        2, capacity, null);
+    service.start();
+
+    // when
+    for (int i = 0; i < count; i++) {
+      service.publish(createEvent(ACTIONS, "doc" + (i % documents), i));
+      service.publish(createEvent(CREATE, "doc" + (i % documents), i));
+    }
+
+    waitForEvents(service);
+    service.close();
+
+    // then
+    assertEquals(documents, processed.size());
+
+    for (List<Integer> list : processed.values()) {
+      assertEquals(count / documents, list.size());
+
+      List<Integer> sorted = new ArrayList<>(list);
+      Collections.sort(sorted);
+      assertEquals(sorted, list);
+    }
+  }
+
+  /**
+   * Journaled events that were not processed are replayed on start.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testPublish02() throws Exception {
+    // given
+    final int count = 3;
+    Path dir = Files.createTempDirectory("journal");
+    Path file = dir.resolve("events.log");
+    List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+    EventJournal journal = new EventJournal(file);
+    journal.open();
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ids.add(Long.valueOf(journal.append(createEvent(ACTIONS, "doc" + i, i))));
+    }
+    journal.complete(ids.get(0).longValue());
+    journal.close();
+
+    // when
+    EventServiceLocal service = new EventServiceLocal(e -> processed.add(e.documentId()), 1, count,
+        new EventJournal(file));
+    service.start();
+    waitForEvents(service);
+    service.close();
+
+    // then
+    assertEquals(List.of("doc1", "doc2"), processed);
+    assertEquals(0, new EventJournal(file).open().size());
+  }
+
+  /**
+   * Failed events are retried, events that still fail are left in the journal.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testPublish03() throws Exception {
+    // given
+    final int maxAttempts = 3;
+    Path file = Files.createTempDirectory("journal").resolve("events.log");
+    Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+    EventServiceLocal service = new EventServiceLocal(e -> {
+      int attempt = attempts.computeIfAbsent(e.documentId(), k -> new AtomicInteger())
+          .incrementAndGet();
+      if (!"doc0".equals(e.documentId()) || attempt < 2) {
+        throw new IOException("failed " + attempt);
+      }
+    }, 1, 2, new EventJournal(file));
+    service.start();
+
+    // when
+    service.publish(createEvent(ACTIONS, "doc0", 0));
+    service.publish(createEvent(ACTIONS, "doc1", 1));
+    waitForEvents(service);
+    service.close();
+
+    // then
+    assertEquals(2, attempts.get("doc0").get());
+    assertEquals(maxAttempts, attempts.get("doc1").get());
+
+    Map<Long, DocumentEvent> pending = new EventJournal(file).open();
+    assertEquals(1, pending.size());
+    assertEquals("doc1", pending.values().iterator().next().documentId());
+  }
+
+  /**
+   * Journal is compacted while events are outstanding.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  public void testJournal01() throws Exception {
+    // given
+    final int compactAfter = 10;
+    final int count = 95;
+    Path file = Files.createTempDirectory("journal").resolve("events.log");
+    EventJournal journal = new EventJournal(file, compactAfter);
+    journal.open();
+    long outstanding = journal.append(createEvent(ACTIONS, "doc", 0));
+
+    // when
+    for (int i = 0; i < count; i++) {
+      journal.complete(journal.append(createEvent(ACTIONS, "doc" + i, i)));
+    }
+    journal.close();
+
+    // then
+    List<String> lines = Files.readAllLines(file);
+    assertTrue(lines.size() <= 1 + 2 * compactAfter);
+    assertTrue(lines.get(0).startsWith("+" + outstanding + " "));
+
+    EventJournal reopened = new EventJournal(file, compactAfter);
+    Map<Long, DocumentEvent> pending = reopened.open();
+    assertEquals(List.of(Long.valueOf(outstanding)), new ArrayList<>(pending.keySet()));
+    assertEquals(1, reopened.getOutstanding());
+    reopened.close();
+  }
+}
@@ -27,7 +27,9 @@ import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentConten
 import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentContentLength;
 import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentFulltext;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -157,6 +159,79 @@ public class HttpServerTest {
     assertEquals("{\"message\":\"/hello not found\"}", response.body());
   }
 
+  /**
+   * Test /metrics requires API Key.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testMetrics01() throws Exception {
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder().uri(new URI(BASE_URL + "/metrics")).build();
+    HttpRequest invalid = HttpRequest.newBuilder().header("Authorization", "invalid")
+        .uri(new URI(BASE_URL + "/metrics")).build();
+
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    assertEquals(HttpResponseStatus.FORBIDDEN.code(), response.statusCode());
+    assertEquals("{\"message\":\"access denied, invalid API_KEY\"}", response.body());
+
+    response = client.send(invalid, HttpResponse.BodyHandlers.ofString());
+    assertEquals(HttpResponseStatus.FORBIDDEN.code(), response.statusCode());
+  }
+
+  /**
+   * Test /metrics with API Key.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testMetrics02() throws Exception {
+    // given
+    this.documentsApi.getDocuments(null, null, null, "2020-05-20", null, null, null, null);
+
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder().header("Authorization", NettyExtension.API_KEY)
+        .uri(new URI(BASE_URL + "/metrics")).build();
+
+    // when
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.OK.code(), response.statusCode());
+    assertTrue(response.headers().firstValue("Content-Type").get().startsWith("text/plain"));
+    assertTrue(response.body().contains("# TYPE formkiq_aws_latency_milliseconds histogram\n"));
+    assertTrue(response.body().contains("{service=\"DynamoDb\",operation=\"Query\"}"));
+  }
+
+  /**
+   * Test /metrics records requests that match no resource under one resource.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testMetrics03() throws Exception {
+    // given
+    String path = "/unknown/" + UUID.randomUUID();
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest unknown = HttpRequest.newBuilder().header("Authorization", NettyExtension.API_KEY)
+        .uri(new URI(BASE_URL + path)).build();
+    HttpRequest request = HttpRequest.newBuilder().header("Authorization", NettyExtension.API_KEY)
+        .uri(new URI(BASE_URL + "/metrics")).build();
+
+    // when
+    HttpResponse<String> response = client.send(unknown, HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> metrics = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.NOT_FOUND.code(), response.statusCode());
+    assertEquals(HttpResponseStatus.OK.code(), metrics.statusCode());
+    assertTrue(metrics.body().contains("resource=\"unmatched\""));
+    assertFalse(metrics.body().contains(path));
+  }
+
   /**
    * Test /login failed.
    * 
@@ -72,6 +72,7 @@ public class NettyExtension implements BeforeAllCallback, AfterAllCallback {
     params.add("--admin-username=" + ADMIN_USERNAME);
     params.add("--admin-password=" + ADMIN_PASSWORD);
     params.add("--api-key=" + API_KEY);
+    params.add("--enable-metrics");
     params.add("--typesense-host=http://localhost:" + TypesenseExtension.getMappedPort());
     params.add("--typesense-api-key=" + TypesenseExtension.API_KEY);
 
@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.CACHE_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+
+/**
+ * Unit Test for {@link ShardCheckpointServiceDynamoDb}.
+ */
+@ExtendWith(DynamoDbExtension.class)
+public class ShardCheckpointServiceDynamoDbTest {
+
+  /** Stream Arn. */
+  private static final String STREAM_ARN = "arn:aws:dynamodb:us-east-1:1:table/Documents/stream";
+
+  /** {@link ShardCheckpointService}. */
+  private static ShardCheckpointService service;
+
+  /**
+   * Before All.
+   * 
+   * @throws Exception Exception
+   */
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    service = new ShardCheckpointServiceDynamoDb(DynamoDbTestServices.getDynamoDbConnection(),
+        CACHE_TABLE);
+  }
+
+  /**
+   * Save and update checkpoints per shard.
+   */
+  @Test
+  public void testSaveCheckpoint01() {
+    // given
+    // when
+    service.saveCheckpoint(STREAM_ARN, "shard1", "100");
+    service.saveCheckpoint(STREAM_ARN, "shard2", "200");
+    service.saveCheckpoint(STREAM_ARN, "shard1", ShardCheckpointService.SHARD_END);
+
+    // then
+    assertEquals(ShardCheckpointService.SHARD_END, service.getCheckpoint(STREAM_ARN, "shard1"));
+    assertEquals("200", service.getCheckpoint(STREAM_ARN, "shard2"));
+    assertNull(service.getCheckpoint(STREAM_ARN, "shard3"));
+    assertNull(service.getCheckpoint(STREAM_ARN + "2", "shard1"));
+  }
+}
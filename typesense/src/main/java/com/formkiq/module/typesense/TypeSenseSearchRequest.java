@@ -0,0 +1,211 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.typesense;
+
+/** Typesense Search Request, pushing filtering, sorting and facets down into Typesense. */
+public class TypeSenseSearchRequest {
+
+  /** Default fields to query. */
+  public static final String DEFAULT_QUERY_BY = "content,path,metadata#*";
+
+  /** Typesense exclude_fields. */
+  private String excludeFields;
+  /** Typesense facet_by. */
+  private String facetBy;
+  /** Typesense filter_by. */
+  private String filterBy;
+  /** Typesense include_fields. */
+  private String includeFields;
+  /** Maximum number of results. */
+  private int maxResults;
+  /** Typesense query_by. */
+  private String queryBy = DEFAULT_QUERY_BY;
+  /** Typesense sort_by. */
+  private String sortBy;
+  /** Search Text. */
+  private String text;
+
+  /** constructor. */
+  public TypeSenseSearchRequest() {}
+
+  /**
+   * Get exclude_fields.
+   * 
+   * @return {@link String}
+   */
+  public String excludeFields() {
+    return this.excludeFields;
+  }
+
+  /**
+   * Set exclude_fields.
+   * 
+   * @param fields {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest excludeFields(final String fields) {
+    this.excludeFields = fields;
+    return this;
+  }
+
+  /**
+   * Get facet_by.
+   * 
+   * @return {@link String}
+   */
+  public String facetBy() {
+    return this.facetBy;
+  }
+
+  /**
+   * Set facet_by.
+   * 
+   * @param fields {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest facetBy(final String fields) {
+    this.facetBy = fields;
+    return this;
+  }
+
+  /**
+   * Get filter_by.
+   * 
+   * @return {@link String}
+   */
+  public String filterBy() {
+    return this.filterBy;
+  }
+
+  /**
+   * Set filter_by.
+   * 
+   * @param filter {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest filterBy(final String filter) {
+    this.filterBy = filter;
+    return this;
+  }
+
+  /**
+   * Get include_fields.
+   * 
+   * @return {@link String}
+   */
+  public String includeFields() {
+    return this.includeFields;
+  }
+
+  /**
+   * Set include_fields.
+   * 
+   * @param fields {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest includeFields(final String fields) {
+    this.includeFields = fields;
+    return this;
+  }
+
+  /**
+   * Get Max Results.
+   * 
+   * @return int
+   */
+  public int maxResults() {
+    return this.maxResults;
+  }
+
+  /**
+   * Set Max Results.
+   * 
+   * @param max int
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest maxResults(final int max) {
+    this.maxResults = max;
+    return this;
+  }
+
+  /**
+   * Get query_by.
+   * 
+   * @return {@link String}
+   */
+  public String queryBy() {
+    return this.queryBy;
+  }
+
+  /**
+   * Set query_by.
+   * 
+   * @param fields {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest queryBy(final String fields) {
+    this.queryBy = fields;
+    return this;
+  }
+
+  /**
+   * Get sort_by.
+   * 
+   * @return {@link String}
+   */
+  public String sortBy() {
+    return this.sortBy;
+  }
+
+  /**
+   * Set sort_by.
+   * 
+   * @param sort {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest sortBy(final String sort) {
+    this.sortBy = sort;
+    return this;
+  }
+
+  /**
+   * Get Search Text.
+   * 
+   * @return {@link String}
+   */
+  public String text() {
+    return this.text;
+  }
+
+  /**
+   * Set Search Text.
+   * 
+   * @param s {@link String}
+   * @return {@link TypeSenseSearchRequest}
+   */
+  public TypeSenseSearchRequest text(final String s) {
+    this.text = s;
+    return this;
+  }
+}
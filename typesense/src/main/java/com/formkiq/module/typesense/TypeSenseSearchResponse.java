@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.typesense;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/** Typesense Search Response. */
+public class TypeSenseSearchResponse {
+
+  /** Stored fields of the matching documents, in ranked order. */
+  private List<Map<String, Object>> documents = Collections.emptyList();
+  /** Typesense facet_counts. */
+  private List<Map<String, Object>> facets = Collections.emptyList();
+  /** Total number of matching documents. */
+  private long found;
+
+  /** constructor. */
+  public TypeSenseSearchResponse() {}
+
+  /**
+   * Get Documents, each keyed by "documentId".
+   * 
+   * @return {@link List} {@link Map}
+   */
+  public List<Map<String, Object>> documents() {
+    return this.documents;
+  }
+
+  /**
+   * Set Documents.
+   * 
+   * @param list {@link List} {@link Map}
+   * @return {@link TypeSenseSearchResponse}
+   */
+  public TypeSenseSearchResponse documents(final List<Map<String, Object>> list) {
+    this.documents = list;
+    return this;
+  }
+
+  /**
+   * Get Facet Counts.
+   * 
+   * @return {@link List} {@link Map}
+   */
+  public List<Map<String, Object>> facets() {
+    return this.facets;
+  }
+
+  /**
+   * Set Facet Counts.
+   * 
+   * @param list {@link List} {@link Map}
+   * @return {@link TypeSenseSearchResponse}
+   */
+  public TypeSenseSearchResponse facets(final List<Map<String, Object>> list) {
+    this.facets = list;
+    return this;
+  }
+
+  /**
+   * Get number of documents found.
+   * 
+   * @return long
+   */
+  public long found() {
+    return this.found;
+  }
+
+  /**
+   * Set number of documents found.
+   * 
+   * @param count long
+   * @return {@link TypeSenseSearchResponse}
+   */
+  public TypeSenseSearchResponse found(final long count) {
+    this.found = count;
+    return this;
+  }
+}
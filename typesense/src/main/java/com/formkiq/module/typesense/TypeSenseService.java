@@ -25,6 +25,7 @@ package com.formkiq.module.typesense;
 
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -44,6 +45,15 @@ public interface TypeSenseService {
    */
   HttpResponse<String> addCollection(String siteId) throws IOException;
 
+  /**
+   * Add Collection with a specific name, using the same schema as {@link #addCollection(String)}.
+   * 
+   * @param collectionName {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> addCollectionByName(String collectionName) throws IOException;
+
   /**
    * Add Document.
    * 
@@ -68,6 +78,15 @@ public interface TypeSenseService {
   HttpResponse<String> addOrUpdateDocument(String siteId, String documentId,
       Map<String, Object> data) throws IOException;
 
+  /**
+   * Delete Collection.
+   * 
+   * @param collectionName {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> deleteCollectionByName(String collectionName) throws IOException;
+
   /**
    * Delete Document.
    * 
@@ -78,6 +97,17 @@ public interface TypeSenseService {
    */
   HttpResponse<String> deleteDocument(String siteId, String documentId) throws IOException;
 
+  /**
+   * Delete Document from a collection.
+   * 
+   * @param collectionName {@link String}
+   * @param documentId {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> deleteDocumentByName(String collectionName, String documentId)
+      throws IOException;
+
   /**
    * Get Document.
    * 
@@ -88,6 +118,52 @@ public interface TypeSenseService {
    */
   HttpResponse<String> getDocument(String siteId, String documentId) throws IOException;
 
+  /**
+   * Get Documents fields from a collection.
+   * 
+   * @param collectionName {@link String}
+   * @param documentIds {@link Collection} {@link String}
+   * @param includeFields {@link String}
+   * @return {@link List} {@link Map}
+   * @throws IOException IOException
+   */
+  List<Map<String, Object>> getDocumentsByName(String collectionName,
+      Collection<String> documentIds, String includeFields) throws IOException;
+
+  /**
+   * Get the name of the collection that currently serves a site, following the site alias if
+   * there is one.
+   * 
+   * @param siteId {@link String}
+   * @return {@link String} or null if site has no collection
+   * @throws IOException IOException
+   */
+  String getSiteCollectionName(String siteId) throws IOException;
+
+  /**
+   * Import Documents into a collection, using the JSONL import endpoint. Each document must have
+   * an 'id' and is merged into any existing document with the same 'id'. Documents whose import
+   * result is not successful are retried.
+   * 
+   * @param collectionName {@link String}
+   * @param documents {@link Collection} {@link Map}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException if any document still fails to import
+   */
+  HttpResponse<String> importDocumentsByName(String collectionName,
+      Collection<Map<String, Object>> documents) throws IOException;
+
+  /**
+   * Search a site's collection with filtering, sorting and facets applied by Typesense.
+   * 
+   * @param siteId {@link String}
+   * @param request {@link TypeSenseSearchRequest}
+   * @return {@link TypeSenseSearchResponse}
+   * @throws IOException IOException
+   */
+  TypeSenseSearchResponse search(String siteId, TypeSenseSearchRequest request)
+      throws IOException;
+
   /**
    * Full text search.
    * 
@@ -110,4 +186,37 @@ public interface TypeSenseService {
    */
   HttpResponse<String> updateDocument(String siteId, String documentId, Map<String, Object> data)
       throws IOException;
+
+  /**
+   * Update Document fields in a collection.
+   * 
+   * @param collectionName {@link String}
+   * @param documentId {@link String}
+   * @param data {@link Map}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> updateDocumentByName(String collectionName, String documentId,
+      Map<String, Object> data) throws IOException;
+
+  /**
+   * Change the type of a site collection's "tags#.*" field to "string[]". Collections created
+   * before document tags were indexed define the field as "string".
+   * 
+   * @param siteId {@link String}
+   * @return boolean true if the field type was changed
+   * @throws IOException IOException
+   */
+  boolean updateTagsFieldType(String siteId) throws IOException;
+
+  /**
+   * Point the site alias to a collection. If the site is still served by a collection with the
+   * site's name (not an alias), that collection is deleted once the alias exists.
+   * 
+   * @param siteId {@link String}
+   * @param collectionName {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> updateSiteAlias(String siteId, String collectionName) throws IOException;
 }
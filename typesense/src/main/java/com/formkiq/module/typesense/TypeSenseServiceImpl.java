@@ -31,7 +31,9 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +55,11 @@ import software.amazon.awssdk.regions.Region;
  */
 public class TypeSenseServiceImpl implements TypeSenseService {
 
+  /** Maximum number of attempts to import a document. */
+  private static final int MAX_IMPORT_ATTEMPTS = 3;
+  /** Document Tags field name. */
+  private static final String TAGS_FIELD = "tags#.*";
+
   /** {@link Map}. */
   private Map<String, String> additionalHeaders = Collections.emptyMap();
   /** {@link String}. */
@@ -86,14 +93,20 @@ public class TypeSenseServiceImpl implements TypeSenseService {
 
   @Override
   public HttpResponse<String> addCollection(final String siteId) throws IOException {
+    return addCollectionByName(getCollectionName(siteId));
+  }
 
-    String site = getCollectionName(siteId);
+  @Override
+  public HttpResponse<String> addCollectionByName(final String collectionName)
+      throws IOException {
+
+    String site = collectionName;
     String url = String.format("%s/collections", this.host);
 
     Map<String, Object> schema = Map.of("name", site, "enable_nested_fields", Boolean.TRUE,
         "token_separators", Arrays.asList("/"), "fields",
         Arrays.asList(Map.of("name", "path", "type", "string", "optional", Boolean.TRUE),
-            Map.of("name", "tags#.*", "type", "string", "optional", Boolean.TRUE),
+            Map.of("name", TAGS_FIELD, "type", "string[]", "optional", Boolean.TRUE),
             Map.of("name", "metadata#.*", "type", "string", "optional", Boolean.TRUE),
             Map.of("name", "content", "type", "string", "optional", Boolean.TRUE)));
 
@@ -165,13 +178,32 @@ public class TypeSenseServiceImpl implements TypeSenseService {
     return response;
   }
 
+  private void appendParameter(final StringBuilder url, final String name, final String value) {
+    if (value != null && !value.isEmpty()) {
+      url.append('&').append(name).append('=').append(encode(value));
+    }
+  }
+
+  @Override
+  public HttpResponse<String> deleteCollectionByName(final String collectionName)
+      throws IOException {
+
+    String url = String.format("%s/collections/%s", this.host, encode(collectionName));
+    return this.service.delete(url, Optional.of(getHeader()), Optional.empty());
+  }
+
   @Override
   public HttpResponse<String> deleteDocument(final String siteId, final String documentId)
       throws IOException {
+    return deleteDocumentByName(getCollectionName(siteId), documentId);
+  }
 
-    String site = getCollectionName(siteId);
-    String url =
-        String.format("%s/collections/%s/documents/%s", this.host, encode(site), documentId);
+  @Override
+  public HttpResponse<String> deleteDocumentByName(final String collectionName,
+      final String documentId) throws IOException {
+
+    String url = String.format("%s/collections/%s/documents/%s", this.host,
+        encode(collectionName), documentId);
 
     HttpHeaders headers = getHeader();
 
@@ -209,6 +241,43 @@ public class TypeSenseServiceImpl implements TypeSenseService {
     return response;
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<Map<String, Object>> getDocumentsByName(final String collectionName,
+      final Collection<String> documentIds, final String includeFields) throws IOException {
+
+    List<Map<String, Object>> list = Collections.emptyList();
+
+    if (!documentIds.isEmpty()) {
+
+      String ids = documentIds.stream().map(id -> "`" + id + "`").collect(Collectors.joining(","));
+
+      String url = String.format(
+          "%s/collections/%s/documents/search?q=%s&filter_by=%s&include_fields=%s&per_page=%s",
+          this.host, encode(collectionName), encode("*"), encode("id:[" + ids + "]"),
+          encode(includeFields), "" + documentIds.size());
+
+      HttpResponse<String> response =
+          this.service.get(url, Optional.of(getHeader()), Optional.empty());
+
+      if (is2XX(response)) {
+
+        Map<String, Object> map = this.json.fromJsonToMap(response.body());
+
+        if (map.containsKey("hits")) {
+          List<Map<String, Object>> hits = (List<Map<String, Object>>) map.get("hits");
+          list = hits.stream().map(m -> (Map<String, Object>) m.get("document"))
+              .collect(Collectors.toList());
+        }
+
+      } else if (!is404(response)) {
+        throw new IOException(response.body());
+      }
+    }
+
+    return list;
+  }
+
   private HttpHeaders getHeader() {
     HttpHeaders headers = new HttpHeaders().add("X-TYPESENSE-API-KEY", this.apiKey);
 
@@ -221,19 +290,140 @@ public class TypeSenseServiceImpl implements TypeSenseService {
 
   @SuppressWarnings("unchecked")
   @Override
-  public List<String> searchFulltext(final String siteId, final String text, final int maxResults)
+  public String getSiteCollectionName(final String siteId) throws IOException {
+
+    String site = getCollectionName(siteId);
+    HttpHeaders headers = getHeader();
+
+    String url = String.format("%s/aliases/%s", this.host, encode(site));
+    HttpResponse<String> response = this.service.get(url, Optional.of(headers), Optional.empty());
+
+    String collectionName = null;
+
+    if (is2XX(response)) {
+
+      collectionName = (String) this.json.fromJsonToMap(response.body()).get("collection_name");
+
+    } else if (is404(response)) {
+
+      url = String.format("%s/collections/%s", this.host, encode(site));
+      response = this.service.get(url, Optional.of(headers), Optional.empty());
+
+      if (is2XX(response)) {
+        collectionName = site;
+      } else if (!is404(response)) {
+        throw new IOException(response.body());
+      }
+
+    } else {
+      throw new IOException(response.body());
+    }
+
+    return collectionName;
+  }
+
+  /**
+   * Find the documents that failed to import. The import response has one JSON result line per
+   * document, in the same order as the request.
+   * 
+   * @param response {@link HttpResponse}
+   * @return {@link List} of failed document indexes
+   */
+  private List<Integer> getFailedImports(final HttpResponse<String> response) {
+
+    List<Integer> failed = new ArrayList<>();
+
+    if (is2XX(response)) {
+
+      String[] lines = response.body().strip().split("\n");
+
+      for (int i = 0; i < lines.length; i++) {
+        Map<String, Object> result = this.json.fromJsonToMap(lines[i]);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+          failed.add(Integer.valueOf(i));
+        }
+      }
+    }
+
+    return failed;
+  }
+
+  @Override
+  public HttpResponse<String> importDocumentsByName(final String collectionName,
+      final Collection<Map<String, Object>> documents) throws IOException {
+
+    List<Map<String, Object>> pending = new ArrayList<>(documents);
+    HttpResponse<String> response = postImport(collectionName, pending);
+    List<Integer> failed = getFailedImports(response);
+
+    for (int i = 1; i < MAX_IMPORT_ATTEMPTS && !failed.isEmpty(); i++) {
+      List<Map<String, Object>> retry = new ArrayList<>();
+      for (Integer index : failed) {
+        retry.add(pending.get(index.intValue()));
+      }
+
+      pending = retry;
+      response = postImport(collectionName, pending);
+      failed = getFailedImports(response);
+    }
+
+    if (!failed.isEmpty()) {
+      throw new IOException(String.format("%d documents failed to import into %s: %s",
+          Integer.valueOf(failed.size()), collectionName, response.body()));
+    }
+
+    return response;
+  }
+
+  private HttpResponse<String> postImport(final String collectionName,
+      final Collection<Map<String, Object>> documents) throws IOException {
+
+    StringBuilder sb = new StringBuilder();
+
+    for (Map<String, Object> data : documents) {
+
+      Map<String, Object> payload = new HashMap<>(data);
+      if (!payload.containsKey("id")) {
+        payload.put("id", payload.get("documentId"));
+      }
+      payload.remove("documentId");
+
+      sb.append(this.json.toJson(payload)).append('\n');
+    }
+
+    String url =
+        String.format("%s/collections/%s/documents/import", this.host, encode(collectionName));
+
+    HttpHeaders headers = getHeader().add("Content-Type", "text/plain");
+
+    return this.service.post(url, Optional.of(headers), Optional.of(Map.of("action", "emplace")),
+        sb.toString());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public TypeSenseSearchResponse search(final String siteId, final TypeSenseSearchRequest request)
       throws IOException {
 
     String site = getCollectionName(siteId);
 
-    String url = String.format("%s/collections/%s/documents/search?q=%s&query_by=%s&per_page=%s",
-        this.host, encode(site), encode(text), encode("content,path,metadata#*"), "" + maxResults);
+    StringBuilder url = new StringBuilder(String.format(
+        "%s/collections/%s/documents/search?q=%s&query_by=%s&per_page=%s", this.host,
+        encode(site), encode(request.text()), encode(request.queryBy()),
+        "" + request.maxResults()));
+
+    appendParameter(url, "filter_by", request.filterBy());
+    appendParameter(url, "sort_by", request.sortBy());
+    appendParameter(url, "facet_by", request.facetBy());
+    appendParameter(url, "include_fields", request.includeFields());
+    appendParameter(url, "exclude_fields", request.excludeFields());
 
     HttpHeaders headers = getHeader();
 
-    HttpResponse<String> response = this.service.get(url, Optional.of(headers), Optional.empty());
+    HttpResponse<String> response =
+        this.service.get(url.toString(), Optional.of(headers), Optional.empty());
 
-    List<String> list = Collections.emptyList();
+    TypeSenseSearchResponse result = new TypeSenseSearchResponse();
 
     if (is2XX(response)) {
 
@@ -242,31 +432,55 @@ public class TypeSenseServiceImpl implements TypeSenseService {
       if (map.containsKey("hits")) {
         List<Map<String, Object>> hits = (List<Map<String, Object>>) map.get("hits");
 
-        list = hits.stream().map(m -> {
-          Map<String, String> mm = (Map<String, String>) m.get("document");
-          return mm.get("id");
-        }).collect(Collectors.toList());
+        result.documents(hits.stream().map(m -> {
+          Map<String, Object> document = new HashMap<>((Map<String, Object>) m.get("document"));
+          document.put("documentId", document.remove("id"));
+          return document;
+        }).collect(Collectors.toList()));
+      }
+
+      if (map.containsKey("facet_counts")) {
+        result.facets((List<Map<String, Object>>) map.get("facet_counts"));
+      }
+
+      if (map.get("found") instanceof Number) {
+        result.found(((Number) map.get("found")).longValue());
       }
 
     } else if (!is404(response)) {
       throw new IOException(response.body());
     }
 
-    return list;
+    return result;
+  }
+
+  @Override
+  public List<String> searchFulltext(final String siteId, final String text, final int maxResults)
+      throws IOException {
+
+    TypeSenseSearchRequest request =
+        new TypeSenseSearchRequest().text(text).maxResults(maxResults).includeFields("id");
+
+    return search(siteId, request).documents().stream().map(d -> (String) d.get("documentId"))
+        .collect(Collectors.toList());
   }
 
   @Override
   public HttpResponse<String> updateDocument(final String siteId, final String documentId,
       final Map<String, Object> data) throws IOException {
+    return updateDocumentByName(getCollectionName(siteId), documentId, data);
+  }
+
+  @Override
+  public HttpResponse<String> updateDocumentByName(final String collectionName,
+      final String documentId, final Map<String, Object> data) throws IOException {
 
     Map<String, Object> payload = new HashMap<>(data);
     payload.put("id", documentId);
     payload.remove("documentId");
 
-    String site = getCollectionName(siteId);
-
-    String url =
-        String.format("%s/collections/%s/documents/%s", this.host, encode(site), documentId);
+    String url = String.format("%s/collections/%s/documents/%s", this.host,
+        encode(collectionName), documentId);
 
     HttpHeaders headers = getHeader();
 
@@ -275,4 +489,77 @@ public class TypeSenseServiceImpl implements TypeSenseService {
 
     return response;
   }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public boolean updateTagsFieldType(final String siteId) throws IOException {
+
+    boolean updated = false;
+    String collectionName = getSiteCollectionName(siteId);
+
+    if (collectionName != null) {
+
+      HttpHeaders headers = getHeader();
+      String url = String.format("%s/collections/%s", this.host, encode(collectionName));
+      HttpResponse<String> response =
+          this.service.get(url, Optional.of(headers), Optional.empty());
+
+      if (!is2XX(response)) {
+        throw new IOException(response.body());
+      }
+
+      List<Map<String, Object>> fields =
+          (List<Map<String, Object>>) this.json.fromJsonToMap(response.body()).get("fields");
+
+      if (fields.stream()
+          .anyMatch(f -> TAGS_FIELD.equals(f.get("name")) && "string".equals(f.get("type")))) {
+
+        String payload = this.json.toJson(Map.of("fields",
+            List.of(Map.of("name", TAGS_FIELD, "drop", Boolean.TRUE),
+                Map.of("name", TAGS_FIELD, "type", "string[]", "optional", Boolean.TRUE))));
+
+        response = this.service.patch(url, Optional.of(headers), Optional.empty(), payload);
+        if (!is2XX(response)) {
+          throw new IOException(response.body());
+        }
+
+        updated = true;
+      }
+    }
+
+    return updated;
+  }
+
+  @Override
+  public HttpResponse<String> updateSiteAlias(final String siteId, final String collectionName)
+      throws IOException {
+
+    String site = getCollectionName(siteId);
+    HttpHeaders headers = getHeader();
+
+    String url = String.format("%s/aliases/%s", this.host, encode(site));
+    String payload = this.json.toJson(Map.of("collection_name", collectionName));
+    HttpResponse<String> response =
+        this.service.put(url, Optional.of(headers), Optional.empty(), payload);
+
+    if (is2XX(response)) {
+
+      // a collection named after the site takes precedence over the alias, it is only deleted
+      // once the alias exists so the site name always resolves to a collection
+      url = String.format("%s/collections/%s", this.host, encode(site));
+      HttpResponse<String> collection =
+          this.service.get(url, Optional.of(headers), Optional.empty());
+
+      if (is2XX(collection)
+          && site.equals(this.json.fromJsonToMap(collection.body()).get("name"))) {
+
+        HttpResponse<String> deleted = deleteCollectionByName(site);
+        if (!is2XX(deleted) && !is404(deleted)) {
+          throw new IOException(deleted.body());
+        }
+      }
+    }
+
+    return response;
+  }
 }